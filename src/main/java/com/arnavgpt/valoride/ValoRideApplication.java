@@ -1,12 +1,15 @@
 package com.arnavgpt.valoride;
 
+import com.arnavgpt.valoride.common.repository.NaturalIdRepositoryImpl;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
 import org.springframework.boot.autoconfigure.kafka.KafkaAutoConfiguration;
 import org.springframework.data.jpa.repository.config.EnableJpaAuditing;
+import org.springframework.data.jpa.repository.config.EnableJpaRepositories;
 
 @SpringBootApplication(exclude = {KafkaAutoConfiguration.class})
 @EnableJpaAuditing
+@EnableJpaRepositories(repositoryBaseClass = NaturalIdRepositoryImpl.class)
 public class ValoRideApplication {
 
     public static void main(String[] args) {
@@ -1,6 +1,7 @@
 package com.arnavgpt.valoride.admin.controller;
 
 import com.arnavgpt.valoride.admin.service.AdminService;
+import com.arnavgpt.valoride.admin.service.LiveMetricsBroadcaster;
 import com.arnavgpt.valoride.common.dto.ApiResponse;
 import com.arnavgpt.valoride.driver.dto.AdminDriverActionRequest;
 import com.arnavgpt.valoride.driver.dto.DriverResponse;
@@ -12,6 +13,7 @@ import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
 import org.springframework.data.web.PageableDefault;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.GetMapping;
@@ -21,6 +23,7 @@ import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
 import java.util.UUID;
 
@@ -31,9 +34,11 @@ import java.util.UUID;
 public class AdminController {
 
     private final AdminService adminService;
+    private final LiveMetricsBroadcaster liveMetricsBroadcaster;
 
-    public AdminController(AdminService adminService) {
+    public AdminController(AdminService adminService, LiveMetricsBroadcaster liveMetricsBroadcaster) {
         this.adminService = adminService;
+        this.liveMetricsBroadcaster = liveMetricsBroadcaster;
     }
 
     @GetMapping("/users")
@@ -95,6 +100,14 @@ public class AdminController {
         return ResponseEntity.ok(ApiResponse.success(stats));
     }
 
+    @GetMapping(value = "/metrics/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    @Operation(summary = "Stream live metrics",
+            description = "Server-sent events: a full snapshot on connect, then deltas of active rides, " +
+                    "available drivers per vehicle type, today's revenue and requests per minute")
+    public SseEmitter streamLiveMetrics() {
+        return liveMetricsBroadcaster.subscribe();
+    }
+
     public static class DriverStats {
         private final long pendingApproval;
         private final long availableOnline;
@@ -1,10 +1,12 @@
 package com.arnavgpt.valoride.admin.service;
 
+import com.arnavgpt.valoride.common.cache.EntityCacheEvictionEvent;
 import com.arnavgpt.valoride.driver.dto.AdminDriverActionRequest;
 import com.arnavgpt.valoride.driver.dto.DriverResponse;
 import com.arnavgpt.valoride.driver.entity.ApprovalStatus;
 import com.arnavgpt.valoride.driver.entity.Driver;
 import com.arnavgpt.valoride.driver.repository.DriverRepository;
+import com.arnavgpt.valoride.driver.service.DriverService;
 import com.arnavgpt.valoride.exception.BusinessException;
 import com.arnavgpt.valoride.exception.ResourceNotFoundException;
 import com.arnavgpt.valoride.notification.service.NotificationService;
@@ -13,6 +15,7 @@ import com.arnavgpt.valoride.user.entity.Role;
 import com.arnavgpt.valoride.user.repository.UserRepository;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.http.HttpStatus;
@@ -27,14 +30,19 @@ public class AdminService {
     private static final Logger logger = LoggerFactory.getLogger(AdminService.class);
 
     private final DriverRepository driverRepository;
+    private final DriverService driverService;
     private final UserRepository userRepository;
     private final NotificationService notificationService;
+    private final ApplicationEventPublisher eventPublisher;
 
-    public AdminService(DriverRepository driverRepository, UserRepository userRepository,
-                        NotificationService notificationService) {
+    public AdminService(DriverRepository driverRepository, DriverService driverService,
+                        UserRepository userRepository, NotificationService notificationService,
+                        ApplicationEventPublisher eventPublisher) {
         this.driverRepository = driverRepository;
+        this.driverService = driverService;
         this.userRepository = userRepository;
         this.notificationService = notificationService;
+        this.eventPublisher = eventPublisher;
     }
 
     public Page<DriverResponse> getPendingDrivers(Pageable pageable) {
@@ -69,6 +77,7 @@ public class AdminService {
 
         Driver savedDriver = driverRepository.save(driver);
         logger.info("Driver approved: {}", driverId);
+        eventPublisher.publishEvent(EntityCacheEvictionEvent.of(savedDriver));
 
         // Send approval notification
         notificationService.sendDriverApprovedNotification(savedDriver);
@@ -94,10 +103,10 @@ public class AdminService {
 
         driver.setApprovalStatus(ApprovalStatus.REJECTED);
         driver.setRejectionReason(request.getReason());
-        driver.setAvailable(false);
-
         Driver savedDriver = driverRepository.save(driver);
+        driverService.setAvailable(savedDriver, false);
         logger.info("Driver rejected: {} - Reason: {}", driverId, request.getReason());
+        eventPublisher.publishEvent(EntityCacheEvictionEvent.of(savedDriver));
 
         // Send rejection notification
         notificationService.sendDriverRejectedNotification(savedDriver);
@@ -0,0 +1,185 @@
+package com.arnavgpt.valoride.admin.service;
+
+import com.arnavgpt.valoride.analytics.dto.LiveMetricsSnapshot;
+import com.arnavgpt.valoride.analytics.service.LiveMetricsService;
+import com.arnavgpt.valoride.exception.BusinessException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Fans live metric deltas out to admin SSE subscribers. One scheduled tick diffs the
+ * in-memory counters; each subscriber drains its own bounded queue on the stream executor,
+ * so a slow client never holds up the others. A subscriber that overflows its queue has
+ * the backlog dropped and receives a fresh snapshot instead.
+ */
+@Service
+public class LiveMetricsBroadcaster {
+
+    private static final Logger logger = LoggerFactory.getLogger(LiveMetricsBroadcaster.class);
+
+    private static final String SNAPSHOT_EVENT = "snapshot";
+    private static final String DELTA_EVENT = "delta";
+
+    private final LiveMetricsService liveMetricsService;
+    private final Executor streamExecutor;
+    private final int bufferSize;
+    private final int maxSubscribers;
+    private final long timeoutMillis;
+    private final int heartbeatTicks;
+
+    private final CopyOnWriteArrayList<Subscriber> subscribers = new CopyOnWriteArrayList<>();
+
+    private LiveMetricsSnapshot lastBroadcast;
+    private int idleTicks;
+
+    public LiveMetricsBroadcaster(LiveMetricsService liveMetricsService,
+                                  @Qualifier("metricsStreamExecutor") Executor streamExecutor,
+                                  @Value("${admin.metrics.stream.buffer-size:32}") int bufferSize,
+                                  @Value("${admin.metrics.stream.max-subscribers:100}") int maxSubscribers,
+                                  @Value("${admin.metrics.stream.timeout:30m}") Duration timeout,
+                                  @Value("${admin.metrics.stream.heartbeat-ticks:15}") int heartbeatTicks) {
+        this.liveMetricsService = liveMetricsService;
+        this.streamExecutor = streamExecutor;
+        this.bufferSize = bufferSize;
+        this.maxSubscribers = maxSubscribers;
+        this.timeoutMillis = timeout.toMillis();
+        this.heartbeatTicks = heartbeatTicks;
+    }
+
+    /**
+     * Register a new admin stream; the first event is always a full snapshot
+     */
+    public SseEmitter subscribe() {
+        if (subscribers.size() >= maxSubscribers) {
+            throw new BusinessException("Too many live metrics subscribers", HttpStatus.SERVICE_UNAVAILABLE);
+        }
+
+        SseEmitter emitter = new SseEmitter(timeoutMillis);
+        Subscriber subscriber = new Subscriber(emitter, bufferSize);
+
+        emitter.onCompletion(() -> subscribers.remove(subscriber));
+        emitter.onTimeout(() -> subscribers.remove(subscriber));
+        emitter.onError(e -> subscribers.remove(subscriber));
+
+        subscribers.add(subscriber);
+        schedule(subscriber);
+
+        logger.info("Live metrics subscriber added, {} connected", subscribers.size());
+        return emitter;
+    }
+
+    @Scheduled(fixedRateString = "${admin.metrics.stream.interval-ms:1000}")
+    public void tick() {
+        LiveMetricsSnapshot current = liveMetricsService.snapshot();
+        Map<String, Object> delta = current.diff(lastBroadcast);
+        lastBroadcast = current;
+
+        if (subscribers.isEmpty()) {
+            return;
+        }
+
+        Message message;
+        if (!delta.isEmpty()) {
+            idleTicks = 0;
+            message = new Message(DELTA_EVENT, delta);
+        } else if (++idleTicks >= heartbeatTicks) {
+            // Keep idle connections from being reaped by proxies
+            idleTicks = 0;
+            message = Message.HEARTBEAT;
+        } else {
+            return;
+        }
+
+        for (Subscriber subscriber : subscribers) {
+            subscriber.offer(message);
+            schedule(subscriber);
+        }
+    }
+
+    private void schedule(Subscriber subscriber) {
+        if (subscriber.draining.compareAndSet(false, true)) {
+            try {
+                streamExecutor.execute(() -> drain(subscriber));
+            } catch (RejectedExecutionException e) {
+                subscriber.draining.set(false);
+                subscriber.resync = true;
+            }
+        }
+    }
+
+    private void drain(Subscriber subscriber) {
+        try {
+            if (subscriber.resync) {
+                subscriber.resync = false;
+                subscriber.queue.clear();
+                subscriber.emitter.send(new Message(SNAPSHOT_EVENT, liveMetricsService.snapshot()).toEvent());
+            }
+
+            Message message;
+            while ((message = subscriber.queue.poll()) != null) {
+                subscriber.emitter.send(message.toEvent());
+            }
+        } catch (IOException | IllegalStateException e) {
+            logger.debug("Dropping live metrics subscriber: {}", e.getMessage());
+            subscribers.remove(subscriber);
+            subscriber.emitter.completeWithError(e);
+            return;
+        } finally {
+            subscriber.draining.set(false);
+        }
+
+        // Pick up anything offered while the previous drain was finishing
+        if (subscriber.resync || !subscriber.queue.isEmpty()) {
+            schedule(subscriber);
+        }
+    }
+
+    /**
+     * Payload shared by all subscribers; event builders are single-use, so each send builds its own
+     */
+    private record Message(String name, Object data) {
+
+        static final Message HEARTBEAT = new Message(null, null);
+
+        SseEmitter.SseEventBuilder toEvent() {
+            return name == null ? SseEmitter.event().comment("heartbeat") : SseEmitter.event().name(name).data(data);
+        }
+    }
+
+    private static class Subscriber {
+
+        private final SseEmitter emitter;
+        private final BlockingQueue<Message> queue;
+        private final AtomicBoolean draining = new AtomicBoolean();
+        private volatile boolean resync = true;
+
+        Subscriber(SseEmitter emitter, int bufferSize) {
+            this.emitter = emitter;
+            this.queue = new ArrayBlockingQueue<>(bufferSize);
+        }
+
+        void offer(Message message) {
+            if (!queue.offer(message)) {
+                // Deltas are only meaningful in order; replace the backlog with a snapshot
+                queue.clear();
+                resync = true;
+            }
+        }
+    }
+}
@@ -1,21 +1,36 @@
 package com.arnavgpt.valoride.analytics.controller;
 
+import com.arnavgpt.valoride.analytics.dto.CubeDimension;
 import com.arnavgpt.valoride.analytics.dto.DashboardStatsResponse;
 import com.arnavgpt.valoride.analytics.dto.DriverPerformanceResponse;
+import com.arnavgpt.valoride.analytics.dto.ExportFormat;
 import com.arnavgpt.valoride.analytics.dto.RevenueReportResponse;
+import com.arnavgpt.valoride.analytics.dto.RideCubeRow;
+import com.arnavgpt.valoride.analytics.entity.BucketGranularity;
 import com.arnavgpt.valoride.analytics.service.AnalyticsService;
+import com.arnavgpt.valoride.analytics.service.RevenueExportService;
+import com.arnavgpt.valoride.analytics.service.RideCubeService;
 import com.arnavgpt.valoride.common.dto.ApiResponse;
+import com.arnavgpt.valoride.driver.entity.VehicleType;
+import com.arnavgpt.valoride.exception.BusinessException;
+import com.arnavgpt.valoride.ride.entity.RideStatus;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.time.LocalDate;
+import java.util.List;
+import java.util.Set;
 
 @RestController
 @RequestMapping("/v1/analytics")
@@ -24,9 +39,14 @@ import java.time.LocalDate;
 public class AnalyticsController {
 
     private final AnalyticsService analyticsService;
+    private final RevenueExportService revenueExportService;
+    private final RideCubeService rideCubeService;
 
-    public AnalyticsController(AnalyticsService analyticsService) {
+    public AnalyticsController(AnalyticsService analyticsService, RevenueExportService revenueExportService,
+                               RideCubeService rideCubeService) {
         this.analyticsService = analyticsService;
+        this.revenueExportService = revenueExportService;
+        this.rideCubeService = rideCubeService;
     }
 
     @GetMapping("/dashboard")
@@ -46,6 +66,51 @@ public class AnalyticsController {
         return ResponseEntity.ok(ApiResponse.success(report));
     }
 
+    @GetMapping("/revenue/export")
+    @Operation(summary = "Export revenue report", description = "Stream completed rides in date range as CSV or NDJSON")
+    public ResponseEntity<StreamingResponseBody> exportRevenueReport(
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate startDate,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate endDate,
+            @RequestParam(defaultValue = "CSV") ExportFormat format) {
+
+        if (endDate.isBefore(startDate)) {
+            throw new BusinessException("End date must not be before start date", HttpStatus.BAD_REQUEST);
+        }
+
+        String fileName = String.format("revenue-%s-%s.%s", startDate, endDate, format.getFileExtension());
+        StreamingResponseBody body = outputStream ->
+                revenueExportService.exportCompletedRides(startDate, endDate, format, outputStream);
+
+        return ResponseEntity.ok()
+                .contentType(format.getMediaType())
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"" + fileName + "\"")
+                .body(body);
+    }
+
+    @GetMapping("/cube")
+    @Operation(summary = "Query ride cube",
+            description = "Ride counts and revenue from pre-aggregated buckets, sliced by time and optional dimensions")
+    public ResponseEntity<ApiResponse<List<RideCubeRow>>> queryRideCube(
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate startDate,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate endDate,
+            @RequestParam(defaultValue = "DAY") BucketGranularity granularity,
+            @RequestParam(required = false) Set<CubeDimension> groupBy,
+            @RequestParam(required = false) VehicleType vehicleType,
+            @RequestParam(required = false) RideStatus status,
+            @RequestParam(required = false) Long cellId) {
+
+        List<RideCubeRow> rows = rideCubeService.query(
+                startDate, endDate, granularity, groupBy, vehicleType, status, cellId);
+        return ResponseEntity.ok(ApiResponse.success(rows));
+    }
+
+    @PostMapping("/cube/rebuild")
+    @Operation(summary = "Rebuild ride cube", description = "Recompute all cube buckets from hot and archived rides")
+    public ResponseEntity<ApiResponse<Integer>> rebuildRideCube() {
+        int buckets = rideCubeService.rebuild();
+        return ResponseEntity.ok(ApiResponse.success("Ride cube rebuilt", buckets));
+    }
+
     @GetMapping("/drivers/performance")
     @Operation(summary = "Get driver performance", description = "Get top performing drivers")
     public ResponseEntity<ApiResponse<DriverPerformanceResponse>> getDriverPerformance(
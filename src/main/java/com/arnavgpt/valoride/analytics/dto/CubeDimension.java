@@ -0,0 +1,20 @@
+package com.arnavgpt.valoride.analytics.dto;
+
+/**
+ * Dimensions a ride cube query can be grouped by, besides time
+ */
+public enum CubeDimension {
+    VEHICLE_TYPE("vehicle_type"),
+    STATUS("status"),
+    CELL("cell_id");
+
+    private final String column;
+
+    CubeDimension(String column) {
+        this.column = column;
+    }
+
+    public String getColumn() {
+        return column;
+    }
+}
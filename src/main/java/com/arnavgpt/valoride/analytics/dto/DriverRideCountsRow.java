@@ -0,0 +1,15 @@
+package com.arnavgpt.valoride.analytics.dto;
+
+import java.util.UUID;
+
+/**
+ * Completed and cancelled ride counts for one driver, from a single grouped query
+ */
+public interface DriverRideCountsRow {
+
+    UUID getDriverId();
+
+    Long getCompletedRides();
+
+    Long getCancelledRides();
+}
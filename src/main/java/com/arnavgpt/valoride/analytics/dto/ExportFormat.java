@@ -0,0 +1,24 @@
+package com.arnavgpt.valoride.analytics.dto;
+
+import org.springframework.http.MediaType;
+
+public enum ExportFormat {
+    CSV("text/csv", "csv"),
+    NDJSON("application/x-ndjson", "ndjson");
+
+    private final MediaType mediaType;
+    private final String fileExtension;
+
+    ExportFormat(String mediaType, String fileExtension) {
+        this.mediaType = MediaType.parseMediaType(mediaType);
+        this.fileExtension = fileExtension;
+    }
+
+    public MediaType getMediaType() {
+        return mediaType;
+    }
+
+    public String getFileExtension() {
+        return fileExtension;
+    }
+}
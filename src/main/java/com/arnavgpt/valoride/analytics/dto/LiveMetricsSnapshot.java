@@ -0,0 +1,85 @@
+package com.arnavgpt.valoride.analytics.dto;
+
+import com.arnavgpt.valoride.driver.entity.VehicleType;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Point-in-time copy of the in-memory live counters pushed to admin dashboards
+ */
+public class LiveMetricsSnapshot {
+
+    private final long activeRides;
+    private final Map<VehicleType, Long> availableDrivers;
+    private final BigDecimal todayRevenue;
+    private final long requestsPerMinute;
+    private final LocalDateTime timestamp;
+
+    public LiveMetricsSnapshot(long activeRides, Map<VehicleType, Long> availableDrivers,
+                               BigDecimal todayRevenue, long requestsPerMinute, LocalDateTime timestamp) {
+        this.activeRides = activeRides;
+        this.availableDrivers = Collections.unmodifiableMap(new EnumMap<>(availableDrivers));
+        this.todayRevenue = todayRevenue;
+        this.requestsPerMinute = requestsPerMinute;
+        this.timestamp = timestamp;
+    }
+
+    /**
+     * Fields that differ from the previous snapshot; empty when nothing changed.
+     * Available drivers only lists the vehicle types whose count moved.
+     */
+    public Map<String, Object> diff(LiveMetricsSnapshot previous) {
+        Map<String, Object> delta = new LinkedHashMap<>();
+
+        if (previous == null || previous.activeRides != activeRides) {
+            delta.put("activeRides", activeRides);
+        }
+
+        Map<VehicleType, Long> driverDelta = new EnumMap<>(VehicleType.class);
+        for (Map.Entry<VehicleType, Long> entry : availableDrivers.entrySet()) {
+            if (previous == null || !entry.getValue().equals(previous.availableDrivers.get(entry.getKey()))) {
+                driverDelta.put(entry.getKey(), entry.getValue());
+            }
+        }
+        if (!driverDelta.isEmpty()) {
+            delta.put("availableDrivers", driverDelta);
+        }
+
+        if (previous == null || todayRevenue.compareTo(previous.todayRevenue) != 0) {
+            delta.put("todayRevenue", todayRevenue);
+        }
+        if (previous == null || previous.requestsPerMinute != requestsPerMinute) {
+            delta.put("requestsPerMinute", requestsPerMinute);
+        }
+
+        if (!delta.isEmpty()) {
+            delta.put("timestamp", timestamp);
+        }
+        return delta;
+    }
+
+    public long getActiveRides() {
+        return activeRides;
+    }
+
+    public Map<VehicleType, Long> getAvailableDrivers() {
+        return availableDrivers;
+    }
+
+    public BigDecimal getTodayRevenue() {
+        return todayRevenue;
+    }
+
+    public long getRequestsPerMinute() {
+        return requestsPerMinute;
+    }
+
+    public LocalDateTime getTimestamp() {
+        return timestamp;
+    }
+}
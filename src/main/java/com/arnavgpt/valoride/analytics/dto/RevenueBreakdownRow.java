@@ -0,0 +1,27 @@
+package com.arnavgpt.valoride.analytics.dto;
+
+import com.arnavgpt.valoride.driver.entity.VehicleType;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+/**
+ * One row of the single-pass revenue report. The grouping level tells which
+ * grouping set produced the row: the grand total, a day, or a vehicle type.
+ */
+public interface RevenueBreakdownRow {
+
+    int GRAND_TOTAL = 3;
+    int DAILY = 1;
+    int VEHICLE_TYPE = 2;
+
+    Integer getGroupingLevel();
+
+    LocalDate getDay();
+
+    VehicleType getVehicleType();
+
+    BigDecimal getRevenue();
+
+    Long getRides();
+}
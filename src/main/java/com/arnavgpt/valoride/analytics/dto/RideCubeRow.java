@@ -0,0 +1,91 @@
+package com.arnavgpt.valoride.analytics.dto;
+
+import com.arnavgpt.valoride.driver.entity.VehicleType;
+import com.arnavgpt.valoride.ride.entity.RideStatus;
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * One slice of the ride cube. Dimensions that were not grouped by are null.
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class RideCubeRow {
+
+    private LocalDateTime bucketStart;
+    private VehicleType vehicleType;
+    private RideStatus status;
+    private Long cellId;
+    private Double cellLatitude;
+    private Double cellLongitude;
+    private long rides;
+    private BigDecimal revenue;
+
+    public RideCubeRow() {
+    }
+
+    public LocalDateTime getBucketStart() {
+        return bucketStart;
+    }
+
+    public void setBucketStart(LocalDateTime bucketStart) {
+        this.bucketStart = bucketStart;
+    }
+
+    public VehicleType getVehicleType() {
+        return vehicleType;
+    }
+
+    public void setVehicleType(VehicleType vehicleType) {
+        this.vehicleType = vehicleType;
+    }
+
+    public RideStatus getStatus() {
+        return status;
+    }
+
+    public void setStatus(RideStatus status) {
+        this.status = status;
+    }
+
+    public Long getCellId() {
+        return cellId;
+    }
+
+    public void setCellId(Long cellId) {
+        this.cellId = cellId;
+    }
+
+    public Double getCellLatitude() {
+        return cellLatitude;
+    }
+
+    public void setCellLatitude(Double cellLatitude) {
+        this.cellLatitude = cellLatitude;
+    }
+
+    public Double getCellLongitude() {
+        return cellLongitude;
+    }
+
+    public void setCellLongitude(Double cellLongitude) {
+        this.cellLongitude = cellLongitude;
+    }
+
+    public long getRides() {
+        return rides;
+    }
+
+    public void setRides(long rides) {
+        this.rides = rides;
+    }
+
+    public BigDecimal getRevenue() {
+        return revenue;
+    }
+
+    public void setRevenue(BigDecimal revenue) {
+        this.revenue = revenue;
+    }
+}
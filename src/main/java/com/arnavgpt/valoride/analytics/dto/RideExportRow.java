@@ -0,0 +1,73 @@
+package com.arnavgpt.valoride.analytics.dto;
+
+import com.arnavgpt.valoride.driver.entity.VehicleType;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * One completed ride as written by the revenue export
+ */
+public class RideExportRow {
+
+    public static final String CSV_HEADER = "ride_id,rider_id,driver_id,vehicle_type,completed_at,distance_km,final_fare";
+
+    private final UUID rideId;
+    private final UUID riderId;
+    private final UUID driverId;
+    private final VehicleType vehicleType;
+    private final LocalDateTime completedAt;
+    private final BigDecimal distanceKm;
+    private final BigDecimal finalFare;
+
+    public RideExportRow(UUID rideId, UUID riderId, UUID driverId, VehicleType vehicleType,
+                         LocalDateTime completedAt, BigDecimal distanceKm, BigDecimal finalFare) {
+        this.rideId = rideId;
+        this.riderId = riderId;
+        this.driverId = driverId;
+        this.vehicleType = vehicleType;
+        this.completedAt = completedAt;
+        this.distanceKm = distanceKm;
+        this.finalFare = finalFare;
+    }
+
+    public String toCsvLine() {
+        return String.join(",",
+                String.valueOf(rideId),
+                String.valueOf(riderId),
+                driverId != null ? driverId.toString() : "",
+                vehicleType != null ? vehicleType.name() : "",
+                completedAt != null ? completedAt.toString() : "",
+                distanceKm != null ? distanceKm.toPlainString() : "",
+                finalFare != null ? finalFare.toPlainString() : "");
+    }
+
+    public UUID getRideId() {
+        return rideId;
+    }
+
+    public UUID getRiderId() {
+        return riderId;
+    }
+
+    public UUID getDriverId() {
+        return driverId;
+    }
+
+    public VehicleType getVehicleType() {
+        return vehicleType;
+    }
+
+    public LocalDateTime getCompletedAt() {
+        return completedAt;
+    }
+
+    public BigDecimal getDistanceKm() {
+        return distanceKm;
+    }
+
+    public BigDecimal getFinalFare() {
+        return finalFare;
+    }
+}
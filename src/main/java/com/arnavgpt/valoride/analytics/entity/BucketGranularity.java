@@ -0,0 +1,6 @@
+package com.arnavgpt.valoride.analytics.entity;
+
+public enum BucketGranularity {
+    HOUR,   // Recent rides, kept until compaction
+    DAY     // Compacted history
+}
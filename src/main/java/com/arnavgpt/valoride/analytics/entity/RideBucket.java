@@ -0,0 +1,43 @@
+package com.arnavgpt.valoride.analytics.entity;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.EmbeddedId;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Table;
+
+import java.math.BigDecimal;
+
+/**
+ * Pre-aggregated ride counts and revenue per time bucket, vehicle type, status and
+ * pickup cell. Rows are narrow on purpose: the composite key is the primary key, so
+ * range scans on (granularity, bucket_start) read the index and a handful of pages.
+ * Written only through the native upserts in RideBucketRepository.
+ */
+@Entity
+@Table(name = "analytics_ride_buckets")
+public class RideBucket {
+
+    @EmbeddedId
+    private RideBucketKey key;
+
+    @Column(name = "ride_count", nullable = false)
+    private long rideCount;
+
+    @Column(nullable = false, precision = 14, scale = 2)
+    private BigDecimal revenue;
+
+    protected RideBucket() {
+    }
+
+    public RideBucketKey getKey() {
+        return key;
+    }
+
+    public long getRideCount() {
+        return rideCount;
+    }
+
+    public BigDecimal getRevenue() {
+        return revenue;
+    }
+}
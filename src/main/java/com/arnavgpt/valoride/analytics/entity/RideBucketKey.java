@@ -0,0 +1,73 @@
+package com.arnavgpt.valoride.analytics.entity;
+
+import com.arnavgpt.valoride.driver.entity.VehicleType;
+import com.arnavgpt.valoride.ride.entity.RideStatus;
+import jakarta.persistence.Column;
+import jakarta.persistence.Embeddable;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+
+import java.io.Serializable;
+import java.time.LocalDateTime;
+import java.util.Objects;
+
+@Embeddable
+public class RideBucketKey implements Serializable {
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 4)
+    private BucketGranularity granularity;
+
+    @Column(name = "bucket_start", nullable = false)
+    private LocalDateTime bucketStart;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "vehicle_type", nullable = false, length = 10)
+    private VehicleType vehicleType;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 10)
+    private RideStatus status;
+
+    @Column(name = "cell_id", nullable = false)
+    private long cellId;
+
+    public RideBucketKey() {
+    }
+
+    public BucketGranularity getGranularity() {
+        return granularity;
+    }
+
+    public LocalDateTime getBucketStart() {
+        return bucketStart;
+    }
+
+    public VehicleType getVehicleType() {
+        return vehicleType;
+    }
+
+    public RideStatus getStatus() {
+        return status;
+    }
+
+    public long getCellId() {
+        return cellId;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (!(o instanceof RideBucketKey that)) return false;
+        return cellId == that.cellId
+                && granularity == that.granularity
+                && Objects.equals(bucketStart, that.bucketStart)
+                && vehicleType == that.vehicleType
+                && status == that.status;
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(granularity, bucketStart, vehicleType, status, cellId);
+    }
+}
@@ -1,7 +1,8 @@
 package com.arnavgpt.valoride.analytics.repository;
 
+import com.arnavgpt.valoride.analytics.dto.DriverRideCountsRow;
+import com.arnavgpt.valoride.analytics.dto.RevenueBreakdownRow;
 import com.arnavgpt.valoride.ride.entity.Ride;
-import com.arnavgpt.valoride.ride.entity.RideStatus;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
@@ -9,21 +10,27 @@ import org.springframework.stereotype.Repository;
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.UUID;
 
 @Repository
 public interface AnalyticsRepository extends JpaRepository<Ride, UUID> {
 
-    // Count rides by status
-    long countByStatus(RideStatus status);
+    // Hot and archived rides are read through the rides_all view; active and today's rides are always hot
+
+    @Query(value = "SELECT COUNT(*) FROM rides_all", nativeQuery = true)
+    long countAllRides();
+
+    @Query(value = "SELECT COUNT(*) FROM rides_all WHERE status = :status", nativeQuery = true)
+    long countAllRidesByStatus(@Param("status") String status);
 
     // Count active rides (not completed or cancelled)
     @Query("SELECT COUNT(r) FROM Ride r WHERE r.status NOT IN ('COMPLETED', 'CANCELLED')")
     long countActiveRides();
 
     // Total revenue (sum of final fare for completed rides)
-    @Query("SELECT COALESCE(SUM(r.finalFare), 0) FROM Ride r WHERE r.status = 'COMPLETED'")
+    @Query(value = "SELECT COALESCE(SUM(final_fare), 0) FROM rides_all WHERE status = 'COMPLETED'", nativeQuery = true)
     BigDecimal getTotalRevenue();
 
     // Today's revenue
@@ -31,47 +38,43 @@ public interface AnalyticsRepository extends JpaRepository<Ride, UUID> {
     BigDecimal getTodayRevenue(@Param("startOfDay") LocalDateTime startOfDay);
 
     // Average fare for completed rides
-    @Query("SELECT COALESCE(AVG(r.finalFare), 0) FROM Ride r WHERE r.status = 'COMPLETED'")
+    @Query(value = "SELECT COALESCE(AVG(final_fare), 0) FROM rides_all WHERE status = 'COMPLETED'", nativeQuery = true)
     BigDecimal getAverageFare();
 
     // Average rating across all rated rides
-    @Query("SELECT COALESCE(AVG(r.rating), 0) FROM Ride r WHERE r.rating IS NOT NULL")
+    @Query(value = "SELECT COALESCE(AVG(rating), 0) FROM rides_all WHERE rating IS NOT NULL", nativeQuery = true)
     BigDecimal getAverageRating();
 
-    // Revenue in date range
-    @Query("SELECT COALESCE(SUM(r.finalFare), 0) FROM Ride r WHERE r.status = 'COMPLETED' " +
-            "AND r.completedAt BETWEEN :startDate AND :endDate")
-    BigDecimal getRevenueInDateRange(@Param("startDate") LocalDateTime startDate,
-                                     @Param("endDate") LocalDateTime endDate);
-
-    // Rides in date range
-    @Query("SELECT r FROM Ride r WHERE r.status = 'COMPLETED' " +
-            "AND r.completedAt BETWEEN :startDate AND :endDate ORDER BY r.completedAt")
-    List<Ride> getCompletedRidesInDateRange(@Param("startDate") LocalDateTime startDate,
-                                            @Param("endDate") LocalDateTime endDate);
-
-    // Count completed rides in date range
-    @Query("SELECT COUNT(r) FROM Ride r WHERE r.status = 'COMPLETED' " +
-            "AND r.completedAt BETWEEN :startDate AND :endDate")
-    long countCompletedRidesInDateRange(@Param("startDate") LocalDateTime startDate,
-                                        @Param("endDate") LocalDateTime endDate);
-
     // Revenue by vehicle type
     @Query("SELECT r.vehicleType, COALESCE(SUM(r.finalFare), 0), COUNT(r) FROM Ride r " +
             "WHERE r.status = 'COMPLETED' GROUP BY r.vehicleType")
     List<Object[]> getRevenueByVehicleType();
 
-    // Revenue by vehicle type in date range
-    @Query("SELECT r.vehicleType, COALESCE(SUM(r.finalFare), 0), COUNT(r) FROM Ride r " +
-            "WHERE r.status = 'COMPLETED' AND r.completedAt BETWEEN :startDate AND :endDate " +
-            "GROUP BY r.vehicleType")
-    List<Object[]> getRevenueByVehicleTypeInDateRange(@Param("startDate") LocalDateTime startDate,
-                                                      @Param("endDate") LocalDateTime endDate);
+    /**
+     * Totals, daily and vehicle-type breakdowns for completed rides in a single scan.
+     * GROUPING() yields 3 for the grand total, 1 for a day row and 2 for a vehicle-type row.
+     */
+    @Query(value = """
+            SELECT CAST(r.completed_at AS date) AS day,
+                   r.vehicle_type AS vehicleType,
+                   GROUPING(CAST(r.completed_at AS date), r.vehicle_type) AS groupingLevel,
+                   COALESCE(SUM(r.final_fare), 0) AS revenue,
+                   COUNT(*) AS rides
+            FROM rides_all r
+            WHERE r.status = 'COMPLETED'
+            AND r.completed_at BETWEEN :startDate AND :endDate
+            GROUP BY GROUPING SETS ((), (CAST(r.completed_at AS date)), (r.vehicle_type))
+            ORDER BY groupingLevel, day, vehicleType
+            """, nativeQuery = true)
+    List<RevenueBreakdownRow> getRevenueBreakdownInDateRange(@Param("startDate") LocalDateTime startDate,
+                                                             @Param("endDate") LocalDateTime endDate);
 
-    // Daily revenue breakdown
-    @Query("SELECT FUNCTION('DATE', r.completedAt), COALESCE(SUM(r.finalFare), 0), COUNT(r) FROM Ride r " +
-            "WHERE r.status = 'COMPLETED' AND r.completedAt BETWEEN :startDate AND :endDate " +
-            "GROUP BY FUNCTION('DATE', r.completedAt) ORDER BY FUNCTION('DATE', r.completedAt)")
-    List<Object[]> getDailyRevenueInDateRange(@Param("startDate") LocalDateTime startDate,
-                                              @Param("endDate") LocalDateTime endDate);
-}
\ No newline at end of file
+    /**
+     * Completed and cancelled ride counts for a set of drivers in one grouped query
+     */
+    @Query(value = "SELECT r.driver_id AS driverId, " +
+            "SUM(CASE WHEN r.status = 'COMPLETED' THEN 1 ELSE 0 END) AS completedRides, " +
+            "SUM(CASE WHEN r.status = 'CANCELLED' THEN 1 ELSE 0 END) AS cancelledRides " +
+            "FROM rides_all r WHERE r.driver_id IN (:driverIds) GROUP BY r.driver_id", nativeQuery = true)
+    List<DriverRideCountsRow> countRideOutcomesByDriverIds(@Param("driverIds") Collection<UUID> driverIds);
+}
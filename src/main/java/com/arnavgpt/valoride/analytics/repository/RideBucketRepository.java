@@ -0,0 +1,110 @@
+package com.arnavgpt.valoride.analytics.repository;
+
+import com.arnavgpt.valoride.analytics.entity.RideBucket;
+import com.arnavgpt.valoride.analytics.entity.RideBucketKey;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+@Repository
+public interface RideBucketRepository extends JpaRepository<RideBucket, RideBucketKey> {
+
+    // Declared on native writes so Hibernate does not flush the whole second-level cache after them
+    String BUCKET_TABLE = "analytics_ride_buckets";
+
+    // cell_id of the buckets that total every cell; the writes below spell it out as -1
+    long ALL_CELLS = -1;
+
+    /**
+     * Add one ride to its hourly bucket and to the all-cells bucket, creating them on first use
+     */
+    @Modifying
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = BUCKET_TABLE))
+    @Query(value = """
+            INSERT INTO analytics_ride_buckets
+                (granularity, bucket_start, vehicle_type, status, cell_id, ride_count, revenue)
+            VALUES ('HOUR', :bucketStart, :vehicleType, :status, :cellId, 1, :revenue),
+                   ('HOUR', :bucketStart, :vehicleType, :status, -1, 1, :revenue)
+            ON CONFLICT (granularity, bucket_start, vehicle_type, status, cell_id)
+            DO UPDATE SET ride_count = analytics_ride_buckets.ride_count + 1,
+                          revenue = analytics_ride_buckets.revenue + EXCLUDED.revenue
+            """, nativeQuery = true)
+    void addToHourlyBucket(@Param("bucketStart") LocalDateTime bucketStart,
+                           @Param("vehicleType") String vehicleType,
+                           @Param("status") String status,
+                           @Param("cellId") long cellId,
+                           @Param("revenue") BigDecimal revenue);
+
+    /**
+     * Serialises compaction and rebuilds across nodes; released when the transaction ends
+     */
+    @Query(value = "SELECT pg_try_advisory_xact_lock(:lockKey)", nativeQuery = true)
+    boolean tryLock(@Param("lockKey") long lockKey);
+
+    /**
+     * Fold hourly buckets before the cutoff into their daily buckets
+     */
+    @Modifying
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = BUCKET_TABLE))
+    @Query(value = """
+            INSERT INTO analytics_ride_buckets
+                (granularity, bucket_start, vehicle_type, status, cell_id, ride_count, revenue)
+            SELECT 'DAY', date_trunc('day', b.bucket_start), b.vehicle_type, b.status, b.cell_id,
+                   SUM(b.ride_count), SUM(b.revenue)
+            FROM analytics_ride_buckets b
+            WHERE b.granularity = 'HOUR' AND b.bucket_start < :cutoff
+            GROUP BY date_trunc('day', b.bucket_start), b.vehicle_type, b.status, b.cell_id
+            ON CONFLICT (granularity, bucket_start, vehicle_type, status, cell_id)
+            DO UPDATE SET ride_count = analytics_ride_buckets.ride_count + EXCLUDED.ride_count,
+                          revenue = analytics_ride_buckets.revenue + EXCLUDED.revenue
+            """, nativeQuery = true)
+    int rollUpHourlyBuckets(@Param("cutoff") LocalDateTime cutoff);
+
+    @Modifying
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = BUCKET_TABLE))
+    @Query(value = "DELETE FROM analytics_ride_buckets WHERE granularity = 'HOUR' AND bucket_start < :cutoff",
+            nativeQuery = true)
+    int deleteHourlyBucketsBefore(@Param("cutoff") LocalDateTime cutoff);
+
+    @Modifying
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = BUCKET_TABLE))
+    @Query(value = "DELETE FROM analytics_ride_buckets", nativeQuery = true)
+    int deleteAllBuckets();
+
+    /**
+     * Re-derive every bucket, per cell and for all cells, from hot and archived rides: daily
+     * before the cutoff, hourly after it. The cell expression mirrors GeoCell.cellId.
+     */
+    @Modifying
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = BUCKET_TABLE))
+    @Query(value = """
+            INSERT INTO analytics_ride_buckets
+                (granularity, bucket_start, vehicle_type, status, cell_id, ride_count, revenue)
+            SELECT CASE WHEN t.finished_at < :cutoff THEN 'DAY' ELSE 'HOUR' END,
+                   CASE WHEN t.finished_at < :cutoff THEN date_trunc('day', t.finished_at)
+                        ELSE date_trunc('hour', t.finished_at) END AS bucket_start,
+                   t.vehicle_type, t.status,
+                   CASE WHEN GROUPING(t.cell_id) = 1 THEN -1 ELSE t.cell_id END,
+                   COUNT(*), COALESCE(SUM(t.revenue), 0)
+            FROM (
+                SELECT COALESCE(r.completed_at, r.cancelled_at) AS finished_at,
+                       r.vehicle_type, r.status,
+                       (FLOOR((r.pickup_latitude + 90) / :cellSize)::bigint << 32)
+                           | FLOOR((r.pickup_longitude + 180) / :cellSize)::bigint AS cell_id,
+                       CASE WHEN r.status = 'COMPLETED' THEN r.final_fare ELSE 0 END AS revenue
+                FROM rides_all r
+                WHERE r.status IN ('COMPLETED', 'CANCELLED')
+                AND COALESCE(r.completed_at, r.cancelled_at) IS NOT NULL
+            ) t
+            GROUP BY 1, 2, t.vehicle_type, t.status, GROUPING SETS ((t.cell_id), ())
+            """, nativeQuery = true)
+    int rebuildFromRides(@Param("cutoff") LocalDateTime cutoff, @Param("cellSize") double cellSize);
+}
@@ -2,28 +2,36 @@ package com.arnavgpt.valoride.analytics.service;
 
 import com.arnavgpt.valoride.analytics.dto.DashboardStatsResponse;
 import com.arnavgpt.valoride.analytics.dto.DriverPerformanceResponse;
+import com.arnavgpt.valoride.analytics.dto.DriverRideCountsRow;
+import com.arnavgpt.valoride.analytics.dto.RevenueBreakdownRow;
 import com.arnavgpt.valoride.analytics.dto.RevenueReportResponse;
 import com.arnavgpt.valoride.analytics.repository.AnalyticsRepository;
 import com.arnavgpt.valoride.driver.entity.ApprovalStatus;
 import com.arnavgpt.valoride.driver.entity.Driver;
 import com.arnavgpt.valoride.driver.repository.DriverRepository;
+import com.arnavgpt.valoride.exception.BusinessException;
 import com.arnavgpt.valoride.ride.entity.RideStatus;
-import com.arnavgpt.valoride.ride.repository.RideRepository;
 import com.arnavgpt.valoride.user.entity.Role;
 import com.arnavgpt.valoride.user.repository.UserRepository;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.data.domain.PageRequest;
-import org.springframework.data.domain.Sort;
+import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
 
 import java.math.BigDecimal;
 import java.math.RoundingMode;
+import java.time.Duration;
+import java.time.Instant;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.time.LocalTime;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 @Service
@@ -34,16 +42,21 @@ public class AnalyticsService {
     private final AnalyticsRepository analyticsRepository;
     private final UserRepository userRepository;
     private final DriverRepository driverRepository;
-    private final RideRepository rideRepository;
+    private final Duration leaderboardRefreshInterval;
+    private final int leaderboardMaxSize;
+
+    private volatile LeaderboardSnapshot leaderboardSnapshot;
 
     public AnalyticsService(AnalyticsRepository analyticsRepository,
                             UserRepository userRepository,
                             DriverRepository driverRepository,
-                            RideRepository rideRepository) {
+                            @Value("${analytics.leaderboard.refresh-interval:60s}") Duration leaderboardRefreshInterval,
+                            @Value("${analytics.leaderboard.max-size:1000}") int leaderboardMaxSize) {
         this.analyticsRepository = analyticsRepository;
         this.userRepository = userRepository;
         this.driverRepository = driverRepository;
-        this.rideRepository = rideRepository;
+        this.leaderboardRefreshInterval = leaderboardRefreshInterval;
+        this.leaderboardMaxSize = leaderboardMaxSize;
     }
 
     /**
@@ -64,9 +77,9 @@ public class AnalyticsService {
         long rejectedDrivers = driverRepository.countByApprovalStatus(ApprovalStatus.REJECTED);
 
         // Ride stats
-        long totalRides = rideRepository.count();
-        long completedRides = analyticsRepository.countByStatus(RideStatus.COMPLETED);
-        long cancelledRides = analyticsRepository.countByStatus(RideStatus.CANCELLED);
+        long totalRides = analyticsRepository.countAllRides();
+        long completedRides = analyticsRepository.countAllRidesByStatus(RideStatus.COMPLETED.name());
+        long cancelledRides = analyticsRepository.countAllRidesByStatus(RideStatus.CANCELLED.name());
         long activeRides = analyticsRepository.countActiveRides();
 
         // Revenue stats
@@ -114,67 +127,91 @@ public class AnalyticsService {
         response.setStartDate(startDate);
         response.setEndDate(endDate);
 
-        // Total revenue in range
-        BigDecimal totalRevenue = analyticsRepository.getRevenueInDateRange(startDateTime, endDateTime);
-        response.setTotalRevenue(totalRevenue != null ? totalRevenue : BigDecimal.ZERO);
+        // Totals, daily and vehicle type breakdowns come back from one grouping-sets scan
+        List<RevenueBreakdownRow> rows = analyticsRepository.getRevenueBreakdownInDateRange(startDateTime, endDateTime);
 
-        // Total rides in range
-        long totalRides = analyticsRepository.countCompletedRidesInDateRange(startDateTime, endDateTime);
-        response.setTotalRides(totalRides);
+        BigDecimal totalRevenue = BigDecimal.ZERO;
+        long totalRides = 0;
+        List<RevenueReportResponse.DailyRevenue> dailyBreakdown = new ArrayList<>();
+        List<RevenueReportResponse.VehicleTypeRevenue> vehicleBreakdown = new ArrayList<>();
 
-        // Average fare
-        if (totalRides > 0 && totalRevenue != null) {
-            response.setAverageFare(totalRevenue.divide(BigDecimal.valueOf(totalRides), 2, RoundingMode.HALF_UP));
-        } else {
-            response.setAverageFare(BigDecimal.ZERO);
+        for (RevenueBreakdownRow row : rows) {
+            switch (row.getGroupingLevel()) {
+                case RevenueBreakdownRow.GRAND_TOTAL -> {
+                    totalRevenue = row.getRevenue();
+                    totalRides = row.getRides();
+                }
+                case RevenueBreakdownRow.DAILY -> dailyBreakdown.add(
+                        new RevenueReportResponse.DailyRevenue(row.getDay(), row.getRevenue(), row.getRides()));
+                case RevenueBreakdownRow.VEHICLE_TYPE -> vehicleBreakdown.add(
+                        new RevenueReportResponse.VehicleTypeRevenue(row.getVehicleType().name(), row.getRevenue(),
+                                row.getRides(), averageFare(row.getRevenue(), row.getRides())));
+                default -> logger.warn("Unexpected grouping level {} in revenue report", row.getGroupingLevel());
+            }
         }
 
-        // Daily breakdown
-        List<Object[]> dailyData = analyticsRepository.getDailyRevenueInDateRange(startDateTime, endDateTime);
-        List<RevenueReportResponse.DailyRevenue> dailyBreakdown = new ArrayList<>();
-        for (Object[] row : dailyData) {
-            LocalDate date = row[0] instanceof java.sql.Date ?
-                    ((java.sql.Date) row[0]).toLocalDate() : (LocalDate) row[0];
-            BigDecimal revenue = row[1] instanceof BigDecimal ?
-                    (BigDecimal) row[1] : BigDecimal.valueOf(((Number) row[1]).doubleValue());
-            long rides = ((Number) row[2]).longValue();
-            dailyBreakdown.add(new RevenueReportResponse.DailyRevenue(date, revenue, rides));
-        }
+        response.setTotalRevenue(totalRevenue);
+        response.setTotalRides(totalRides);
+        response.setAverageFare(averageFare(totalRevenue, totalRides));
         response.setDailyBreakdown(dailyBreakdown);
-
-        // Vehicle type breakdown
-        List<Object[]> vehicleData = analyticsRepository.getRevenueByVehicleTypeInDateRange(startDateTime, endDateTime);
-        List<RevenueReportResponse.VehicleTypeRevenue> vehicleBreakdown = new ArrayList<>();
-        for (Object[] row : vehicleData) {
-            String vehicleType = row[0].toString();
-            BigDecimal revenue = row[1] instanceof BigDecimal ?
-                    (BigDecimal) row[1] : BigDecimal.valueOf(((Number) row[1]).doubleValue());
-            long rides = ((Number) row[2]).longValue();
-            BigDecimal avgFare = rides > 0 ?
-                    revenue.divide(BigDecimal.valueOf(rides), 2, RoundingMode.HALF_UP) : BigDecimal.ZERO;
-            vehicleBreakdown.add(new RevenueReportResponse.VehicleTypeRevenue(vehicleType, revenue, rides, avgFare));
-        }
         response.setVehicleTypeBreakdown(vehicleBreakdown);
 
         return response;
     }
 
+    private BigDecimal averageFare(BigDecimal revenue, long rides) {
+        return rides > 0 ? revenue.divide(BigDecimal.valueOf(rides), 2, RoundingMode.HALF_UP) : BigDecimal.ZERO;
+    }
+
     /**
-     * Get driver performance metrics
+     * Get driver performance metrics, served from a cached leaderboard snapshot
      */
     public DriverPerformanceResponse getDriverPerformance(int limit) {
-        logger.info("Getting top {} driver performance", limit);
+        if (limit < 1 || limit > leaderboardMaxSize) {
+            throw new BusinessException("Limit must be between 1 and " + leaderboardMaxSize, HttpStatus.BAD_REQUEST);
+        }
+
+        LeaderboardSnapshot snapshot = leaderboardSnapshot;
+        if (snapshot == null || !snapshot.covers(limit, leaderboardRefreshInterval)) {
+            snapshot = refreshLeaderboard(limit);
+        }
+        return snapshot.slice(limit);
+    }
+
+    /**
+     * Recompute the leaderboard unless another caller already refreshed it for this limit
+     */
+    private synchronized LeaderboardSnapshot refreshLeaderboard(int limit) {
+        LeaderboardSnapshot current = leaderboardSnapshot;
+        if (current != null && current.covers(limit, leaderboardRefreshInterval)) {
+            return current;
+        }
+
+        // Keep the widest size asked for so smaller limits are served by slicing
+        int size = current != null ? Math.max(limit, current.size()) : limit;
+        LeaderboardSnapshot snapshot = new LeaderboardSnapshot(size, computeDriverPerformance(size), Instant.now());
+        leaderboardSnapshot = snapshot;
+        return snapshot;
+    }
+
+    private DriverPerformanceResponse computeDriverPerformance(int limit) {
+        logger.info("Computing top {} driver performance", limit);
 
         DriverPerformanceResponse response = new DriverPerformanceResponse();
 
-        // Get approved drivers sorted by rating and total rides
-        List<Driver> drivers = driverRepository.findByApprovalStatus(
-                ApprovalStatus.APPROVED,
-                PageRequest.of(0, limit, Sort.by(Sort.Direction.DESC, "rating", "totalRides"))
-        ).getContent();
+        // Approved drivers sorted by rating and total rides, users fetched in the same query
+        List<Driver> drivers = driverRepository.findRankedByApprovalStatusWithUser(
+                ApprovalStatus.APPROVED, PageRequest.of(0, limit));
+
+        // Completed and cancelled counts for every driver on the board in one grouped query
+        Map<UUID, DriverRideCountsRow> rideCounts = drivers.isEmpty() ? Map.of() :
+                analyticsRepository.countRideOutcomesByDriverIds(
+                                drivers.stream().map(Driver::getId).collect(Collectors.toList()))
+                        .stream()
+                        .collect(Collectors.toMap(DriverRideCountsRow::getDriverId, Function.identity()));
 
         List<DriverPerformanceResponse.DriverStats> topDrivers = drivers.stream()
-                .map(this::mapToDriverStats)
+                .map(driver -> mapToDriverStats(driver, rideCounts.get(driver.getId())))
                 .collect(Collectors.toList());
 
         response.setTopDrivers(topDrivers);
@@ -184,15 +221,15 @@ public class AnalyticsService {
         response.setPlatformAverageRating(avgRating != null ? avgRating.setScale(2, RoundingMode.HALF_UP) : BigDecimal.ZERO);
 
         // Calculate platform completion rate
-        long totalRides = rideRepository.count();
-        long completedRides = analyticsRepository.countByStatus(RideStatus.COMPLETED);
+        long totalRides = analyticsRepository.countAllRides();
+        long completedRides = analyticsRepository.countAllRidesByStatus(RideStatus.COMPLETED.name());
         double completionRate = totalRides > 0 ? (double) completedRides / totalRides * 100 : 0;
         response.setPlatformCompletionRate(Math.round(completionRate * 100.0) / 100.0);
 
         return response;
     }
 
-    private DriverPerformanceResponse.DriverStats mapToDriverStats(Driver driver) {
+    private DriverPerformanceResponse.DriverStats mapToDriverStats(Driver driver, DriverRideCountsRow rideCounts) {
         DriverPerformanceResponse.DriverStats stats = new DriverPerformanceResponse.DriverStats();
         stats.setDriverId(driver.getId());
         stats.setDriverName(driver.getUser().getName());
@@ -201,17 +238,33 @@ public class AnalyticsService {
         stats.setTotalEarnings(driver.getTotalEarnings() != null ? driver.getTotalEarnings() : BigDecimal.ZERO);
         stats.setRating(driver.getRating() != null ? driver.getRating() : BigDecimal.ZERO);
 
-        // Get completed and cancelled rides for this driver
-        long completedRides = rideRepository.countCompletedRidesByDriverId(driver.getId());
+        long completedRides = rideCounts != null ? rideCounts.getCompletedRides() : 0;
+        long cancelledRides = rideCounts != null ? rideCounts.getCancelledRides() : 0;
         stats.setCompletedRides((int) completedRides);
+        stats.setCancelledRides((int) cancelledRides);
 
-        // For simplicity, cancelled = total - completed (this is approximate)
-        int totalAssigned = driver.getTotalRides();
-        stats.setCancelledRides(Math.max(0, totalAssigned - (int) completedRides));
-
-        double completionRate = totalAssigned > 0 ? (double) completedRides / totalAssigned * 100 : 0;
+        // Completion rate over rides that reached a terminal state
+        long finishedRides = completedRides + cancelledRides;
+        double completionRate = finishedRides > 0 ? (double) completedRides / finishedRides * 100 : 0;
         stats.setCompletionRate(Math.round(completionRate * 100.0) / 100.0);
 
         return stats;
     }
-}
\ No newline at end of file
+
+    private record LeaderboardSnapshot(int size, DriverPerformanceResponse response, Instant computedAt) {
+
+        boolean covers(int limit, Duration refreshInterval) {
+            return size >= limit && computedAt.plus(refreshInterval).isAfter(Instant.now());
+        }
+
+        DriverPerformanceResponse slice(int limit) {
+            DriverPerformanceResponse sliced = new DriverPerformanceResponse();
+            List<DriverPerformanceResponse.DriverStats> topDrivers = response.getTopDrivers();
+            sliced.setTopDrivers(topDrivers.subList(0, Math.min(limit, topDrivers.size())));
+            sliced.setTotalActiveDrivers(response.getTotalActiveDrivers());
+            sliced.setPlatformAverageRating(response.getPlatformAverageRating());
+            sliced.setPlatformCompletionRate(response.getPlatformCompletionRate());
+            return sliced;
+        }
+    }
+}
@@ -0,0 +1,173 @@
+package com.arnavgpt.valoride.analytics.service;
+
+import com.arnavgpt.valoride.analytics.dto.LiveMetricsSnapshot;
+import com.arnavgpt.valoride.analytics.repository.AnalyticsRepository;
+import com.arnavgpt.valoride.driver.entity.VehicleType;
+import com.arnavgpt.valoride.driver.event.DriverAvailabilityChangedEvent;
+import com.arnavgpt.valoride.driver.repository.DriverRepository;
+import com.arnavgpt.valoride.ride.dto.RideResponse;
+import com.arnavgpt.valoride.ride.entity.RideStatus;
+import com.arnavgpt.valoride.ride.event.RideStatusChangedEvent;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * In-memory live counters for the admin dashboard. Seeded from the database once at
+ * startup, then kept current from committed ride and driver events.
+ */
+@Service
+public class LiveMetricsService {
+
+    private static final Logger logger = LoggerFactory.getLogger(LiveMetricsService.class);
+
+    private final AnalyticsRepository analyticsRepository;
+    private final DriverRepository driverRepository;
+
+    private final AtomicLong activeRides = new AtomicLong();
+    private final Map<VehicleType, AtomicLong> availableDrivers = new EnumMap<>(VehicleType.class);
+    private final RequestRateWindow requestRate = new RequestRateWindow();
+
+    private LocalDate revenueDay = LocalDate.now();
+    private BigDecimal todayRevenue = BigDecimal.ZERO;
+
+    public LiveMetricsService(AnalyticsRepository analyticsRepository, DriverRepository driverRepository) {
+        this.analyticsRepository = analyticsRepository;
+        this.driverRepository = driverRepository;
+        for (VehicleType vehicleType : VehicleType.values()) {
+            availableDrivers.put(vehicleType, new AtomicLong());
+        }
+    }
+
+    /**
+     * Load the starting values from the database
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void seed() {
+        try {
+            activeRides.set(analyticsRepository.countActiveRides());
+
+            availableDrivers.values().forEach(counter -> counter.set(0));
+            for (Object[] row : driverRepository.countAvailableDriversByVehicleType()) {
+                availableDrivers.get((VehicleType) row[0]).set((Long) row[1]);
+            }
+
+            LocalDate today = LocalDate.now();
+            BigDecimal revenue = analyticsRepository.getTodayRevenue(today.atStartOfDay());
+            synchronized (this) {
+                revenueDay = today;
+                todayRevenue = revenue != null ? revenue : BigDecimal.ZERO;
+            }
+
+            logger.info("Live metrics seeded: {} active rides", activeRides.get());
+        } catch (Exception e) {
+            logger.warn("Failed to seed live metrics, counters start from zero: {}", e.getMessage());
+        }
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
+    public void onRideStatusChanged(RideStatusChangedEvent event) {
+        RideStatus previous = event.getPreviousStatus();
+        RideStatus current = event.getStatus();
+
+        if (previous == null) {
+            requestRate.record(Instant.now().getEpochSecond());
+        }
+
+        activeRides.addAndGet(isActive(current) - isActive(previous));
+
+        if (current == RideStatus.COMPLETED) {
+            RideResponse ride = event.getRide();
+            if (ride.getFinalFare() != null && ride.getCompletedAt() != null) {
+                addRevenue(ride.getCompletedAt().toLocalDate(), ride.getFinalFare());
+            }
+        }
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
+    public void onDriverAvailabilityChanged(DriverAvailabilityChangedEvent event) {
+        availableDrivers.get(event.getVehicleType()).addAndGet(event.isAvailable() ? 1 : -1);
+    }
+
+    /**
+     * Copy the current counters; never touches the database
+     */
+    public LiveMetricsSnapshot snapshot() {
+        Map<VehicleType, Long> drivers = new EnumMap<>(VehicleType.class);
+        availableDrivers.forEach((vehicleType, counter) -> drivers.put(vehicleType, Math.max(0, counter.get())));
+
+        return new LiveMetricsSnapshot(
+                Math.max(0, activeRides.get()),
+                drivers,
+                currentRevenue(LocalDate.now()),
+                requestRate.total(Instant.now().getEpochSecond()),
+                LocalDateTime.now()
+        );
+    }
+
+    private synchronized void addRevenue(LocalDate day, BigDecimal amount) {
+        rollRevenueDay(day);
+        if (day.equals(revenueDay)) {
+            todayRevenue = todayRevenue.add(amount);
+        }
+    }
+
+    private synchronized BigDecimal currentRevenue(LocalDate today) {
+        rollRevenueDay(today);
+        return todayRevenue;
+    }
+
+    // Revenue restarts from zero the first time a later day is seen
+    private void rollRevenueDay(LocalDate day) {
+        if (day.isAfter(revenueDay)) {
+            revenueDay = day;
+            todayRevenue = BigDecimal.ZERO;
+        }
+    }
+
+    private static int isActive(RideStatus status) {
+        return status != null && status != RideStatus.COMPLETED && status != RideStatus.CANCELLED ? 1 : 0;
+    }
+
+    /**
+     * Ride requests over the trailing minute, as a ring of 60 one-second buckets
+     */
+    private static class RequestRateWindow {
+
+        private static final int BUCKETS = 60;
+
+        private final long[] seconds = new long[BUCKETS];
+        private final long[] counts = new long[BUCKETS];
+
+        synchronized void record(long epochSecond) {
+            int index = (int) (epochSecond % BUCKETS);
+            if (seconds[index] != epochSecond) {
+                seconds[index] = epochSecond;
+                counts[index] = 0;
+            }
+            counts[index]++;
+        }
+
+        synchronized long total(long epochSecond) {
+            long total = 0;
+            for (int i = 0; i < BUCKETS; i++) {
+                if (epochSecond - seconds[i] < BUCKETS) {
+                    total += counts[i];
+                }
+            }
+            return total;
+        }
+    }
+}
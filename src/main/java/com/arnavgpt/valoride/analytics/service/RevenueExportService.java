@@ -0,0 +1,120 @@
+package com.arnavgpt.valoride.analytics.service;
+
+import com.arnavgpt.valoride.analytics.dto.ExportFormat;
+import com.arnavgpt.valoride.analytics.dto.RideExportRow;
+import com.arnavgpt.valoride.driver.entity.VehicleType;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.ScrollMode;
+import org.hibernate.ScrollableResults;
+import org.hibernate.SessionFactory;
+import org.hibernate.StatelessSession;
+import org.hibernate.Transaction;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.UUID;
+
+/**
+ * Streams completed rides straight from a forward-only JDBC cursor to the response,
+ * so memory stays flat no matter how wide the date range is.
+ */
+@Service
+public class RevenueExportService {
+
+    private static final Logger logger = LoggerFactory.getLogger(RevenueExportService.class);
+
+    // Native so that archived months are exported too
+    private static final String EXPORT_QUERY =
+            "SELECT r.id, r.rider_id, r.driver_id, r.vehicle_type, r.completed_at, r.distance_km, r.final_fare " +
+                    "FROM rides_all r WHERE r.status = 'COMPLETED' " +
+                    "AND r.completed_at BETWEEN :startDate AND :endDate ORDER BY r.completed_at";
+
+    private final SessionFactory sessionFactory;
+    private final ObjectMapper objectMapper;
+    private final int fetchSize;
+
+    public RevenueExportService(EntityManagerFactory entityManagerFactory,
+                                ObjectMapper objectMapper,
+                                @Value("${analytics.export.fetch-size:1000}") int fetchSize) {
+        this.sessionFactory = entityManagerFactory.unwrap(SessionFactory.class);
+        this.objectMapper = objectMapper;
+        this.fetchSize = fetchSize;
+    }
+
+    /**
+     * Write all completed rides in the date range to the output stream
+     */
+    public void exportCompletedRides(LocalDate startDate, LocalDate endDate, ExportFormat format,
+                                     OutputStream outputStream) throws IOException {
+        logger.info("Exporting completed rides from {} to {} as {}", startDate, endDate, format);
+
+        LocalDateTime startDateTime = startDate.atStartOfDay();
+        LocalDateTime endDateTime = endDate.atTime(LocalTime.MAX);
+
+        Writer writer = new BufferedWriter(new OutputStreamWriter(outputStream, StandardCharsets.UTF_8));
+        long rows = 0;
+
+        // Stateless session: no persistence context, so rows are not retained after they are written
+        try (StatelessSession session = sessionFactory.openStatelessSession()) {
+            // PostgreSQL only honours the fetch size (server-side cursor) inside a transaction
+            Transaction transaction = session.beginTransaction();
+            try (ScrollableResults<Object[]> results = session
+                    .createNativeQuery(EXPORT_QUERY, Object[].class)
+                    .addScalar("id", UUID.class)
+                    .addScalar("rider_id", UUID.class)
+                    .addScalar("driver_id", UUID.class)
+                    .addScalar("vehicle_type", String.class)
+                    .addScalar("completed_at", LocalDateTime.class)
+                    .addScalar("distance_km", BigDecimal.class)
+                    .addScalar("final_fare", BigDecimal.class)
+                    .setParameter("startDate", startDateTime)
+                    .setParameter("endDate", endDateTime)
+                    .setFetchSize(fetchSize)
+                    .setReadOnly(true)
+                    .scroll(ScrollMode.FORWARD_ONLY)) {
+
+                if (format == ExportFormat.CSV) {
+                    writer.write(RideExportRow.CSV_HEADER);
+                    writer.write('\n');
+                }
+
+                while (results.next()) {
+                    writeRow(writer, toRow(results.get()), format);
+                    rows++;
+                }
+            } finally {
+                transaction.rollback();
+            }
+        }
+
+        writer.flush();
+        logger.info("Exported {} rides from {} to {}", rows, startDate, endDate);
+    }
+
+    private RideExportRow toRow(Object[] result) {
+        return new RideExportRow((UUID) result[0], (UUID) result[1], (UUID) result[2],
+                VehicleType.valueOf((String) result[3]), (LocalDateTime) result[4],
+                (BigDecimal) result[5], (BigDecimal) result[6]);
+    }
+
+    private void writeRow(Writer writer, RideExportRow row, ExportFormat format) throws IOException {
+        switch (format) {
+            case CSV -> writer.write(row.toCsvLine());
+            case NDJSON -> writer.write(objectMapper.writeValueAsString(row));
+        }
+        writer.write('\n');
+    }
+}
@@ -0,0 +1,226 @@
+package com.arnavgpt.valoride.analytics.service;
+
+import com.arnavgpt.valoride.analytics.dto.CubeDimension;
+import com.arnavgpt.valoride.analytics.dto.RideCubeRow;
+import com.arnavgpt.valoride.analytics.entity.BucketGranularity;
+import com.arnavgpt.valoride.analytics.repository.RideBucketRepository;
+import com.arnavgpt.valoride.common.geo.GeoCell;
+import com.arnavgpt.valoride.driver.entity.VehicleType;
+import com.arnavgpt.valoride.exception.BusinessException;
+import com.arnavgpt.valoride.ride.dto.RideResponse;
+import com.arnavgpt.valoride.ride.entity.RideStatus;
+import com.arnavgpt.valoride.ride.event.RideStatusChangedEvent;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.hibernate.query.NativeQuery;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Maintains the ride cube: every completed or cancelled ride is added to an hourly bucket
+ * for its pickup cell and one for all cells as it happens, and hourly buckets older than the
+ * retention window are compacted into daily ones. Range queries read only buckets, never the
+ * rides table, and only read per-cell buckets when they filter or group by cell.
+ */
+@Service
+public class RideCubeService {
+
+    private static final Logger logger = LoggerFactory.getLogger(RideCubeService.class);
+
+    // Arbitrary application-wide key for pg advisory locks held by cube maintenance
+    private static final long CUBE_LOCK_KEY = 0x52494445_43554245L;
+
+    private final RideBucketRepository rideBucketRepository;
+    private final Duration hourlyRetention;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    public RideCubeService(RideBucketRepository rideBucketRepository,
+                           @Value("${analytics.cube.hourly-retention:7d}") Duration hourlyRetention) {
+        this.rideBucketRepository = rideBucketRepository;
+        this.hourlyRetention = hourlyRetention;
+    }
+
+    /**
+     * Append a finished ride to its hourly bucket once the ride transaction has committed
+     */
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    public void onRideStatusChanged(RideStatusChangedEvent event) {
+        RideStatus status = event.getStatus();
+        if (status != RideStatus.COMPLETED && status != RideStatus.CANCELLED) {
+            return;
+        }
+
+        RideResponse ride = event.getRide();
+        LocalDateTime finishedAt = status == RideStatus.COMPLETED ? ride.getCompletedAt() : ride.getCancelledAt();
+        if (finishedAt == null) {
+            return;
+        }
+
+        BigDecimal revenue = status == RideStatus.COMPLETED && ride.getFinalFare() != null
+                ? ride.getFinalFare() : BigDecimal.ZERO;
+        long cellId = GeoCell.cellId(ride.getPickupLatitude().doubleValue(), ride.getPickupLongitude().doubleValue());
+
+        try {
+            rideBucketRepository.addToHourlyBucket(finishedAt.truncatedTo(ChronoUnit.HOURS),
+                    ride.getVehicleType().name(), status.name(), cellId, revenue);
+        } catch (Exception e) {
+            // The ride itself is committed; a rebuild restores the missed bucket
+            logger.error("Failed to add ride {} to analytics cube: {}", ride.getId(), e.getMessage());
+        }
+    }
+
+    /**
+     * Fold hourly buckets older than the retention window into daily buckets
+     */
+    @Scheduled(cron = "${analytics.cube.compaction-cron:0 5 * * * *}")
+    @Transactional
+    public void compact() {
+        if (!rideBucketRepository.tryLock(CUBE_LOCK_KEY)) {
+            logger.debug("Cube compaction already running on another node");
+            return;
+        }
+
+        LocalDateTime cutoff = compactionCutoff();
+        int dailyRows = rideBucketRepository.rollUpHourlyBuckets(cutoff);
+        int hourlyRows = rideBucketRepository.deleteHourlyBucketsBefore(cutoff);
+
+        if (hourlyRows > 0) {
+            logger.info("Compacted {} hourly cube buckets before {} into {} daily buckets", hourlyRows, cutoff, dailyRows);
+        }
+    }
+
+    /**
+     * Recreate all buckets from hot and archived rides. Intended for initial backfill or repair during low traffic.
+     */
+    @Transactional
+    public int rebuild() {
+        if (!rideBucketRepository.tryLock(CUBE_LOCK_KEY)) {
+            throw new BusinessException("Cube maintenance is already running", HttpStatus.CONFLICT);
+        }
+
+        rideBucketRepository.deleteAllBuckets();
+        int rows = rideBucketRepository.rebuildFromRides(compactionCutoff(), GeoCell.CELL_SIZE_DEGREES);
+        logger.info("Rebuilt analytics cube with {} buckets", rows);
+        return rows;
+    }
+
+    /**
+     * Sum buckets in the date range, grouped by time at the given granularity plus the requested dimensions.
+     * Hourly detail only exists inside the retention window; older days come back at daily resolution.
+     */
+    @Transactional(readOnly = true)
+    public List<RideCubeRow> query(LocalDate startDate, LocalDate endDate, BucketGranularity granularity,
+                                   Set<CubeDimension> groupBy, VehicleType vehicleType, RideStatus status,
+                                   Long cellId) {
+        if (endDate.isBefore(startDate)) {
+            throw new BusinessException("End date must not be before start date", HttpStatus.BAD_REQUEST);
+        }
+
+        Set<CubeDimension> dimensions = groupBy == null || groupBy.isEmpty()
+                ? EnumSet.noneOf(CubeDimension.class) : EnumSet.copyOf(groupBy);
+        String unit = granularity == BucketGranularity.HOUR ? "hour" : "day";
+
+        StringBuilder select = new StringBuilder("SELECT date_trunc('" + unit + "', b.bucket_start) AS bucket");
+        StringBuilder group = new StringBuilder("GROUP BY 1");
+        int position = 1;
+        for (CubeDimension dimension : dimensions) {
+            select.append(", b.").append(dimension.getColumn());
+            group.append(", ").append(++position);
+        }
+        select.append(", SUM(b.ride_count) AS rides, SUM(b.revenue) AS revenue");
+
+        // Both granularities are read, as hourly and daily buckets never cover the same hours;
+        // naming them lets the primary key, which leads with granularity, serve the range
+        StringBuilder where = new StringBuilder(" FROM analytics_ride_buckets b " +
+                "WHERE b.granularity IN ('HOUR', 'DAY')" +
+                " AND b.bucket_start >= :startTime AND b.bucket_start < :endTime");
+        Map<String, Object> parameters = new LinkedHashMap<>();
+        parameters.put("startTime", startDate.atStartOfDay());
+        parameters.put("endTime", endDate.plusDays(1).atStartOfDay());
+
+        if (vehicleType != null) {
+            where.append(" AND b.vehicle_type = :vehicleType");
+            parameters.put("vehicleType", vehicleType.name());
+        }
+        if (status != null) {
+            where.append(" AND b.status = :status");
+            parameters.put("status", status.name());
+        }
+        if (cellId != null) {
+            where.append(" AND b.cell_id = :cellId");
+            parameters.put("cellId", cellId);
+        } else if (dimensions.contains(CubeDimension.CELL)) {
+            where.append(" AND b.cell_id <> ").append(RideBucketRepository.ALL_CELLS);
+        } else {
+            // Without a cell filter or grouping the all-cells buckets already hold the totals
+            where.append(" AND b.cell_id = ").append(RideBucketRepository.ALL_CELLS);
+        }
+
+        String sql = select + where.toString() + " " + group + " ORDER BY 1";
+
+        @SuppressWarnings("unchecked")
+        NativeQuery<Object[]> query = entityManager.createNativeQuery(sql).unwrap(NativeQuery.class);
+        query.addScalar("bucket", LocalDateTime.class);
+        for (CubeDimension dimension : dimensions) {
+            query.addScalar(dimension.getColumn(), dimension == CubeDimension.CELL ? Long.class : String.class);
+        }
+        query.addScalar("rides", Long.class);
+        query.addScalar("revenue", BigDecimal.class);
+        parameters.forEach(query::setParameter);
+
+        List<RideCubeRow> rows = new ArrayList<>();
+        for (Object[] result : query.getResultList()) {
+            rows.add(toRow(result, dimensions));
+        }
+        return rows;
+    }
+
+    private RideCubeRow toRow(Object[] result, Set<CubeDimension> dimensions) {
+        RideCubeRow row = new RideCubeRow();
+        int i = 0;
+        row.setBucketStart((LocalDateTime) result[i++]);
+        for (CubeDimension dimension : dimensions) {
+            Object value = result[i++];
+            switch (dimension) {
+                case VEHICLE_TYPE -> row.setVehicleType(VehicleType.valueOf((String) value));
+                case STATUS -> row.setStatus(RideStatus.valueOf((String) value));
+                case CELL -> {
+                    long cell = (Long) value;
+                    row.setCellId(cell);
+                    row.setCellLatitude(GeoCell.centerLatitude(cell));
+                    row.setCellLongitude(GeoCell.centerLongitude(cell));
+                }
+            }
+        }
+        row.setRides((Long) result[i++]);
+        row.setRevenue((BigDecimal) result[i]);
+        return row;
+    }
+
+    private LocalDateTime compactionCutoff() {
+        return LocalDate.now().minusDays(hourlyRetention.toDays()).atStartOfDay();
+    }
+}
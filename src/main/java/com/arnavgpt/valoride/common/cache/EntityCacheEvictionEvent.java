@@ -0,0 +1,52 @@
+package com.arnavgpt.valoride.common.cache;
+
+import com.arnavgpt.valoride.common.entity.BaseEntity;
+import org.hibernate.Hibernate;
+
+import java.util.UUID;
+
+/**
+ * Published when a row held in the second-level cache changes, so other nodes drop their copy
+ */
+public class EntityCacheEvictionEvent {
+
+    private final Class<? extends BaseEntity> entityType;
+    private final UUID id;
+    private final boolean local;
+
+    public EntityCacheEvictionEvent(Class<? extends BaseEntity> entityType, UUID id) {
+        this(entityType, id, false);
+    }
+
+    private EntityCacheEvictionEvent(Class<? extends BaseEntity> entityType, UUID id, boolean local) {
+        this.entityType = entityType;
+        this.id = id;
+        this.local = local;
+    }
+
+    @SuppressWarnings("unchecked")
+    public static EntityCacheEvictionEvent of(BaseEntity entity) {
+        // Unwrap lazy proxies so the eviction names the mapped entity class
+        return new EntityCacheEvictionEvent((Class<? extends BaseEntity>) Hibernate.getClass(entity), entity.getId());
+    }
+
+    /**
+     * For a row changed by a native statement. Hibernate never saw the change, so this node's copy
+     * is evicted as well once the transaction commits.
+     */
+    public static EntityCacheEvictionEvent ofNativeUpdate(Class<? extends BaseEntity> entityType, UUID id) {
+        return new EntityCacheEvictionEvent(entityType, id, true);
+    }
+
+    public Class<? extends BaseEntity> getEntityType() {
+        return entityType;
+    }
+
+    public UUID getId() {
+        return id;
+    }
+
+    public boolean isLocal() {
+        return local;
+    }
+}
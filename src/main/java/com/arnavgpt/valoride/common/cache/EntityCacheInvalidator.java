@@ -0,0 +1,107 @@
+package com.arnavgpt.valoride.common.cache;
+
+import jakarta.persistence.EntityManagerFactory;
+import jakarta.persistence.metamodel.EntityType;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.UUID;
+import java.util.stream.Collectors;
+
+/**
+ * Keeps the second-level caches of all nodes in step. Each node caches entities locally and
+ * Hibernate only updates the copy on the node that made the change, so every committed
+ * EntityCacheEvictionEvent is relayed through Redis and the other nodes evict the row.
+ * While Redis is down, other nodes fall back on the cache's expire-after-write.
+ */
+@Service
+public class EntityCacheInvalidator implements MessageListener {
+
+    private static final Logger logger = LoggerFactory.getLogger(EntityCacheInvalidator.class);
+
+    private static final String CHANNEL = "entity_cache_evictions";
+
+    private final StringRedisTemplate redisTemplate;
+    private final RedisMessageListenerContainer listenerContainer;
+    private final EntityManagerFactory entityManagerFactory;
+    private final Map<String, Class<?>> entityTypes;
+
+    // The listener container is shared, so track this listener's own subscription
+    private volatile boolean subscribed;
+
+    // Lets a node skip its own evictions; its cache already holds the new state
+    private final String nodeId = UUID.randomUUID().toString();
+
+    public EntityCacheInvalidator(StringRedisTemplate redisTemplate, RedisMessageListenerContainer listenerContainer,
+                                  EntityManagerFactory entityManagerFactory) {
+        this.redisTemplate = redisTemplate;
+        this.listenerContainer = listenerContainer;
+        this.entityManagerFactory = entityManagerFactory;
+        this.entityTypes = entityManagerFactory.getMetamodel().getEntities().stream()
+                .collect(Collectors.toMap(EntityType::getName, EntityType::getJavaType));
+    }
+
+    /**
+     * Subscribe to the eviction channel, retrying until Redis is reachable
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(fixedDelayString = "${app.cache.subscribe-retry-ms:30000}")
+    public void subscribe() {
+        if (subscribed) {
+            return;
+        }
+        try {
+            listenerContainer.addMessageListener(this, new ChannelTopic(CHANNEL));
+            subscribed = true;
+            logger.info("Subscribed to entity cache evictions");
+        } catch (DataAccessException e) {
+            logger.warn("Entity cache eviction channel unavailable: {}", e.getMessage());
+        }
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onEviction(EntityCacheEvictionEvent event) {
+        if (event.isLocal()) {
+            entityManagerFactory.getCache().evict(event.getEntityType(), event.getId());
+        }
+
+        String message = String.join(" ", nodeId, event.getEntityType().getSimpleName(), event.getId().toString());
+        try {
+            redisTemplate.convertAndSend(CHANNEL, message);
+        } catch (DataAccessException e) {
+            logger.warn("Failed to relay cache eviction for {} {}: {}",
+                    event.getEntityType().getSimpleName(), event.getId(), e.getMessage());
+        }
+    }
+
+    @Override
+    public void onMessage(Message message, byte[] pattern) {
+        String[] parts = new String(message.getBody(), StandardCharsets.UTF_8).split(" ");
+        if (parts.length != 3 || nodeId.equals(parts[0])) {
+            return;
+        }
+
+        Class<?> entityType = entityTypes.get(parts[1]);
+        if (entityType == null) {
+            logger.warn("Ignoring cache eviction for unknown entity {}", parts[1]);
+            return;
+        }
+
+        entityManagerFactory.getCache().evict(entityType, UUID.fromString(parts[2]));
+        logger.debug("Evicted {} {} from second-level cache", parts[1], parts[2]);
+    }
+}
@@ -0,0 +1,56 @@
+package com.arnavgpt.valoride.common.cache;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.CacheRegionStatistics;
+import org.hibernate.stat.Statistics;
+import org.springframework.lang.NonNull;
+import org.springframework.stereotype.Component;
+
+/**
+ * Per-region hit, miss and put counts of the second-level and natural-id caches, plus the hit ratio.
+ * Reads Hibernate statistics, so hibernate.generate_statistics must be on.
+ */
+@Component
+public class SecondLevelCacheMetrics implements MeterBinder {
+
+    private final Statistics statistics;
+
+    public SecondLevelCacheMetrics(EntityManagerFactory entityManagerFactory) {
+        this.statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+    }
+
+    @Override
+    public void bindTo(@NonNull MeterRegistry registry) {
+        for (String region : statistics.getSecondLevelCacheRegionNames()) {
+            // Resolve the region's statistics on every read; clearing statistics replaces them
+            FunctionCounter.builder("app.cache.requests", statistics, s -> region(s, region).getHitCount())
+                    .tags("region", region, "result", "hit")
+                    .register(registry);
+            FunctionCounter.builder("app.cache.requests", statistics, s -> region(s, region).getMissCount())
+                    .tags("region", region, "result", "miss")
+                    .register(registry);
+            FunctionCounter.builder("app.cache.puts", statistics, s -> region(s, region).getPutCount())
+                    .tags("region", region)
+                    .register(registry);
+            Gauge.builder("app.cache.hit.ratio", statistics, s -> hitRatio(region(s, region)))
+                    .tags("region", region)
+                    .description("Hits over lookups since startup")
+                    .register(registry);
+        }
+    }
+
+    private static CacheRegionStatistics region(Statistics statistics, String region) {
+        return statistics.getDomainDataRegionStatistics(region);
+    }
+
+    private static double hitRatio(CacheRegionStatistics regionStatistics) {
+        long hits = regionStatistics.getHitCount();
+        long lookups = hits + regionStatistics.getMissCount();
+        return lookups == 0 ? Double.NaN : (double) hits / lookups;
+    }
+}
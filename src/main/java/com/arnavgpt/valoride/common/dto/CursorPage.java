@@ -0,0 +1,74 @@
+package com.arnavgpt.valoride.common.dto;
+
+import com.arnavgpt.valoride.common.entity.BaseEntity;
+import com.arnavgpt.valoride.exception.BusinessException;
+import com.fasterxml.jackson.annotation.JsonInclude;
+import org.springframework.data.domain.Limit;
+import org.springframework.http.HttpStatus;
+
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * One page of a keyset-paginated listing. There is no total count; clients
+ * follow nextCursor until it is absent.
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class CursorPage<T> {
+
+    public static final int MAX_SIZE = 100;
+
+    private final List<T> items;
+    private final int size;
+    private final boolean hasNext;
+    private final String nextCursor;
+
+    public CursorPage(List<T> items, int size, boolean hasNext, String nextCursor) {
+        this.items = items;
+        this.size = size;
+        this.hasNext = hasNext;
+        this.nextCursor = nextCursor;
+    }
+
+    /**
+     * Row limit for a page query: one extra row tells whether another page exists
+     */
+    public static Limit fetchLimit(int size) {
+        if (size < 1 || size > MAX_SIZE) {
+            throw new BusinessException("Size must be between 1 and " + MAX_SIZE, HttpStatus.BAD_REQUEST);
+        }
+        return Limit.of(size + 1);
+    }
+
+    /**
+     * Build a page from rows fetched with a limit of size + 1; the extra row only signals that more exist
+     */
+    public static <E extends BaseEntity, T> CursorPage<T> of(List<E> rows, int size, Function<E, T> mapper) {
+        boolean hasNext = rows.size() > size;
+        List<E> pageRows = hasNext ? rows.subList(0, size) : rows;
+
+        String nextCursor = null;
+        if (hasNext) {
+            E last = pageRows.get(pageRows.size() - 1);
+            nextCursor = new KeysetCursor(last.getCreatedAt(), last.getId()).encode();
+        }
+
+        return new CursorPage<>(pageRows.stream().map(mapper).toList(), size, hasNext, nextCursor);
+    }
+
+    public List<T> getItems() {
+        return items;
+    }
+
+    public int getSize() {
+        return size;
+    }
+
+    public boolean isHasNext() {
+        return hasNext;
+    }
+
+    public String getNextCursor() {
+        return nextCursor;
+    }
+}
@@ -0,0 +1,53 @@
+package com.arnavgpt.valoride.common.dto;
+
+import com.arnavgpt.valoride.exception.BusinessException;
+import org.springframework.http.HttpStatus;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+import java.util.UUID;
+
+/**
+ * Position in a (created_at DESC, id DESC) ordering. Clients only ever see the
+ * opaque base64 form and hand it back unchanged to fetch the next page.
+ */
+public final class KeysetCursor {
+
+    private static final char SEPARATOR = '|';
+
+    private final LocalDateTime createdAt;
+    private final UUID id;
+
+    public KeysetCursor(LocalDateTime createdAt, UUID id) {
+        this.createdAt = createdAt;
+        this.id = id;
+    }
+
+    public String encode() {
+        String raw = createdAt.toString() + SEPARATOR + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public static KeysetCursor decode(String cursor) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            int separator = raw.indexOf(SEPARATOR);
+            return new KeysetCursor(
+                    LocalDateTime.parse(raw.substring(0, separator)),
+                    UUID.fromString(raw.substring(separator + 1))
+            );
+        } catch (IllegalArgumentException | IndexOutOfBoundsException | DateTimeParseException e) {
+            throw new BusinessException("Invalid cursor", HttpStatus.BAD_REQUEST);
+        }
+    }
+
+    public LocalDateTime getCreatedAt() {
+        return createdAt;
+    }
+
+    public UUID getId() {
+        return id;
+    }
+}
@@ -0,0 +1,31 @@
+package com.arnavgpt.valoride.common.entity;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.MappedSuperclass;
+import org.hibernate.annotations.PartitionKey;
+import org.springframework.data.annotation.CreatedDate;
+
+import java.time.LocalDateTime;
+
+/**
+ * An entity whose table is partitioned by month of created_at. Hibernate names created_at in
+ * the entity's updates and deletes, so Postgres touches only the row's partition.
+ */
+@MappedSuperclass
+public abstract class PartitionedEntity extends BaseEntity {
+
+    @PartitionKey
+    @CreatedDate
+    @Column(name = "created_at", nullable = false, updatable = false)
+    private LocalDateTime createdAt;
+
+    @Override
+    public LocalDateTime getCreatedAt() {
+        return createdAt;
+    }
+
+    @Override
+    public void setCreatedAt(LocalDateTime createdAt) {
+        this.createdAt = createdAt;
+    }
+}
@@ -0,0 +1,32 @@
+package com.arnavgpt.valoride.common.geo;
+
+/**
+ * Fixed lat/lon grid used to bucket locations. A cell id packs the latitude row
+ * into the high 32 bits and the longitude column into the low 32 bits, so ids
+ * are stable across nodes and can be reproduced in SQL:
+ * {@code (FLOOR((lat + 90) / size)::bigint << 32) | FLOOR((lon + 180) / size)::bigint}
+ */
+public final class GeoCell {
+
+    /**
+     * Cell edge in degrees, roughly 1.1 km north-south
+     */
+    public static final double CELL_SIZE_DEGREES = 0.01;
+
+    private GeoCell() {
+    }
+
+    public static long cellId(double latitude, double longitude) {
+        long row = (long) Math.floor((latitude + 90) / CELL_SIZE_DEGREES);
+        long column = (long) Math.floor((longitude + 180) / CELL_SIZE_DEGREES);
+        return (row << 32) | column;
+    }
+
+    public static double centerLatitude(long cellId) {
+        return ((cellId >>> 32) + 0.5) * CELL_SIZE_DEGREES - 90;
+    }
+
+    public static double centerLongitude(long cellId) {
+        return ((cellId & 0xFFFFFFFFL) + 0.5) * CELL_SIZE_DEGREES - 180;
+    }
+}
@@ -0,0 +1,234 @@
+package com.arnavgpt.valoride.common.idempotency;
+
+import com.arnavgpt.valoride.exception.BusinessException;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.HexFormat;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+/**
+ * Replays the first response for a client-supplied Idempotency-Key. Entries live in Redis per
+ * (scope, user, key): a pending marker while the first request runs, then its response for the
+ * configured TTL. Duplicates on the same node wait on the running call; duplicates on other nodes
+ * poll Redis until the response is stored. Failed calls release the key so the client can retry.
+ * If Redis is unreachable the call runs unprotected and the service's own checks apply.
+ */
+@Service
+public class IdempotencyService {
+
+    public static final String HEADER = "Idempotency-Key";
+
+    private static final Logger logger = LoggerFactory.getLogger(IdempotencyService.class);
+
+    private static final String KEY_PREFIX = "idempotency:";
+    private static final int MAX_KEY_LENGTH = 255;
+    private static final Duration POLL_INTERVAL = Duration.ofMillis(50);
+
+    private final StringRedisTemplate redisTemplate;
+    private final ObjectMapper objectMapper;
+    private final MeterRegistry meterRegistry;
+    private final Duration responseTtl;
+    private final Duration inFlightTtl;
+    private final Duration inFlightWait;
+
+    // Calls running on this node, so concurrent duplicates share one execution
+    private final Map<String, InFlight> inFlight = new ConcurrentHashMap<>();
+
+    public IdempotencyService(
+            StringRedisTemplate redisTemplate,
+            ObjectMapper objectMapper,
+            MeterRegistry meterRegistry,
+            @Value("${app.idempotency.response-ttl:1h}") Duration responseTtl,
+            @Value("${app.idempotency.in-flight-ttl:30s}") Duration inFlightTtl,
+            @Value("${app.idempotency.in-flight-wait:10s}") Duration inFlightWait) {
+        this.redisTemplate = redisTemplate;
+        this.objectMapper = objectMapper;
+        this.meterRegistry = meterRegistry;
+        this.responseTtl = responseTtl;
+        this.inFlightTtl = inFlightTtl;
+        this.inFlightWait = inFlightWait;
+    }
+
+    /**
+     * Run the action once per key, returning the stored response for repeats of the same request.
+     * Without a key the action simply runs. Reusing a key for a different request body is rejected.
+     */
+    public <T> T execute(String scope, UUID userId, String idempotencyKey, Object request,
+                         Class<T> responseType, Supplier<T> action) {
+        if (idempotencyKey == null) {
+            return action.get();
+        }
+        if (idempotencyKey.isBlank() || idempotencyKey.length() > MAX_KEY_LENGTH) {
+            throw new BusinessException(HEADER + " must be 1 to " + MAX_KEY_LENGTH + " characters",
+                    HttpStatus.BAD_REQUEST, "INVALID_IDEMPOTENCY_KEY");
+        }
+
+        String key = KEY_PREFIX + scope + ":" + userId + ":" + idempotencyKey;
+        String fingerprint = fingerprint(request);
+
+        InFlight mine = new InFlight(fingerprint, new CompletableFuture<>());
+        InFlight running = inFlight.putIfAbsent(key, mine);
+        if (running != null) {
+            checkFingerprint(running.fingerprint(), fingerprint);
+            meterRegistry.counter("app.idempotency.replays", "scope", scope).increment();
+            return responseType.cast(join(running.result()));
+        }
+
+        try {
+            T result = executeOnce(scope, key, fingerprint, responseType, action);
+            mine.result().complete(result);
+            return result;
+        } catch (RuntimeException e) {
+            mine.result().completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(key, mine);
+        }
+    }
+
+    private <T> T executeOnce(String scope, String key, String fingerprint, Class<T> responseType,
+                              Supplier<T> action) {
+        Instant deadline = Instant.now().plus(inFlightWait);
+        while (true) {
+            String stored;
+            // Only store failures fall back to running unprotected; failures of the action itself
+            // propagate from runAndStore, which has released the key
+            try {
+                Boolean claimed = redisTemplate.opsForValue()
+                        .setIfAbsent(key, write(new StoredEntry(fingerprint, null)), inFlightTtl);
+                if (Boolean.TRUE.equals(claimed)) {
+                    break;
+                }
+                stored = redisTemplate.opsForValue().get(key);
+            } catch (DataAccessException e) {
+                logger.warn("Idempotency store unavailable, running {} without replay protection: {}",
+                        scope, e.getMessage());
+                return action.get();
+            }
+
+            if (stored != null) {
+                try {
+                    StoredEntry entry = objectMapper.readValue(stored, StoredEntry.class);
+                    checkFingerprint(entry.fingerprint(), fingerprint);
+                    if (entry.isComplete()) {
+                        meterRegistry.counter("app.idempotency.replays", "scope", scope).increment();
+                        return objectMapper.treeToValue(entry.response(), responseType);
+                    }
+                } catch (JsonProcessingException e) {
+                    throw new IllegalStateException("Corrupt idempotency entry for " + key, e);
+                }
+            }
+
+            // Another node is still running the first request
+            if (Instant.now().isAfter(deadline)) {
+                throw new BusinessException("A request with this " + HEADER + " is still being processed",
+                        HttpStatus.CONFLICT, "IDEMPOTENCY_KEY_IN_USE");
+            }
+            sleep();
+        }
+        return runAndStore(key, fingerprint, action);
+    }
+
+    private <T> T runAndStore(String key, String fingerprint, Supplier<T> action) {
+        T result;
+        try {
+            result = action.get();
+        } catch (RuntimeException e) {
+            release(key);
+            throw e;
+        }
+
+        try {
+            redisTemplate.opsForValue().set(key,
+                    write(new StoredEntry(fingerprint, objectMapper.valueToTree(result))), responseTtl);
+        } catch (DataAccessException e) {
+            logger.warn("Failed to store idempotent response for {}: {}", key, e.getMessage());
+            release(key);
+        }
+        return result;
+    }
+
+    private void release(String key) {
+        try {
+            redisTemplate.delete(key);
+        } catch (DataAccessException e) {
+            // The pending marker expires after the in-flight TTL
+            logger.warn("Failed to release idempotency key {}: {}", key, e.getMessage());
+        }
+    }
+
+    private void checkFingerprint(String stored, String fingerprint) {
+        if (!stored.equals(fingerprint)) {
+            throw new BusinessException(HEADER + " was already used for a different request",
+                    HttpStatus.UNPROCESSABLE_ENTITY, "IDEMPOTENCY_KEY_REUSED");
+        }
+    }
+
+    private String fingerprint(Object request) {
+        try {
+            byte[] body = objectMapper.writeValueAsBytes(request);
+            return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(body));
+        } catch (JsonProcessingException | NoSuchAlgorithmException e) {
+            throw new IllegalStateException("Cannot fingerprint request", e);
+        }
+    }
+
+    private String write(StoredEntry entry) {
+        try {
+            return objectMapper.writeValueAsString(entry);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Cannot serialise idempotency entry", e);
+        }
+    }
+
+    private static Object join(CompletableFuture<Object> result) {
+        try {
+            return result.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+
+    private static void sleep() {
+        try {
+            Thread.sleep(POLL_INTERVAL);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted waiting for an idempotent request", e);
+        }
+    }
+
+    // response is null while the first request is still running
+    private record StoredEntry(String fingerprint, JsonNode response) {
+
+        // Jackson reads the pending marker's null response back as a NullNode
+        boolean isComplete() {
+            return response != null && !response.isNull();
+        }
+    }
+
+    private record InFlight(String fingerprint, CompletableFuture<Object> result) {
+    }
+}
@@ -0,0 +1,50 @@
+package com.arnavgpt.valoride.common.jdbc;
+
+import org.aopalliance.intercept.MethodInterceptor;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.data.repository.core.support.RepositoryFactoryBeanSupport;
+import org.springframework.lang.NonNull;
+import org.springframework.stereotype.Component;
+
+/**
+ * Remembers which repository method the current thread is inside, as "DriverRepository.findById",
+ * so SQL can be attributed to it. Statements Hibernate flushes at commit run outside any
+ * repository call and have no method.
+ */
+@Component
+public class RepositoryMethodTracker implements BeanPostProcessor {
+
+    private static final ThreadLocal<String> CURRENT = new ThreadLocal<>();
+
+    public static String current() {
+        return CURRENT.get();
+    }
+
+    @Override
+    public Object postProcessBeforeInitialization(@NonNull Object bean, @NonNull String beanName) {
+        // Before initialization, because the factory bean builds its repository in afterPropertiesSet
+        if (bean instanceof RepositoryFactoryBeanSupport<?, ?, ?> factoryBean) {
+            factoryBean.addRepositoryFactoryCustomizer(factory -> factory.addRepositoryProxyPostProcessor(
+                    (proxyFactory, metadata) -> proxyFactory.addAdvice(
+                            tracking(metadata.getRepositoryInterface().getSimpleName()))));
+        }
+        return bean;
+    }
+
+    private static MethodInterceptor tracking(String repositoryName) {
+        return invocation -> {
+            // Restore the outer method when one repository method calls another
+            String outer = CURRENT.get();
+            CURRENT.set(repositoryName + "." + invocation.getMethod().getName());
+            try {
+                return invocation.proceed();
+            } finally {
+                if (outer == null) {
+                    CURRENT.remove();
+                } else {
+                    CURRENT.set(outer);
+                }
+            }
+        };
+    }
+}
@@ -0,0 +1,76 @@
+package com.arnavgpt.valoride.common.jdbc;
+
+import net.ttddyy.dsproxy.ExecutionInfo;
+import net.ttddyy.dsproxy.QueryInfo;
+import net.ttddyy.dsproxy.listener.QueryExecutionListener;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Objects;
+import java.util.regex.Pattern;
+
+/**
+ * Logs statements slower than app.sql.slow-query.threshold with their fingerprint, bind count,
+ * duration and the repository method that ran them. The fields are key-value pairs, so the
+ * prod profile's JSON log carries them as separate fields. Runs on the datasource proxy that
+ * datasource-micrometer puts in front of Hikari.
+ */
+@Component
+public class SlowQueryLogger implements QueryExecutionListener {
+
+    private static final Logger logger = LoggerFactory.getLogger(SlowQueryLogger.class);
+
+    private static final Pattern STRING_LITERAL = Pattern.compile("'(?:[^']|'')*'");
+    private static final Pattern NUMBER_LITERAL = Pattern.compile("\\b\\d+(?:\\.\\d+)?\\b");
+    private static final Pattern PLACEHOLDER_LIST = Pattern.compile("\\(\\s*\\?(?:\\s*,\\s*\\?)+\\s*\\)");
+    private static final Pattern WHITESPACE = Pattern.compile("\\s+");
+
+    private final long thresholdMillis;
+
+    public SlowQueryLogger(@Value("${app.sql.slow-query.threshold:500ms}") Duration threshold) {
+        this.thresholdMillis = threshold.toMillis();
+    }
+
+    @Override
+    public void beforeQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+    }
+
+    @Override
+    public void afterQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+        if (execInfo.getElapsedTime() < thresholdMillis || queryInfoList.isEmpty()) {
+            return;
+        }
+
+        String fingerprint = fingerprint(queryInfoList.get(0).getQuery());
+        int bindCount = queryInfoList.stream()
+                .flatMap(query -> query.getParametersList().stream())
+                .mapToInt(List::size)
+                .sum();
+        String repositoryMethod = RepositoryMethodTracker.current();
+
+        logger.atWarn()
+                .addKeyValue("sql.fingerprint", fingerprint)
+                .addKeyValue("sql.bindCount", bindCount)
+                .addKeyValue("sql.batchSize", execInfo.getBatchSize())
+                .addKeyValue("sql.durationMs", execInfo.getElapsedTime())
+                .addKeyValue("sql.repositoryMethod", repositoryMethod)
+                .addKeyValue("sql.success", execInfo.isSuccess())
+                .log("Slow query took {} ms in {}: {}", execInfo.getElapsedTime(),
+                        Objects.requireNonNullElse(repositoryMethod, "-"), fingerprint);
+    }
+
+    /**
+     * The statement with literals replaced by ?, IN lists collapsed and whitespace normalized,
+     * so the same query with different arguments groups together
+     */
+    static String fingerprint(String sql) {
+        String normalized = STRING_LITERAL.matcher(sql).replaceAll("?");
+        normalized = NUMBER_LITERAL.matcher(normalized).replaceAll("?");
+        normalized = PLACEHOLDER_LIST.matcher(normalized).replaceAll("(?)");
+        return WHITESPACE.matcher(normalized).replaceAll(" ").trim();
+    }
+}
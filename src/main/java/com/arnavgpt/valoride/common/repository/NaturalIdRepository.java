@@ -0,0 +1,16 @@
+package com.arnavgpt.valoride.common.repository;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.repository.NoRepositoryBean;
+
+import java.util.Optional;
+
+/**
+ * Repository for an entity with a simple natural id. Lookups go through Hibernate's
+ * natural-id cache and then the second-level cache, so a warm lookup issues no SQL.
+ */
+@NoRepositoryBean
+public interface NaturalIdRepository<T, ID> extends JpaRepository<T, ID> {
+
+    Optional<T> findBySimpleNaturalId(Object naturalId);
+}
@@ -0,0 +1,28 @@
+package com.arnavgpt.valoride.common.repository;
+
+import jakarta.persistence.EntityManager;
+import org.hibernate.Session;
+import org.springframework.data.jpa.repository.support.JpaEntityInformation;
+import org.springframework.data.jpa.repository.support.SimpleJpaRepository;
+
+import java.util.Optional;
+
+/**
+ * Base class for all repositories; only those declaring NaturalIdRepository expose the natural-id lookup
+ */
+public class NaturalIdRepositoryImpl<T, ID> extends SimpleJpaRepository<T, ID> implements NaturalIdRepository<T, ID> {
+
+    private final EntityManager entityManager;
+
+    public NaturalIdRepositoryImpl(JpaEntityInformation<T, ?> entityInformation, EntityManager entityManager) {
+        super(entityInformation, entityManager);
+        this.entityManager = entityManager;
+    }
+
+    @Override
+    public Optional<T> findBySimpleNaturalId(Object naturalId) {
+        return entityManager.unwrap(Session.class)
+                .bySimpleNaturalId(getDomainClass())
+                .loadOptional(naturalId);
+    }
+}
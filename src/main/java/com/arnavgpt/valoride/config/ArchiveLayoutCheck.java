@@ -0,0 +1,98 @@
+package com.arnavgpt.valoride.config;
+
+import org.flywaydb.core.api.FlywayException;
+import org.flywaydb.core.api.callback.Callback;
+import org.flywaydb.core.api.callback.Context;
+import org.flywaydb.core.api.callback.Event;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * After every migration, fails unless each archive table and reporting view still has exactly
+ * the columns of its hot table, in the same order. Old months are detached from the hot table
+ * and attached to its archive, which only works while the two match, and rides_all fixed its
+ * column list when it was created. A migration that adds a column to rides or payments has
+ * to add it to the archive table and recreate the view as well.
+ */
+@Component
+public class ArchiveLayoutCheck implements Callback {
+
+    private static final Logger logger = LoggerFactory.getLogger(ArchiveLayoutCheck.class);
+
+    // Relation that must mirror the hot table it maps to
+    private static final Map<String, String> MIRRORS = Map.of(
+            "rides_archive", "rides",
+            "rides_all", "rides",
+            "payments_archive", "payments");
+
+    private static final String COLUMNS_SQL = """
+            SELECT column_name, data_type FROM information_schema.columns
+            WHERE table_schema = current_schema() AND table_name = ?
+            ORDER BY ordinal_position
+            """;
+
+    @Override
+    public boolean supports(Event event, Context context) {
+        return event == Event.AFTER_MIGRATE;
+    }
+
+    @Override
+    public boolean canHandleInTransaction(Event event, Context context) {
+        return true;
+    }
+
+    @Override
+    public void handle(Event event, Context context) {
+        Connection connection = context.getConnection();
+        List<String> drifted = new ArrayList<>();
+
+        try {
+            for (Map.Entry<String, String> mirror : MIRRORS.entrySet()) {
+                List<String> hot = columns(connection, mirror.getValue());
+                List<String> copy = columns(connection, mirror.getKey());
+                // Not created yet, e.g. while migrating up to the version that partitions them
+                if (hot.isEmpty() || copy.isEmpty()) {
+                    continue;
+                }
+                if (!hot.equals(copy)) {
+                    drifted.add(mirror.getKey());
+                    logger.error("{} columns {} differ from {} columns {}",
+                            mirror.getKey(), copy, mirror.getValue(), hot);
+                }
+            }
+        } catch (SQLException e) {
+            throw new FlywayException("Could not compare archive table layouts: " + e.getMessage(), e);
+        }
+
+        if (!drifted.isEmpty()) {
+            throw new FlywayException("Archive tables or views no longer match their hot tables: " + drifted);
+        }
+    }
+
+    private List<String> columns(Connection connection, String table) throws SQLException {
+        List<String> columns = new ArrayList<>();
+        try (PreparedStatement statement = connection.prepareStatement(COLUMNS_SQL)) {
+            statement.setString(1, table);
+            try (ResultSet resultSet = statement.executeQuery()) {
+                while (resultSet.next()) {
+                    columns.add(resultSet.getString(1) + " " + resultSet.getString(2));
+                }
+            }
+        }
+        return columns;
+    }
+
+    @Override
+    public String getCallbackName() {
+        return "archiveLayoutCheck";
+    }
+}
@@ -2,6 +2,7 @@ package com.arnavgpt.valoride.config;
 
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.core.task.support.ContextPropagatingTaskDecorator;
 import org.springframework.scheduling.annotation.EnableAsync;
 import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
 
@@ -18,6 +19,22 @@ public class AsyncConfig {
         executor.setMaxPoolSize(5);
         executor.setQueueCapacity(100);
         executor.setThreadNamePrefix("Async-");
+        // Carries the caller's trace (and MDC) onto the worker thread, so @Async work joins the request's trace
+        executor.setTaskDecorator(new ContextPropagatingTaskDecorator());
+        executor.initialize();
+        return executor;
+    }
+
+    /**
+     * Writes admin live metric events; kept apart so slow SSE clients cannot starve email delivery
+     */
+    @Bean(name = "metricsStreamExecutor")
+    public Executor metricsStreamExecutor() {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(2);
+        executor.setMaxPoolSize(4);
+        executor.setQueueCapacity(500);
+        executor.setThreadNamePrefix("MetricsStream-");
         executor.initialize();
         return executor;
     }
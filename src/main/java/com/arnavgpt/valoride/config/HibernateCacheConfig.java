@@ -0,0 +1,59 @@
+package com.arnavgpt.valoride.config;
+
+import com.arnavgpt.valoride.driver.entity.Driver;
+import com.arnavgpt.valoride.ride.entity.FareConfig;
+import com.arnavgpt.valoride.user.entity.User;
+import com.github.benmanes.caffeine.jcache.configuration.CaffeineConfiguration;
+import com.github.benmanes.caffeine.jcache.spi.CaffeineCachingProvider;
+import org.hibernate.cache.jcache.ConfigSettings;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.cache.CacheManager;
+import javax.cache.Caching;
+import java.net.URI;
+import java.time.Duration;
+import java.util.List;
+import java.util.OptionalLong;
+import java.util.UUID;
+
+/**
+ * Caffeine regions for the Hibernate second-level cache. Every region is created here and
+ * Hibernate is set to fail on a missing one, so a newly cached entity cannot end up unbounded.
+ */
+@Configuration
+public class HibernateCacheConfig {
+
+    private static final List<Class<?>> CACHED_ENTITIES = List.of(User.class, Driver.class, FareConfig.class);
+    private static final String NATURAL_ID_REGION_SUFFIX = "##NaturalId";
+
+    @Bean(destroyMethod = "close")
+    public CacheManager hibernateCacheManager(@Value("${app.cache.max-entries:100000}") long maxEntries,
+                                              @Value("${app.cache.expire-after-write:10m}") Duration expireAfterWrite) {
+        // A private manager per context, so test contexts never share regions
+        CacheManager cacheManager = Caching.getCachingProvider(CaffeineCachingProvider.class.getName())
+                .getCacheManager(URI.create("valoride:hibernate:" + UUID.randomUUID()), getClass().getClassLoader());
+
+        for (Class<?> entity : CACHED_ENTITIES) {
+            // Rows changed on another node are evicted by EntityCacheInvalidator; expiry covers lost evictions
+            cacheManager.createCache(entity.getName(), regionConfiguration(maxEntries, OptionalLong.of(expireAfterWrite.toNanos())));
+            // Natural ids never change, so their mapping to the primary key never goes stale
+            cacheManager.createCache(entity.getName() + NATURAL_ID_REGION_SUFFIX, regionConfiguration(maxEntries, OptionalLong.empty()));
+        }
+        return cacheManager;
+    }
+
+    @Bean
+    public HibernatePropertiesCustomizer hibernateCacheManagerCustomizer(CacheManager hibernateCacheManager) {
+        return properties -> properties.put(ConfigSettings.CACHE_MANAGER, hibernateCacheManager);
+    }
+
+    private static CaffeineConfiguration<Object, Object> regionConfiguration(long maxEntries, OptionalLong expireAfterWriteNanos) {
+        CaffeineConfiguration<Object, Object> configuration = new CaffeineConfiguration<>();
+        configuration.setMaximumSize(OptionalLong.of(maxEntries));
+        configuration.setExpireAfterWrite(expireAfterWriteNanos);
+        return configuration;
+    }
+}
@@ -0,0 +1,147 @@
+package com.arnavgpt.valoride.config;
+
+import org.flywaydb.core.api.FlywayException;
+import org.flywaydb.core.api.callback.Callback;
+import org.flywaydb.core.api.callback.Context;
+import org.flywaydb.core.api.callback.Event;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * After every migration, EXPLAINs the hot queries with sequential scans disabled and
+ * reports any that still plan a Seq Scan, i.e. queries no index can serve.
+ * Tables are usually small when this runs, so seq scans are switched off to see
+ * whether an index path exists at all rather than which path is cheapest today.
+ */
+@Component
+public class HotQueryPlanCheck implements Callback {
+
+    private static final Logger logger = LoggerFactory.getLogger(HotQueryPlanCheck.class);
+
+    private static final String SAMPLE_ID = "'00000000-0000-0000-0000-000000000000'";
+    private static final String SAMPLE_TIME = "TIMESTAMP '2025-01-01 00:00:00'";
+
+    // Shapes of the queries behind the request-path repository methods, with sample literals
+    private static final Map<String, String> HOT_QUERIES = new LinkedHashMap<>();
+
+    static {
+        HOT_QUERIES.put("RideRepository.hasActiveRide",
+                "SELECT 1 FROM rides WHERE rider_id = " + SAMPLE_ID +
+                        " AND status NOT IN ('COMPLETED', 'CANCELLED')");
+        HOT_QUERIES.put("RideRepository.driverHasActiveRide",
+                "SELECT 1 FROM rides WHERE driver_id = " + SAMPLE_ID +
+                        " AND status NOT IN ('COMPLETED', 'CANCELLED')");
+        HOT_QUERIES.put("RideRepository.findRiderHistoryBefore",
+                "SELECT id FROM rides WHERE rider_id = " + SAMPLE_ID +
+                        " AND (created_at, id) < (" + SAMPLE_TIME + ", " + SAMPLE_ID + ")" +
+                        " ORDER BY created_at DESC, id DESC LIMIT 21");
+        HOT_QUERIES.put("RideRepository.findDriverHistoryBefore",
+                "SELECT id FROM rides WHERE driver_id = " + SAMPLE_ID +
+                        " AND (created_at, id) < (" + SAMPLE_TIME + ", " + SAMPLE_ID + ")" +
+                        " ORDER BY created_at DESC, id DESC LIMIT 21");
+        HOT_QUERIES.put("AnalyticsRepository.countRideOutcomesByDriverIds",
+                "SELECT COUNT(*) FROM rides_all WHERE driver_id = " + SAMPLE_ID + " AND status = 'COMPLETED'");
+        HOT_QUERIES.put("AnalyticsRepository.countActiveRides",
+                "SELECT COUNT(*) FROM rides WHERE status NOT IN ('COMPLETED', 'CANCELLED')");
+        HOT_QUERIES.put("AnalyticsRepository.getRevenueBreakdownInDateRange",
+                "SELECT SUM(final_fare) FROM rides_all WHERE status = 'COMPLETED'" +
+                        " AND completed_at BETWEEN " + SAMPLE_TIME + " AND " + SAMPLE_TIME + " + INTERVAL '30 days'");
+        HOT_QUERIES.put("RideCubeService.query",
+                "SELECT SUM(ride_count) FROM analytics_ride_buckets WHERE granularity IN ('HOUR', 'DAY')" +
+                        " AND bucket_start >= " + SAMPLE_TIME + " AND bucket_start < " + SAMPLE_TIME + " + INTERVAL '90 days'" +
+                        " AND cell_id = -1");
+        HOT_QUERIES.put("RideCubeService.query for one cell",
+                "SELECT SUM(ride_count) FROM analytics_ride_buckets WHERE granularity IN ('HOUR', 'DAY')" +
+                        " AND bucket_start >= " + SAMPLE_TIME + " AND bucket_start < " + SAMPLE_TIME + " + INTERVAL '90 days'" +
+                        " AND cell_id = 0");
+        HOT_QUERIES.put("DriverRepository.findBySimpleNaturalId",
+                "SELECT id FROM drivers WHERE user_id = " + SAMPLE_ID);
+        HOT_QUERIES.put("DriverStateRepository.findNearbyAvailable",
+                "SELECT driver_id FROM driver_states WHERE is_available");
+        HOT_QUERIES.put("DriverRepository.findByApprovalStatus",
+                "SELECT id FROM drivers WHERE approval_status = 'PENDING' ORDER BY created_at LIMIT 20");
+        HOT_QUERIES.put("PaymentRepository.findByStripePaymentIntentId",
+                "SELECT id FROM payments WHERE stripe_payment_intent_id = 'pi_sample'");
+        HOT_QUERIES.put("PaymentRepository.findUserHistoryBefore",
+                "SELECT id FROM payments WHERE user_id = " + SAMPLE_ID +
+                        " AND (created_at, id) < (" + SAMPLE_TIME + ", " + SAMPLE_ID + ")" +
+                        " ORDER BY created_at DESC, id DESC LIMIT 21");
+        HOT_QUERIES.put("UserRepository.findBySimpleNaturalId",
+                "SELECT id FROM users WHERE email = 'sample@valoride.test'");
+    }
+
+    private final boolean enabled;
+    private final boolean failOnSeqScan;
+
+    public HotQueryPlanCheck(@Value("${app.db.plan-check.enabled:true}") boolean enabled,
+                             @Value("${app.db.plan-check.fail-on-seq-scan:false}") boolean failOnSeqScan) {
+        this.enabled = enabled;
+        this.failOnSeqScan = failOnSeqScan;
+    }
+
+    @Override
+    public boolean supports(Event event, Context context) {
+        return enabled && event == Event.AFTER_MIGRATE;
+    }
+
+    @Override
+    public boolean canHandleInTransaction(Event event, Context context) {
+        return true;
+    }
+
+    @Override
+    public void handle(Event event, Context context) {
+        Connection connection = context.getConnection();
+        List<String> seqScans = new ArrayList<>();
+
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("SET enable_seqscan = off");
+            try {
+                for (Map.Entry<String, String> query : HOT_QUERIES.entrySet()) {
+                    String plan = explain(statement, query.getValue());
+                    if (plan.contains("Seq Scan")) {
+                        seqScans.add(query.getKey());
+                        logger.warn("Hot query {} has no index path:\n{}", query.getKey(), plan);
+                    }
+                }
+            } finally {
+                statement.execute("RESET enable_seqscan");
+            }
+        } catch (SQLException e) {
+            logger.warn("Skipping hot query plan check: {}", e.getMessage());
+            return;
+        }
+
+        if (seqScans.isEmpty()) {
+            logger.info("Hot query plan check passed for {} queries", HOT_QUERIES.size());
+        } else if (failOnSeqScan) {
+            throw new FlywayException("Hot queries without an index path: " + seqScans);
+        }
+    }
+
+    private String explain(Statement statement, String sql) throws SQLException {
+        StringBuilder plan = new StringBuilder();
+        try (ResultSet resultSet = statement.executeQuery("EXPLAIN " + sql)) {
+            while (resultSet.next()) {
+                plan.append(resultSet.getString(1)).append('\n');
+            }
+        }
+        return plan.toString();
+    }
+
+    @Override
+    public String getCallbackName() {
+        return "hotQueryPlanCheck";
+    }
+}
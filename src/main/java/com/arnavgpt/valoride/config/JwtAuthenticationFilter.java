@@ -1,5 +1,7 @@
 package com.arnavgpt.valoride.config;
 
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
@@ -25,10 +27,13 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
     private final JwtService jwtService;
     private final CustomUserDetailsService userDetailsService;
+    private final MeterRegistry meterRegistry;
 
-    public JwtAuthenticationFilter(JwtService jwtService, CustomUserDetailsService userDetailsService) {
+    public JwtAuthenticationFilter(JwtService jwtService, CustomUserDetailsService userDetailsService,
+                                   MeterRegistry meterRegistry) {
         this.jwtService = jwtService;
         this.userDetailsService = userDetailsService;
+        this.meterRegistry = meterRegistry;
     }
 
     @Override
@@ -44,6 +49,9 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
             return;
         }
 
+        // Time token checks only, not the rest of the request
+        Timer.Sample sample = Timer.start(meterRegistry);
+        String outcome = "rejected";
         try {
             final String jwt = authHeader.substring(BEARER_PREFIX.length());
             final String email = jwtService.extractEmail(jwt);
@@ -52,29 +60,36 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
                 // Only validate access tokens, not refresh tokens
                 if (!jwtService.isAccessToken(jwt)) {
                     logger.debug("Token is not an access token");
-                    filterChain.doFilter(request, response);
-                    return;
-                }
-
-                UserDetails userDetails = userDetailsService.loadUserByUsername(email);
-
-                if (jwtService.isTokenValid(jwt, userDetails.getUsername())) {
-                    UsernamePasswordAuthenticationToken authToken = new UsernamePasswordAuthenticationToken(
-                            userDetails,
-                            null,
-                            userDetails.getAuthorities()
-                    );
-
-                    authToken.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
-                    SecurityContextHolder.getContext().setAuthentication(authToken);
-
-                    logger.debug("Authenticated user: {}", email);
+                } else {
+                    outcome = authenticate(request, jwt, email);
                 }
             }
         } catch (Exception e) {
+            outcome = "error";
             logger.error("Cannot set user authentication: {}", e.getMessage());
         }
+        sample.stop(meterRegistry.timer("app.security.jwt", "outcome", outcome));
 
         filterChain.doFilter(request, response);
     }
+
+    private String authenticate(HttpServletRequest request, String jwt, String email) {
+        UserDetails userDetails = userDetailsService.loadUserByUsername(email);
+
+        if (!jwtService.isTokenValid(jwt, userDetails.getUsername())) {
+            return "rejected";
+        }
+
+        UsernamePasswordAuthenticationToken authToken = new UsernamePasswordAuthenticationToken(
+                userDetails,
+                null,
+                userDetails.getAuthorities()
+        );
+
+        authToken.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
+        SecurityContextHolder.getContext().setAuthentication(authToken);
+
+        logger.debug("Authenticated user: {}", email);
+        return "authenticated";
+    }
 }
\ No newline at end of file
@@ -1,10 +1,13 @@
 package com.arnavgpt.valoride.config;
 
 import org.apache.kafka.clients.admin.NewTopic;
+import org.springframework.beans.factory.config.BeanPostProcessor;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.kafka.config.AbstractKafkaListenerContainerFactory;
 import org.springframework.kafka.config.TopicBuilder;
+import org.springframework.kafka.core.KafkaTemplate;
 
 @Configuration
 @ConditionalOnProperty(name = "spring.kafka.enabled", havingValue = "true", matchIfMissing = false)
@@ -37,4 +40,23 @@ public class KafkaConfig {
                 .replicas(1)
                 .build();
     }
-}
\ No newline at end of file
+
+    /**
+     * Producers and listeners carry the trace in record headers. Kafka auto-configuration is
+     * excluded, so this applies to whichever templates and container factories get declared.
+     */
+    @Bean
+    public static BeanPostProcessor kafkaObservationPostProcessor() {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (bean instanceof KafkaTemplate<?, ?> template) {
+                    template.setObservationEnabled(true);
+                } else if (bean instanceof AbstractKafkaListenerContainerFactory<?, ?, ?> factory) {
+                    factory.getContainerProperties().setObservationEnabled(true);
+                }
+                return bean;
+            }
+        };
+    }
+}
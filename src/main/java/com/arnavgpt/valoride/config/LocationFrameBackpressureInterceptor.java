@@ -0,0 +1,59 @@
+package com.arnavgpt.valoride.config;
+
+import com.arnavgpt.valoride.ride.service.RideLocationFeed;
+import org.springframework.lang.NonNull;
+import org.springframework.lang.Nullable;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.MessageChannel;
+import org.springframework.messaging.MessageHandler;
+import org.springframework.messaging.simp.SimpMessageHeaderAccessor;
+import org.springframework.messaging.support.ExecutorChannelInterceptor;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Drops location deltas for a session that has not yet been sent its previous location frame.
+ * The rider's client sees the sequence gap and waits for the next keyframe, which always goes
+ * through, so a slow connection falls behind by at most one frame instead of building a queue.
+ */
+@Component
+public class LocationFrameBackpressureInterceptor implements ExecutorChannelInterceptor {
+
+    // Location frames queued or being written, per session
+    private final Map<String, Integer> inFlight = new ConcurrentHashMap<>();
+
+    @Override
+    public Message<?> preSend(@NonNull Message<?> message, @NonNull MessageChannel channel) {
+        String frameType = frameType(message);
+        String sessionId = SimpMessageHeaderAccessor.getSessionId(message.getHeaders());
+        if (frameType == null || sessionId == null) {
+            return message;
+        }
+
+        boolean delta = RideLocationFeed.DELTA.equals(frameType);
+        boolean[] dropped = {false};
+        inFlight.compute(sessionId, (id, count) -> {
+            if (count != null && delta) {
+                dropped[0] = true;
+                return count;
+            }
+            return count == null ? 1 : count + 1;
+        });
+        return dropped[0] ? null : message;
+    }
+
+    @Override
+    public void afterMessageHandled(@NonNull Message<?> message, @NonNull MessageChannel channel,
+                                    @NonNull MessageHandler handler, @Nullable Exception ex) {
+        String sessionId = SimpMessageHeaderAccessor.getSessionId(message.getHeaders());
+        if (frameType(message) != null && sessionId != null) {
+            inFlight.computeIfPresent(sessionId, (id, count) -> count > 1 ? count - 1 : null);
+        }
+    }
+
+    private static String frameType(Message<?> message) {
+        return SimpMessageHeaderAccessor.getFirstNativeHeader(RideLocationFeed.FRAME_HEADER, message.getHeaders());
+    }
+}
@@ -0,0 +1,41 @@
+package com.arnavgpt.valoride.config;
+
+import io.micrometer.core.aop.TimedAspect;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+import java.util.concurrent.Executor;
+
+/**
+ * Application meters, scraped from /actuator/prometheus. Service timings are declared with
+ * {@code @Timed} on the service methods; everything here is named app.* and tagged only with
+ * low-cardinality values such as transition, operation, vehicle type and status.
+ */
+@Configuration
+public class MetricsConfig {
+
+    // Enables @Timed on Spring beans
+    @Bean
+    public TimedAspect timedAspect(MeterRegistry meterRegistry) {
+        return new TimedAspect(meterRegistry);
+    }
+
+    /**
+     * Emails waiting for a thread on the async executor that sends them
+     */
+    @Bean
+    public MeterBinder emailQueueMetrics(@Qualifier("taskExecutor") Executor taskExecutor) {
+        return registry -> {
+            if (taskExecutor instanceof ThreadPoolTaskExecutor executor) {
+                Gauge.builder("app.email.queue.depth", executor, ThreadPoolTaskExecutor::getQueueSize)
+                        .description("Emails queued for sending")
+                        .register(registry);
+            }
+        };
+    }
+}
@@ -1,18 +1,25 @@
 package com.arnavgpt.valoride.config;
 
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.actuate.autoconfigure.security.servlet.EndpointRequest;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.core.annotation.Order;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.authentication.AuthenticationProvider;
+import org.springframework.security.authentication.ProviderManager;
 import org.springframework.security.authentication.dao.DaoAuthenticationProvider;
+import org.springframework.security.config.Customizer;
 import org.springframework.security.config.annotation.authentication.configuration.AuthenticationConfiguration;
 import org.springframework.security.config.annotation.method.configuration.EnableMethodSecurity;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.config.annotation.web.configuration.EnableWebSecurity;
 import org.springframework.security.config.annotation.web.configurers.AbstractHttpConfigurer;
 import org.springframework.security.config.http.SessionCreationPolicy;
+import org.springframework.security.core.userdetails.User;
 import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.security.provisioning.InMemoryUserDetailsManager;
 import org.springframework.security.web.SecurityFilterChain;
 import org.springframework.security.web.authentication.UsernamePasswordAuthenticationFilter;
 
@@ -28,7 +35,9 @@ public class SecurityConfig {
             "/api-docs/**",
             "/v3/api-docs/**",
             "/actuator/health",
-            "/v1/payments/webhook"
+            "/v1/payments/webhook",
+            // STOMP handshake; the JWT is checked on the CONNECT frame instead
+            "/ws/**"
     };
 
     private final JwtAuthenticationFilter jwtAuthenticationFilter;
@@ -40,6 +49,34 @@ public class SecurityConfig {
         this.userDetailsService = userDetailsService;
     }
 
+    /**
+     * Prometheus scrapes with HTTP Basic credentials of its own rather than a user's JWT
+     */
+    @Bean
+    @Order(1)
+    public SecurityFilterChain metricsScrapeFilterChain(
+            HttpSecurity http,
+            @Value("${app.metrics.scrape.username}") String username,
+            @Value("${app.metrics.scrape.password}") String password) throws Exception {
+        DaoAuthenticationProvider scrapeProvider = new DaoAuthenticationProvider();
+        scrapeProvider.setUserDetailsService(new InMemoryUserDetailsManager(User.withUsername(username)
+                .password(passwordEncoder().encode(password))
+                .roles("METRICS")
+                .build()));
+        scrapeProvider.setPasswordEncoder(passwordEncoder());
+
+        http
+                .securityMatcher(EndpointRequest.to("prometheus"))
+                .csrf(AbstractHttpConfigurer::disable)
+                .sessionManagement(session ->
+                        session.sessionCreationPolicy(SessionCreationPolicy.STATELESS))
+                .authorizeHttpRequests(auth -> auth.anyRequest().hasRole("METRICS"))
+                .authenticationManager(new ProviderManager(scrapeProvider))
+                .httpBasic(Customizer.withDefaults());
+
+        return http.build();
+    }
+
     @Bean
     public SecurityFilterChain securityFilterChain(HttpSecurity http) throws Exception {
         http
@@ -49,6 +86,7 @@ public class SecurityConfig {
                 .authorizeHttpRequests(auth -> auth
                         .requestMatchers(PUBLIC_ENDPOINTS).permitAll()
                         .requestMatchers("/v1/admin/**").hasRole("ADMIN")
+                        .requestMatchers("/actuator/**").hasRole("ADMIN")
                         .anyRequest().authenticated()
                 )
                 .authenticationProvider(authenticationProvider())
@@ -0,0 +1,138 @@
+package com.arnavgpt.valoride.config;
+
+import com.arnavgpt.valoride.ride.dto.RideResponse;
+import com.arnavgpt.valoride.ride.service.RideLocationFeed;
+import com.arnavgpt.valoride.ride.service.RideService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.lang.NonNull;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.MessageChannel;
+import org.springframework.messaging.MessagingException;
+import org.springframework.messaging.simp.stomp.StompCommand;
+import org.springframework.messaging.simp.stomp.StompHeaderAccessor;
+import org.springframework.messaging.support.ChannelInterceptor;
+import org.springframework.messaging.support.MessageHeaderAccessor;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.stereotype.Component;
+
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * Authenticates STOMP sessions with the access token sent on CONNECT and only lets
+ * a rider or driver subscribe to updates for their own ride; the location feed is rider-only.
+ * Every later frame needs the authenticated user, and clients may only SEND to application
+ * destinations: the broker's topics are written by the server alone.
+ */
+@Component
+public class StompAuthChannelInterceptor implements ChannelInterceptor {
+
+    private static final Logger logger = LoggerFactory.getLogger(StompAuthChannelInterceptor.class);
+    private static final String AUTHORIZATION_HEADER = "Authorization";
+    private static final String BEARER_PREFIX = "Bearer ";
+    private static final String RIDE_TOPIC_PREFIX = "/topic/rides/";
+
+    private final JwtService jwtService;
+    private final CustomUserDetailsService userDetailsService;
+    private final RideService rideService;
+
+    public StompAuthChannelInterceptor(JwtService jwtService, CustomUserDetailsService userDetailsService,
+                                       @Lazy RideService rideService) {
+        this.jwtService = jwtService;
+        this.userDetailsService = userDetailsService;
+        this.rideService = rideService;
+    }
+
+    @Override
+    public Message<?> preSend(@NonNull Message<?> message, @NonNull MessageChannel channel) {
+        StompHeaderAccessor accessor = MessageHeaderAccessor.getAccessor(message, StompHeaderAccessor.class);
+        if (accessor == null) {
+            return message;
+        }
+
+        StompCommand command = accessor.getCommand();
+        // Heartbeats carry no command
+        if (command == null) {
+            return message;
+        }
+        if (StompCommand.CONNECT.equals(command)) {
+            accessor.setUser(authenticate(accessor.getFirstNativeHeader(AUTHORIZATION_HEADER)));
+            return message;
+        }
+
+        CustomUserDetails userDetails = authenticatedUser(accessor);
+        if (StompCommand.SUBSCRIBE.equals(command)) {
+            authorizeSubscription(accessor, userDetails);
+        } else if (StompCommand.SEND.equals(command)) {
+            authorizeSend(accessor);
+        }
+        return message;
+    }
+
+    private UsernamePasswordAuthenticationToken authenticate(String authHeader) {
+        if (authHeader == null || !authHeader.startsWith(BEARER_PREFIX)) {
+            throw new MessagingException("Missing access token");
+        }
+
+        String jwt = authHeader.substring(BEARER_PREFIX.length());
+        try {
+            String email = jwtService.extractEmail(jwt);
+            if (email != null && jwtService.isAccessToken(jwt) && jwtService.isTokenValid(jwt, email)) {
+                UserDetails userDetails = userDetailsService.loadUserByUsername(email);
+                return new UsernamePasswordAuthenticationToken(userDetails, null, userDetails.getAuthorities());
+            }
+        } catch (Exception e) {
+            logger.debug("Rejected STOMP connect: {}", e.getMessage());
+        }
+        throw new MessagingException("Invalid access token");
+    }
+
+    private CustomUserDetails authenticatedUser(StompHeaderAccessor accessor) {
+        if (!(accessor.getUser() instanceof UsernamePasswordAuthenticationToken authentication)
+                || !(authentication.getPrincipal() instanceof CustomUserDetails userDetails)) {
+            throw new MessagingException("Not authenticated");
+        }
+        return userDetails;
+    }
+
+    // A SEND to /topic would reach subscribers as if it were a real ride update
+    private void authorizeSend(StompHeaderAccessor accessor) {
+        String destination = accessor.getDestination();
+        if (destination == null || !destination.startsWith(WebSocketConfig.APPLICATION_PREFIX + "/")) {
+            throw new MessagingException("Cannot send to " + destination);
+        }
+    }
+
+    private void authorizeSubscription(StompHeaderAccessor accessor, CustomUserDetails userDetails) {
+        String destination = accessor.getDestination();
+        Optional<UUID> locationRideId = RideLocationFeed.parseTopic(destination);
+        UUID rideId = locationRideId.orElseGet(() -> parseRideTopic(destination));
+
+        RideResponse ride;
+        try {
+            // Throws unless the user is the ride's rider or assigned driver
+            ride = rideService.getRideById(rideId, userDetails.getId());
+        } catch (RuntimeException e) {
+            throw new MessagingException("Cannot subscribe to ride " + rideId);
+        }
+
+        // The driver's own position is only streamed to the rider
+        if (locationRideId.isPresent() && !ride.getRiderId().equals(userDetails.getId())) {
+            throw new MessagingException("Cannot subscribe to ride " + rideId);
+        }
+    }
+
+    private UUID parseRideTopic(String destination) {
+        if (destination == null || !destination.startsWith(RIDE_TOPIC_PREFIX)) {
+            throw new MessagingException("Unknown destination");
+        }
+        try {
+            return UUID.fromString(destination.substring(RIDE_TOPIC_PREFIX.length()));
+        } catch (IllegalArgumentException e) {
+            throw new MessagingException("Unknown destination");
+        }
+    }
+}
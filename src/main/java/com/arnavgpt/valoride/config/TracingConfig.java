@@ -0,0 +1,33 @@
+package com.arnavgpt.valoride.config;
+
+import io.lettuce.core.tracing.MicrometerTracing;
+import io.micrometer.observation.ObservationRegistry;
+import io.micrometer.observation.aop.ObservedAspect;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.data.redis.ClientResourcesBuilderCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Spans beyond what Spring Boot instruments on its own. HTTP and JDBC (datasource-micrometer)
+ * are traced by auto-configuration and Kafka by KafkaConfig; this adds Redis commands and
+ * {@code @Observed} service methods. Sampling is set by management.tracing.sampling.probability.
+ */
+@Configuration
+public class TracingConfig {
+
+    // Enables @Observed on Spring beans
+    @Bean
+    public ObservedAspect observedAspect(ObservationRegistry observationRegistry) {
+        return new ObservedAspect(observationRegistry);
+    }
+
+    /**
+     * A span per Redis command, without the command arguments (tokens and ids live there)
+     */
+    @Bean
+    public ClientResourcesBuilderCustomizer lettuceTracing(ObservationRegistry observationRegistry,
+                                                           @Value("${spring.application.name}") String serviceName) {
+        return builder -> builder.tracing(new MicrometerTracing(observationRegistry, serviceName));
+    }
+}
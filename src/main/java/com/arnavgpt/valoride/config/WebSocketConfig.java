@@ -0,0 +1,66 @@
+package com.arnavgpt.valoride.config;
+
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.messaging.simp.config.ChannelRegistration;
+import org.springframework.messaging.simp.config.MessageBrokerRegistry;
+import org.springframework.scheduling.TaskScheduler;
+import org.springframework.web.socket.config.annotation.EnableWebSocketMessageBroker;
+import org.springframework.web.socket.config.annotation.StompEndpointRegistry;
+import org.springframework.web.socket.config.annotation.WebSocketMessageBrokerConfigurer;
+
+/**
+ * STOMP over WebSocket at /ws. Each node runs an in-memory broker for its own sessions;
+ * RideUpdateRelay fans updates out to every node through Redis pub/sub.
+ */
+@Configuration
+@EnableWebSocketMessageBroker
+public class WebSocketConfig implements WebSocketMessageBrokerConfigurer {
+
+    // Topics the server pushes to, and destinations clients may send to
+    static final String BROKER_PREFIX = "/topic";
+    static final String APPLICATION_PREFIX = "/app";
+
+    private final StompAuthChannelInterceptor stompAuthChannelInterceptor;
+    private final LocationFrameBackpressureInterceptor locationFrameBackpressureInterceptor;
+    private final TaskScheduler brokerTaskScheduler;
+    private final long heartbeatMillis;
+    private final String[] allowedOrigins;
+
+    public WebSocketConfig(StompAuthChannelInterceptor stompAuthChannelInterceptor,
+                           LocationFrameBackpressureInterceptor locationFrameBackpressureInterceptor,
+                           @Lazy @Qualifier("messageBrokerTaskScheduler") TaskScheduler brokerTaskScheduler,
+                           @Value("${ride.updates.heartbeat-ms:10000}") long heartbeatMillis,
+                           @Value("${ride.updates.allowed-origins:*}") String[] allowedOrigins) {
+        this.stompAuthChannelInterceptor = stompAuthChannelInterceptor;
+        this.locationFrameBackpressureInterceptor = locationFrameBackpressureInterceptor;
+        this.brokerTaskScheduler = brokerTaskScheduler;
+        this.heartbeatMillis = heartbeatMillis;
+        this.allowedOrigins = allowedOrigins;
+    }
+
+    @Override
+    public void registerStompEndpoints(StompEndpointRegistry registry) {
+        registry.addEndpoint("/ws").setAllowedOriginPatterns(allowedOrigins);
+    }
+
+    @Override
+    public void configureMessageBroker(MessageBrokerRegistry registry) {
+        registry.enableSimpleBroker(BROKER_PREFIX)
+                .setHeartbeatValue(new long[]{heartbeatMillis, heartbeatMillis})
+                .setTaskScheduler(brokerTaskScheduler);
+        registry.setApplicationDestinationPrefixes(APPLICATION_PREFIX);
+    }
+
+    @Override
+    public void configureClientInboundChannel(ChannelRegistration registration) {
+        registration.interceptors(stompAuthChannelInterceptor);
+    }
+
+    @Override
+    public void configureClientOutboundChannel(ChannelRegistration registration) {
+        registration.interceptors(locationFrameBackpressureInterceptor);
+    }
+}
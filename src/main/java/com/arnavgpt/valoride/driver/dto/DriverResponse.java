@@ -2,6 +2,7 @@ package com.arnavgpt.valoride.driver.dto;
 
 import com.arnavgpt.valoride.driver.entity.ApprovalStatus;
 import com.arnavgpt.valoride.driver.entity.Driver;
+import com.arnavgpt.valoride.driver.entity.DriverState;
 import com.arnavgpt.valoride.driver.entity.VehicleType;
 import com.fasterxml.jackson.annotation.JsonInclude;
 
@@ -29,6 +30,7 @@ public class DriverResponse {
     private int totalRides;
     private BigDecimal totalEarnings;
     private Double distanceKm; // Distance from requested location
+    private Integer etaMins; // Driving time to requested location
     private LocalDateTime createdAt;
     private LocalDateTime updatedAt;
 
@@ -36,6 +38,13 @@ public class DriverResponse {
     }
 
     public static DriverResponse fromEntity(Driver driver) {
+        return fromEntity(driver, null);
+    }
+
+    /**
+     * Profile plus live position and availability; a driver with no state yet is offline
+     */
+    public static DriverResponse fromEntity(Driver driver, DriverState state) {
         DriverResponse response = new DriverResponse();
         response.setId(driver.getId());
         response.setUserId(driver.getUser().getId());
@@ -45,9 +54,11 @@ public class DriverResponse {
         response.setLicenseNumber(driver.getLicenseNumber());
         response.setVehicleNumber(driver.getVehicleNumber());
         response.setVehicleType(driver.getVehicleType());
-        response.setCurrentLatitude(driver.getCurrentLatitude());
-        response.setCurrentLongitude(driver.getCurrentLongitude());
-        response.setAvailable(driver.isAvailable());
+        if (state != null) {
+            response.setCurrentLatitude(state.getLatitude());
+            response.setCurrentLongitude(state.getLongitude());
+            response.setAvailable(state.isAvailable());
+        }
         response.setApprovalStatus(driver.getApprovalStatus());
         response.setRejectionReason(driver.getRejectionReason());
         response.setRating(driver.getRating());
@@ -212,6 +223,14 @@ public class DriverResponse {
         this.distanceKm = distanceKm;
     }
 
+    public Integer getEtaMins() {
+        return etaMins;
+    }
+
+    public void setEtaMins(Integer etaMins) {
+        this.etaMins = etaMins;
+    }
+
     public LocalDateTime getCreatedAt() {
         return createdAt;
     }
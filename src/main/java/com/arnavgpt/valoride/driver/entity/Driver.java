@@ -1,6 +1,6 @@
 package com.arnavgpt.valoride.driver.entity;
 
-import com.arnavgpt.valoride.common.entity.BaseEntity;
+import com.arnavgpt.valoride.common.entity.AuditedEntity;
 import com.arnavgpt.valoride.user.entity.User;
 import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
@@ -10,17 +10,29 @@ import jakarta.persistence.FetchType;
 import jakarta.persistence.JoinColumn;
 import jakarta.persistence.OneToOne;
 import jakarta.persistence.Table;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.NaturalId;
+import org.hibernate.annotations.NaturalIdCache;
 
 import java.math.BigDecimal;
+import java.util.UUID;
 
 @Entity
 @Table(name = "drivers")
-public class Driver extends BaseEntity {
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE)
+@NaturalIdCache
+public class Driver extends AuditedEntity {
 
     @OneToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "user_id", nullable = false, unique = true)
     private User user;
 
+    // Read-only copy of user_id, so drivers can be looked up by user through the natural-id cache
+    @NaturalId
+    @Column(name = "user_id", insertable = false, updatable = false)
+    private UUID userId;
+
     @Column(name = "license_number", nullable = false, length = 50)
     private String licenseNumber;
 
@@ -31,15 +43,6 @@ public class Driver extends BaseEntity {
     @Column(name = "vehicle_type", nullable = false)
     private VehicleType vehicleType;
 
-    @Column(name = "current_latitude", precision = 10, scale = 8)
-    private BigDecimal currentLatitude;
-
-    @Column(name = "current_longitude", precision = 11, scale = 8)
-    private BigDecimal currentLongitude;
-
-    @Column(name = "is_available")
-    private boolean available;
-
     @Enumerated(EnumType.STRING)
     @Column(name = "approval_status", nullable = false)
     private ApprovalStatus approvalStatus;
@@ -47,19 +50,27 @@ public class Driver extends BaseEntity {
     @Column(name = "rejection_reason")
     private String rejectionReason;
 
-    @Column(precision = 3, scale = 2)
+    // Stats are only changed by the atomic updates in DriverRepository, never by saving the entity
+    @Column(nullable = false, precision = 3, scale = 2, updatable = false)
     private BigDecimal rating;
 
-    @Column(name = "total_rides")
+    @Column(name = "rating_sum", nullable = false, precision = 12, scale = 1, updatable = false)
+    private BigDecimal ratingSum;
+
+    @Column(name = "rating_count", nullable = false, updatable = false)
+    private int ratingCount;
+
+    @Column(name = "total_rides", nullable = false, updatable = false)
     private int totalRides;
 
-    @Column(name = "total_earnings", precision = 12, scale = 2)
+    @Column(name = "total_earnings", nullable = false, precision = 12, scale = 2, updatable = false)
     private BigDecimal totalEarnings;
 
     public Driver() {
-        this.available = false;
         this.approvalStatus = ApprovalStatus.PENDING;
         this.rating = BigDecimal.ZERO;
+        this.ratingSum = BigDecimal.ZERO;
+        this.ratingCount = 0;
         this.totalRides = 0;
         this.totalEarnings = BigDecimal.ZERO;
     }
@@ -70,6 +81,11 @@ public class Driver extends BaseEntity {
 
     public void setUser(User user) {
         this.user = user;
+        this.userId = user != null ? user.getId() : null;
+    }
+
+    public UUID getUserId() {
+        return userId;
     }
 
     public String getLicenseNumber() {
@@ -96,30 +112,6 @@ public class Driver extends BaseEntity {
         this.vehicleType = vehicleType;
     }
 
-    public BigDecimal getCurrentLatitude() {
-        return currentLatitude;
-    }
-
-    public void setCurrentLatitude(BigDecimal currentLatitude) {
-        this.currentLatitude = currentLatitude;
-    }
-
-    public BigDecimal getCurrentLongitude() {
-        return currentLongitude;
-    }
-
-    public void setCurrentLongitude(BigDecimal currentLongitude) {
-        this.currentLongitude = currentLongitude;
-    }
-
-    public boolean isAvailable() {
-        return available;
-    }
-
-    public void setAvailable(boolean available) {
-        this.available = available;
-    }
-
     public ApprovalStatus getApprovalStatus() {
         return approvalStatus;
     }
@@ -140,41 +132,26 @@ public class Driver extends BaseEntity {
         return rating;
     }
 
-    public void setRating(BigDecimal rating) {
-        this.rating = rating;
+    public BigDecimal getRatingSum() {
+        return ratingSum;
     }
 
-    public int getTotalRides() {
-        return totalRides;
+    public int getRatingCount() {
+        return ratingCount;
     }
 
-    public void setTotalRides(int totalRides) {
-        this.totalRides = totalRides;
+    public int getTotalRides() {
+        return totalRides;
     }
 
     public BigDecimal getTotalEarnings() {
         return totalEarnings;
     }
 
-    public void setTotalEarnings(BigDecimal totalEarnings) {
-        this.totalEarnings = totalEarnings;
-    }
-
     public boolean isApproved() {
         return this.approvalStatus == ApprovalStatus.APPROVED;
     }
 
-    public void incrementTotalRides() {
-        this.totalRides++;
-    }
-
-    public void addEarnings(BigDecimal amount) {
-        if (this.totalEarnings == null) {
-            this.totalEarnings = BigDecimal.ZERO;
-        }
-        this.totalEarnings = this.totalEarnings.add(amount);
-    }
-
     @Override
     public String toString() {
         return "Driver{" +
@@ -182,7 +159,6 @@ public class Driver extends BaseEntity {
                 ", licenseNumber='" + licenseNumber + '\'' +
                 ", vehicleNumber='" + vehicleNumber + '\'' +
                 ", vehicleType=" + vehicleType +
-                ", available=" + available +
                 ", approvalStatus=" + approvalStatus +
                 '}';
     }
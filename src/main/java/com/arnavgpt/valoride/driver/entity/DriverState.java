@@ -0,0 +1,64 @@
+package com.arnavgpt.valoride.driver.entity;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * A driver's current position and availability, kept apart from the Driver profile so the
+ * constant churn never rewrites the profile row or evicts it from the second-level cache.
+ * A driver has no row until their first location update or availability change.
+ * Written only through the native upserts in DriverStateRepository.
+ */
+@Entity
+@Table(name = "driver_states")
+public class DriverState {
+
+    @Id
+    @Column(name = "driver_id")
+    private UUID driverId;
+
+    @Column(precision = 10, scale = 8)
+    private BigDecimal latitude;
+
+    @Column(precision = 11, scale = 8)
+    private BigDecimal longitude;
+
+    @Column(name = "is_available", nullable = false)
+    private boolean available;
+
+    @Column(name = "updated_at", nullable = false)
+    private LocalDateTime updatedAt;
+
+    protected DriverState() {
+    }
+
+    public UUID getDriverId() {
+        return driverId;
+    }
+
+    public BigDecimal getLatitude() {
+        return latitude;
+    }
+
+    public BigDecimal getLongitude() {
+        return longitude;
+    }
+
+    public boolean isAvailable() {
+        return available;
+    }
+
+    public LocalDateTime getUpdatedAt() {
+        return updatedAt;
+    }
+
+    public boolean hasLocation() {
+        return latitude != null && longitude != null;
+    }
+}
@@ -0,0 +1,34 @@
+package com.arnavgpt.valoride.driver.event;
+
+import com.arnavgpt.valoride.driver.entity.VehicleType;
+
+import java.util.UUID;
+
+/**
+ * Published whenever a driver goes online or offline, including the implicit
+ * changes when a ride is accepted, completed or cancelled by the driver.
+ */
+public class DriverAvailabilityChangedEvent {
+
+    private final UUID driverId;
+    private final VehicleType vehicleType;
+    private final boolean available;
+
+    public DriverAvailabilityChangedEvent(UUID driverId, VehicleType vehicleType, boolean available) {
+        this.driverId = driverId;
+        this.vehicleType = vehicleType;
+        this.available = available;
+    }
+
+    public UUID getDriverId() {
+        return driverId;
+    }
+
+    public VehicleType getVehicleType() {
+        return vehicleType;
+    }
+
+    public boolean isAvailable() {
+        return available;
+    }
+}
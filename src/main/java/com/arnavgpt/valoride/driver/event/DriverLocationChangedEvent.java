@@ -0,0 +1,38 @@
+package com.arnavgpt.valoride.driver.event;
+
+import java.math.BigDecimal;
+import java.util.UUID;
+
+/**
+ * Published whenever a driver reports a new location
+ */
+public class DriverLocationChangedEvent {
+
+    private final UUID driverId;
+    private final UUID userId;
+    private final BigDecimal latitude;
+    private final BigDecimal longitude;
+
+    public DriverLocationChangedEvent(UUID driverId, UUID userId, BigDecimal latitude, BigDecimal longitude) {
+        this.driverId = driverId;
+        this.userId = userId;
+        this.latitude = latitude;
+        this.longitude = longitude;
+    }
+
+    public UUID getDriverId() {
+        return driverId;
+    }
+
+    public UUID getUserId() {
+        return userId;
+    }
+
+    public BigDecimal getLatitude() {
+        return latitude;
+    }
+
+    public BigDecimal getLongitude() {
+        return longitude;
+    }
+}
@@ -1,12 +1,16 @@
 package com.arnavgpt.valoride.driver.repository;
 
+import com.arnavgpt.valoride.common.repository.NaturalIdRepository;
 import com.arnavgpt.valoride.driver.entity.ApprovalStatus;
 import com.arnavgpt.valoride.driver.entity.Driver;
 import com.arnavgpt.valoride.driver.entity.VehicleType;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
-import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
@@ -16,9 +20,11 @@ import java.util.Optional;
 import java.util.UUID;
 
 @Repository
-public interface DriverRepository extends JpaRepository<Driver, UUID> {
+public interface DriverRepository extends NaturalIdRepository<Driver, UUID> {
 
-    Optional<Driver> findByUserId(UUID userId);
+    // Declared on the native stats writes instead of "drivers", so Hibernate leaves the rest of the
+    // Driver cache region alone; callers evict the one driver they changed
+    String STATS_SPACE = "driver_stats";
 
     boolean existsByUserId(UUID userId);
 
@@ -28,78 +34,12 @@ public interface DriverRepository extends JpaRepository<Driver, UUID> {
 
     Page<Driver> findByApprovalStatus(ApprovalStatus status, Pageable pageable);
 
-    List<Driver> findByAvailableTrueAndApprovalStatus(ApprovalStatus status);
-
-    /**
-     * Find nearby available drivers using Haversine formula
-     * Distance is calculated in kilometers
-     */
-    @Query(value = """
-            SELECT d.* FROM drivers d
-            JOIN users u ON d.user_id = u.id
-            WHERE d.is_available = true
-            AND d.approval_status = 'APPROVED'
-            AND u.is_active = true
-            AND d.current_latitude IS NOT NULL
-            AND d.current_longitude IS NOT NULL
-            AND (
-                6371 * acos(
-                    cos(radians(:latitude)) * cos(radians(d.current_latitude)) *
-                    cos(radians(d.current_longitude) - radians(:longitude)) +
-                    sin(radians(:latitude)) * sin(radians(d.current_latitude))
-                )
-            ) <= :radiusKm
-            ORDER BY (
-                6371 * acos(
-                    cos(radians(:latitude)) * cos(radians(d.current_latitude)) *
-                    cos(radians(d.current_longitude) - radians(:longitude)) +
-                    sin(radians(:latitude)) * sin(radians(d.current_latitude))
-                )
-            ) ASC
-            LIMIT :limit
-            """, nativeQuery = true)
-    List<Driver> findNearbyAvailableDrivers(
-            @Param("latitude") BigDecimal latitude,
-            @Param("longitude") BigDecimal longitude,
-            @Param("radiusKm") double radiusKm,
-            @Param("limit") int limit
-    );
-
     /**
-     * Find nearby available drivers by vehicle type
+     * Drivers ranked by rating then total rides, with their users fetched in the same query
      */
-    @Query(value = """
-            SELECT d.* FROM drivers d
-            JOIN users u ON d.user_id = u.id
-            WHERE d.is_available = true
-            AND d.approval_status = 'APPROVED'
-            AND d.vehicle_type = :vehicleType
-            AND u.is_active = true
-            AND d.current_latitude IS NOT NULL
-            AND d.current_longitude IS NOT NULL
-            AND (
-                6371 * acos(
-                    cos(radians(:latitude)) * cos(radians(d.current_latitude)) *
-                    cos(radians(d.current_longitude) - radians(:longitude)) +
-                    sin(radians(:latitude)) * sin(radians(d.current_latitude))
-                )
-            ) <= :radiusKm
-            ORDER BY (
-                6371 * acos(
-                    cos(radians(:latitude)) * cos(radians(d.current_latitude)) *
-                    cos(radians(d.current_longitude) - radians(:longitude)) +
-                    sin(radians(:latitude)) * sin(radians(d.current_latitude))
-                )
-            ) ASC
-            LIMIT :limit
-            """, nativeQuery = true)
-    List<Driver> findNearbyAvailableDriversByVehicleType(
-            @Param("latitude") BigDecimal latitude,
-            @Param("longitude") BigDecimal longitude,
-            @Param("radiusKm") double radiusKm,
-            @Param("vehicleType") String vehicleType,
-            @Param("limit") int limit
-    );
+    @Query("SELECT d FROM Driver d JOIN FETCH d.user WHERE d.approvalStatus = :status " +
+            "ORDER BY d.rating DESC, d.totalRides DESC")
+    List<Driver> findRankedByApprovalStatusWithUser(@Param("status") ApprovalStatus status, Pageable pageable);
 
     @Query("SELECT d FROM Driver d WHERE d.user.id = :userId AND d.approvalStatus = :status")
     Optional<Driver> findByUserIdAndApprovalStatus(
@@ -110,6 +50,81 @@ public interface DriverRepository extends JpaRepository<Driver, UUID> {
     @Query("SELECT COUNT(d) FROM Driver d WHERE d.approvalStatus = :status")
     long countByApprovalStatus(@Param("status") ApprovalStatus status);
 
-    @Query("SELECT COUNT(d) FROM Driver d WHERE d.available = true AND d.approvalStatus = 'APPROVED'")
+    @Query("SELECT COUNT(d) FROM Driver d JOIN DriverState s ON s.driverId = d.id " +
+            "WHERE s.available = true AND d.approvalStatus = 'APPROVED'")
     long countAvailableDrivers();
-}
\ No newline at end of file
+
+    @Query("SELECT d.vehicleType, COUNT(d) FROM Driver d JOIN DriverState s ON s.driverId = d.id " +
+            "WHERE s.available = true AND d.approvalStatus = 'APPROVED' GROUP BY d.vehicleType")
+    List<Object[]> countAvailableDriversByVehicleType();
+
+    /**
+     * Add a completed ride to the driver's totals in place, so concurrent completions never lose one
+     */
+    @Modifying
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = STATS_SPACE))
+    @Query(value = """
+            UPDATE drivers
+            SET total_rides = total_rides + 1,
+                total_earnings = total_earnings + COALESCE(:fare, 0)
+            WHERE id = :driverId
+            """, nativeQuery = true)
+    int addCompletedRide(@Param("driverId") UUID driverId, @Param("fare") BigDecimal fare);
+
+    /**
+     * Fold one rating into the running sum and count and recompute the average from them
+     */
+    @Modifying
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = STATS_SPACE))
+    @Query(value = """
+            UPDATE drivers
+            SET rating_sum = rating_sum + :rating,
+                rating_count = rating_count + 1,
+                rating = ROUND((rating_sum + :rating) / (rating_count + 1), 2)
+            WHERE id = :driverId
+            """, nativeQuery = true)
+    int addRating(@Param("driverId") UUID driverId, @Param("rating") BigDecimal rating);
+
+    /**
+     * Lock every driver row, in id order, until the transaction ends. Taken before reconcileStats
+     * so that a completion or rating that holds a driver row commits before its rides are counted,
+     * and one that starts later waits until the reconciled totals are committed.
+     */
+    @Query(value = "SELECT id FROM drivers ORDER BY id FOR UPDATE", nativeQuery = true)
+    List<UUID> lockAllForUpdate();
+
+    /**
+     * Recompute every driver's stats from their rides, archived ones included, and return the
+     * ids of the drivers whose stored stats had drifted. Call it after lockAllForUpdate in the
+     * same transaction: as a statement of its own it reads the rides as of after the locks.
+     */
+    @Query(value = """
+            UPDATE drivers d
+            SET total_rides = s.total_rides,
+                total_earnings = s.total_earnings,
+                rating_sum = s.rating_sum,
+                rating_count = s.rating_count,
+                rating = CASE WHEN s.rating_count > 0 THEN ROUND(s.rating_sum / s.rating_count, 2) ELSE 0 END
+            FROM (
+                SELECT dr.id,
+                       COUNT(r.id) AS total_rides,
+                       COALESCE(SUM(r.final_fare), 0) AS total_earnings,
+                       COALESCE(SUM(r.rating), 0) AS rating_sum,
+                       COUNT(r.rating) AS rating_count
+                FROM drivers dr
+                LEFT JOIN rides_all r ON r.driver_id = dr.id AND r.status = 'COMPLETED'
+                GROUP BY dr.id
+            ) s
+            WHERE d.id = s.id
+            AND (d.total_rides, d.total_earnings, d.rating_sum, d.rating_count)
+                IS DISTINCT FROM (s.total_rides, s.total_earnings, s.rating_sum, s.rating_count)
+            RETURNING d.id
+            """, nativeQuery = true)
+    List<UUID> reconcileStats();
+
+    /**
+     * Serialises stats reconciliation across nodes; released when the transaction ends
+     */
+    @Query(value = "SELECT pg_try_advisory_xact_lock(:lockKey)", nativeQuery = true)
+    boolean tryLock(@Param("lockKey") long lockKey);
+}
@@ -0,0 +1,122 @@
+package com.arnavgpt.valoride.driver.repository;
+
+import com.arnavgpt.valoride.driver.entity.DriverState;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.UUID;
+
+@Repository
+public interface DriverStateRepository extends JpaRepository<DriverState, UUID> {
+
+    // Declared on native writes so Hibernate does not flush the whole second-level cache after them
+    String STATE_TABLE = "driver_states";
+
+    /**
+     * Record the driver's position, creating their state row on first use
+     */
+    @Modifying
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = STATE_TABLE))
+    @Query(value = """
+            INSERT INTO driver_states (driver_id, latitude, longitude, is_available, updated_at)
+            VALUES (:driverId, :latitude, :longitude, false, now())
+            ON CONFLICT (driver_id)
+            DO UPDATE SET latitude = EXCLUDED.latitude,
+                          longitude = EXCLUDED.longitude,
+                          updated_at = EXCLUDED.updated_at
+            """, nativeQuery = true)
+    void updateLocation(@Param("driverId") UUID driverId,
+                        @Param("latitude") BigDecimal latitude,
+                        @Param("longitude") BigDecimal longitude);
+
+    /**
+     * Set availability if it differs; returns 1 when it changed and 0 when it was already set
+     * or the driver has no state row yet (they have never sent a location, so are offline)
+     */
+    @Modifying
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = STATE_TABLE))
+    @Query(value = """
+            UPDATE driver_states SET is_available = :available, updated_at = now()
+            WHERE driver_id = :driverId AND is_available <> :available
+            """, nativeQuery = true)
+    int updateAvailability(@Param("driverId") UUID driverId, @Param("available") boolean available);
+
+    /**
+     * Take offline those of the given drivers who are still available and whose state row has
+     * not been written for timeoutSeconds, and return their ids and vehicle types. Location
+     * pings and going online both write updated_at, so a driver heard from since stays online.
+     */
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = STATE_TABLE))
+    @Query(value = """
+            UPDATE driver_states s SET is_available = false, updated_at = now()
+            FROM drivers d
+            WHERE d.id = s.driver_id
+            AND s.driver_id IN (:driverIds)
+            AND s.is_available
+            AND s.updated_at < now() - make_interval(secs => :timeoutSeconds)
+            RETURNING s.driver_id, d.vehicle_type
+            """, nativeQuery = true)
+    List<Object[]> markSilentUnavailable(@Param("driverIds") List<UUID> driverIds,
+                                         @Param("timeoutSeconds") double timeoutSeconds);
+
+    /**
+     * Ids and last write times of all available drivers, to rebuild the heartbeat index
+     */
+    @Query(value = "SELECT driver_id, updated_at FROM driver_states WHERE is_available", nativeQuery = true)
+    List<Object[]> findAvailableLastSeen();
+
+    /**
+     * Ids and last write times of those of the given drivers who are available
+     */
+    @Query(value = """
+            SELECT driver_id, updated_at FROM driver_states
+            WHERE driver_id IN (:driverIds) AND is_available
+            """, nativeQuery = true)
+    List<Object[]> findAvailableLastSeen(@Param("driverIds") List<UUID> driverIds);
+
+    /**
+     * Nearby available, approved and active drivers using the Haversine formula, nearest first.
+     * Distance is calculated in kilometers. A null vehicle type matches every type.
+     */
+    @Query(value = """
+            SELECT s.* FROM driver_states s
+            JOIN drivers d ON d.id = s.driver_id
+            JOIN users u ON d.user_id = u.id
+            WHERE s.is_available
+            AND d.approval_status = 'APPROVED'
+            AND (CAST(:vehicleType AS VARCHAR) IS NULL OR d.vehicle_type = :vehicleType)
+            AND u.is_active = true
+            AND s.latitude IS NOT NULL
+            AND s.longitude IS NOT NULL
+            AND (
+                6371 * acos(
+                    cos(radians(:latitude)) * cos(radians(s.latitude)) *
+                    cos(radians(s.longitude) - radians(:longitude)) +
+                    sin(radians(:latitude)) * sin(radians(s.latitude))
+                )
+            ) <= :radiusKm
+            ORDER BY (
+                6371 * acos(
+                    cos(radians(:latitude)) * cos(radians(s.latitude)) *
+                    cos(radians(s.longitude) - radians(:longitude)) +
+                    sin(radians(:latitude)) * sin(radians(s.latitude))
+                )
+            ) ASC
+            LIMIT :limit
+            """, nativeQuery = true)
+    List<DriverState> findNearbyAvailable(
+            @Param("latitude") BigDecimal latitude,
+            @Param("longitude") BigDecimal longitude,
+            @Param("radiusKm") double radiusKm,
+            @Param("vehicleType") String vehicleType,
+            @Param("limit") int limit
+    );
+}
@@ -0,0 +1,202 @@
+package com.arnavgpt.valoride.driver.service;
+
+import com.arnavgpt.valoride.driver.entity.VehicleType;
+import com.arnavgpt.valoride.driver.event.DriverAvailabilityChangedEvent;
+import com.arnavgpt.valoride.driver.event.DriverLocationChangedEvent;
+import com.arnavgpt.valoride.driver.repository.DriverStateRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.redis.core.DefaultTypedTuple;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.ZSetOperations.TypedTuple;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Takes drivers offline once they stop sending locations, so a driver whose phone lost signal
+ * does not stay in nearby search and the available counts with a stale position. The time each
+ * driver was last heard from is kept in a Redis sorted set scored by epoch millis; a periodic
+ * sweep reads the drivers silent past the timeout off its low end and marks them unavailable
+ * in batches, publishing the usual availability events. Searches and counts keep reading
+ * is_available and pay nothing for this.
+ */
+@Service
+public class DriverHeartbeatService {
+
+    private static final Logger logger = LoggerFactory.getLogger(DriverHeartbeatService.class);
+
+    private static final String HEARTBEAT_KEY = "driver_heartbeats";
+
+    // Sweeps stop after this many batches and leave the rest to the next sweep
+    private static final int MAX_BATCHES_PER_SWEEP = 20;
+
+    // Takes (driver, score) pairs after the cutoff and, unless a newer heartbeat arrived while
+    // the batch was being processed, re-scores each driver or removes it when the score is empty
+    private static final RedisScript<Long> SETTLE_SCRIPT = new DefaultRedisScript<>("""
+            local removed = 0
+            for i = 2, #ARGV, 2 do
+                local score = redis.call('ZSCORE', KEYS[1], ARGV[i])
+                if score and tonumber(score) <= tonumber(ARGV[1]) then
+                    if ARGV[i + 1] == '' then
+                        redis.call('ZREM', KEYS[1], ARGV[i])
+                        removed = removed + 1
+                    else
+                        redis.call('ZADD', KEYS[1], ARGV[i + 1], ARGV[i])
+                    end
+                end
+            end
+            return removed
+            """, Long.class);
+
+    private final StringRedisTemplate redisTemplate;
+    private final DriverStateRepository driverStateRepository;
+    private final ApplicationEventPublisher eventPublisher;
+    private final TransactionTemplate transactionTemplate;
+    private final Duration timeout;
+    private final int batchSize;
+    private final Counter evicted;
+
+    public DriverHeartbeatService(StringRedisTemplate redisTemplate, DriverStateRepository driverStateRepository,
+                                  ApplicationEventPublisher eventPublisher, TransactionTemplate transactionTemplate,
+                                  MeterRegistry meterRegistry,
+                                  @Value("${driver.heartbeat.timeout:3m}") Duration timeout,
+                                  @Value("${driver.heartbeat.batch-size:500}") int batchSize) {
+        this.redisTemplate = redisTemplate;
+        this.driverStateRepository = driverStateRepository;
+        this.eventPublisher = eventPublisher;
+        this.transactionTemplate = transactionTemplate;
+        this.timeout = timeout;
+        this.batchSize = batchSize;
+        this.evicted = Counter.builder("app.driver.heartbeat.evictions").register(meterRegistry);
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
+    public void onLocationChanged(DriverLocationChangedEvent event) {
+        record(event.getDriverId());
+    }
+
+    // Going online counts as being heard from, even before the next location ping
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
+    public void onAvailabilityChanged(DriverAvailabilityChangedEvent event) {
+        if (event.isAvailable()) {
+            record(event.getDriverId());
+        }
+    }
+
+    private void record(UUID driverId) {
+        try {
+            redisTemplate.opsForZSet().add(HEARTBEAT_KEY, driverId.toString(), System.currentTimeMillis());
+        } catch (DataAccessException e) {
+            // The sweep rebuilds the set from the database if it is lost
+            logger.warn("Could not record heartbeat for driver {}: {}", driverId, e.getMessage());
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${driver.heartbeat.sweep-interval-ms:30000}",
+            initialDelayString = "${driver.heartbeat.sweep-interval-ms:30000}")
+    public void sweep() {
+        try {
+            if (!Boolean.TRUE.equals(redisTemplate.hasKey(HEARTBEAT_KEY))) {
+                rebuild();
+            }
+
+            long cutoff = System.currentTimeMillis() - timeout.toMillis();
+            int total = 0;
+            for (int batch = 0; batch < MAX_BATCHES_PER_SWEEP; batch++) {
+                Set<String> silent = redisTemplate.opsForZSet()
+                        .rangeByScore(HEARTBEAT_KEY, Double.NEGATIVE_INFINITY, cutoff, 0, batchSize);
+                if (silent == null || silent.isEmpty()) {
+                    break;
+                }
+
+                List<UUID> ids = silent.stream().map(UUID::fromString).toList();
+                total += evict(ids);
+                settle(ids, cutoff);
+
+                if (silent.size() < batchSize) {
+                    break;
+                }
+            }
+
+            if (total > 0) {
+                logger.info("Took {} silent drivers offline", total);
+            }
+        } catch (DataAccessException e) {
+            logger.warn("Driver heartbeat sweep failed: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Mark the still-available drivers among the given ones unavailable; the database checks
+     * their last write again, so a driver whose ping raced the sweep is left online
+     */
+    private int evict(List<UUID> driverIds) {
+        Integer count = transactionTemplate.execute(status -> {
+            List<Object[]> rows = driverStateRepository.markSilentUnavailable(driverIds, timeout.toMillis() / 1000.0);
+            for (Object[] row : rows) {
+                eventPublisher.publishEvent(new DriverAvailabilityChangedEvent(
+                        (UUID) row[0], VehicleType.valueOf((String) row[1]), false));
+            }
+            return rows.size();
+        });
+        evicted.increment(count);
+        return count;
+    }
+
+    /**
+     * Drop swept drivers from the set, except those the database kept online because it saw a
+     * write the set missed: they go back in at that write, so the sweep after the timeout from
+     * it looks at them again
+     */
+    private void settle(List<UUID> driverIds, long cutoff) {
+        Map<String, Long> lastSeen = new HashMap<>();
+        for (Object[] row : driverStateRepository.findAvailableLastSeen(driverIds)) {
+            // Never at or below the cutoff, so clock skew with the database cannot bring them back this sweep
+            lastSeen.put(row[0].toString(), Math.max(((Timestamp) row[1]).getTime(), cutoff + 1));
+        }
+
+        List<String> args = new ArrayList<>(driverIds.size() * 2 + 1);
+        args.add(Long.toString(cutoff));
+        for (UUID driverId : driverIds) {
+            Long score = lastSeen.get(driverId.toString());
+            args.add(driverId.toString());
+            args.add(score == null ? "" : Long.toString(score));
+        }
+        redisTemplate.execute(SETTLE_SCRIPT, List.of(HEARTBEAT_KEY), args.toArray());
+    }
+
+    /**
+     * Index every available driver at their last database write, without overwriting heartbeats
+     * that arrived meanwhile. Runs when the set is missing: on first start or after Redis lost it.
+     */
+    private void rebuild() {
+        Set<TypedTuple<String>> lastSeen = new HashSet<>();
+        for (Object[] row : driverStateRepository.findAvailableLastSeen()) {
+            lastSeen.add(new DefaultTypedTuple<>(row[0].toString(), (double) ((Timestamp) row[1]).getTime()));
+        }
+        if (!lastSeen.isEmpty()) {
+            redisTemplate.opsForZSet().addIfAbsent(HEARTBEAT_KEY, lastSeen);
+            logger.info("Rebuilt driver heartbeats for {} available drivers", lastSeen.size());
+        }
+    }
+}
@@ -1,27 +1,41 @@
 package com.arnavgpt.valoride.driver.service;
 
+import com.arnavgpt.valoride.common.cache.EntityCacheEvictionEvent;
 import com.arnavgpt.valoride.driver.dto.AvailabilityUpdateRequest;
 import com.arnavgpt.valoride.driver.dto.DriverRegistrationRequest;
 import com.arnavgpt.valoride.driver.dto.DriverResponse;
 import com.arnavgpt.valoride.driver.dto.LocationUpdateRequest;
 import com.arnavgpt.valoride.driver.dto.NearbyDriversRequest;
 import com.arnavgpt.valoride.driver.entity.Driver;
+import com.arnavgpt.valoride.driver.entity.DriverState;
+import com.arnavgpt.valoride.driver.event.DriverAvailabilityChangedEvent;
+import com.arnavgpt.valoride.driver.event.DriverLocationChangedEvent;
 import com.arnavgpt.valoride.driver.repository.DriverRepository;
+import com.arnavgpt.valoride.driver.repository.DriverStateRepository;
 import com.arnavgpt.valoride.exception.BusinessException;
 import com.arnavgpt.valoride.exception.DuplicateResourceException;
 import com.arnavgpt.valoride.exception.ForbiddenException;
 import com.arnavgpt.valoride.exception.ResourceNotFoundException;
+import com.arnavgpt.valoride.routing.service.EtaService;
 import com.arnavgpt.valoride.user.entity.Role;
 import com.arnavgpt.valoride.user.entity.User;
 import com.arnavgpt.valoride.user.repository.UserRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.math.BigDecimal;
+import java.util.Comparator;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
 import java.util.UUID;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 @Service
@@ -30,12 +44,27 @@ public class DriverService {
     private static final Logger logger = LoggerFactory.getLogger(DriverService.class);
     private static final double EARTH_RADIUS_KM = 6371.0;
 
+    // Candidates fetched by straight-line distance per driver returned, so ETA ranking has
+    // something to reorder: the nearest driver may be across a river
+    private static final int ETA_CANDIDATES_PER_RESULT = 3;
+    private static final int MAX_ETA_CANDIDATES = 60;
+
     private final DriverRepository driverRepository;
+    private final DriverStateRepository driverStateRepository;
     private final UserRepository userRepository;
+    private final ApplicationEventPublisher eventPublisher;
+    private final MeterRegistry meterRegistry;
+    private final EtaService etaService;
 
-    public DriverService(DriverRepository driverRepository, UserRepository userRepository) {
+    public DriverService(DriverRepository driverRepository, DriverStateRepository driverStateRepository,
+                         UserRepository userRepository, ApplicationEventPublisher eventPublisher,
+                         MeterRegistry meterRegistry, EtaService etaService) {
         this.driverRepository = driverRepository;
+        this.driverStateRepository = driverStateRepository;
         this.userRepository = userRepository;
+        this.eventPublisher = eventPublisher;
+        this.meterRegistry = meterRegistry;
+        this.etaService = etaService;
     }
 
     @Transactional
@@ -78,95 +107,150 @@ public class DriverService {
     }
 
     public DriverResponse getDriverByUserId(UUID userId) {
-        Driver driver = driverRepository.findByUserId(userId)
+        Driver driver = findDriverByUserId(userId)
                 .orElseThrow(() -> new ResourceNotFoundException("Driver", "userId", userId));
 
-        return DriverResponse.fromEntity(driver);
+        return DriverResponse.fromEntity(driver, findState(driver.getId()).orElse(null));
     }
 
     public DriverResponse getDriverById(UUID driverId) {
         Driver driver = driverRepository.findById(driverId)
                 .orElseThrow(() -> new ResourceNotFoundException("Driver", "id", driverId));
 
-        return DriverResponse.fromEntity(driver);
+        return DriverResponse.fromEntity(driver, findState(driver.getId()).orElse(null));
     }
 
     @Transactional
     public DriverResponse updateLocation(UUID userId, LocationUpdateRequest request) {
-        Driver driver = driverRepository.findByUserId(userId)
+        Driver driver = findDriverByUserId(userId)
                 .orElseThrow(() -> new ResourceNotFoundException("Driver", "userId", userId));
 
         if (!driver.isApproved()) {
             throw new BusinessException("Driver account is not approved", HttpStatus.FORBIDDEN);
         }
 
-        driver.setCurrentLatitude(request.getLatitude());
-        driver.setCurrentLongitude(request.getLongitude());
-
-        Driver updatedDriver = driverRepository.save(driver);
+        // Only the state row is written; the cached profile stays valid
+        driverStateRepository.updateLocation(driver.getId(), request.getLatitude(), request.getLongitude());
         logger.debug("Updated location for driver: {}", driver.getId());
 
-        return DriverResponse.fromEntity(updatedDriver);
+        eventPublisher.publishEvent(
+                new DriverLocationChangedEvent(driver.getId(), userId, request.getLatitude(), request.getLongitude()));
+
+        return DriverResponse.fromEntity(driver, findState(driver.getId()).orElse(null));
     }
 
     @Transactional
     public DriverResponse updateAvailability(UUID userId, AvailabilityUpdateRequest request) {
-        Driver driver = driverRepository.findByUserId(userId)
+        Driver driver = findDriverByUserId(userId)
                 .orElseThrow(() -> new ResourceNotFoundException("Driver", "userId", userId));
 
         if (!driver.isApproved()) {
             throw new BusinessException("Driver account is not approved", HttpStatus.FORBIDDEN);
         }
 
+        DriverState state = findState(driver.getId()).orElse(null);
+
         // Require location before going available
-        if (request.getAvailable() &&
-                (driver.getCurrentLatitude() == null || driver.getCurrentLongitude() == null)) {
+        if (request.getAvailable() && (state == null || !state.hasLocation())) {
             throw new BusinessException("Please update your location before going online", HttpStatus.BAD_REQUEST);
         }
 
-        driver.setAvailable(request.getAvailable());
-
-        Driver updatedDriver = driverRepository.save(driver);
+        setAvailable(driver, request.getAvailable());
         logger.info("Driver {} is now {}", driver.getId(), request.getAvailable() ? "online" : "offline");
 
-        return DriverResponse.fromEntity(updatedDriver);
+        DriverResponse response = DriverResponse.fromEntity(driver, state);
+        response.setAvailable(request.getAvailable());
+        return response;
     }
 
-    public List<DriverResponse> findNearbyDrivers(NearbyDriversRequest request) {
-        List<Driver> drivers;
-
-        if (request.getVehicleType() != null) {
-            drivers = driverRepository.findNearbyAvailableDriversByVehicleType(
-                    request.getLatitude(),
-                    request.getLongitude(),
-                    request.getRadiusKm(),
-                    request.getVehicleType().name(),
-                    request.getLimit()
-            );
-        } else {
-            drivers = driverRepository.findNearbyAvailableDrivers(
-                    request.getLatitude(),
-                    request.getLongitude(),
-                    request.getRadiusKm(),
-                    request.getLimit()
-            );
+    /**
+     * Set the driver's availability without touching the profile row. A driver who has never
+     * sent a location has no state row and stays offline.
+     */
+    @Transactional
+    public void setAvailable(Driver driver, boolean available) {
+        if (driverStateRepository.updateAvailability(driver.getId(), available) > 0) {
+            eventPublisher.publishEvent(
+                    new DriverAvailabilityChangedEvent(driver.getId(), driver.getVehicleType(), available));
         }
+    }
+
+    /**
+     * Count a completed ride and its fare towards the driver's totals
+     */
+    @Transactional
+    public void recordCompletedRide(Driver driver, BigDecimal fare) {
+        driverRepository.addCompletedRide(driver.getId(), fare);
+        eventPublisher.publishEvent(EntityCacheEvictionEvent.ofNativeUpdate(Driver.class, driver.getId()));
+    }
+
+    @Transactional
+    public void recordRating(Driver driver, BigDecimal rating) {
+        driverRepository.addRating(driver.getId(), rating);
+        eventPublisher.publishEvent(EntityCacheEvictionEvent.ofNativeUpdate(Driver.class, driver.getId()));
+    }
+
+    public boolean isAvailable(Driver driver) {
+        return findState(driver.getId()).map(DriverState::isAvailable).orElse(false);
+    }
+
+    public Optional<DriverState> findState(UUID driverId) {
+        return driverStateRepository.findById(driverId);
+    }
 
-        return drivers.stream()
-                .map(driver -> {
+    /**
+     * Available drivers within the radius, quickest to reach the point first
+     */
+    public List<DriverResponse> findNearbyDrivers(NearbyDriversRequest request) {
+        Timer.Sample sample = Timer.start(meterRegistry);
+        String vehicleType = request.getVehicleType() != null ? request.getVehicleType().name() : "ANY";
+        double latitude = request.getLatitude().doubleValue();
+        double longitude = request.getLongitude().doubleValue();
+
+        List<DriverState> states = driverStateRepository.findNearbyAvailable(
+                request.getLatitude(),
+                request.getLongitude(),
+                request.getRadiusKm(),
+                request.getVehicleType() != null ? request.getVehicleType().name() : null,
+                Math.min(request.getLimit() * ETA_CANDIDATES_PER_RESULT, MAX_ETA_CANDIDATES)
+        );
+
+        // Constant-time matrix lookups, so ranking the whole candidate list costs next to nothing
+        Map<UUID, Integer> etaSeconds = states.stream().collect(Collectors.toMap(
+                DriverState::getDriverId,
+                state -> etaService.etaSeconds(state.getLatitude().doubleValue(), state.getLongitude().doubleValue(),
+                        latitude, longitude)));
+        List<DriverState> quickest = states.stream()
+                .sorted(Comparator.comparingInt(state -> etaSeconds.get(state.getDriverId())))
+                .limit(request.getLimit())
+                .toList();
+
+        Map<UUID, Driver> drivers = driverRepository.findAllById(
+                        quickest.stream().map(DriverState::getDriverId).toList())
+                .stream()
+                .collect(Collectors.toMap(Driver::getId, Function.identity()));
+
+        List<DriverResponse> nearby = quickest.stream()
+                .filter(state -> drivers.containsKey(state.getDriverId()))
+                .map(state -> {
                     double distance = calculateDistance(
-                            request.getLatitude().doubleValue(),
-                            request.getLongitude().doubleValue(),
-                            driver.getCurrentLatitude().doubleValue(),
-                            driver.getCurrentLongitude().doubleValue()
+                            latitude,
+                            longitude,
+                            state.getLatitude().doubleValue(),
+                            state.getLongitude().doubleValue()
                     );
-                    DriverResponse response = DriverResponse.fromEntityPublic(driver);
+                    DriverResponse response = DriverResponse.fromEntityPublic(drivers.get(state.getDriverId()));
                     response.setDistanceKm(Math.round(distance * 100.0) / 100.0); // Round to 2 decimal places
-                    response.setCurrentLatitude(driver.getCurrentLatitude());
-                    response.setCurrentLongitude(driver.getCurrentLongitude());
+                    response.setEtaMins((int) Math.ceil(etaSeconds.get(state.getDriverId()) / 60.0));
+                    response.setCurrentLatitude(state.getLatitude());
+                    response.setCurrentLongitude(state.getLongitude());
                     return response;
                 })
                 .collect(Collectors.toList());
+
+        sample.stop(meterRegistry.timer("app.driver.nearby", "vehicleType", vehicleType));
+        meterRegistry.summary("app.driver.nearby.results", "vehicleType", vehicleType).record(nearby.size());
+        return nearby;
     }
 
     public Driver findById(UUID driverId) {
@@ -175,10 +259,15 @@ public class DriverService {
     }
 
     public Driver findByUserId(UUID userId) {
-        return driverRepository.findByUserId(userId)
+        return findDriverByUserId(userId)
                 .orElseThrow(() -> new ResourceNotFoundException("Driver", "userId", userId));
     }
 
+    // Natural-id lookup, served from the second-level cache once warm
+    private Optional<Driver> findDriverByUserId(UUID userId) {
+        return driverRepository.findBySimpleNaturalId(userId);
+    }
+
     public Driver findAvailableDriverById(UUID driverId) {
         Driver driver = findById(driverId);
 
@@ -186,7 +275,7 @@ public class DriverService {
             throw new BusinessException("Driver is not approved", HttpStatus.BAD_REQUEST);
         }
 
-        if (!driver.isAvailable()) {
+        if (!isAvailable(driver)) {
             throw new BusinessException("Driver is not available", HttpStatus.BAD_REQUEST);
         }
 
@@ -0,0 +1,59 @@
+package com.arnavgpt.valoride.driver.service;
+
+import com.arnavgpt.valoride.common.cache.EntityCacheEvictionEvent;
+import com.arnavgpt.valoride.driver.entity.Driver;
+import com.arnavgpt.valoride.driver.repository.DriverRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Recomputes driver totals and ratings from their rides. The running totals are updated in
+ * place as rides complete and get rated; this corrects any drift they pick up, e.g. from a manual
+ * fix to a ride. The driver rows stay locked while the totals are recomputed, so completions and
+ * ratings queue behind the reconciliation instead of being overwritten by it.
+ */
+@Service
+public class DriverStatsReconciliationService {
+
+    private static final Logger logger = LoggerFactory.getLogger(DriverStatsReconciliationService.class);
+
+    // Arbitrary application-wide key for pg advisory locks held by stats reconciliation
+    private static final long RECONCILE_LOCK_KEY = 0x44525652_53544154L;
+
+    private final DriverRepository driverRepository;
+    private final ApplicationEventPublisher eventPublisher;
+
+    public DriverStatsReconciliationService(DriverRepository driverRepository,
+                                            ApplicationEventPublisher eventPublisher) {
+        this.driverRepository = driverRepository;
+        this.eventPublisher = eventPublisher;
+    }
+
+    @Scheduled(cron = "${driver.stats.reconcile-cron:0 45 3 * * *}")
+    @Transactional
+    public void reconcile() {
+        if (!driverRepository.tryLock(RECONCILE_LOCK_KEY)) {
+            logger.debug("Driver stats reconciliation already running on another node");
+            return;
+        }
+
+        // Under READ COMMITTED the UPDATE sees every completion that held a driver row when the
+        // locks were requested; computed in the same statement as the lock wait it would not
+        driverRepository.lockAllForUpdate();
+        List<UUID> corrected = driverRepository.reconcileStats();
+        for (UUID driverId : corrected) {
+            eventPublisher.publishEvent(EntityCacheEvictionEvent.ofNativeUpdate(Driver.class, driverId));
+        }
+
+        if (!corrected.isEmpty()) {
+            logger.warn("Corrected drifted stats for {} drivers", corrected.size());
+        }
+    }
+}
@@ -2,6 +2,7 @@ package com.arnavgpt.valoride.notification.service;
 
 import com.arnavgpt.valoride.notification.dto.NotificationEvent;
 import com.arnavgpt.valoride.notification.dto.NotificationType;
+import io.micrometer.observation.annotation.Observed;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Value;
@@ -18,6 +19,7 @@ import jakarta.mail.internet.MimeMessage;
 public class EmailService {
 
     private static final Logger logger = LoggerFactory.getLogger(EmailService.class);
+    private static final String SEND_OBSERVATION = "app.email.send";
 
     private final JavaMailSender mailSender;
     private final String fromEmail;
@@ -33,6 +35,7 @@ public class EmailService {
     }
 
     @Async
+    @Observed(name = SEND_OBSERVATION)
     public void sendNotification(NotificationEvent event) {
         if (!emailEnabled || fromEmail == null || fromEmail.isEmpty()) {
             logger.info("Email disabled. Would send to {}: {}", event.getUserEmail(), event.getSubject());
@@ -52,6 +55,7 @@ public class EmailService {
     }
 
     @Async
+    @Observed(name = SEND_OBSERVATION)
     public void sendSimpleEmail(String to, String subject, String text) {
         if (!emailEnabled || fromEmail == null || fromEmail.isEmpty()) {
             logger.info("Email disabled. Would send to {}: {}", to, subject);
@@ -74,6 +78,7 @@ public class EmailService {
     }
 
     @Async
+    @Observed(name = SEND_OBSERVATION)
     public void sendHtmlEmail(String to, String subject, String htmlBody) throws MessagingException {
         if (!emailEnabled || fromEmail == null || fromEmail.isEmpty()) {
             logger.info("Email disabled. Would send HTML to {}: {}", to, subject);
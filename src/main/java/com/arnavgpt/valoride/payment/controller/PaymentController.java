@@ -1,6 +1,8 @@
 package com.arnavgpt.valoride.payment.controller;
 
 import com.arnavgpt.valoride.common.dto.ApiResponse;
+import com.arnavgpt.valoride.common.dto.CursorPage;
+import com.arnavgpt.valoride.common.idempotency.IdempotencyService;
 import com.arnavgpt.valoride.config.CustomUserDetails;
 import com.arnavgpt.valoride.payment.dto.ConfirmCashPaymentRequest;
 import com.arnavgpt.valoride.payment.dto.CreatePaymentRequest;
@@ -21,7 +23,9 @@ import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
 import java.util.UUID;
@@ -32,19 +36,24 @@ import java.util.UUID;
 public class PaymentController {
 
     private final PaymentService paymentService;
+    private final IdempotencyService idempotencyService;
 
-    public PaymentController(PaymentService paymentService) {
+    public PaymentController(PaymentService paymentService, IdempotencyService idempotencyService) {
         this.paymentService = paymentService;
+        this.idempotencyService = idempotencyService;
     }
 
     @PostMapping
     @PreAuthorize("hasRole('RIDER')")
-    @Operation(summary = "Create payment", description = "Create payment for a completed ride")
+    @Operation(summary = "Create payment",
+            description = "Create payment for a completed ride. Retries with the same Idempotency-Key return the original payment.")
     public ResponseEntity<ApiResponse<PaymentResponse>> createPayment(
             @AuthenticationPrincipal CustomUserDetails userDetails,
+            @RequestHeader(value = IdempotencyService.HEADER, required = false) String idempotencyKey,
             @Valid @RequestBody CreatePaymentRequest request) {
 
-        PaymentResponse response = paymentService.createPayment(userDetails.getId(), request);
+        PaymentResponse response = idempotencyService.execute("payment-create", userDetails.getId(), idempotencyKey,
+                request, PaymentResponse.class, () -> paymentService.createPayment(userDetails.getId(), request));
         return ResponseEntity
                 .status(HttpStatus.CREATED)
                 .body(ApiResponse.created("Payment initiated", response));
@@ -82,6 +91,20 @@ public class PaymentController {
         return ResponseEntity.ok(ApiResponse.success(response));
     }
 
+    @GetMapping("/history/scroll")
+    @PreAuthorize("hasRole('RIDER')")
+    @Operation(summary = "Scroll payment history",
+            description = "Cursor-paginated payment history, newest first; pass nextCursor to continue")
+    public ResponseEntity<ApiResponse<CursorPage<PaymentResponse>>> scrollPaymentHistory(
+            @AuthenticationPrincipal CustomUserDetails userDetails,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "20") int size) {
+
+        CursorPage<PaymentResponse> payments = paymentService.scrollUserPaymentHistory(
+                userDetails.getId(), cursor, size);
+        return ResponseEntity.ok(ApiResponse.success(payments));
+    }
+
     @GetMapping("/history")
     @PreAuthorize("hasRole('RIDER')")
     @Operation(summary = "Get payment history", description = "Get user's payment history")
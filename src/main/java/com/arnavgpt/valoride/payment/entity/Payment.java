@@ -1,6 +1,6 @@
 package com.arnavgpt.valoride.payment.entity;
 
-import com.arnavgpt.valoride.common.entity.BaseEntity;
+import com.arnavgpt.valoride.common.entity.PartitionedEntity;
 import com.arnavgpt.valoride.ride.entity.Ride;
 import com.arnavgpt.valoride.user.entity.User;
 import jakarta.persistence.Column;
@@ -8,6 +8,7 @@ import jakarta.persistence.Entity;
 import jakarta.persistence.EnumType;
 import jakarta.persistence.Enumerated;
 import jakarta.persistence.FetchType;
+import jakarta.persistence.Index;
 import jakarta.persistence.JoinColumn;
 import jakarta.persistence.ManyToOne;
 import jakarta.persistence.OneToOne;
@@ -17,11 +18,14 @@ import java.math.BigDecimal;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "payments")
-public class Payment extends BaseEntity {
+@Table(name = "payments", indexes = {
+        @Index(name = "idx_payments_user_created_at", columnList = "user_id, created_at DESC, id DESC")
+})
+public class Payment extends PartitionedEntity {
 
+    // Not unique in the partitioned table; PaymentRepository.lockRide keeps it to one payment per ride
     @OneToOne(fetch = FetchType.LAZY)
-    @JoinColumn(name = "ride_id", nullable = false, unique = true)
+    @JoinColumn(name = "ride_id", nullable = false)
     private Ride ride;
 
     @ManyToOne(fetch = FetchType.LAZY)
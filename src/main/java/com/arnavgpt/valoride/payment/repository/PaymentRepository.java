@@ -2,6 +2,7 @@ package com.arnavgpt.valoride.payment.repository;
 
 import com.arnavgpt.valoride.payment.entity.Payment;
 import com.arnavgpt.valoride.payment.entity.PaymentStatus;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
@@ -24,12 +25,28 @@ public interface PaymentRepository extends JpaRepository<Payment, UUID> {
 
     Page<Payment> findByUserIdOrderByCreatedAtDesc(UUID userId, Pageable pageable);
 
+    // Keyset history: first page, then pages after a (createdAt, id) position
+    @Query("SELECT p FROM Payment p WHERE p.user.id = :userId ORDER BY p.createdAt DESC, p.id DESC")
+    List<Payment> findUserHistory(@Param("userId") UUID userId, Limit limit);
+
+    @Query("SELECT p FROM Payment p WHERE p.user.id = :userId AND (p.createdAt, p.id) < (:createdAt, :id) " +
+            "ORDER BY p.createdAt DESC, p.id DESC")
+    List<Payment> findUserHistoryBefore(@Param("userId") UUID userId,
+                                        @Param("createdAt") LocalDateTime createdAt,
+                                        @Param("id") UUID id,
+                                        Limit limit);
+
     Page<Payment> findByUserIdAndStatus(UUID userId, PaymentStatus status, Pageable pageable);
 
     List<Payment> findByStatus(PaymentStatus status);
 
     boolean existsByRideId(UUID rideId);
 
+    // ride_id cannot be unique on the partitioned table; serialise payment creation per ride instead
+    @Query(value = "SELECT 1 FROM pg_advisory_xact_lock(hashtextextended(CAST(:rideId AS text), 0))",
+            nativeQuery = true)
+    int lockRide(@Param("rideId") UUID rideId);
+
     @Query("SELECT SUM(p.amount) FROM Payment p WHERE p.user.id = :userId AND p.status = 'COMPLETED'")
     BigDecimal getTotalPaidByUser(@Param("userId") UUID userId);
 
@@ -1,5 +1,7 @@
 package com.arnavgpt.valoride.payment.service;
 
+import com.arnavgpt.valoride.common.dto.CursorPage;
+import com.arnavgpt.valoride.common.dto.KeysetCursor;
 import com.arnavgpt.valoride.exception.BusinessException;
 import com.arnavgpt.valoride.exception.ForbiddenException;
 import com.arnavgpt.valoride.exception.ResourceNotFoundException;
@@ -17,6 +19,7 @@ import com.arnavgpt.valoride.user.service.UserService;
 import com.stripe.model.PaymentIntent;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.http.HttpStatus;
@@ -25,6 +28,7 @@ import org.springframework.transaction.annotation.Transactional;
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
+import java.util.List;
 import java.util.UUID;
 
 @Service
@@ -63,6 +67,7 @@ public class PaymentService {
         }
 
         // Check if payment already exists
+        paymentRepository.lockRide(ride.getId());
         if (paymentRepository.existsByRideId(ride.getId())) {
             throw new BusinessException("Payment already exists for this ride", HttpStatus.CONFLICT);
         }
@@ -209,6 +214,21 @@ public class PaymentService {
                 .map(PaymentResponse::fromEntity);
     }
 
+    /**
+     * Get user's payment history by cursor
+     */
+    public CursorPage<PaymentResponse> scrollUserPaymentHistory(UUID userId, String cursor, int size) {
+        Limit limit = CursorPage.fetchLimit(size);
+        List<Payment> payments;
+        if (cursor == null) {
+            payments = paymentRepository.findUserHistory(userId, limit);
+        } else {
+            KeysetCursor position = KeysetCursor.decode(cursor);
+            payments = paymentRepository.findUserHistoryBefore(userId, position.getCreatedAt(), position.getId(), limit);
+        }
+        return CursorPage.of(payments, size, PaymentResponse::fromEntity);
+    }
+
     /**
      * Refund a payment (admin only)
      */
@@ -7,6 +7,7 @@ import com.stripe.model.PaymentIntent;
 import com.stripe.model.Refund;
 import com.stripe.param.PaymentIntentCreateParams;
 import com.stripe.param.RefundCreateParams;
+import io.micrometer.core.annotation.Timed;
 import jakarta.annotation.PostConstruct;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -21,6 +22,7 @@ import java.util.UUID;
 public class StripeService {
 
     private static final Logger logger = LoggerFactory.getLogger(StripeService.class);
+    private static final String REQUEST_TIMER = "app.stripe.request";
 
     private final String stripeApiKey;
     private final String webhookSecret;
@@ -41,6 +43,7 @@ public class StripeService {
     /**
      * Create a PaymentIntent for card payments
      */
+    @Timed(value = REQUEST_TIMER, extraTags = {"operation", "create_payment_intent"})
     public PaymentIntent createPaymentIntent(BigDecimal amount, String currency, UUID rideId, UUID userId) {
         try {
             // Stripe expects amount in smallest currency unit (paise for INR)
@@ -73,6 +76,7 @@ public class StripeService {
     /**
      * Retrieve a PaymentIntent
      */
+    @Timed(value = REQUEST_TIMER, extraTags = {"operation", "retrieve_payment_intent"})
     public PaymentIntent retrievePaymentIntent(String paymentIntentId) {
         try {
             return PaymentIntent.retrieve(paymentIntentId);
@@ -85,6 +89,7 @@ public class StripeService {
     /**
      * Cancel a PaymentIntent
      */
+    @Timed(value = REQUEST_TIMER, extraTags = {"operation", "cancel_payment_intent"})
     public PaymentIntent cancelPaymentIntent(String paymentIntentId) {
         try {
             PaymentIntent paymentIntent = PaymentIntent.retrieve(paymentIntentId);
@@ -98,6 +103,7 @@ public class StripeService {
     /**
      * Create a refund
      */
+    @Timed(value = REQUEST_TIMER, extraTags = {"operation", "create_refund"})
     public Refund createRefund(String paymentIntentId, BigDecimal amount) {
         try {
             long amountInSmallestUnit = amount.multiply(BigDecimal.valueOf(100)).longValue();
@@ -1,6 +1,8 @@
 package com.arnavgpt.valoride.ride.controller;
 
 import com.arnavgpt.valoride.common.dto.ApiResponse;
+import com.arnavgpt.valoride.common.dto.CursorPage;
+import com.arnavgpt.valoride.common.idempotency.IdempotencyService;
 import com.arnavgpt.valoride.config.CustomUserDetails;
 import com.arnavgpt.valoride.ride.dto.CancelRideRequest;
 import com.arnavgpt.valoride.ride.dto.FareEstimateRequest;
@@ -27,7 +29,9 @@ import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
 import java.util.UUID;
@@ -39,22 +43,28 @@ public class RideController {
 
     private final RideService rideService;
     private final FareService fareService;
+    private final IdempotencyService idempotencyService;
 
-    public RideController(RideService rideService, FareService fareService) {
+    public RideController(RideService rideService, FareService fareService,
+                          IdempotencyService idempotencyService) {
         this.rideService = rideService;
         this.fareService = fareService;
+        this.idempotencyService = idempotencyService;
     }
 
     // ==================== RIDER ENDPOINTS ====================
 
     @PostMapping("/request")
     @PreAuthorize("hasRole('RIDER')")
-    @Operation(summary = "Request a ride", description = "Rider requests a new ride")
+    @Operation(summary = "Request a ride",
+            description = "Rider requests a new ride. Retries with the same Idempotency-Key return the original ride.")
     public ResponseEntity<ApiResponse<RideResponse>> requestRide(
             @AuthenticationPrincipal CustomUserDetails userDetails,
+            @RequestHeader(value = IdempotencyService.HEADER, required = false) String idempotencyKey,
             @Valid @RequestBody RideRequestDto request) {
 
-        RideResponse response = rideService.requestRide(userDetails.getId(), request);
+        RideResponse response = idempotencyService.execute("ride-request", userDetails.getId(), idempotencyKey,
+                request, RideResponse.class, () -> rideService.requestRide(userDetails.getId(), request));
         return ResponseEntity
                 .status(HttpStatus.CREATED)
                 .body(ApiResponse.created("Ride requested successfully", response));
@@ -94,6 +104,19 @@ public class RideController {
         return ResponseEntity.ok(ApiResponse.success("Rating submitted", response));
     }
 
+    @GetMapping("/history/scroll")
+    @PreAuthorize("hasRole('RIDER')")
+    @Operation(summary = "Scroll ride history",
+            description = "Cursor-paginated rider ride history, newest first; pass nextCursor to continue")
+    public ResponseEntity<ApiResponse<CursorPage<RideResponse>>> scrollRiderHistory(
+            @AuthenticationPrincipal CustomUserDetails userDetails,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "20") int size) {
+
+        CursorPage<RideResponse> rides = rideService.scrollRiderHistory(userDetails.getId(), cursor, size);
+        return ResponseEntity.ok(ApiResponse.success(rides));
+    }
+
     @GetMapping("/history")
     @PreAuthorize("hasRole('RIDER')")
     @Operation(summary = "Get ride history", description = "Get rider's ride history")
@@ -151,6 +174,19 @@ public class RideController {
         return ResponseEntity.ok(ApiResponse.success("Ride completed", response));
     }
 
+    @GetMapping("/driver/history/scroll")
+    @PreAuthorize("hasRole('DRIVER')")
+    @Operation(summary = "Scroll driver ride history",
+            description = "Cursor-paginated driver ride history, newest first; pass nextCursor to continue")
+    public ResponseEntity<ApiResponse<CursorPage<RideResponse>>> scrollDriverHistory(
+            @AuthenticationPrincipal CustomUserDetails userDetails,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "20") int size) {
+
+        CursorPage<RideResponse> rides = rideService.scrollDriverHistory(userDetails.getId(), cursor, size);
+        return ResponseEntity.ok(ApiResponse.success(rides));
+    }
+
     @GetMapping("/driver/history")
     @PreAuthorize("hasRole('DRIVER')")
     @Operation(summary = "Get driver ride history", description = "Get driver's ride history")
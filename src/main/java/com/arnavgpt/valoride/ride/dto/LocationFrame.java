@@ -0,0 +1,92 @@
+package com.arnavgpt.valoride.ride.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+/**
+ * Frame pushed to /topic/rides/{rideId}/location. Coordinates are in units of 1e-5 degrees
+ * (about a metre). A keyframe carries the absolute position; every other frame carries the
+ * change since the previous frame. A client that sees a gap in the sequence ignores deltas
+ * until the next keyframe.
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class LocationFrame {
+
+    @JsonProperty("s")
+    private long sequence;
+
+    @JsonProperty("k")
+    private Boolean keyframe;
+
+    @JsonProperty("a")
+    private int latitude;
+
+    @JsonProperty("o")
+    private int longitude;
+
+    // Degrees clockwise from north; omitted on deltas when it has not changed
+    @JsonProperty("h")
+    private Integer heading;
+
+    public LocationFrame() {
+    }
+
+    public static LocationFrame keyframe(long sequence, int latitude, int longitude, int heading) {
+        LocationFrame frame = new LocationFrame();
+        frame.setSequence(sequence);
+        frame.setKeyframe(true);
+        frame.setLatitude(latitude);
+        frame.setLongitude(longitude);
+        frame.setHeading(heading);
+        return frame;
+    }
+
+    public static LocationFrame delta(long sequence, int latitudeDelta, int longitudeDelta, Integer heading) {
+        LocationFrame frame = new LocationFrame();
+        frame.setSequence(sequence);
+        frame.setLatitude(latitudeDelta);
+        frame.setLongitude(longitudeDelta);
+        frame.setHeading(heading);
+        return frame;
+    }
+
+    public long getSequence() {
+        return sequence;
+    }
+
+    public void setSequence(long sequence) {
+        this.sequence = sequence;
+    }
+
+    public Boolean getKeyframe() {
+        return keyframe;
+    }
+
+    public void setKeyframe(Boolean keyframe) {
+        this.keyframe = keyframe;
+    }
+
+    public int getLatitude() {
+        return latitude;
+    }
+
+    public void setLatitude(int latitude) {
+        this.latitude = latitude;
+    }
+
+    public int getLongitude() {
+        return longitude;
+    }
+
+    public void setLongitude(int longitude) {
+        this.longitude = longitude;
+    }
+
+    public Integer getHeading() {
+        return heading;
+    }
+
+    public void setHeading(Integer heading) {
+        this.heading = heading;
+    }
+}
@@ -84,8 +84,6 @@ public class RideResponse {
             response.setDriverPhone(ride.getDriver().getUser().getPhone());
             response.setVehicleNumber(ride.getDriver().getVehicleNumber());
             response.setDriverRating(ride.getDriver().getRating());
-            response.setDriverLatitude(ride.getDriver().getCurrentLatitude());
-            response.setDriverLongitude(ride.getDriver().getCurrentLongitude());
         }
 
         // Locations
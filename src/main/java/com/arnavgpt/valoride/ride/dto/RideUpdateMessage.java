@@ -0,0 +1,108 @@
+package com.arnavgpt.valoride.ride.dto;
+
+import com.arnavgpt.valoride.ride.entity.RideStatus;
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * Ride update carried on the relay channel. STATUS updates are pushed to /topic/rides/{rideId}
+ * as they are; LOCATION updates are re-encoded by RideLocationFeed before reaching clients.
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class RideUpdateMessage {
+
+    public enum Type {
+        STATUS,
+        LOCATION
+    }
+
+    private Type type;
+    private UUID rideId;
+    private RideStatus status;
+    private RideResponse ride;
+    private BigDecimal driverLatitude;
+    private BigDecimal driverLongitude;
+    private LocalDateTime timestamp;
+
+    public RideUpdateMessage() {
+    }
+
+    public static RideUpdateMessage status(RideResponse ride) {
+        RideUpdateMessage message = new RideUpdateMessage();
+        message.setType(Type.STATUS);
+        message.setRideId(ride.getId());
+        message.setStatus(ride.getStatus());
+        message.setRide(ride);
+        message.setTimestamp(LocalDateTime.now());
+        return message;
+    }
+
+    public static RideUpdateMessage location(UUID rideId, BigDecimal latitude, BigDecimal longitude) {
+        RideUpdateMessage message = new RideUpdateMessage();
+        message.setType(Type.LOCATION);
+        message.setRideId(rideId);
+        message.setDriverLatitude(latitude);
+        message.setDriverLongitude(longitude);
+        message.setTimestamp(LocalDateTime.now());
+        return message;
+    }
+
+    public Type getType() {
+        return type;
+    }
+
+    public void setType(Type type) {
+        this.type = type;
+    }
+
+    public UUID getRideId() {
+        return rideId;
+    }
+
+    public void setRideId(UUID rideId) {
+        this.rideId = rideId;
+    }
+
+    public RideStatus getStatus() {
+        return status;
+    }
+
+    public void setStatus(RideStatus status) {
+        this.status = status;
+    }
+
+    public RideResponse getRide() {
+        return ride;
+    }
+
+    public void setRide(RideResponse ride) {
+        this.ride = ride;
+    }
+
+    public BigDecimal getDriverLatitude() {
+        return driverLatitude;
+    }
+
+    public void setDriverLatitude(BigDecimal driverLatitude) {
+        this.driverLatitude = driverLatitude;
+    }
+
+    public BigDecimal getDriverLongitude() {
+        return driverLongitude;
+    }
+
+    public void setDriverLongitude(BigDecimal driverLongitude) {
+        this.driverLongitude = driverLongitude;
+    }
+
+    public LocalDateTime getTimestamp() {
+        return timestamp;
+    }
+
+    public void setTimestamp(LocalDateTime timestamp) {
+        this.timestamp = timestamp;
+    }
+}
@@ -1,19 +1,26 @@
 package com.arnavgpt.valoride.ride.entity;
 
-import com.arnavgpt.valoride.common.entity.BaseEntity;
+import com.arnavgpt.valoride.common.entity.AuditedEntity;
 import com.arnavgpt.valoride.driver.entity.VehicleType;
 import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
 import jakarta.persistence.EnumType;
 import jakarta.persistence.Enumerated;
 import jakarta.persistence.Table;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.NaturalId;
+import org.hibernate.annotations.NaturalIdCache;
 
 import java.math.BigDecimal;
 
 @Entity
 @Table(name = "fare_config")
-public class FareConfig extends BaseEntity {
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE)
+@NaturalIdCache
+public class FareConfig extends AuditedEntity {
 
+    @NaturalId
     @Enumerated(EnumType.STRING)
     @Column(name = "vehicle_type", nullable = false, unique = true)
     private VehicleType vehicleType;
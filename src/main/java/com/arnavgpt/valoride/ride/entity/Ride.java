@@ -1,6 +1,6 @@
 package com.arnavgpt.valoride.ride.entity;
 
-import com.arnavgpt.valoride.common.entity.BaseEntity;
+import com.arnavgpt.valoride.common.entity.PartitionedEntity;
 import com.arnavgpt.valoride.driver.entity.Driver;
 import com.arnavgpt.valoride.driver.entity.VehicleType;
 import com.arnavgpt.valoride.user.entity.User;
@@ -9,16 +9,29 @@ import jakarta.persistence.Entity;
 import jakarta.persistence.EnumType;
 import jakarta.persistence.Enumerated;
 import jakarta.persistence.FetchType;
+import jakarta.persistence.Index;
 import jakarta.persistence.JoinColumn;
 import jakarta.persistence.ManyToOne;
 import jakarta.persistence.Table;
+import org.hibernate.annotations.SQLSelect;
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "rides")
-public class Ride extends BaseEntity {
+@Table(name = "rides", indexes = {
+        @Index(name = "idx_rides_status_completed_at", columnList = "status, completed_at"),
+        @Index(name = "idx_rides_driver_status", columnList = "driver_id, status"),
+        @Index(name = "idx_rides_rider_created_at", columnList = "rider_id, created_at DESC, id DESC"),
+        @Index(name = "idx_rides_driver_created_at", columnList = "driver_id, created_at DESC, id DESC")
+})
+// Loads by id (lazy associations, find) go through ride_keys so only the ride's month is read
+@SQLSelect(sql = """
+        SELECT r.* FROM ride_keys k
+        JOIN rides r ON r.id = k.id AND r.created_at = k.created_at
+        WHERE k.id = ?
+        """)
+public class Ride extends PartitionedEntity {
 
     @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "rider_id", nullable = false)
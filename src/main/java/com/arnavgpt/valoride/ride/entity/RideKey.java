@@ -0,0 +1,37 @@
+package com.arnavgpt.valoride.ride.entity;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import org.hibernate.annotations.Immutable;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * The created_at of a ride by id, so by-id lookups can name the one monthly partition of
+ * rides to read. Rows are written only by a trigger on rides (see the V7 migration).
+ */
+@Entity
+@Immutable
+@Table(name = "ride_keys")
+public class RideKey {
+
+    @Id
+    private UUID id;
+
+    @Column(name = "created_at", nullable = false)
+    private LocalDateTime createdAt;
+
+    protected RideKey() {
+    }
+
+    public UUID getId() {
+        return id;
+    }
+
+    public LocalDateTime getCreatedAt() {
+        return createdAt;
+    }
+}
@@ -0,0 +1,45 @@
+package com.arnavgpt.valoride.ride.event;
+
+import com.arnavgpt.valoride.ride.dto.RideResponse;
+import com.arnavgpt.valoride.ride.entity.RideStatus;
+
+import java.util.UUID;
+
+/**
+ * Published by RideService on every ride state transition. Carries a detached
+ * snapshot of the ride so listeners never touch the persistence context.
+ */
+public class RideStatusChangedEvent {
+
+    private final RideResponse ride;
+    private final RideStatus previousStatus;
+    private final UUID driverUserId;
+
+    public RideStatusChangedEvent(RideResponse ride, RideStatus previousStatus, UUID driverUserId) {
+        this.ride = ride;
+        this.previousStatus = previousStatus;
+        this.driverUserId = driverUserId;
+    }
+
+    public RideResponse getRide() {
+        return ride;
+    }
+
+    /**
+     * Status before the transition, or null for a newly requested ride
+     */
+    public RideStatus getPreviousStatus() {
+        return previousStatus;
+    }
+
+    /**
+     * User id of the assigned driver, or null while the ride is unmatched
+     */
+    public UUID getDriverUserId() {
+        return driverUserId;
+    }
+
+    public RideStatus getStatus() {
+        return ride.getStatus();
+    }
+}
@@ -2,8 +2,10 @@ package com.arnavgpt.valoride.ride.repository;
 
 import com.arnavgpt.valoride.ride.entity.Ride;
 import com.arnavgpt.valoride.ride.entity.RideStatus;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
@@ -17,20 +19,62 @@ import java.util.UUID;
 @Repository
 public interface RideRepository extends JpaRepository<Ride, UUID> {
 
+    // Find ride with rider, driver and driver user loaded for RideResponse; created_at from
+    // ride_keys restricts the scan to the ride's monthly partition
+    @EntityGraph(attributePaths = {"rider", "driver", "driver.user"})
+    @Query("SELECT r FROM Ride r WHERE r.id = :rideId " +
+            "AND r.createdAt = (SELECT k.createdAt FROM RideKey k WHERE k.id = :rideId)")
+    Optional<Ride> findWithParticipantsById(@Param("rideId") UUID rideId);
+
     // Find rides by rider
+    @EntityGraph(attributePaths = {"rider", "driver", "driver.user"})
     Page<Ride> findByRiderIdOrderByCreatedAtDesc(UUID riderId, Pageable pageable);
 
     // Find rides by driver
+    @EntityGraph(attributePaths = {"rider", "driver", "driver.user"})
     Page<Ride> findByDriverIdOrderByCreatedAtDesc(UUID driverId, Pageable pageable);
 
+    // Keyset history for rider: first page, then pages after a (createdAt, id) position
+    @EntityGraph(attributePaths = {"rider", "driver", "driver.user"})
+    @Query("SELECT r FROM Ride r WHERE r.rider.id = :riderId ORDER BY r.createdAt DESC, r.id DESC")
+    List<Ride> findRiderHistory(@Param("riderId") UUID riderId, Limit limit);
+
+    @EntityGraph(attributePaths = {"rider", "driver", "driver.user"})
+    @Query("SELECT r FROM Ride r WHERE r.rider.id = :riderId AND (r.createdAt, r.id) < (:createdAt, :id) " +
+            "ORDER BY r.createdAt DESC, r.id DESC")
+    List<Ride> findRiderHistoryBefore(@Param("riderId") UUID riderId,
+                                      @Param("createdAt") LocalDateTime createdAt,
+                                      @Param("id") UUID id,
+                                      Limit limit);
+
+    // Keyset history for driver
+    @EntityGraph(attributePaths = {"rider", "driver", "driver.user"})
+    @Query("SELECT r FROM Ride r WHERE r.driver.id = :driverId ORDER BY r.createdAt DESC, r.id DESC")
+    List<Ride> findDriverHistory(@Param("driverId") UUID driverId, Limit limit);
+
+    @EntityGraph(attributePaths = {"rider", "driver", "driver.user"})
+    @Query("SELECT r FROM Ride r WHERE r.driver.id = :driverId AND (r.createdAt, r.id) < (:createdAt, :id) " +
+            "ORDER BY r.createdAt DESC, r.id DESC")
+    List<Ride> findDriverHistoryBefore(@Param("driverId") UUID driverId,
+                                       @Param("createdAt") LocalDateTime createdAt,
+                                       @Param("id") UUID id,
+                                       Limit limit);
+
     // Find active ride for rider (not completed/cancelled)
+    @EntityGraph(attributePaths = {"rider", "driver", "driver.user"})
     @Query("SELECT r FROM Ride r WHERE r.rider.id = :riderId AND r.status NOT IN ('COMPLETED', 'CANCELLED')")
     Optional<Ride> findActiveRideByRiderId(@Param("riderId") UUID riderId);
 
     // Find active ride for driver
+    @EntityGraph(attributePaths = {"rider", "driver", "driver.user"})
     @Query("SELECT r FROM Ride r WHERE r.driver.id = :driverId AND r.status NOT IN ('COMPLETED', 'CANCELLED')")
     Optional<Ride> findActiveRideByDriverId(@Param("driverId") UUID driverId);
 
+    // All non-terminal rides, for rebuilding the active ride registry
+    @EntityGraph(attributePaths = {"rider", "driver", "driver.user"})
+    @Query("SELECT r FROM Ride r WHERE r.status NOT IN ('COMPLETED', 'CANCELLED')")
+    List<Ride> findAllActiveRides();
+
     // Find rides by status
     List<Ride> findByStatus(RideStatus status);
 
@@ -40,28 +84,19 @@ public interface RideRepository extends JpaRepository<Ride, UUID> {
     // Find rides by driver and status
     Page<Ride> findByDriverIdAndStatusIn(UUID driverId, List<RideStatus> statuses, Pageable pageable);
 
-    // Count completed rides by driver
-    @Query("SELECT COUNT(r) FROM Ride r WHERE r.driver.id = :driverId AND r.status = 'COMPLETED'")
-    long countCompletedRidesByDriverId(@Param("driverId") UUID driverId);
-
     // Count rides by status
     long countByStatus(RideStatus status);
 
-    // Analytics: rides in date range
-    @Query("SELECT r FROM Ride r WHERE r.createdAt BETWEEN :startDate AND :endDate")
-    List<Ride> findRidesInDateRange(@Param("startDate") LocalDateTime startDate,
-                                    @Param("endDate") LocalDateTime endDate);
-
-    // Analytics: completed rides in date range
-    @Query("SELECT r FROM Ride r WHERE r.status = 'COMPLETED' AND r.completedAt BETWEEN :startDate AND :endDate")
-    List<Ride> findCompletedRidesInDateRange(@Param("startDate") LocalDateTime startDate,
-                                             @Param("endDate") LocalDateTime endDate);
-
     // Check if rider has active ride
     @Query("SELECT CASE WHEN COUNT(r) > 0 THEN true ELSE false END FROM Ride r " +
             "WHERE r.rider.id = :riderId AND r.status NOT IN ('COMPLETED', 'CANCELLED')")
     boolean hasActiveRide(@Param("riderId") UUID riderId);
 
+    // No unique index can span the rider's active rides on the partitioned table; serialise ride requests per rider instead
+    @Query(value = "SELECT 1 FROM pg_advisory_xact_lock(hashtextextended(CAST(:riderId AS text), 1))",
+            nativeQuery = true)
+    int lockRider(@Param("riderId") UUID riderId);
+
     // Check if driver has active ride
     @Query("SELECT CASE WHEN COUNT(r) > 0 THEN true ELSE false END FROM Ride r " +
             "WHERE r.driver.id = :driverId AND r.status NOT IN ('COMPLETED', 'CANCELLED')")
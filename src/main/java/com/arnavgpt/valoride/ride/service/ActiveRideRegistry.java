@@ -0,0 +1,283 @@
+package com.arnavgpt.valoride.ride.service;
+
+import com.arnavgpt.valoride.driver.event.DriverLocationChangedEvent;
+import com.arnavgpt.valoride.ride.dto.RideResponse;
+import com.arnavgpt.valoride.ride.entity.Ride;
+import com.arnavgpt.valoride.ride.event.RideStatusChangedEvent;
+import com.arnavgpt.valoride.ride.repository.RideRepository;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * Non-terminal rides in Redis hashes, keyed by rider user id and by driver user id, so
+ * driver active-ride checks and the active-ride poll never reach Postgres. Entries are written
+ * after each transition commits and the whole registry is rebuilt from the database
+ * when it is missing or when this node failed to apply a transition.
+ * Lookups throw DataAccessException when Redis is unreachable; callers fall back to the database.
+ */
+@Service
+public class ActiveRideRegistry {
+
+    private static final Logger logger = LoggerFactory.getLogger(ActiveRideRegistry.class);
+
+    private static final String RIDER_KEY = "active_rides:rider";
+    private static final String DRIVER_KEY = "active_rides:driver";
+    // Latest driver position per driver id, overlaid on the ride when it is read
+    private static final String LOCATION_KEY = "active_rides:driver_location";
+    private static final String READY_KEY = "active_rides:ready";
+    private static final String REBUILD_LOCK_KEY = "active_rides:rebuild_lock";
+    private static final Duration REBUILD_LOCK_TTL = Duration.ofSeconds(30);
+
+    // While a rebuild runs, transitions also go to its staging hashes, and rides that finish
+    // are remembered so the database snapshot, read earlier, cannot bring them back
+    private static final String REBUILDING_KEY = "active_rides:rebuilding";
+    private static final String RIDER_STAGING_KEY = "active_rides:rider:rebuild";
+    private static final String DRIVER_STAGING_KEY = "active_rides:driver:rebuild";
+    private static final String FINISHED_STAGING_KEY = "active_rides:finished:rebuild";
+
+    /*
+     * Apply a ride snapshot to the rider and driver entries. Statuses only move forward, so a
+     * snapshot older than the stored one for the same ride is ignored; a terminal snapshot only
+     * removes the entry if it still belongs to that ride.
+     */
+    private static final RedisScript<Long> APPLY_SCRIPT = new DefaultRedisScript<>("""
+            local ride = cjson.decode(ARGV[3])
+            local rank = { REQUESTED = 1, MATCHED = 2, ARRIVED = 3, STARTED = 4 }
+            local terminal = rank[ride.status] == nil
+            local function apply(riderKey, driverKey)
+                local keys = { riderKey, driverKey }
+                for i = 1, 2 do
+                    local field = ARGV[i]
+                    if field ~= '' then
+                        local current = redis.call('HGET', keys[i], field)
+                        local existing = current and cjson.decode(current)
+                        if terminal then
+                            if existing and existing.id == ride.id then
+                                redis.call('HDEL', keys[i], field)
+                            end
+                        elseif not existing or existing.id ~= ride.id or rank[existing.status] <= rank[ride.status] then
+                            redis.call('HSET', keys[i], field, ARGV[3])
+                        end
+                    end
+                end
+            end
+            apply(KEYS[1], KEYS[2])
+            if redis.call('EXISTS', KEYS[4]) == 1 then
+                apply(KEYS[5], KEYS[6])
+                if terminal then
+                    redis.call('SADD', KEYS[7], ride.id)
+                end
+            end
+            if terminal and ride.driverId then
+                redis.call('HDEL', KEYS[3], ride.driverId)
+            end
+            return 1
+            """, Long.class);
+
+    /*
+     * Finish a rebuild: merge the database snapshot (hash index, field, ride triples) into the
+     * staging hashes under the transitions applied since the rebuild started, then swap them in.
+     * Returns 0 without swapping if the rebuild marker expired, as transitions may then be missing.
+     */
+    private static final RedisScript<Long> SWAP_SCRIPT = new DefaultRedisScript<>("""
+            if redis.call('EXISTS', KEYS[6]) == 0 then
+                return 0
+            end
+            local rank = { REQUESTED = 1, MATCHED = 2, ARRIVED = 3, STARTED = 4 }
+            local staging = { KEYS[3], KEYS[4] }
+            for i = 1, #ARGV, 3 do
+                local key = staging[tonumber(ARGV[i])]
+                local ride = cjson.decode(ARGV[i + 2])
+                if redis.call('SISMEMBER', KEYS[5], ride.id) == 0 then
+                    local current = redis.call('HGET', key, ARGV[i + 1])
+                    local existing = current and cjson.decode(current)
+                    if not existing or (existing.id == ride.id and rank[existing.status] < rank[ride.status]) then
+                        redis.call('HSET', key, ARGV[i + 1], ARGV[i + 2])
+                    end
+                end
+            end
+            for i = 1, 2 do
+                if redis.call('EXISTS', staging[i]) == 1 then
+                    redis.call('RENAME', staging[i], KEYS[i])
+                else
+                    redis.call('DEL', KEYS[i])
+                end
+            end
+            redis.call('DEL', KEYS[5], KEYS[6])
+            return 1
+            """, Long.class);
+
+    // Record a driver position only while that driver is on an active ride
+    private static final RedisScript<Long> LOCATION_SCRIPT = new DefaultRedisScript<>("""
+            local current = redis.call('HGET', KEYS[1], ARGV[1])
+            if current and cjson.decode(current).driverId == ARGV[2] then
+                redis.call('HSET', KEYS[2], ARGV[2], ARGV[3])
+                return 1
+            end
+            return 0
+            """, Long.class);
+
+    // Fetch an entry together with its driver's latest position in one round trip
+    @SuppressWarnings("rawtypes")
+    private static final RedisScript<List> READ_SCRIPT = new DefaultRedisScript<>("""
+            local current = redis.call('HGET', KEYS[1], ARGV[1])
+            if not current then
+                return { '', '' }
+            end
+            local driverId = cjson.decode(current).driverId
+            local location = driverId and redis.call('HGET', KEYS[2], driverId)
+            return { current, location or '' }
+            """, List.class);
+
+    private final StringRedisTemplate redisTemplate;
+    private final RideRepository rideRepository;
+    private final ObjectMapper objectMapper;
+
+    // Set when a transition could not be written, so the next check rebuilds
+    private volatile boolean stale;
+
+    public ActiveRideRegistry(StringRedisTemplate redisTemplate, RideRepository rideRepository,
+                              ObjectMapper objectMapper) {
+        this.redisTemplate = redisTemplate;
+        this.rideRepository = rideRepository;
+        this.objectMapper = objectMapper;
+    }
+
+    public boolean driverHasActiveRide(UUID driverUserId) {
+        return redisTemplate.opsForHash().hasKey(DRIVER_KEY, driverUserId.toString());
+    }
+
+    public Optional<RideResponse> findByRider(UUID riderId) {
+        return read(RIDER_KEY, riderId);
+    }
+
+    public Optional<RideResponse> findByDriver(UUID driverUserId) {
+        return read(DRIVER_KEY, driverUserId);
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
+    public void onRideStatusChanged(RideStatusChangedEvent event) {
+        RideResponse ride = event.getRide();
+        try {
+            redisTemplate.execute(APPLY_SCRIPT, List.of(RIDER_KEY, DRIVER_KEY, LOCATION_KEY,
+                            REBUILDING_KEY, RIDER_STAGING_KEY, DRIVER_STAGING_KEY, FINISHED_STAGING_KEY),
+                    ride.getRiderId().toString(),
+                    event.getDriverUserId() != null ? event.getDriverUserId().toString() : "",
+                    objectMapper.writeValueAsString(ride));
+        } catch (DataAccessException | JsonProcessingException e) {
+            stale = true;
+            logger.error("Failed to record ride {} in active ride registry: {}", ride.getId(), e.getMessage());
+        }
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
+    public void onDriverLocationChanged(DriverLocationChangedEvent event) {
+        try {
+            redisTemplate.execute(LOCATION_SCRIPT, List.of(DRIVER_KEY, LOCATION_KEY),
+                    event.getUserId().toString(), event.getDriverId().toString(),
+                    event.getLatitude().toPlainString() + "," + event.getLongitude().toPlainString());
+        } catch (DataAccessException e) {
+            logger.debug("Failed to record driver location in active ride registry: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Rebuild from the database if the registry is missing or this node dropped a write
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(fixedDelayString = "${ride.active-registry.check-interval-ms:60000}")
+    @Transactional(readOnly = true)
+    public void rebuildIfNeeded() {
+        try {
+            if (stale || !Boolean.TRUE.equals(redisTemplate.hasKey(READY_KEY))) {
+                rebuild();
+            }
+        } catch (DataAccessException e) {
+            stale = true;
+            logger.warn("Active ride registry unavailable: {}", e.getMessage());
+        }
+    }
+
+    private void rebuild() {
+        Boolean locked = redisTemplate.opsForValue().setIfAbsent(REBUILD_LOCK_KEY, "1", REBUILD_LOCK_TTL);
+        if (!Boolean.TRUE.equals(locked)) {
+            logger.debug("Active ride registry rebuild already running on another node");
+            return;
+        }
+
+        try {
+            // Marked before the snapshot is read, so every transition committed after it reaches staging
+            redisTemplate.delete(List.of(RIDER_STAGING_KEY, DRIVER_STAGING_KEY, FINISHED_STAGING_KEY));
+            redisTemplate.opsForValue().set(REBUILDING_KEY, "1", REBUILD_LOCK_TTL);
+
+            List<String> snapshot = new ArrayList<>();
+            int rides = 0;
+            for (Ride ride : rideRepository.findAllActiveRides()) {
+                String json = objectMapper.writeValueAsString(RideResponse.fromEntity(ride));
+                snapshot.addAll(List.of("1", ride.getRider().getId().toString(), json));
+                if (ride.getDriver() != null) {
+                    snapshot.addAll(List.of("2", ride.getDriver().getUser().getId().toString(), json));
+                }
+                rides++;
+            }
+
+            Long swapped = redisTemplate.execute(SWAP_SCRIPT,
+                    List.of(RIDER_KEY, DRIVER_KEY, RIDER_STAGING_KEY, DRIVER_STAGING_KEY,
+                            FINISHED_STAGING_KEY, REBUILDING_KEY),
+                    snapshot.toArray());
+            if (!Long.valueOf(1).equals(swapped)) {
+                logger.warn("Active ride registry rebuild outlasted its marker, retrying on the next check");
+                return;
+            }
+            redisTemplate.opsForValue().set(READY_KEY, "1");
+            stale = false;
+
+            logger.info("Rebuilt active ride registry with {} rides", rides);
+        } catch (JsonProcessingException e) {
+            logger.error("Failed to rebuild active ride registry: {}", e.getMessage());
+        } finally {
+            redisTemplate.delete(List.of(REBUILDING_KEY, REBUILD_LOCK_KEY));
+        }
+    }
+
+    private Optional<RideResponse> read(String key, UUID userId) {
+        List<?> result = redisTemplate.execute(READ_SCRIPT, List.of(key, LOCATION_KEY), userId.toString());
+        String json = result != null && !result.isEmpty() ? (String) result.get(0) : "";
+        if (json.isEmpty()) {
+            return Optional.empty();
+        }
+
+        try {
+            RideResponse ride = objectMapper.readValue(json, RideResponse.class);
+            String location = (String) result.get(1);
+            if (!location.isEmpty()) {
+                String[] coordinates = location.split(",");
+                ride.setDriverLatitude(new BigDecimal(coordinates[0]));
+                ride.setDriverLongitude(new BigDecimal(coordinates[1]));
+            }
+            return Optional.of(ride);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Corrupt active ride registry entry for " + userId, e);
+        }
+    }
+}
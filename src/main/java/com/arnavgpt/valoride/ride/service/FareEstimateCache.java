@@ -0,0 +1,135 @@
+package com.arnavgpt.valoride.ride.service;
+
+import com.arnavgpt.valoride.driver.entity.VehicleType;
+import com.arnavgpt.valoride.ride.dto.FareEstimateRequest;
+import com.arnavgpt.valoride.ride.dto.FareEstimateResponse;
+import com.github.benmanes.caffeine.cache.AsyncCache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.function.Function;
+
+/**
+ * Short-lived fare estimates keyed by pickup and drop snapped to a grid, vehicle type and fare
+ * config version. Concurrent identical requests, such as a crowd leaving a stadium, share one
+ * computation. Estimates are computed from the cell centres, so every request in a cell gets the
+ * same answer whichever arrived first.
+ */
+@Component
+public class FareEstimateCache {
+
+    private static final String REGION = "fare-estimates";
+
+    private final AsyncCache<Key, FareEstimateResponse> cache;
+    private final double cellDegrees;
+    private final Counter hits;
+    private final Counter coalesced;
+    private final Counter misses;
+
+    public FareEstimateCache(
+            MeterRegistry meterRegistry,
+            @Value("${ride.fare-estimate.cache.max-entries:10000}") long maxEntries,
+            @Value("${ride.fare-estimate.cache.ttl:30s}") Duration ttl,
+            @Value("${ride.fare-estimate.cache.cell-degrees:0.001}") double cellDegrees) {
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maxEntries)
+                .expireAfterWrite(ttl)
+                .buildAsync();
+        this.cellDegrees = cellDegrees;
+
+        this.hits = requests(meterRegistry, "hit");
+        this.coalesced = requests(meterRegistry, "coalesced");
+        this.misses = requests(meterRegistry, "miss");
+        Gauge.builder("app.cache.hit.ratio", this, FareEstimateCache::hitRatio)
+                .tags("region", REGION)
+                .description("Hits and coalesced requests over lookups since startup")
+                .register(meterRegistry);
+        Gauge.builder("app.cache.size", cache, c -> c.synchronous().estimatedSize())
+                .tags("region", REGION)
+                .register(meterRegistry);
+    }
+
+    /**
+     * The cached estimate for the request's cells, computing it from the snapped request on a miss.
+     * A failed computation is not cached; callers waiting on it see the same exception.
+     */
+    public FareEstimateResponse get(FareEstimateRequest request, long fareConfigVersion,
+                                    Function<FareEstimateRequest, FareEstimateResponse> estimator) {
+        Key key = new Key(
+                cell(request.getPickupLatitude()), cell(request.getPickupLongitude()),
+                cell(request.getDropLatitude()), cell(request.getDropLongitude()),
+                request.getVehicleType(), fareConfigVersion);
+
+        CompletableFuture<FareEstimateResponse> mine = new CompletableFuture<>();
+        CompletableFuture<FareEstimateResponse> existing = cache.asMap().putIfAbsent(key, mine);
+        if (existing != null) {
+            (existing.isDone() ? hits : coalesced).increment();
+            return join(existing);
+        }
+
+        misses.increment();
+        try {
+            mine.complete(estimator.apply(snapped(key)));
+        } catch (RuntimeException e) {
+            // Caffeine drops futures that complete exceptionally
+            mine.completeExceptionally(e);
+            throw e;
+        }
+        return mine.join();
+    }
+
+    private long cell(BigDecimal coordinate) {
+        return (long) Math.floor(coordinate.doubleValue() / cellDegrees);
+    }
+
+    private BigDecimal centre(long cell) {
+        return BigDecimal.valueOf((cell + 0.5) * cellDegrees).setScale(6, RoundingMode.HALF_UP);
+    }
+
+    private FareEstimateRequest snapped(Key key) {
+        FareEstimateRequest request = new FareEstimateRequest();
+        request.setPickupLatitude(centre(key.pickupLatitudeCell()));
+        request.setPickupLongitude(centre(key.pickupLongitudeCell()));
+        request.setDropLatitude(centre(key.dropLatitudeCell()));
+        request.setDropLongitude(centre(key.dropLongitudeCell()));
+        request.setVehicleType(key.vehicleType());
+        return request;
+    }
+
+    private double hitRatio() {
+        double served = hits.count() + coalesced.count();
+        double lookups = served + misses.count();
+        return lookups == 0 ? Double.NaN : served / lookups;
+    }
+
+    private static Counter requests(MeterRegistry meterRegistry, String result) {
+        return Counter.builder("app.cache.requests")
+                .tags("region", REGION, "result", result)
+                .register(meterRegistry);
+    }
+
+    private static FareEstimateResponse join(CompletableFuture<FareEstimateResponse> estimate) {
+        try {
+            return estimate.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+
+    // A null vehicle type stands for the estimate across all types
+    private record Key(long pickupLatitudeCell, long pickupLongitudeCell, long dropLatitudeCell,
+                       long dropLongitudeCell, VehicleType vehicleType, long fareConfigVersion) {
+    }
+}
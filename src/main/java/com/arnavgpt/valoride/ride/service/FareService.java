@@ -5,6 +5,10 @@ import com.arnavgpt.valoride.ride.dto.FareEstimateRequest;
 import com.arnavgpt.valoride.ride.dto.FareEstimateResponse;
 import com.arnavgpt.valoride.ride.entity.FareConfig;
 import com.arnavgpt.valoride.ride.repository.FareConfigRepository;
+import com.arnavgpt.valoride.routing.dto.Route;
+import com.arnavgpt.valoride.routing.service.RoutingService;
+import com.arnavgpt.valoride.routing.service.TrafficService;
+import io.micrometer.core.annotation.Timed;
 import jakarta.annotation.PostConstruct;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -12,8 +16,14 @@ import org.springframework.stereotype.Service;
 
 import java.math.BigDecimal;
 import java.math.RoundingMode;
+import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.EnumMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.OptionalDouble;
 
 @Service
 public class FareService {
@@ -23,9 +33,16 @@ public class FareService {
     private static final int AVERAGE_SPEED_KMH = 25; // Average city speed
 
     private final FareConfigRepository fareConfigRepository;
+    private final FareEstimateCache fareEstimateCache;
+    private final RoutingService routingService;
+    private final TrafficService trafficService;
 
-    public FareService(FareConfigRepository fareConfigRepository) {
+    public FareService(FareConfigRepository fareConfigRepository, FareEstimateCache fareEstimateCache,
+                       RoutingService routingService, TrafficService trafficService) {
         this.fareConfigRepository = fareConfigRepository;
+        this.fareEstimateCache = fareEstimateCache;
+        this.routingService = routingService;
+        this.trafficService = trafficService;
     }
 
     /**
@@ -50,48 +67,74 @@ public class FareService {
     }
 
     /**
-     * Calculate fare estimate for a trip
+     * Calculate fare estimate for a trip, shared with identical requests through FareEstimateCache
      */
+    @Timed("app.fare.estimate")
     public FareEstimateResponse calculateFareEstimate(FareEstimateRequest request) {
-        BigDecimal distanceKm = calculateDistance(
+        // Configs are second-level cache hits; loading them up front keys the estimate to their version
+        Map<VehicleType, FareConfig> configs = new EnumMap<>(VehicleType.class);
+        if (request.getVehicleType() != null) {
+            configs.put(request.getVehicleType(), findActiveConfig(request.getVehicleType())
+                    .orElse(getDefaultConfig(request.getVehicleType())));
+        } else {
+            for (VehicleType type : VehicleType.values()) {
+                configs.put(type, findActiveConfig(type).orElse(getDefaultConfig(type)));
+            }
+        }
+
+        return fareEstimateCache.get(request, configVersion(configs), snapped -> estimate(snapped, configs));
+    }
+
+    private FareEstimateResponse estimate(FareEstimateRequest request, Map<VehicleType, FareConfig> configs) {
+        TripEstimate trip = estimateTrip(
                 request.getPickupLatitude().doubleValue(),
                 request.getPickupLongitude().doubleValue(),
                 request.getDropLatitude().doubleValue(),
                 request.getDropLongitude().doubleValue()
         );
+        BigDecimal distanceKm = trip.distanceKm();
 
-        int estimatedMins = calculateEstimatedDuration(distanceKm);
-
+        // One fare for the requested vehicle type, or one per type
         List<FareEstimateResponse.VehicleFare> fares = new ArrayList<>();
-
-        if (request.getVehicleType() != null) {
-            // Calculate for specific vehicle type
-            FareEstimateResponse.VehicleFare fare = calculateVehicleFare(request.getVehicleType(), distanceKm);
-            if (fare != null) {
-                fares.add(fare);
-            }
-        } else {
-            // Calculate for all vehicle types
-            for (VehicleType type : VehicleType.values()) {
-                FareEstimateResponse.VehicleFare fare = calculateVehicleFare(type, distanceKm);
-                if (fare != null) {
-                    fares.add(fare);
-                }
-            }
-        }
+        configs.forEach((type, config) -> fares.add(calculateVehicleFare(type, config, distanceKm)));
 
         return new FareEstimateResponse(
                 distanceKm.setScale(2, RoundingMode.HALF_UP),
-                estimatedMins,
+                trip.durationMins(),
                 fares
         );
     }
 
+    /**
+     * Road distance and driving time of a trip. Distance comes from the road graph, or the
+     * straight line when there is no road route (no graph loaded, a point far from any road, or
+     * no way between them). Time comes from the pace learned from past trips starting near the
+     * pickup at this hour of the week, or else from the route's free-flow time or the average
+     * city speed.
+     */
+    public TripEstimate estimateTrip(double pickupLat, double pickupLon, double dropLat, double dropLon) {
+        Optional<Route> route = routingService.route(pickupLat, pickupLon, dropLat, dropLon);
+        BigDecimal distanceKm = route
+                .map(r -> BigDecimal.valueOf(r.distanceKm()).setScale(2, RoundingMode.HALF_UP))
+                .orElseGet(() -> calculateDistance(pickupLat, pickupLon, dropLat, dropLon));
+
+        OptionalDouble secondsPerKm = trafficService.secondsPerKm(pickupLat, pickupLon, LocalDateTime.now());
+        if (secondsPerKm.isPresent()) {
+            int minutes = (int) Math.ceil(distanceKm.doubleValue() * secondsPerKm.getAsDouble() / 60);
+            return new TripEstimate(distanceKm, Math.max(minutes, 5));
+        }
+        if (route.isPresent()) {
+            int minutes = (int) Math.ceil(route.get().durationMinutes());
+            return new TripEstimate(distanceKm, Math.max(minutes, 5));
+        }
+        return new TripEstimate(distanceKm, calculateEstimatedDuration(distanceKm));
+    }
+
     /**
      * Calculate fare for a specific vehicle type
      */
     public BigDecimal calculateFare(VehicleType vehicleType, BigDecimal distanceKm) {
-        FareConfig config = fareConfigRepository.findByVehicleTypeAndActiveTrue(vehicleType)
+        FareConfig config = findActiveConfig(vehicleType)
                 .orElse(getDefaultConfig(vehicleType));
 
         BigDecimal distanceCharge = distanceKm.multiply(config.getPerKmRate());
@@ -138,14 +181,8 @@ public class FareService {
         return Math.max(minutes, 5);
     }
 
-    private FareEstimateResponse.VehicleFare calculateVehicleFare(VehicleType type, BigDecimal distanceKm) {
-        FareConfig config = fareConfigRepository.findByVehicleTypeAndActiveTrue(type)
-                .orElse(getDefaultConfig(type));
-
-        if (config == null) {
-            return null;
-        }
-
+    private FareEstimateResponse.VehicleFare calculateVehicleFare(VehicleType type, FareConfig config,
+                                                                  BigDecimal distanceKm) {
         BigDecimal distanceCharge = distanceKm.multiply(config.getPerKmRate());
         BigDecimal totalFare = config.getBaseFare().add(distanceCharge);
 
@@ -162,6 +199,20 @@ public class FareService {
         );
     }
 
+    // Changes whenever a config is saved or a default is replaced, so cached estimates never outlive their rates
+    private static long configVersion(Map<VehicleType, FareConfig> configs) {
+        long version = 1;
+        for (FareConfig config : configs.values()) {
+            version = 31 * version + Objects.hashCode(config.getUpdatedAt());
+        }
+        return version;
+    }
+
+    // Natural-id lookup, served from the second-level cache once warm
+    private Optional<FareConfig> findActiveConfig(VehicleType type) {
+        return fareConfigRepository.findBySimpleNaturalId(type).filter(FareConfig::isActive);
+    }
+
     private FareConfig getDefaultConfig(VehicleType type) {
         return switch (type) {
             case AUTO -> new FareConfig(type, new BigDecimal("25"), new BigDecimal("12"), new BigDecimal("1"), new BigDecimal("30"));
@@ -170,4 +221,7 @@ public class FareService {
             case SUV -> new FareConfig(type, new BigDecimal("80"), new BigDecimal("20"), new BigDecimal("3"), new BigDecimal("120"));
         };
     }
+
+    public record TripEstimate(BigDecimal distanceKm, int durationMins) {
+    }
 }
\ No newline at end of file
@@ -0,0 +1,195 @@
+package com.arnavgpt.valoride.ride.service;
+
+import com.arnavgpt.valoride.ride.dto.LocationFrame;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.messaging.MessagingException;
+import org.springframework.messaging.simp.SimpMessageHeaderAccessor;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.web.socket.messaging.SessionSubscribeEvent;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Delta-encoded driver positions for the rider, on /topic/rides/{rideId}/location. Positions
+ * arriving through the relay only replace the ride's pending position; each tick sends at most
+ * one frame per ride, so bursts of driver pings collapse into the latest one. Every node encodes
+ * its own stream for its own subscribers.
+ */
+@Service
+public class RideLocationFeed {
+
+    private static final Logger logger = LoggerFactory.getLogger(RideLocationFeed.class);
+
+    /**
+     * Native header on every frame: "key" or "delta". Deltas may be dropped for a lagging session.
+     */
+    public static final String FRAME_HEADER = "frame";
+    public static final String KEYFRAME = "key";
+    public static final String DELTA = "delta";
+
+    private static final String TOPIC_PREFIX = "/topic/rides/";
+    private static final String TOPIC_SUFFIX = "/location";
+    private static final double UNITS_PER_DEGREE = 100_000;
+
+    private final SimpMessagingTemplate messagingTemplate;
+    private final int keyframeInterval;
+    private final long idleTimeoutMillis;
+
+    private final Map<UUID, Track> tracks = new ConcurrentHashMap<>();
+
+    public RideLocationFeed(SimpMessagingTemplate messagingTemplate,
+                            @Value("${ride.location-feed.keyframe-interval:15}") int keyframeInterval,
+                            @Value("${ride.location-feed.idle-timeout:10m}") Duration idleTimeout) {
+        this.messagingTemplate = messagingTemplate;
+        this.keyframeInterval = keyframeInterval;
+        this.idleTimeoutMillis = idleTimeout.toMillis();
+    }
+
+    public static String topic(UUID rideId) {
+        return TOPIC_PREFIX + rideId + TOPIC_SUFFIX;
+    }
+
+    /**
+     * Ride id of a location feed destination, or empty if the destination is something else
+     */
+    public static Optional<UUID> parseTopic(String destination) {
+        if (destination == null || !destination.startsWith(TOPIC_PREFIX) || !destination.endsWith(TOPIC_SUFFIX)) {
+            return Optional.empty();
+        }
+        try {
+            return Optional.of(UUID.fromString(
+                    destination.substring(TOPIC_PREFIX.length(), destination.length() - TOPIC_SUFFIX.length())));
+        } catch (IllegalArgumentException e) {
+            return Optional.empty();
+        }
+    }
+
+    public void offer(UUID rideId, BigDecimal latitude, BigDecimal longitude) {
+        tracks.computeIfAbsent(rideId, id -> new Track())
+                .offer(toUnits(latitude), toUnits(longitude), System.currentTimeMillis());
+    }
+
+    public void end(UUID rideId) {
+        tracks.remove(rideId);
+    }
+
+    /**
+     * A new subscriber has no reference position, so the ride's next frame is a keyframe
+     */
+    @EventListener
+    public void onSubscribe(SessionSubscribeEvent event) {
+        parseTopic(SimpMessageHeaderAccessor.getDestination(event.getMessage().getHeaders()))
+                .map(tracks::get)
+                .ifPresent(Track::requestKeyframe);
+    }
+
+    @Scheduled(fixedRateString = "${ride.location-feed.interval-ms:2000}")
+    public void flush() {
+        long now = System.currentTimeMillis();
+        tracks.forEach((rideId, track) -> {
+            LocationFrame frame = track.next(keyframeInterval);
+            if (frame != null) {
+                send(rideId, frame);
+            } else if (track.isIdle(now, idleTimeoutMillis)) {
+                tracks.remove(rideId, track);
+            }
+        });
+    }
+
+    private void send(UUID rideId, LocationFrame frame) {
+        try {
+            messagingTemplate.convertAndSend(topic(rideId), frame,
+                    Map.of(FRAME_HEADER, Boolean.TRUE.equals(frame.getKeyframe()) ? KEYFRAME : DELTA));
+        } catch (MessagingException e) {
+            logger.debug("Failed to send location frame for ride {}: {}", rideId, e.getMessage());
+        }
+    }
+
+    private static int toUnits(BigDecimal degrees) {
+        return (int) Math.round(degrees.doubleValue() * UNITS_PER_DEGREE);
+    }
+
+    private static class Track {
+
+        private boolean pending;
+        private int pendingLatitude;
+        private int pendingLongitude;
+        private long lastOfferAt;
+
+        private boolean started;
+        private int latitude;
+        private int longitude;
+        private int heading;
+        private int sentHeading = -1;
+        private long sequence;
+        private int framesSinceKeyframe;
+        private boolean keyframeRequested;
+
+        synchronized void offer(int latitude, int longitude, long now) {
+            pendingLatitude = latitude;
+            pendingLongitude = longitude;
+            pending = true;
+            lastOfferAt = now;
+        }
+
+        synchronized void requestKeyframe() {
+            keyframeRequested = true;
+        }
+
+        synchronized boolean isIdle(long now, long idleTimeoutMillis) {
+            return !pending && now - lastOfferAt > idleTimeoutMillis;
+        }
+
+        /**
+         * Frame for this tick, or null when there is nothing new to send
+         */
+        synchronized LocationFrame next(int keyframeInterval) {
+            if (!pending && !(keyframeRequested && started)) {
+                return null;
+            }
+
+            int latitudeDelta = 0;
+            int longitudeDelta = 0;
+            if (pending) {
+                latitudeDelta = pendingLatitude - latitude;
+                longitudeDelta = pendingLongitude - longitude;
+                if (started && (latitudeDelta != 0 || longitudeDelta != 0)) {
+                    heading = bearing(latitude, latitudeDelta, longitudeDelta);
+                }
+                latitude = pendingLatitude;
+                longitude = pendingLongitude;
+                pending = false;
+            }
+
+            sequence++;
+            if (!started || keyframeRequested || ++framesSinceKeyframe >= keyframeInterval) {
+                started = true;
+                keyframeRequested = false;
+                framesSinceKeyframe = 0;
+                sentHeading = heading;
+                return LocationFrame.keyframe(sequence, latitude, longitude, heading);
+            }
+
+            Integer headingChange = heading != sentHeading ? heading : null;
+            sentHeading = heading;
+            return LocationFrame.delta(sequence, latitudeDelta, longitudeDelta, headingChange);
+        }
+
+        // Flat-earth bearing is plenty over the few metres between pings
+        private static int bearing(int fromLatitude, int latitudeDelta, int longitudeDelta) {
+            double east = longitudeDelta * Math.cos(Math.toRadians(fromLatitude / UNITS_PER_DEGREE));
+            double degrees = Math.toDegrees(Math.atan2(east, latitudeDelta));
+            return (int) Math.round(degrees + 360) % 360;
+        }
+    }
+}
@@ -0,0 +1,31 @@
+package com.arnavgpt.valoride.ride.service;
+
+import com.arnavgpt.valoride.ride.dto.RideResponse;
+import com.arnavgpt.valoride.ride.event.RideStatusChangedEvent;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+/**
+ * Committed ride transitions by resulting status and vehicle type. How long each transition
+ * takes is timed on the RideService methods themselves.
+ */
+@Service
+public class RideMetrics {
+
+    private final MeterRegistry meterRegistry;
+
+    public RideMetrics(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
+    public void onRideStatusChanged(RideStatusChangedEvent event) {
+        RideResponse ride = event.getRide();
+        meterRegistry.counter("app.ride.transitions",
+                        "status", ride.getStatus().name(),
+                        "vehicleType", ride.getVehicleType().name())
+                .increment();
+    }
+}
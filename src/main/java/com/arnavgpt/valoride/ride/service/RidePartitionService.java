@@ -0,0 +1,116 @@
+package com.arnavgpt.valoride.ride.service;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDate;
+
+/**
+ * Maintains the monthly partitions of rides and payments: keeps partitions for the coming
+ * months created ahead of time, and moves months past the archive window into the archive
+ * tables once they hold only terminal rows. The partition DDL lives in database functions
+ * created by the V3 migration.
+ */
+@Service
+public class RidePartitionService {
+
+    private static final Logger logger = LoggerFactory.getLogger(RidePartitionService.class);
+
+    // Arbitrary application-wide key for pg advisory locks held by partition maintenance
+    private static final long PARTITION_LOCK_KEY = 0x52494445_50415254L;
+
+    private static final String TERMINAL_RIDE_STATUSES = "COMPLETED,CANCELLED";
+    private static final String TERMINAL_PAYMENT_STATUSES = "COMPLETED,FAILED,REFUNDED";
+
+    private final int monthsAhead;
+    private final int archiveAfterMonths;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    public RidePartitionService(@Value("${ride.partitions.months-ahead:3}") int monthsAhead,
+                                @Value("${ride.archive.after-months:12}") int archiveAfterMonths) {
+        this.monthsAhead = monthsAhead;
+        this.archiveAfterMonths = archiveAfterMonths;
+    }
+
+    /**
+     * Make sure inserts for the current and next few months always have a partition to land in
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(cron = "${ride.partitions.cron:0 15 3 * * *}")
+    @Transactional
+    public void createUpcomingPartitions() {
+        if (!tryLock()) {
+            logger.debug("Partition maintenance already running on another node");
+            return;
+        }
+
+        LocalDate thisMonth = LocalDate.now().withDayOfMonth(1);
+        LocalDate lastMonth = thisMonth.plusMonths(monthsAhead);
+
+        int created = createMonthlyPartitions("rides", thisMonth, lastMonth)
+                + createMonthlyPartitions("payments", thisMonth, lastMonth);
+        if (created > 0) {
+            logger.info("Created {} monthly partitions up to {}", created, lastMonth);
+        }
+    }
+
+    /**
+     * Move months older than the archive window out of the hot tables. A month that still has
+     * an open ride or payment stays where it is and is retried on the next run.
+     */
+    @Scheduled(cron = "${ride.archive.cron:0 30 3 * * *}")
+    @Transactional
+    public void archiveOldPartitions() {
+        if (!tryLock()) {
+            logger.debug("Partition maintenance already running on another node");
+            return;
+        }
+
+        LocalDate cutoff = LocalDate.now().withDayOfMonth(1).minusMonths(archiveAfterMonths);
+
+        int rides = archiveMonthlyPartitions("rides", "rides_archive", cutoff, TERMINAL_RIDE_STATUSES);
+        int payments = archiveMonthlyPartitions("payments", "payments_archive", cutoff, TERMINAL_PAYMENT_STATUSES);
+        if (rides + payments > 0) {
+            logger.info("Archived {} ride and {} payment partitions before {}", rides, payments, cutoff);
+        }
+    }
+
+    private int createMonthlyPartitions(String table, LocalDate firstMonth, LocalDate lastMonth) {
+        Number created = (Number) entityManager
+                .createNativeQuery("SELECT create_monthly_partitions(:table, :firstMonth, :lastMonth)")
+                .setParameter("table", table)
+                .setParameter("firstMonth", firstMonth)
+                .setParameter("lastMonth", lastMonth)
+                .getSingleResult();
+        return created.intValue();
+    }
+
+    private int archiveMonthlyPartitions(String table, String archive, LocalDate beforeMonth, String terminalStatuses) {
+        Number archived = (Number) entityManager
+                .createNativeQuery("SELECT archive_monthly_partitions(:table, :archive, :beforeMonth, " +
+                        "string_to_array(:terminalStatuses, ','))")
+                .setParameter("table", table)
+                .setParameter("archive", archive)
+                .setParameter("beforeMonth", beforeMonth)
+                .setParameter("terminalStatuses", terminalStatuses)
+                .getSingleResult();
+        return archived.intValue();
+    }
+
+    private boolean tryLock() {
+        return (Boolean) entityManager
+                .createNativeQuery("SELECT pg_try_advisory_xact_lock(:key)")
+                .setParameter("key", PARTITION_LOCK_KEY)
+                .getSingleResult();
+    }
+}
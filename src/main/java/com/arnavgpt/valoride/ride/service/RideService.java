@@ -1,7 +1,8 @@
 package com.arnavgpt.valoride.ride.service;
 
+import com.arnavgpt.valoride.common.dto.CursorPage;
+import com.arnavgpt.valoride.common.dto.KeysetCursor;
 import com.arnavgpt.valoride.driver.entity.Driver;
-import com.arnavgpt.valoride.driver.repository.DriverRepository;
 import com.arnavgpt.valoride.driver.service.DriverService;
 import com.arnavgpt.valoride.exception.BusinessException;
 import com.arnavgpt.valoride.exception.ForbiddenException;
@@ -15,12 +16,19 @@ import com.arnavgpt.valoride.ride.dto.RideResponse;
 import com.arnavgpt.valoride.ride.entity.CancelledBy;
 import com.arnavgpt.valoride.ride.entity.Ride;
 import com.arnavgpt.valoride.ride.entity.RideStatus;
+import com.arnavgpt.valoride.ride.event.RideStatusChangedEvent;
 import com.arnavgpt.valoride.ride.repository.RideRepository;
 import com.arnavgpt.valoride.user.entity.Role;
 import com.arnavgpt.valoride.user.entity.User;
 import com.arnavgpt.valoride.user.service.UserService;
+import io.micrometer.core.annotation.Timed;
+import io.micrometer.observation.Observation;
+import io.micrometer.observation.ObservationRegistry;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.http.HttpStatus;
@@ -28,37 +36,44 @@ import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.math.BigDecimal;
-import java.math.RoundingMode;
 import java.time.LocalDateTime;
+import java.util.List;
 import java.util.UUID;
 
 @Service
 public class RideService {
 
     private static final Logger logger = LoggerFactory.getLogger(RideService.class);
+    private static final String TRANSITION_TIMER = "app.ride.transition";
 
     private final RideRepository rideRepository;
-    private final DriverRepository driverRepository;
     private final UserService userService;
     private final DriverService driverService;
     private final FareService fareService;
     private final NotificationService notificationService;
-
-    public RideService(RideRepository rideRepository, DriverRepository driverRepository,
-                       UserService userService, DriverService driverService, FareService fareService,
-                       NotificationService notificationService) {
+    private final ApplicationEventPublisher eventPublisher;
+    private final ActiveRideRegistry activeRideRegistry;
+    private final ObservationRegistry observationRegistry;
+
+    public RideService(RideRepository rideRepository, UserService userService, DriverService driverService,
+                       FareService fareService, NotificationService notificationService,
+                       ApplicationEventPublisher eventPublisher, ActiveRideRegistry activeRideRegistry,
+                       ObservationRegistry observationRegistry) {
         this.rideRepository = rideRepository;
-        this.driverRepository = driverRepository;
         this.userService = userService;
         this.driverService = driverService;
         this.fareService = fareService;
         this.notificationService = notificationService;
+        this.eventPublisher = eventPublisher;
+        this.activeRideRegistry = activeRideRegistry;
+        this.observationRegistry = observationRegistry;
     }
 
     /**
      * Request a new ride (Rider)
      */
     @Transactional
+    @Timed(value = TRANSITION_TIMER, extraTags = {"transition", "request"})
     public RideResponse requestRide(UUID riderId, RideRequestDto request) {
         User rider = userService.findById(riderId);
 
@@ -67,21 +82,24 @@ public class RideService {
             throw new ForbiddenException("Only riders can request rides");
         }
 
-        // Check if rider already has an active ride
+        // Check if rider already has an active ride. The registry only sees committed rides, so
+        // this asks the database under the rider's lock
+        rideRepository.lockRider(riderId);
         if (rideRepository.hasActiveRide(riderId)) {
             throw new BusinessException("You already have an active ride", HttpStatus.CONFLICT);
         }
 
         // Calculate distance and fare
-        BigDecimal distanceKm = fareService.calculateDistance(
+        FareService.TripEstimate trip = fareService.estimateTrip(
                 request.getPickupLatitude().doubleValue(),
                 request.getPickupLongitude().doubleValue(),
                 request.getDropLatitude().doubleValue(),
                 request.getDropLongitude().doubleValue()
         );
+        BigDecimal distanceKm = trip.distanceKm();
 
         BigDecimal estimatedFare = fareService.calculateFare(request.getVehicleType(), distanceKm);
-        int estimatedMins = fareService.calculateEstimatedDuration(distanceKm);
+        int estimatedMins = trip.durationMins();
 
         // Create ride
         Ride ride = new Ride();
@@ -102,13 +120,14 @@ public class RideService {
         Ride savedRide = rideRepository.save(ride);
         logger.info("Ride requested: {} by rider: {}", savedRide.getId(), riderId);
 
-        return RideResponse.fromEntity(savedRide);
+        return publishStatusChange(savedRide, null);
     }
 
     /**
      * Accept a ride (Driver)
      */
     @Transactional
+    @Timed(value = TRANSITION_TIMER, extraTags = {"transition", "accept"})
     public RideResponse acceptRide(UUID driverUserId, UUID rideId) {
         Driver driver = driverService.findByUserId(driverUserId);
 
@@ -116,12 +135,12 @@ public class RideService {
         if (!driver.isApproved()) {
             throw new ForbiddenException("Driver account is not approved");
         }
-        if (!driver.isAvailable()) {
+        if (!driverService.isAvailable(driver)) {
             throw new BusinessException("You must be online to accept rides", HttpStatus.BAD_REQUEST);
         }
 
         // Check if driver already has an active ride
-        if (rideRepository.driverHasActiveRide(driver.getId())) {
+        if (driverHasActiveRide(driver)) {
             throw new BusinessException("You already have an active ride", HttpStatus.CONFLICT);
         }
 
@@ -138,13 +157,13 @@ public class RideService {
         }
 
         // Assign driver
+        RideStatus previousStatus = ride.getStatus();
         ride.setDriver(driver);
         ride.setStatus(RideStatus.MATCHED);
         ride.setMatchedAt(LocalDateTime.now());
 
         // Set driver as unavailable
-        driver.setAvailable(false);
-        driverRepository.save(driver);
+        driverService.setAvailable(driver, false);
 
         Ride savedRide = rideRepository.save(ride);
         logger.info("Ride {} accepted by driver {}", rideId, driver.getId());
@@ -152,13 +171,14 @@ public class RideService {
         // Send notification to rider
         notificationService.sendRideAcceptedNotification(savedRide);
 
-        return RideResponse.fromEntity(savedRide);
+        return publishStatusChange(savedRide, previousStatus);
     }
 
     /**
      * Driver arrived at pickup location
      */
     @Transactional
+    @Timed(value = TRANSITION_TIMER, extraTags = {"transition", "arrive"})
     public RideResponse arrivedAtPickup(UUID driverUserId, UUID rideId) {
         Driver driver = driverService.findByUserId(driverUserId);
         Ride ride = findById(rideId);
@@ -170,6 +190,7 @@ public class RideService {
             throw new InvalidRideStateException(ride.getStatus().name(), "arrive");
         }
 
+        RideStatus previousStatus = ride.getStatus();
         ride.setStatus(RideStatus.ARRIVED);
         ride.setArrivedAt(LocalDateTime.now());
 
@@ -179,13 +200,14 @@ public class RideService {
         // Send notification to rider
         notificationService.sendDriverArrivedNotification(savedRide);
 
-        return RideResponse.fromEntity(savedRide);
+        return publishStatusChange(savedRide, previousStatus);
     }
 
     /**
      * Start the ride (Driver)
      */
     @Transactional
+    @Timed(value = TRANSITION_TIMER, extraTags = {"transition", "start"})
     public RideResponse startRide(UUID driverUserId, UUID rideId) {
         Driver driver = driverService.findByUserId(driverUserId);
         Ride ride = findById(rideId);
@@ -196,19 +218,21 @@ public class RideService {
             throw new InvalidRideStateException(ride.getStatus().name(), "start");
         }
 
+        RideStatus previousStatus = ride.getStatus();
         ride.setStatus(RideStatus.STARTED);
         ride.setStartedAt(LocalDateTime.now());
 
         Ride savedRide = rideRepository.save(ride);
         logger.info("Ride {} started", rideId);
 
-        return RideResponse.fromEntity(savedRide);
+        return publishStatusChange(savedRide, previousStatus);
     }
 
     /**
      * Complete the ride (Driver)
      */
     @Transactional
+    @Timed(value = TRANSITION_TIMER, extraTags = {"transition", "complete"})
     public RideResponse completeRide(UUID driverUserId, UUID rideId) {
         Driver driver = driverService.findByUserId(driverUserId);
         Ride ride = findById(rideId);
@@ -220,15 +244,14 @@ public class RideService {
         }
 
         // Calculate final fare (same as estimated for MVP)
+        RideStatus previousStatus = ride.getStatus();
         ride.setFinalFare(ride.getEstimatedFare());
         ride.setStatus(RideStatus.COMPLETED);
         ride.setCompletedAt(LocalDateTime.now());
 
         // Update driver stats
-        driver.incrementTotalRides();
-        driver.addEarnings(ride.getFinalFare());
-        driver.setAvailable(true); // Driver is available again
-        driverRepository.save(driver);
+        driverService.recordCompletedRide(driver, ride.getFinalFare());
+        driverService.setAvailable(driver, true); // Driver is available again
 
         Ride savedRide = rideRepository.save(ride);
         logger.info("Ride {} completed. Fare: {}", rideId, ride.getFinalFare());
@@ -236,13 +259,14 @@ public class RideService {
         // Send notification to both rider and driver
         notificationService.sendRideCompletedNotification(savedRide);
 
-        return RideResponse.fromEntity(savedRide);
+        return publishStatusChange(savedRide, previousStatus);
     }
 
     /**
      * Cancel a ride (Rider or Driver)
      */
     @Transactional
+    @Timed(value = TRANSITION_TIMER, extraTags = {"transition", "cancel"})
     public RideResponse cancelRide(UUID userId, UUID rideId, CancelRideRequest request, Role role) {
         Ride ride = findById(rideId);
 
@@ -265,12 +289,12 @@ public class RideService {
             cancelledBy = CancelledBy.DRIVER;
 
             // Make driver available again
-            driver.setAvailable(true);
-            driverRepository.save(driver);
+            driverService.setAvailable(driver, true);
         } else {
             throw new ForbiddenException("Invalid role for cancellation");
         }
 
+        RideStatus previousStatus = ride.getStatus();
         ride.setStatus(RideStatus.CANCELLED);
         ride.setCancelledAt(LocalDateTime.now());
         ride.setCancelledBy(cancelledBy);
@@ -282,13 +306,14 @@ public class RideService {
         // Send cancellation notification
         notificationService.sendRideCancelledNotification(savedRide, cancelledBy.name());
 
-        return RideResponse.fromEntity(savedRide);
+        return publishStatusChange(savedRide, previousStatus);
     }
 
     /**
      * Rate a completed ride (Rider)
      */
     @Transactional
+    @Timed(value = TRANSITION_TIMER, extraTags = {"transition", "rate"})
     public RideResponse rateRide(UUID riderId, UUID rideId, RateRideRequest request) {
         Ride ride = findById(rideId);
 
@@ -306,12 +331,13 @@ public class RideService {
 
         // Update driver's average rating
         if (ride.getDriver() != null) {
-            updateDriverRating(ride.getDriver(), request.getRating());
+            driverService.recordRating(ride.getDriver(), request.getRating());
         }
 
         Ride savedRide = rideRepository.save(ride);
         logger.info("Ride {} rated: {}", rideId, request.getRating());
 
+        traceRide(savedRide);
         return RideResponse.fromEntity(savedRide);
     }
 
@@ -330,13 +356,25 @@ public class RideService {
             throw new ForbiddenException("You don't have access to this ride");
         }
 
-        return RideResponse.fromEntity(ride);
+        traceRide(ride);
+        return withDriverLocation(RideResponse.fromEntity(ride), ride);
     }
 
     /**
      * Get active ride for user
      */
     public RideResponse getActiveRide(UUID userId, Role role) {
+        try {
+            if (role == Role.RIDER) {
+                return activeRideRegistry.findByRider(userId).orElse(null);
+            } else if (role == Role.DRIVER) {
+                return activeRideRegistry.findByDriver(userId).orElse(null);
+            }
+            return null;
+        } catch (DataAccessException e) {
+            logger.warn("Active ride registry unavailable, reading active ride from database: {}", e.getMessage());
+        }
+
         Ride ride;
 
         if (role == Role.RIDER) {
@@ -348,7 +386,7 @@ public class RideService {
             return null;
         }
 
-        return ride != null ? RideResponse.fromEntity(ride) : null;
+        return ride != null ? withDriverLocation(RideResponse.fromEntity(ride), ride) : null;
     }
 
     /**
@@ -368,31 +406,93 @@ public class RideService {
                 .map(RideResponse::fromEntity);
     }
 
+    /**
+     * Get ride history for rider by cursor; cost is the same at any depth
+     */
+    public CursorPage<RideResponse> scrollRiderHistory(UUID riderId, String cursor, int size) {
+        Limit limit = CursorPage.fetchLimit(size);
+        List<Ride> rides;
+        if (cursor == null) {
+            rides = rideRepository.findRiderHistory(riderId, limit);
+        } else {
+            KeysetCursor position = KeysetCursor.decode(cursor);
+            rides = rideRepository.findRiderHistoryBefore(riderId, position.getCreatedAt(), position.getId(), limit);
+        }
+        return CursorPage.of(rides, size, RideResponse::fromEntity);
+    }
+
+    /**
+     * Get ride history for driver by cursor
+     */
+    public CursorPage<RideResponse> scrollDriverHistory(UUID driverUserId, String cursor, int size) {
+        Limit limit = CursorPage.fetchLimit(size);
+        Driver driver = driverService.findByUserId(driverUserId);
+        List<Ride> rides;
+        if (cursor == null) {
+            rides = rideRepository.findDriverHistory(driver.getId(), limit);
+        } else {
+            KeysetCursor position = KeysetCursor.decode(cursor);
+            rides = rideRepository.findDriverHistoryBefore(driver.getId(), position.getCreatedAt(), position.getId(), limit);
+        }
+        return CursorPage.of(rides, size, RideResponse::fromEntity);
+    }
+
     public Ride findById(UUID rideId) {
-        return rideRepository.findById(rideId)
+        return rideRepository.findWithParticipantsById(rideId)
                 .orElseThrow(() -> new ResourceNotFoundException("Ride", "id", rideId));
     }
 
+    private boolean driverHasActiveRide(Driver driver) {
+        try {
+            if (!activeRideRegistry.driverHasActiveRide(driver.getUser().getId())) {
+                return false;
+            }
+        } catch (DataAccessException e) {
+            logger.warn("Active ride registry unavailable, checking database: {}", e.getMessage());
+        }
+        return rideRepository.driverHasActiveRide(driver.getId());
+    }
+
     private void verifyRideDriver(Ride ride, Driver driver) {
         if (ride.getDriver() == null || !ride.getDriver().getId().equals(driver.getId())) {
             throw new ForbiddenException("This ride is not assigned to you");
         }
     }
 
-    private void updateDriverRating(Driver driver, BigDecimal newRating) {
-        long totalRides = rideRepository.countCompletedRidesByDriverId(driver.getId());
+    /**
+     * Snapshot the ride and publish its transition; listeners run after commit
+     */
+    private RideResponse publishStatusChange(Ride ride, RideStatus previousStatus) {
+        traceRide(ride);
+        RideResponse response = withDriverLocation(RideResponse.fromEntity(ride), ride);
+        UUID driverUserId = ride.getDriver() != null ? ride.getDriver().getUser().getId() : null;
+        eventPublisher.publishEvent(new RideStatusChangedEvent(response, previousStatus, driverUserId));
+        return response;
+    }
 
-        if (totalRides <= 1) {
-            driver.setRating(newRating);
-        } else {
-            // Calculate new average: ((oldAvg * (n-1)) + newRating) / n
-            BigDecimal currentAvg = driver.getRating() != null ? driver.getRating() : BigDecimal.ZERO;
-            BigDecimal totalPreviousRatings = currentAvg.multiply(BigDecimal.valueOf(totalRides - 1));
-            BigDecimal newAverage = totalPreviousRatings.add(newRating)
-                    .divide(BigDecimal.valueOf(totalRides), 2, RoundingMode.HALF_UP);
-            driver.setRating(newAverage);
+    /**
+     * The driver's live position, only while the ride is in progress
+     */
+    private RideResponse withDriverLocation(RideResponse response, Ride ride) {
+        if (ride.getDriver() != null && ride.getStatus() != RideStatus.COMPLETED
+                && ride.getStatus() != RideStatus.CANCELLED) {
+            driverService.findState(ride.getDriver().getId()).ifPresent(state -> {
+                response.setDriverLatitude(state.getLatitude());
+                response.setDriverLongitude(state.getLongitude());
+            });
         }
+        return response;
+    }
 
-        driverRepository.save(driver);
+    /**
+     * Tag the current request's span with the ride. High-cardinality values go on the span only,
+     * never on the request metrics.
+     */
+    private void traceRide(Ride ride) {
+        Observation observation = observationRegistry.getCurrentObservation();
+        if (observation != null) {
+            observation.highCardinalityKeyValue("ride.id", ride.getId().toString())
+                    .highCardinalityKeyValue("ride.status", ride.getStatus().name());
+        }
     }
-}
\ No newline at end of file
+}
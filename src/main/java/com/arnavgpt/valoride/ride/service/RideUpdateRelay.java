@@ -0,0 +1,138 @@
+package com.arnavgpt.valoride.ride.service;
+
+import com.arnavgpt.valoride.driver.event.DriverLocationChangedEvent;
+import com.arnavgpt.valoride.ride.dto.RideResponse;
+import com.arnavgpt.valoride.ride.dto.RideUpdateMessage;
+import com.arnavgpt.valoride.ride.entity.RideStatus;
+import com.arnavgpt.valoride.ride.event.RideStatusChangedEvent;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.io.IOException;
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * Pushes ride transitions to /topic/rides/{rideId} and hands driver positions to the
+ * RideLocationFeed. Updates are published once to a Redis channel and every node delivers
+ * them to its own STOMP subscribers, so a client receives updates no matter which node
+ * handled the change. If Redis is down, updates are still delivered on the local node.
+ */
+@Service
+public class RideUpdateRelay implements MessageListener {
+
+    private static final Logger logger = LoggerFactory.getLogger(RideUpdateRelay.class);
+
+    private static final String CHANNEL = "ride_updates";
+    private static final String RIDE_TOPIC_PREFIX = "/topic/rides/";
+
+    private final StringRedisTemplate redisTemplate;
+    private final SimpMessagingTemplate messagingTemplate;
+    private final ActiveRideRegistry activeRideRegistry;
+    private final RideLocationFeed locationFeed;
+    private final ObjectMapper objectMapper;
+    private final RedisMessageListenerContainer listenerContainer;
+
+    // The listener container is shared, so track this listener's own subscription
+    private volatile boolean subscribed;
+
+    public RideUpdateRelay(StringRedisTemplate redisTemplate, SimpMessagingTemplate messagingTemplate,
+                           ActiveRideRegistry activeRideRegistry, RideLocationFeed locationFeed,
+                           ObjectMapper objectMapper,
+                           RedisMessageListenerContainer listenerContainer) {
+        this.redisTemplate = redisTemplate;
+        this.messagingTemplate = messagingTemplate;
+        this.activeRideRegistry = activeRideRegistry;
+        this.locationFeed = locationFeed;
+        this.objectMapper = objectMapper;
+        this.listenerContainer = listenerContainer;
+    }
+
+    /**
+     * Subscribe to the relay channel, retrying until Redis is reachable. Once subscribed the
+     * container recovers from dropped connections on its own.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(fixedDelayString = "${ride.updates.subscribe-retry-ms:30000}")
+    public void subscribe() {
+        if (subscribed) {
+            return;
+        }
+        try {
+            listenerContainer.addMessageListener(this, new ChannelTopic(CHANNEL));
+            subscribed = true;
+            logger.info("Subscribed to ride update relay");
+        } catch (DataAccessException e) {
+            logger.warn("Ride update relay unavailable, updates reach local subscribers only: {}", e.getMessage());
+        }
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
+    public void onRideStatusChanged(RideStatusChangedEvent event) {
+        publish(RideUpdateMessage.status(event.getRide()));
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
+    public void onDriverLocationChanged(DriverLocationChangedEvent event) {
+        Optional<UUID> rideId;
+        try {
+            rideId = activeRideRegistry.findByDriver(event.getUserId()).map(RideResponse::getId);
+        } catch (DataAccessException e) {
+            logger.debug("Skipping location push, active ride registry unavailable: {}", e.getMessage());
+            return;
+        }
+
+        // Positions only matter to a rider while the driver is on their ride
+        rideId.ifPresent(id -> publish(RideUpdateMessage.location(id, event.getLatitude(), event.getLongitude())));
+    }
+
+    /**
+     * Deliver an update received on the Redis channel to this node's subscribers
+     */
+    @Override
+    public void onMessage(Message message, byte[] pattern) {
+        try {
+            deliver(objectMapper.readValue(message.getBody(), RideUpdateMessage.class));
+        } catch (IOException e) {
+            logger.error("Dropping malformed ride update: {}", e.getMessage());
+        }
+    }
+
+    private void publish(RideUpdateMessage update) {
+        try {
+            redisTemplate.convertAndSend(CHANNEL, objectMapper.writeValueAsString(update));
+        } catch (DataAccessException e) {
+            logger.warn("Ride update relay unavailable, delivering locally only: {}", e.getMessage());
+            deliver(update);
+        } catch (JsonProcessingException e) {
+            logger.error("Failed to serialize ride update for ride {}: {}", update.getRideId(), e.getMessage());
+        }
+    }
+
+    private void deliver(RideUpdateMessage update) {
+        if (update.getType() == RideUpdateMessage.Type.LOCATION) {
+            locationFeed.offer(update.getRideId(), update.getDriverLatitude(), update.getDriverLongitude());
+            return;
+        }
+
+        messagingTemplate.convertAndSend(RIDE_TOPIC_PREFIX + update.getRideId(), update);
+        if (update.getStatus() == RideStatus.COMPLETED || update.getStatus() == RideStatus.CANCELLED) {
+            locationFeed.end(update.getRideId());
+        }
+    }
+}
@@ -0,0 +1,16 @@
+package com.arnavgpt.valoride.routing.dto;
+
+/**
+ * Road distance and free-flow driving time between two points, including the short legs from
+ * each point to the road it was snapped onto
+ */
+public record Route(double distanceMeters, double durationSeconds) {
+
+    public double distanceKm() {
+        return distanceMeters / 1000.0;
+    }
+
+    public double durationMinutes() {
+        return durationSeconds / 60.0;
+    }
+}
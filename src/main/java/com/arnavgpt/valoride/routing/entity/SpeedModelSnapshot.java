@@ -0,0 +1,49 @@
+package com.arnavgpt.valoride.routing.entity;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+
+import java.time.LocalDateTime;
+
+/**
+ * The single shared snapshot of the learned trip-speed model (see SpeedModel), merged into by
+ * every node. The row is created by the V6 migration and written only through the native
+ * queries in SpeedModelSnapshotRepository.
+ */
+@Entity
+@Table(name = "speed_model_snapshot")
+public class SpeedModelSnapshot {
+
+    @Id
+    private Short id;
+
+    @Column(nullable = false)
+    private byte[] data;
+
+    @Column(nullable = false)
+    private long observations;
+
+    @Column(name = "updated_at", nullable = false)
+    private LocalDateTime updatedAt;
+
+    protected SpeedModelSnapshot() {
+    }
+
+    public Short getId() {
+        return id;
+    }
+
+    public byte[] getData() {
+        return data;
+    }
+
+    public long getObservations() {
+        return observations;
+    }
+
+    public LocalDateTime getUpdatedAt() {
+        return updatedAt;
+    }
+}
@@ -0,0 +1,335 @@
+package com.arnavgpt.valoride.routing.graph;
+
+import java.util.Arrays;
+
+/**
+ * Preprocesses a RoadNetwork into a contraction hierarchy. Nodes are contracted one at a time,
+ * least important first: each contracted node is bypassed by shortcut edges wherever it lay on
+ * the only shortest path between two of its remaining neighbours. A query then only ever climbs
+ * to more important nodes from both ends, which settles hundreds of nodes instead of a city's worth.
+ */
+public final class ContractionHierarchy {
+
+    // Witness searches give up after this many nodes and add the shortcut; extra shortcuts cost
+    // query time but never correctness. Estimating a node's priority only needs a rough count.
+    private static final int WITNESS_SETTLE_LIMIT = 256;
+    private static final int SIMULATION_SETTLE_LIMIT = 16;
+
+    private final int nodeCount;
+
+    // Original and shortcut edges; all are kept for the final graph
+    private int[] edgeFrom;
+    private int[] edgeTo;
+    private float[] edgeSeconds;
+    private float[] edgeMeters;
+    private int edgeCount;
+
+    // Edges of each node to nodes not yet contracted, the only ones contraction still looks at
+    private final int[][] out;
+    private final int[] outCount;
+    private final int[][] in;
+    private final int[] inCount;
+
+    private final boolean[] contracted;
+    private final int[] rank;
+    private final int[] deletedNeighbours;
+    private final int[] level;
+    private final double[] queuedPriority;
+    private final int[] touchedBy;
+
+    private final double[] witnessCost;
+    private final int[] witnessStamp;
+    private final int[] targetStamp;
+    private int stamp;
+    private final MinHeap witnessHeap = new MinHeap(256);
+
+    private ContractionHierarchy(RoadNetwork network) {
+        nodeCount = network.nodeCount();
+        int capacity = Math.max(16, network.edgeCount() * 2);
+        edgeFrom = new int[capacity];
+        edgeTo = new int[capacity];
+        edgeSeconds = new float[capacity];
+        edgeMeters = new float[capacity];
+        out = new int[nodeCount][];
+        outCount = new int[nodeCount];
+        in = new int[nodeCount][];
+        inCount = new int[nodeCount];
+        for (int v = 0; v < nodeCount; v++) {
+            out[v] = new int[4];
+            in[v] = new int[4];
+        }
+
+        contracted = new boolean[nodeCount];
+        rank = new int[nodeCount];
+        deletedNeighbours = new int[nodeCount];
+        level = new int[nodeCount];
+        queuedPriority = new double[nodeCount];
+        touchedBy = new int[nodeCount];
+        Arrays.fill(touchedBy, -1);
+        witnessCost = new double[nodeCount];
+        witnessStamp = new int[nodeCount];
+        targetStamp = new int[nodeCount];
+
+        for (int e = 0; e < network.edgeCount(); e++) {
+            addOrImprove(network.edgeFrom[e], network.edgeTo[e], network.edgeSeconds[e], network.edgeMeters[e]);
+        }
+    }
+
+    public static RoadGraph build(RoadNetwork network) {
+        ContractionHierarchy hierarchy = new ContractionHierarchy(network);
+        hierarchy.contractAll();
+        return hierarchy.toGraph(network);
+    }
+
+    private void contractAll() {
+        MinHeap queue = new MinHeap(nodeCount);
+        for (int v = 0; v < nodeCount; v++) {
+            enqueue(queue, v, priority(v));
+        }
+
+        int nextRank = 0;
+        while (!queue.isEmpty()) {
+            double key = queue.peekKey();
+            int v = queue.poll();
+            // Superseded by a later push for the same node
+            if (contracted[v] || key != queuedPriority[v]) {
+                continue;
+            }
+            // Priorities go stale as neighbours are contracted; re-queue if no longer the least important
+            double priority = priority(v);
+            if (priority > queue.peekKey()) {
+                enqueue(queue, v, priority);
+                continue;
+            }
+
+            contract(v, false);
+            contracted[v] = true;
+            rank[v] = nextRank++;
+            detach(v);
+
+            for (int i = 0; i < outCount[v]; i++) {
+                touchNeighbour(queue, v, edgeTo[out[v][i]]);
+            }
+            for (int i = 0; i < inCount[v]; i++) {
+                touchNeighbour(queue, v, edgeFrom[in[v][i]]);
+            }
+        }
+    }
+
+    private void enqueue(MinHeap queue, int v, double priority) {
+        queuedPriority[v] = priority;
+        queue.push(priority, v);
+    }
+
+    /**
+     * Drop the edges to a contracted node from its neighbours' lists
+     */
+    private void detach(int v) {
+        for (int i = 0; i < outCount[v]; i++) {
+            int w = edgeTo[out[v][i]];
+            inCount[w] = remove(in[w], inCount[w], out[v][i]);
+        }
+        for (int i = 0; i < inCount[v]; i++) {
+            int u = edgeFrom[in[v][i]];
+            outCount[u] = remove(out[u], outCount[u], in[v][i]);
+        }
+    }
+
+    private static int remove(int[] edges, int count, int edge) {
+        for (int i = 0; i < count; i++) {
+            if (edges[i] == edge) {
+                edges[i] = edges[count - 1];
+                return count - 1;
+            }
+        }
+        return count;
+    }
+
+    private void touchNeighbour(MinHeap queue, int contractedNode, int neighbour) {
+        // Neighbours on both lists of a two-way street are updated once
+        if (contracted[neighbour] || touchedBy[neighbour] == contractedNode) {
+            return;
+        }
+        touchedBy[neighbour] = contractedNode;
+        deletedNeighbours[neighbour]++;
+        level[neighbour] = Math.max(level[neighbour], level[contractedNode] + 1);
+        enqueue(queue, neighbour, priority(neighbour));
+    }
+
+    /**
+     * Edge difference plus terms that spread contraction evenly over the map
+     */
+    private double priority(int v) {
+        int shortcuts = contract(v, true);
+        int removed = outCount[v] + inCount[v];
+        return 2.0 * (shortcuts - removed) + deletedNeighbours[v] + level[v];
+    }
+
+    /**
+     * Add the shortcuts needed to bypass v, or only count them when simulating
+     */
+    private int contract(int v, boolean simulate) {
+        int shortcuts = 0;
+        for (int i = 0; i < inCount[v]; i++) {
+            int inEdge = in[v][i];
+            int u = edgeFrom[inEdge];
+
+            stamp++;
+            double maxVia = -1;
+            int targets = 0;
+            for (int j = 0; j < outCount[v]; j++) {
+                int outEdge = out[v][j];
+                int w = edgeTo[outEdge];
+                if (w != u) {
+                    maxVia = Math.max(maxVia, edgeSeconds[inEdge] + edgeSeconds[outEdge]);
+                    if (targetStamp[w] != stamp) {
+                        targetStamp[w] = stamp;
+                        targets++;
+                    }
+                }
+            }
+            if (targets == 0) {
+                continue;
+            }
+
+            witnessSearch(u, v, maxVia, targets, simulate ? SIMULATION_SETTLE_LIMIT : WITNESS_SETTLE_LIMIT);
+            for (int j = 0; j < outCount[v]; j++) {
+                int outEdge = out[v][j];
+                int w = edgeTo[outEdge];
+                if (w == u) {
+                    continue;
+                }
+                double via = edgeSeconds[inEdge] + edgeSeconds[outEdge];
+                if (witness(w) > via) {
+                    shortcuts++;
+                    if (!simulate) {
+                        addOrImprove(u, w, (float) via, edgeMeters[inEdge] + edgeMeters[outEdge]);
+                    }
+                }
+            }
+        }
+        return shortcuts;
+    }
+
+    /**
+     * Shortest paths from source among uncontracted nodes other than avoid, up to maxCost, until
+     * every target (nodes carrying the current stamp) is settled or settleLimit nodes are
+     */
+    private void witnessSearch(int source, int avoid, double maxCost, int targets, int settleLimit) {
+        witnessHeap.clear();
+        witnessStamp[source] = stamp;
+        witnessCost[source] = 0;
+        witnessHeap.push(0, source);
+
+        int settled = 0;
+        while (!witnessHeap.isEmpty()) {
+            double cost = witnessHeap.peekKey();
+            int node = witnessHeap.poll();
+            if (cost > witness(node)) {
+                continue;
+            }
+            if (cost > maxCost || ++settled > settleLimit) {
+                return;
+            }
+            if (targetStamp[node] == stamp && --targets == 0) {
+                return;
+            }
+            for (int i = 0; i < outCount[node]; i++) {
+                int e = out[node][i];
+                int next = edgeTo[e];
+                if (next == avoid) {
+                    continue;
+                }
+                double nextCost = cost + edgeSeconds[e];
+                if (nextCost <= maxCost && nextCost < witness(next)) {
+                    witnessStamp[next] = stamp;
+                    witnessCost[next] = nextCost;
+                    witnessHeap.push(nextCost, next);
+                }
+            }
+        }
+    }
+
+    private double witness(int node) {
+        return witnessStamp[node] == stamp ? witnessCost[node] : Double.POSITIVE_INFINITY;
+    }
+
+    private void addOrImprove(int from, int to, float seconds, float meters) {
+        for (int i = 0; i < outCount[from]; i++) {
+            int e = out[from][i];
+            if (edgeTo[e] == to) {
+                if (seconds < edgeSeconds[e]) {
+                    edgeSeconds[e] = seconds;
+                    edgeMeters[e] = meters;
+                }
+                return;
+            }
+        }
+
+        if (edgeCount == edgeFrom.length) {
+            int capacity = edgeCount + (edgeCount >> 1);
+            edgeFrom = Arrays.copyOf(edgeFrom, capacity);
+            edgeTo = Arrays.copyOf(edgeTo, capacity);
+            edgeSeconds = Arrays.copyOf(edgeSeconds, capacity);
+            edgeMeters = Arrays.copyOf(edgeMeters, capacity);
+        }
+        int e = edgeCount++;
+        edgeFrom[e] = from;
+        edgeTo[e] = to;
+        edgeSeconds[e] = seconds;
+        edgeMeters[e] = meters;
+        if (outCount[from] == out[from].length) {
+            out[from] = Arrays.copyOf(out[from], outCount[from] * 2);
+        }
+        out[from][outCount[from]++] = e;
+        if (inCount[to] == in[to].length) {
+            in[to] = Arrays.copyOf(in[to], inCount[to] * 2);
+        }
+        in[to][inCount[to]++] = e;
+    }
+
+    /**
+     * Split every edge into the upward graph of the forward search or of the backward search
+     */
+    private RoadGraph toGraph(RoadNetwork network) {
+        int[] forwardFirst = new int[nodeCount + 1];
+        int[] backwardFirst = new int[nodeCount + 1];
+        for (int e = 0; e < edgeCount; e++) {
+            if (rank[edgeFrom[e]] < rank[edgeTo[e]]) {
+                forwardFirst[edgeFrom[e] + 1]++;
+            } else {
+                backwardFirst[edgeTo[e] + 1]++;
+            }
+        }
+        for (int v = 0; v < nodeCount; v++) {
+            forwardFirst[v + 1] += forwardFirst[v];
+            backwardFirst[v + 1] += backwardFirst[v];
+        }
+
+        int[] forwardTo = new int[forwardFirst[nodeCount]];
+        float[] forwardSeconds = new float[forwardTo.length];
+        float[] forwardMeters = new float[forwardTo.length];
+        int[] backwardTo = new int[backwardFirst[nodeCount]];
+        float[] backwardSeconds = new float[backwardTo.length];
+        float[] backwardMeters = new float[backwardTo.length];
+        int[] forwardFill = Arrays.copyOf(forwardFirst, nodeCount);
+        int[] backwardFill = Arrays.copyOf(backwardFirst, nodeCount);
+        for (int e = 0; e < edgeCount; e++) {
+            if (rank[edgeFrom[e]] < rank[edgeTo[e]]) {
+                int i = forwardFill[edgeFrom[e]]++;
+                forwardTo[i] = edgeTo[e];
+                forwardSeconds[i] = edgeSeconds[e];
+                forwardMeters[i] = edgeMeters[e];
+            } else {
+                int i = backwardFill[edgeTo[e]]++;
+                backwardTo[i] = edgeFrom[e];
+                backwardSeconds[i] = edgeSeconds[e];
+                backwardMeters[i] = edgeMeters[e];
+            }
+        }
+
+        return new RoadGraph(network.latitudes, network.longitudes,
+                forwardFirst, forwardTo, forwardSeconds, forwardMeters,
+                backwardFirst, backwardTo, backwardSeconds, backwardMeters);
+    }
+}
@@ -0,0 +1,84 @@
+package com.arnavgpt.valoride.routing.graph;
+
+import java.util.Arrays;
+
+/**
+ * Open-addressing map from OSM ids to dense node indexes, without boxing a Long per entry
+ */
+final class LongIntMap {
+
+    static final int MISSING = -1;
+
+    private static final long EMPTY = Long.MIN_VALUE;
+
+    private long[] keys;
+    private int[] values;
+    private int size;
+
+    LongIntMap(int expectedSize) {
+        int capacity = Integer.highestOneBit(Math.max(16, expectedSize * 2 - 1)) << 1;
+        keys = new long[capacity];
+        values = new int[capacity];
+        Arrays.fill(keys, EMPTY);
+    }
+
+    int size() {
+        return size;
+    }
+
+    int get(long key) {
+        int mask = keys.length - 1;
+        for (int i = slot(key, mask); ; i = (i + 1) & mask) {
+            if (keys[i] == key) {
+                return values[i];
+            }
+            if (keys[i] == EMPTY) {
+                return MISSING;
+            }
+        }
+    }
+
+    /**
+     * The key's value, adding it with the next dense index if absent
+     */
+    int getOrAddNext(long key) {
+        int mask = keys.length - 1;
+        for (int i = slot(key, mask); ; i = (i + 1) & mask) {
+            if (keys[i] == key) {
+                return values[i];
+            }
+            if (keys[i] == EMPTY) {
+                keys[i] = key;
+                values[i] = size;
+                if (++size * 2 > keys.length) {
+                    grow();
+                }
+                return size - 1;
+            }
+        }
+    }
+
+    private void grow() {
+        long[] oldKeys = keys;
+        int[] oldValues = values;
+        keys = new long[oldKeys.length * 2];
+        values = new int[oldKeys.length * 2];
+        Arrays.fill(keys, EMPTY);
+        int mask = keys.length - 1;
+        for (int j = 0; j < oldKeys.length; j++) {
+            if (oldKeys[j] != EMPTY) {
+                int i = slot(oldKeys[j], mask);
+                while (keys[i] != EMPTY) {
+                    i = (i + 1) & mask;
+                }
+                keys[i] = oldKeys[j];
+                values[i] = oldValues[j];
+            }
+        }
+    }
+
+    private static int slot(long key, int mask) {
+        long h = key * 0x9E3779B97F4A7C15L;
+        return (int) (h ^ (h >>> 32)) & mask;
+    }
+}
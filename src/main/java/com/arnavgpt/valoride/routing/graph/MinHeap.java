@@ -0,0 +1,86 @@
+package com.arnavgpt.valoride.routing.graph;
+
+import java.util.Arrays;
+
+/**
+ * Binary min-heap of node ids keyed by cost, on primitive arrays. A node is pushed again instead of
+ * decreasing its key; callers skip entries whose key is worse than the node's current cost.
+ */
+final class MinHeap {
+
+    private double[] keys;
+    private int[] nodes;
+    private int size;
+
+    MinHeap(int capacity) {
+        keys = new double[Math.max(capacity, 16)];
+        nodes = new int[keys.length];
+    }
+
+    void clear() {
+        size = 0;
+    }
+
+    boolean isEmpty() {
+        return size == 0;
+    }
+
+    int size() {
+        return size;
+    }
+
+    /**
+     * Smallest key, or positive infinity when empty
+     */
+    double peekKey() {
+        return size == 0 ? Double.POSITIVE_INFINITY : keys[0];
+    }
+
+    void push(double key, int node) {
+        if (size == keys.length) {
+            keys = Arrays.copyOf(keys, size * 2);
+            nodes = Arrays.copyOf(nodes, size * 2);
+        }
+        int i = size++;
+        while (i > 0) {
+            int parent = (i - 1) >>> 1;
+            if (keys[parent] <= key) {
+                break;
+            }
+            keys[i] = keys[parent];
+            nodes[i] = nodes[parent];
+            i = parent;
+        }
+        keys[i] = key;
+        nodes[i] = node;
+    }
+
+    /**
+     * Remove the node with the smallest key
+     */
+    int poll() {
+        int top = nodes[0];
+        size--;
+        if (size > 0) {
+            double key = keys[size];
+            int node = nodes[size];
+            int i = 0;
+            int half = size >>> 1;
+            while (i < half) {
+                int child = 2 * i + 1;
+                if (child + 1 < size && keys[child + 1] < keys[child]) {
+                    child++;
+                }
+                if (key <= keys[child]) {
+                    break;
+                }
+                keys[i] = keys[child];
+                nodes[i] = nodes[child];
+                i = child;
+            }
+            keys[i] = key;
+            nodes[i] = node;
+        }
+        return top;
+    }
+}
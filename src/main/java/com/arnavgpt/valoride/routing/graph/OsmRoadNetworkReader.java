@@ -0,0 +1,226 @@
+package com.arnavgpt.valoride.routing.graph;
+
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+import java.io.BufferedInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.Set;
+import java.util.zip.GZIPInputStream;
+
+/**
+ * Reads the drivable roads of an OSM XML extract (.osm or .osm.gz) into a RoadNetwork.
+ * The file is streamed twice: once for the ways, noting which nodes they use, then for the
+ * coordinates of just those nodes, so the many nodes of buildings and the like are never held.
+ */
+public final class OsmRoadNetworkReader {
+
+    // Typical city traffic speeds in km/h; a lower posted maxspeed wins
+    private static final Map<String, Double> SPEED_KMH = Map.ofEntries(
+            Map.entry("motorway", 80.0), Map.entry("motorway_link", 50.0),
+            Map.entry("trunk", 60.0), Map.entry("trunk_link", 40.0),
+            Map.entry("primary", 45.0), Map.entry("primary_link", 35.0),
+            Map.entry("secondary", 35.0), Map.entry("secondary_link", 30.0),
+            Map.entry("tertiary", 30.0), Map.entry("tertiary_link", 25.0),
+            Map.entry("unclassified", 25.0), Map.entry("road", 20.0),
+            Map.entry("residential", 20.0), Map.entry("living_street", 10.0),
+            Map.entry("service", 15.0));
+
+    private static final Set<String> NO_ACCESS = Set.of("no", "private");
+
+    // Drivable ways as runs of dense node indexes, with a speed and direction per way
+    private int[] wayNodes = new int[1 << 16];
+    private int wayNodeCount;
+    private int[] wayStart = new int[1 << 12];
+    private float[] waySpeed = new float[1 << 12];
+    private byte[] wayDirection = new byte[1 << 12];
+    private int wayCount;
+
+    private final LongIntMap nodeIndex = new LongIntMap(1 << 16);
+
+    private OsmRoadNetworkReader() {
+    }
+
+    public static RoadNetwork read(Path file) throws IOException {
+        OsmRoadNetworkReader reader = new OsmRoadNetworkReader();
+        try {
+            reader.readWays(file);
+            return reader.readNodesAndBuild(file);
+        } catch (XMLStreamException e) {
+            throw new IOException("Malformed OSM file " + file + ": " + e.getMessage(), e);
+        }
+    }
+
+    private void readWays(Path file) throws IOException, XMLStreamException {
+        long[] refs = new long[256];
+        try (InputStream in = open(file)) {
+            XMLStreamReader xml = xmlInputFactory().createXMLStreamReader(in);
+            while (xml.hasNext()) {
+                if (xml.next() != XMLStreamConstants.START_ELEMENT || !"way".equals(xml.getLocalName())) {
+                    continue;
+                }
+
+                int refCount = 0;
+                String highway = null;
+                String oneway = null;
+                String junction = null;
+                String maxspeed = null;
+                boolean noAccess = false;
+                boolean area = false;
+                int depth = 1;
+                while (depth > 0) {
+                    int event = xml.next();
+                    if (event == XMLStreamConstants.END_ELEMENT) {
+                        depth--;
+                    } else if (event == XMLStreamConstants.START_ELEMENT) {
+                        depth++;
+                        if ("nd".equals(xml.getLocalName())) {
+                            if (refCount == refs.length) {
+                                refs = Arrays.copyOf(refs, refCount * 2);
+                            }
+                            refs[refCount++] = Long.parseLong(xml.getAttributeValue(null, "ref"));
+                        } else if ("tag".equals(xml.getLocalName())) {
+                            String value = xml.getAttributeValue(null, "v");
+                            switch (xml.getAttributeValue(null, "k")) {
+                                case "highway" -> highway = value;
+                                case "oneway" -> oneway = value;
+                                case "junction" -> junction = value;
+                                case "maxspeed" -> maxspeed = value;
+                                case "access", "motor_vehicle" -> noAccess |= NO_ACCESS.contains(value);
+                                case "area" -> area = "yes".equals(value);
+                                default -> {
+                                }
+                            }
+                        }
+                    }
+                }
+
+                Double speed = highway != null ? SPEED_KMH.get(highway) : null;
+                if (speed == null || noAccess || area || refCount < 2) {
+                    continue;
+                }
+                addWay(refs, refCount, Math.min(speed, maxspeed(maxspeed)), direction(highway, oneway, junction));
+            }
+            xml.close();
+        }
+    }
+
+    private void addWay(long[] refs, int refCount, double speedKmh, byte direction) {
+        if (wayCount + 1 >= wayStart.length) {
+            wayStart = Arrays.copyOf(wayStart, wayStart.length * 2);
+            waySpeed = Arrays.copyOf(waySpeed, waySpeed.length * 2);
+            wayDirection = Arrays.copyOf(wayDirection, wayDirection.length * 2);
+        }
+        if (wayNodeCount + refCount > wayNodes.length) {
+            wayNodes = Arrays.copyOf(wayNodes, Math.max(wayNodes.length * 2, wayNodeCount + refCount));
+        }
+        wayStart[wayCount] = wayNodeCount;
+        waySpeed[wayCount] = (float) speedKmh;
+        wayDirection[wayCount] = direction;
+        for (int i = 0; i < refCount; i++) {
+            wayNodes[wayNodeCount++] = nodeIndex.getOrAddNext(refs[i]);
+        }
+        wayCount++;
+        wayStart[wayCount] = wayNodeCount;
+    }
+
+    private RoadNetwork readNodesAndBuild(Path file) throws IOException, XMLStreamException {
+        int nodeCount = nodeIndex.size();
+        float[] latitudes = new float[nodeCount];
+        float[] longitudes = new float[nodeCount];
+        boolean[] located = new boolean[nodeCount];
+
+        try (InputStream in = open(file)) {
+            XMLStreamReader xml = xmlInputFactory().createXMLStreamReader(in);
+            while (xml.hasNext()) {
+                if (xml.next() == XMLStreamConstants.START_ELEMENT && "node".equals(xml.getLocalName())) {
+                    int index = nodeIndex.get(Long.parseLong(xml.getAttributeValue(null, "id")));
+                    if (index != LongIntMap.MISSING) {
+                        latitudes[index] = Float.parseFloat(xml.getAttributeValue(null, "lat"));
+                        longitudes[index] = Float.parseFloat(xml.getAttributeValue(null, "lon"));
+                        located[index] = true;
+                    }
+                }
+            }
+            xml.close();
+        }
+
+        RoadNetwork.Builder builder = new RoadNetwork.Builder();
+        for (int i = 0; i < nodeCount; i++) {
+            builder.addNode(latitudes[i], longitudes[i]);
+        }
+        for (int w = 0; w < wayCount; w++) {
+            double metersPerSecond = waySpeed[w] / 3.6;
+            for (int i = wayStart[w]; i + 1 < wayStart[w + 1]; i++) {
+                int a = wayNodes[i];
+                int b = wayNodes[i + 1];
+                // Ways clipped at the extract's edge reference nodes it does not contain
+                if (!located[a] || !located[b]) {
+                    continue;
+                }
+                double meters = Geo.meters(latitudes[a], longitudes[a], latitudes[b], longitudes[b]);
+                if (wayDirection[w] >= 0) {
+                    builder.addEdge(a, b, meters / metersPerSecond, meters);
+                }
+                if (wayDirection[w] <= 0) {
+                    builder.addEdge(b, a, meters / metersPerSecond, meters);
+                }
+            }
+        }
+        return builder.build();
+    }
+
+    /**
+     * 1 for one-way along the way, -1 for one-way against it, 0 for both directions
+     */
+    private static byte direction(String highway, String oneway, String junction) {
+        if (oneway != null) {
+            return switch (oneway) {
+                case "yes", "true", "1" -> 1;
+                case "-1", "reverse" -> -1;
+                default -> 0;
+            };
+        }
+        boolean impliedOneway = "motorway".equals(highway) || "motorway_link".equals(highway)
+                || "roundabout".equals(junction) || "circular".equals(junction);
+        return (byte) (impliedOneway ? 1 : 0);
+    }
+
+    // Numeric km/h or mph; zones like "IN:urban" carry no number and fall back to the road class
+    private static double maxspeed(String value) {
+        if (value == null) {
+            return Double.POSITIVE_INFINITY;
+        }
+        String trimmed = value.trim();
+        int end = 0;
+        while (end < trimmed.length() && Character.isDigit(trimmed.charAt(end))) {
+            end++;
+        }
+        if (end == 0) {
+            return Double.POSITIVE_INFINITY;
+        }
+        double speed = Double.parseDouble(trimmed.substring(0, end));
+        if (speed <= 0) {
+            return Double.POSITIVE_INFINITY;
+        }
+        return trimmed.endsWith("mph") ? speed * 1.609 : speed;
+    }
+
+    private static InputStream open(Path file) throws IOException {
+        InputStream in = new BufferedInputStream(Files.newInputStream(file), 1 << 16);
+        return file.getFileName().toString().endsWith(".gz") ? new GZIPInputStream(in, 1 << 16) : in;
+    }
+
+    private static XMLInputFactory xmlInputFactory() {
+        XMLInputFactory factory = XMLInputFactory.newFactory();
+        factory.setProperty(XMLInputFactory.SUPPORT_DTD, false);
+        factory.setProperty(XMLInputFactory.IS_SUPPORTING_EXTERNAL_ENTITIES, false);
+        return factory;
+    }
+}
@@ -0,0 +1,222 @@
+package com.arnavgpt.valoride.routing.graph;
+
+import java.util.Arrays;
+
+/**
+ * Contracted road graph on primitive arrays: node coordinates, the upward edges of the forward
+ * and backward searches in CSR form (edges of node v at first[v] until first[v + 1]), and a grid
+ * of nodes for snapping coordinates onto the road. Immutable and safe to query from any thread.
+ */
+public final class RoadGraph {
+
+    // Snapping grid cell edge, roughly 550 m north-south
+    private static final double CELL_DEGREES = 0.005;
+    private static final double METERS_PER_DEGREE = 111_320.0;
+
+    private final float[] latitudes;
+    private final float[] longitudes;
+
+    private final int[] forwardFirst;
+    private final int[] forwardTo;
+    private final float[] forwardSeconds;
+    private final float[] forwardMeters;
+    private final int[] backwardFirst;
+    private final int[] backwardTo;
+    private final float[] backwardSeconds;
+    private final float[] backwardMeters;
+
+    // Grid cells with nodes, sorted by key, and their nodes at cellNodes[cellStart[i] .. cellStart[i + 1])
+    private final long[] cellKeys;
+    private final int[] cellStart;
+    private final int[] cellNodes;
+
+    // One pair of search spaces per request thread, reused across queries
+    private final ThreadLocal<SearchSpace[]> searchSpaces =
+            ThreadLocal.withInitial(() -> new SearchSpace[]{new SearchSpace(), new SearchSpace()});
+
+    RoadGraph(float[] latitudes, float[] longitudes,
+              int[] forwardFirst, int[] forwardTo, float[] forwardSeconds, float[] forwardMeters,
+              int[] backwardFirst, int[] backwardTo, float[] backwardSeconds, float[] backwardMeters) {
+        this.latitudes = latitudes;
+        this.longitudes = longitudes;
+        this.forwardFirst = forwardFirst;
+        this.forwardTo = forwardTo;
+        this.forwardSeconds = forwardSeconds;
+        this.forwardMeters = forwardMeters;
+        this.backwardFirst = backwardFirst;
+        this.backwardTo = backwardTo;
+        this.backwardSeconds = backwardSeconds;
+        this.backwardMeters = backwardMeters;
+
+        int nodeCount = latitudes.length;
+        long[] keyed = new long[nodeCount];
+        for (int v = 0; v < nodeCount; v++) {
+            keyed[v] = cellKey(latitudes[v], longitudes[v]);
+        }
+        Integer[] order = new Integer[nodeCount];
+        for (int v = 0; v < nodeCount; v++) {
+            order[v] = v;
+        }
+        Arrays.sort(order, (a, b) -> Long.compare(keyed[a], keyed[b]));
+
+        cellNodes = new int[nodeCount];
+        long[] keys = new long[nodeCount];
+        int[] starts = new int[nodeCount + 1];
+        int cells = 0;
+        for (int i = 0; i < nodeCount; i++) {
+            cellNodes[i] = order[i];
+            long key = keyed[order[i]];
+            if (cells == 0 || keys[cells - 1] != key) {
+                keys[cells] = key;
+                starts[cells++] = i;
+            }
+        }
+        starts[cells] = nodeCount;
+        cellKeys = Arrays.copyOf(keys, cells);
+        cellStart = Arrays.copyOf(starts, cells + 1);
+    }
+
+    public int nodeCount() {
+        return latitudes.length;
+    }
+
+    public int edgeCount() {
+        return forwardTo.length + backwardTo.length;
+    }
+
+    public double latitude(int node) {
+        return latitudes[node];
+    }
+
+    public double longitude(int node) {
+        return longitudes[node];
+    }
+
+    public double metersToNode(int node, double latitude, double longitude) {
+        return Geo.meters(latitude, longitude, latitudes[node], longitudes[node]);
+    }
+
+    /**
+     * The road node closest to the point within maxMeters, or -1 if there is none
+     */
+    public int nearestNode(double latitude, double longitude, double maxMeters) {
+        double cellMetersNorth = CELL_DEGREES * METERS_PER_DEGREE;
+        double cosLatitude = Math.max(0.01, Math.cos(Math.toRadians(latitude)));
+        int rowRings = (int) Math.ceil(maxMeters / cellMetersNorth);
+        int columnRings = (int) Math.ceil(maxMeters / (cellMetersNorth * cosLatitude));
+        long row = row(latitude);
+        long column = column(longitude);
+
+        // Compared on a local flat projection, which is exact enough over a few hundred metres
+        int nearest = -1;
+        double nearestSquared = Math.pow(maxMeters / METERS_PER_DEGREE, 2);
+        for (long r = row - rowRings; r <= row + rowRings; r++) {
+            for (long c = column - columnRings; c <= column + columnRings; c++) {
+                int cell = Arrays.binarySearch(cellKeys, (r << 32) | c);
+                if (cell < 0) {
+                    continue;
+                }
+                for (int i = cellStart[cell]; i < cellStart[cell + 1]; i++) {
+                    int node = cellNodes[i];
+                    double north = latitudes[node] - latitude;
+                    double east = (longitudes[node] - longitude) * cosLatitude;
+                    double squared = north * north + east * east;
+                    if (squared <= nearestSquared) {
+                        nearest = node;
+                        nearestSquared = squared;
+                    }
+                }
+            }
+        }
+        return nearest;
+    }
+
+    /**
+     * Fastest path between two nodes, or null if the target cannot be reached
+     */
+    public Path route(int from, int to) {
+        if (from == to) {
+            return new Path(0, 0);
+        }
+
+        SearchSpace[] spaces = searchSpaces.get();
+        SearchSpace forward = spaces[0];
+        SearchSpace backward = spaces[1];
+        forward.clear();
+        backward.clear();
+        forward.add(from, 0, 0);
+        forward.heap.push(0, from);
+        backward.add(to, 0, 0);
+        backward.heap.push(0, to);
+
+        double bestSeconds = Double.POSITIVE_INFINITY;
+        double bestMeters = 0;
+        while (true) {
+            double forwardTop = forward.heap.peekKey();
+            double backwardTop = backward.heap.peekKey();
+            // Every path still to be found costs at least the smaller top key
+            if (Math.min(forwardTop, backwardTop) >= bestSeconds) {
+                break;
+            }
+
+            boolean isForward = forwardTop <= backwardTop;
+            SearchSpace space = isForward ? forward : backward;
+            SearchSpace opposite = isForward ? backward : forward;
+            double seconds = space.heap.peekKey();
+            int node = space.heap.poll();
+            int entry = space.entry(node);
+            if (seconds > space.seconds(entry)) {
+                continue;
+            }
+
+            int met = opposite.entry(node);
+            if (met >= 0 && seconds + opposite.seconds(met) < bestSeconds) {
+                bestSeconds = seconds + opposite.seconds(met);
+                bestMeters = space.meters(entry) + opposite.meters(met);
+            }
+
+            if (isForward) {
+                relax(space, node, seconds, forwardFirst, forwardTo, forwardSeconds, forwardMeters);
+            } else {
+                relax(space, node, seconds, backwardFirst, backwardTo, backwardSeconds, backwardMeters);
+            }
+        }
+
+        return bestSeconds == Double.POSITIVE_INFINITY ? null : new Path(bestMeters, bestSeconds);
+    }
+
+    private static void relax(SearchSpace space, int node, double seconds,
+                              int[] first, int[] to, float[] edgeSeconds, float[] edgeMeters) {
+        double meters = space.meters(space.entry(node));
+        for (int e = first[node]; e < first[node + 1]; e++) {
+            int next = to[e];
+            double nextSeconds = seconds + edgeSeconds[e];
+            int entry = space.entry(next);
+            if (entry < 0) {
+                space.add(next, nextSeconds, meters + edgeMeters[e]);
+                space.heap.push(nextSeconds, next);
+            } else if (nextSeconds < space.seconds(entry)) {
+                space.update(entry, nextSeconds, meters + edgeMeters[e]);
+                space.heap.push(nextSeconds, next);
+            }
+        }
+    }
+
+    private static long cellKey(double latitude, double longitude) {
+        return (row(latitude) << 32) | column(longitude);
+    }
+
+    private static long row(double latitude) {
+        return (long) Math.floor((latitude + 90) / CELL_DEGREES);
+    }
+
+    private static long column(double longitude) {
+        return (long) Math.floor((longitude + 180) / CELL_DEGREES);
+    }
+
+    /**
+     * Length and free-flow travel time of a route
+     */
+    public record Path(double meters, double seconds) {
+    }
+}
@@ -0,0 +1,153 @@
+package com.arnavgpt.valoride.routing.graph;
+
+import java.util.Arrays;
+
+/**
+ * Directed road edges between numbered nodes, before contraction. Edge weights are free-flow
+ * travel seconds; the edge length in metres is carried along so routes can report distance.
+ * Only the largest connected part of the input is kept, so a point never snaps onto an
+ * island of roads, like a gated campus, that has no way out.
+ */
+public final class RoadNetwork {
+
+    final float[] latitudes;
+    final float[] longitudes;
+    final int[] edgeFrom;
+    final int[] edgeTo;
+    final float[] edgeSeconds;
+    final float[] edgeMeters;
+
+    private RoadNetwork(float[] latitudes, float[] longitudes, int[] edgeFrom, int[] edgeTo,
+                        float[] edgeSeconds, float[] edgeMeters) {
+        this.latitudes = latitudes;
+        this.longitudes = longitudes;
+        this.edgeFrom = edgeFrom;
+        this.edgeTo = edgeTo;
+        this.edgeSeconds = edgeSeconds;
+        this.edgeMeters = edgeMeters;
+    }
+
+    public int nodeCount() {
+        return latitudes.length;
+    }
+
+    public int edgeCount() {
+        return edgeFrom.length;
+    }
+
+    static final class Builder {
+
+        private float[] latitudes = new float[1024];
+        private float[] longitudes = new float[1024];
+        private int nodeCount;
+
+        private int[] edgeFrom = new int[1024];
+        private int[] edgeTo = new int[1024];
+        private float[] edgeSeconds = new float[1024];
+        private float[] edgeMeters = new float[1024];
+        private int edgeCount;
+
+        int addNode(double latitude, double longitude) {
+            if (nodeCount == latitudes.length) {
+                latitudes = Arrays.copyOf(latitudes, nodeCount * 2);
+                longitudes = Arrays.copyOf(longitudes, nodeCount * 2);
+            }
+            latitudes[nodeCount] = (float) latitude;
+            longitudes[nodeCount] = (float) longitude;
+            return nodeCount++;
+        }
+
+        double latitude(int node) {
+            return latitudes[node];
+        }
+
+        double longitude(int node) {
+            return longitudes[node];
+        }
+
+        void addEdge(int from, int to, double seconds, double meters) {
+            if (from == to) {
+                return;
+            }
+            if (edgeCount == edgeFrom.length) {
+                edgeFrom = Arrays.copyOf(edgeFrom, edgeCount * 2);
+                edgeTo = Arrays.copyOf(edgeTo, edgeCount * 2);
+                edgeSeconds = Arrays.copyOf(edgeSeconds, edgeCount * 2);
+                edgeMeters = Arrays.copyOf(edgeMeters, edgeCount * 2);
+            }
+            edgeFrom[edgeCount] = from;
+            edgeTo[edgeCount] = to;
+            edgeSeconds[edgeCount] = (float) seconds;
+            edgeMeters[edgeCount] = (float) meters;
+            edgeCount++;
+        }
+
+        /**
+         * The largest weakly connected component, renumbered densely
+         */
+        RoadNetwork build() {
+            int[] parent = new int[nodeCount];
+            for (int i = 0; i < nodeCount; i++) {
+                parent[i] = i;
+            }
+            for (int e = 0; e < edgeCount; e++) {
+                int a = find(parent, edgeFrom[e]);
+                int b = find(parent, edgeTo[e]);
+                if (a != b) {
+                    parent[a] = b;
+                }
+            }
+
+            int[] componentSize = new int[nodeCount];
+            int largest = -1;
+            for (int i = 0; i < nodeCount; i++) {
+                int root = find(parent, i);
+                if (++componentSize[root] > (largest < 0 ? 0 : componentSize[largest])) {
+                    largest = root;
+                }
+            }
+
+            int[] newIndex = new int[nodeCount];
+            int kept = 0;
+            for (int i = 0; i < nodeCount; i++) {
+                newIndex[i] = largest >= 0 && find(parent, i) == largest ? kept++ : -1;
+            }
+
+            float[] keptLatitudes = new float[kept];
+            float[] keptLongitudes = new float[kept];
+            for (int i = 0; i < nodeCount; i++) {
+                if (newIndex[i] >= 0) {
+                    keptLatitudes[newIndex[i]] = latitudes[i];
+                    keptLongitudes[newIndex[i]] = longitudes[i];
+                }
+            }
+
+            int keptEdges = 0;
+            int[] from = new int[edgeCount];
+            int[] to = new int[edgeCount];
+            float[] seconds = new float[edgeCount];
+            float[] meters = new float[edgeCount];
+            for (int e = 0; e < edgeCount; e++) {
+                if (newIndex[edgeFrom[e]] >= 0) {
+                    from[keptEdges] = newIndex[edgeFrom[e]];
+                    to[keptEdges] = newIndex[edgeTo[e]];
+                    seconds[keptEdges] = edgeSeconds[e];
+                    meters[keptEdges] = edgeMeters[e];
+                    keptEdges++;
+                }
+            }
+
+            return new RoadNetwork(keptLatitudes, keptLongitudes,
+                    Arrays.copyOf(from, keptEdges), Arrays.copyOf(to, keptEdges),
+                    Arrays.copyOf(seconds, keptEdges), Arrays.copyOf(meters, keptEdges));
+        }
+
+        private static int find(int[] parent, int node) {
+            while (parent[node] != node) {
+                parent[node] = parent[parent[node]];
+                node = parent[node];
+            }
+            return node;
+        }
+    }
+}
@@ -0,0 +1,105 @@
+package com.arnavgpt.valoride.routing.graph;
+
+import java.util.Arrays;
+
+/**
+ * Costs of the nodes one direction of a query has reached. A hierarchy query reaches a few
+ * hundred nodes, so they live in a small hash table rather than arrays sized to the whole graph.
+ */
+final class SearchSpace {
+
+    final MinHeap heap = new MinHeap(256);
+
+    // Node id + 1 per hash slot, 0 when free
+    private int[] keys;
+    private int[] entryOf;
+    private double[] seconds;
+    private double[] meters;
+    private int size;
+
+    SearchSpace() {
+        keys = new int[1024];
+        entryOf = new int[1024];
+        seconds = new double[512];
+        meters = new double[512];
+    }
+
+    void clear() {
+        if (size > 0) {
+            Arrays.fill(keys, 0);
+            size = 0;
+        }
+        heap.clear();
+    }
+
+    /**
+     * Entry index of the node, or -1 if not reached
+     */
+    int entry(int node) {
+        int mask = keys.length - 1;
+        for (int i = slot(node, mask); ; i = (i + 1) & mask) {
+            if (keys[i] == node + 1) {
+                return entryOf[i];
+            }
+            if (keys[i] == 0) {
+                return -1;
+            }
+        }
+    }
+
+    double seconds(int entry) {
+        return seconds[entry];
+    }
+
+    double meters(int entry) {
+        return meters[entry];
+    }
+
+    void update(int entry, double seconds, double meters) {
+        this.seconds[entry] = seconds;
+        this.meters[entry] = meters;
+    }
+
+    void add(int node, double seconds, double meters) {
+        if ((size + 1) * 2 > keys.length) {
+            grow();
+        }
+        if (size == this.seconds.length) {
+            this.seconds = Arrays.copyOf(this.seconds, size * 2);
+            this.meters = Arrays.copyOf(this.meters, size * 2);
+        }
+        int mask = keys.length - 1;
+        int i = slot(node, mask);
+        while (keys[i] != 0) {
+            i = (i + 1) & mask;
+        }
+        keys[i] = node + 1;
+        entryOf[i] = size;
+        this.seconds[size] = seconds;
+        this.meters[size] = meters;
+        size++;
+    }
+
+    private void grow() {
+        int[] oldKeys = keys;
+        int[] oldEntries = entryOf;
+        keys = new int[oldKeys.length * 2];
+        entryOf = new int[oldKeys.length * 2];
+        int mask = keys.length - 1;
+        for (int j = 0; j < oldKeys.length; j++) {
+            if (oldKeys[j] != 0) {
+                int i = slot(oldKeys[j] - 1, mask);
+                while (keys[i] != 0) {
+                    i = (i + 1) & mask;
+                }
+                keys[i] = oldKeys[j];
+                entryOf[i] = oldEntries[j];
+            }
+        }
+    }
+
+    private static int slot(int node, int mask) {
+        int h = node * 0x9E3779B9;
+        return (h ^ (h >>> 16)) & mask;
+    }
+}
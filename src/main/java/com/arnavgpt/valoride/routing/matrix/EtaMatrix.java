@@ -0,0 +1,150 @@
+package com.arnavgpt.valoride.routing.matrix;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.PosixFileAttributeView;
+import java.nio.file.attribute.PosixFilePermissions;
+import java.time.Instant;
+
+/**
+ * Driving times between the cells of a lat/lon grid over one city, read straight from a
+ * memory-mapped file. Opening maps the file without reading it, and the entries stay off the
+ * heap in the page cache, shared by every process on the host that maps the same file.
+ *
+ * <p>Layout, big-endian: a 48-byte header (magic, version, cell size, south-west corner, rows,
+ * columns, build time) followed by one unsigned short of seconds per (from, to) cell pair,
+ * from-major. {@link #UNREACHABLE} marks pairs with no route or cells with no road.
+ */
+public final class EtaMatrix {
+
+    private static final int MAGIC = 0x56455441; // "VETA"
+    private static final int VERSION = 1;
+    private static final int HEADER_BYTES = 48;
+
+    static final int UNREACHABLE = 0xFFFF;
+    static final int MAX_SECONDS = UNREACHABLE - 1;
+
+    // One mapping holds at most 2 GB of entries
+    static final int MAX_CELLS = 32_000;
+
+    private final MappedByteBuffer entries;
+    private final double cellDegrees;
+    private final double minLatitude;
+    private final double minLongitude;
+    private final int rows;
+    private final int columns;
+    private final int cells;
+    private final Instant builtAt;
+
+    private EtaMatrix(MappedByteBuffer buffer) throws IOException {
+        if (buffer.capacity() < HEADER_BYTES || buffer.getInt(0) != MAGIC) {
+            throw new IOException("Not an ETA matrix file");
+        }
+        if (buffer.getInt(4) != VERSION) {
+            throw new IOException("Unsupported ETA matrix version " + buffer.getInt(4));
+        }
+        cellDegrees = buffer.getDouble(8);
+        minLatitude = buffer.getDouble(16);
+        minLongitude = buffer.getDouble(24);
+        rows = buffer.getInt(32);
+        columns = buffer.getInt(36);
+        builtAt = Instant.ofEpochMilli(buffer.getLong(40));
+        cells = rows * columns;
+        if (buffer.capacity() != HEADER_BYTES + (long) cells * cells * Short.BYTES) {
+            throw new IOException("ETA matrix is truncated: expected " + cells + " x " + cells + " entries");
+        }
+        entries = buffer;
+    }
+
+    public static EtaMatrix open(Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            // The mapping stays valid after the channel closes
+            return new EtaMatrix(channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size()));
+        }
+    }
+
+    /**
+     * Cell index of a point, or -1 outside the grid
+     */
+    public int cell(double latitude, double longitude) {
+        int row = (int) Math.floor((latitude - minLatitude) / cellDegrees);
+        int column = (int) Math.floor((longitude - minLongitude) / cellDegrees);
+        if (row < 0 || row >= rows || column < 0 || column >= columns) {
+            return -1;
+        }
+        return row * columns + column;
+    }
+
+    /**
+     * Driving seconds between the centres of two cells, or -1 if unknown
+     */
+    public int seconds(int fromCell, int toCell) {
+        // MAX_CELLS keeps the offset within an int
+        int seconds = Short.toUnsignedInt(entries.getShort(HEADER_BYTES + (fromCell * cells + toCell) * Short.BYTES));
+        return seconds == UNREACHABLE ? -1 : seconds;
+    }
+
+    public int cellCount() {
+        return cells;
+    }
+
+    public Instant builtAt() {
+        return builtAt;
+    }
+
+    /**
+     * Write a matrix next to the target and move it into place, so a reader never maps a
+     * half-written file. The source supplies seconds for a pair, or -1 for no route.
+     */
+    static void write(Path target, double cellDegrees, double minLatitude, double minLongitude,
+                      int rows, int columns, CellPairSeconds source) throws IOException {
+        int cells = rows * columns;
+        if (cells <= 0 || cells > MAX_CELLS) {
+            throw new IllegalArgumentException("Grid of " + cells + " cells, at most " + MAX_CELLS + " supported");
+        }
+
+        Path temp = Files.createTempFile(target.toAbsolutePath().getParent(), target.getFileName().toString(), ".tmp");
+        try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.WRITE)) {
+            ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES)
+                    .putInt(MAGIC).putInt(VERSION)
+                    .putDouble(cellDegrees).putDouble(minLatitude).putDouble(minLongitude)
+                    .putInt(rows).putInt(columns)
+                    .putLong(System.currentTimeMillis())
+                    .flip();
+            channel.write(header);
+
+            ByteBuffer row = ByteBuffer.allocate(cells * Short.BYTES);
+            for (int from = 0; from < cells; from++) {
+                row.clear();
+                for (int to = 0; to < cells; to++) {
+                    int seconds = source.seconds(from, to);
+                    row.putShort((short) (seconds < 0 ? UNREACHABLE : Math.min(seconds, MAX_SECONDS)));
+                }
+                row.flip();
+                while (row.hasRemaining()) {
+                    channel.write(row);
+                }
+            }
+            channel.force(true);
+            // Temp files are owner-only; the application may run as another user
+            if (Files.getFileStore(temp).supportsFileAttributeView(PosixFileAttributeView.class)) {
+                Files.setPosixFilePermissions(temp, PosixFilePermissions.fromString("rw-r--r--"));
+            }
+        } catch (IOException | RuntimeException e) {
+            Files.deleteIfExists(temp);
+            throw e;
+        }
+        Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    @FunctionalInterface
+    interface CellPairSeconds {
+        int seconds(int fromCell, int toCell);
+    }
+}
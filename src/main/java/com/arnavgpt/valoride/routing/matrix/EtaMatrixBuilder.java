@@ -0,0 +1,91 @@
+package com.arnavgpt.valoride.routing.matrix;
+
+import com.arnavgpt.valoride.routing.graph.ContractionHierarchy;
+import com.arnavgpt.valoride.routing.graph.OsmRoadNetworkReader;
+import com.arnavgpt.valoride.routing.graph.RoadGraph;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.stream.IntStream;
+
+/**
+ * Offline job that routes between the centres of every pair of grid cells over a city and
+ * writes the result as an EtaMatrix file. Run it from the application jar whenever the OSM
+ * extract is refreshed; running nodes pick up the new file without a restart.
+ *
+ * <pre>
+ * java -cp valoride.jar -Dloader.main=com.arnavgpt.valoride.routing.matrix.EtaMatrixBuilder \
+ *     org.springframework.boot.loader.launch.PropertiesLauncher \
+ *     city.osm.gz eta-matrix.bin 12.80 77.45 13.15 77.80 0.005
+ * </pre>
+ *
+ * Arguments: OSM extract, output file, south-west and north-east corners, and the cell size in
+ * degrees (default 0.005, roughly 550 m). The grid above has 70 x 70 cells and takes about 48 MB.
+ */
+public final class EtaMatrixBuilder {
+
+    private static final Logger logger = LoggerFactory.getLogger(EtaMatrixBuilder.class);
+
+    private static final double DEFAULT_CELL_DEGREES = 0.005;
+
+    private EtaMatrixBuilder() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        if (args.length < 6) {
+            throw new IllegalArgumentException(
+                    "Usage: EtaMatrixBuilder <osm-file> <output> <min-lat> <min-lon> <max-lat> <max-lon> [cell-degrees]");
+        }
+        Path osmFile = Path.of(args[0]);
+        Path output = Path.of(args[1]);
+        double minLatitude = Double.parseDouble(args[2]);
+        double minLongitude = Double.parseDouble(args[3]);
+        double maxLatitude = Double.parseDouble(args[4]);
+        double maxLongitude = Double.parseDouble(args[5]);
+        double cellDegrees = args.length > 6 ? Double.parseDouble(args[6]) : DEFAULT_CELL_DEGREES;
+
+        // Tolerance so a span that is a whole number of cells does not gain a sliver row
+        int rows = (int) Math.ceil((maxLatitude - minLatitude) / cellDegrees - 1e-9);
+        int columns = (int) Math.ceil((maxLongitude - minLongitude) / cellDegrees - 1e-9);
+        int cells = rows * columns;
+        if (rows <= 0 || columns <= 0 || cells > EtaMatrix.MAX_CELLS) {
+            throw new IllegalArgumentException("Grid of " + rows + " x " + columns + " cells, at most "
+                    + EtaMatrix.MAX_CELLS + " cells supported");
+        }
+
+        long start = System.nanoTime();
+        RoadGraph graph = ContractionHierarchy.build(OsmRoadNetworkReader.read(osmFile));
+        logger.info("Road graph of {} nodes built in {} ms",
+                graph.nodeCount(), (System.nanoTime() - start) / 1_000_000);
+
+        // A cell is represented by the road node nearest its centre, if any lies within the cell
+        double snapMeters = cellDegrees * 111_320.0 * 0.75;
+        int[] nodes = new int[cells];
+        for (int cell = 0; cell < cells; cell++) {
+            double latitude = minLatitude + (cell / columns + 0.5) * cellDegrees;
+            double longitude = minLongitude + (cell % columns + 0.5) * cellDegrees;
+            nodes[cell] = graph.nearestNode(latitude, longitude, snapMeters);
+        }
+        logger.info("{} of {} cells have a road", Arrays.stream(nodes).filter(n -> n >= 0).count(), cells);
+
+        start = System.nanoTime();
+        short[] seconds = new short[cells * cells];
+        IntStream.range(0, cells).parallel().forEach(from -> {
+            for (int to = 0; to < cells; to++) {
+                RoadGraph.Path path = nodes[from] < 0 || nodes[to] < 0 ? null : graph.route(nodes[from], nodes[to]);
+                seconds[from * cells + to] = (short) (path == null
+                        ? EtaMatrix.UNREACHABLE
+                        : Math.min(Math.round(path.seconds()), EtaMatrix.MAX_SECONDS));
+            }
+        });
+        logger.info("Routed {} cell pairs in {} ms", (long) cells * cells, (System.nanoTime() - start) / 1_000_000);
+
+        EtaMatrix.write(output, cellDegrees, minLatitude, minLongitude, rows, columns, (from, to) -> {
+            int value = Short.toUnsignedInt(seconds[from * cells + to]);
+            return value == EtaMatrix.UNREACHABLE ? -1 : value;
+        });
+        logger.info("Wrote {}", output);
+    }
+}
@@ -0,0 +1,29 @@
+package com.arnavgpt.valoride.routing.repository;
+
+import com.arnavgpt.valoride.routing.entity.SpeedModelSnapshot;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface SpeedModelSnapshotRepository extends JpaRepository<SpeedModelSnapshot, Short> {
+
+    @Query(value = "SELECT data FROM speed_model_snapshot WHERE id = 1", nativeQuery = true)
+    byte[] findData();
+
+    /**
+     * The snapshot, locked until the transaction ends so concurrent merges from other nodes queue up
+     */
+    @Query(value = "SELECT data FROM speed_model_snapshot WHERE id = 1 FOR UPDATE", nativeQuery = true)
+    byte[] lockData();
+
+    @Modifying
+    @Query(value = """
+            UPDATE speed_model_snapshot
+            SET data = :data, observations = :observations, updated_at = now()
+            WHERE id = 1
+            """, nativeQuery = true)
+    int saveData(@Param("data") byte[] data, @Param("observations") long observations);
+}
@@ -0,0 +1,120 @@
+package com.arnavgpt.valoride.routing.service;
+
+import com.arnavgpt.valoride.routing.matrix.EtaMatrix;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.time.LocalDateTime;
+
+/**
+ * Driving-time estimates for ranking drivers against a pickup, looked up in the precomputed
+ * cell-to-cell EtaMatrix. The file is mapped at startup and remapped when a rebuilt one
+ * replaces it. Pairs the matrix cannot answer (no file, outside its grid, the same cell, or no
+ * route) fall back to straight-line distance x1.2 at city speed, like trip estimates.
+ * Both are adjusted by what TrafficService has learned about the driver's area at this hour.
+ */
+@Service
+public class EtaService {
+
+    private static final Logger logger = LoggerFactory.getLogger(EtaService.class);
+
+    private static final double EARTH_RADIUS_M = 6_371_000.0;
+    private static final double ROAD_FACTOR = 1.2;
+    private static final double FALLBACK_METERS_PER_SECOND = 25 / 3.6;
+
+    private final TrafficService trafficService;
+    private final String matrixFile;
+    private final Counter matrixLookups;
+    private final Counter estimatedLookups;
+
+    private volatile EtaMatrix matrix;
+    private volatile FileTime loadedModified;
+
+    public EtaService(TrafficService trafficService, MeterRegistry meterRegistry,
+                      @Value("${routing.eta-matrix.file:}") String matrixFile) {
+        this.trafficService = trafficService;
+        this.matrixFile = matrixFile;
+        this.matrixLookups = lookups(meterRegistry, "matrix");
+        this.estimatedLookups = lookups(meterRegistry, "estimate");
+    }
+
+    /**
+     * Map the matrix if configured, and again whenever the file is replaced
+     */
+    @PostConstruct
+    @Scheduled(fixedDelayString = "${routing.eta-matrix.reload-check-ms:60000}")
+    public void refreshMatrix() {
+        if (matrixFile == null || matrixFile.isBlank()) {
+            return;
+        }
+        Path file = Path.of(matrixFile);
+        try {
+            FileTime modified = Files.getLastModifiedTime(file);
+            if (modified.equals(loadedModified)) {
+                return;
+            }
+            long start = System.nanoTime();
+            EtaMatrix opened = EtaMatrix.open(file);
+            matrix = opened;
+            loadedModified = modified;
+            logger.info("ETA matrix mapped: {} cells built {} ({} us)",
+                    opened.cellCount(), opened.builtAt(), (System.nanoTime() - start) / 1000);
+        } catch (IOException e) {
+            // Keep serving the previous matrix, if any
+            logger.warn("Could not map ETA matrix {}: {}", file, e.getMessage());
+        }
+    }
+
+    /**
+     * Estimated driving seconds from one point to another
+     */
+    public int etaSeconds(double fromLatitude, double fromLongitude, double toLatitude, double toLongitude) {
+        LocalDateTime now = LocalDateTime.now();
+        EtaMatrix current = matrix;
+        if (current != null) {
+            int from = current.cell(fromLatitude, fromLongitude);
+            int to = current.cell(toLatitude, toLongitude);
+            // Within a cell the centre-to-centre time says nothing; the straight line is closer
+            if (from >= 0 && to >= 0 && from != to) {
+                int seconds = current.seconds(from, to);
+                if (seconds >= 0) {
+                    matrixLookups.increment();
+                    // Matrix times are free-flow; scale them by how busy the area is right now
+                    return (int) Math.ceil(seconds * trafficService.congestionFactor(fromLatitude, fromLongitude, now));
+                }
+            }
+        }
+
+        estimatedLookups.increment();
+        double roadKm = straightLineMeters(fromLatitude, fromLongitude, toLatitude, toLongitude) * ROAD_FACTOR / 1000;
+        double secondsPerKm = trafficService.secondsPerKm(fromLatitude, fromLongitude, now)
+                .orElse(1000 / FALLBACK_METERS_PER_SECOND);
+        return (int) Math.ceil(roadKm * secondsPerKm);
+    }
+
+    private static double straightLineMeters(double lat1, double lon1, double lat2, double lon2) {
+        double dLat = Math.toRadians(lat2 - lat1);
+        double dLon = Math.toRadians(lon2 - lon1);
+        double a = Math.sin(dLat / 2) * Math.sin(dLat / 2)
+                + Math.cos(Math.toRadians(lat1)) * Math.cos(Math.toRadians(lat2))
+                * Math.sin(dLon / 2) * Math.sin(dLon / 2);
+        return 2 * EARTH_RADIUS_M * Math.asin(Math.min(1.0, Math.sqrt(a)));
+    }
+
+    private static Counter lookups(MeterRegistry meterRegistry, String source) {
+        return Counter.builder("app.routing.eta.lookups")
+                .tags("source", source)
+                .description("Driver ETAs answered by the precomputed matrix or by the straight-line estimate")
+                .register(meterRegistry);
+    }
+}
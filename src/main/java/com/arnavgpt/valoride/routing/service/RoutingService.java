@@ -0,0 +1,123 @@
+package com.arnavgpt.valoride.routing.service;
+
+import com.arnavgpt.valoride.routing.dto.Route;
+import com.arnavgpt.valoride.routing.graph.ContractionHierarchy;
+import com.arnavgpt.valoride.routing.graph.OsmRoadNetworkReader;
+import com.arnavgpt.valoride.routing.graph.RoadGraph;
+import com.arnavgpt.valoride.routing.graph.RoadNetwork;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+
+import java.nio.file.Path;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Road routes from an in-memory contraction hierarchy of a local OSM extract. The graph is built
+ * in the background after startup; until it is ready, or if no extract is configured, every
+ * query comes back empty and callers fall back to straight-line estimates.
+ */
+@Service
+public class RoutingService {
+
+    private static final Logger logger = LoggerFactory.getLogger(RoutingService.class);
+
+    // Speed assumed for the stretch between a point and the road node it snapped to
+    private static final double ACCESS_METERS_PER_SECOND = 15 / 3.6;
+
+    private final String osmFile;
+    private final double maxSnapMeters;
+    private final Timer routed;
+    private final Timer unsnapped;
+    private final Timer unreachable;
+
+    private volatile RoadGraph graph;
+
+    public RoutingService(MeterRegistry meterRegistry,
+                          @Value("${routing.osm-file:}") String osmFile,
+                          @Value("${routing.max-snap-distance-m:500}") double maxSnapMeters) {
+        this.osmFile = osmFile;
+        this.maxSnapMeters = maxSnapMeters;
+        this.routed = queryTimer(meterRegistry, "routed");
+        this.unsnapped = queryTimer(meterRegistry, "unsnapped");
+        this.unreachable = queryTimer(meterRegistry, "unreachable");
+    }
+
+    /**
+     * Build the graph off the startup thread; a large extract takes a while to contract
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void loadGraph() {
+        if (osmFile == null || osmFile.isBlank()) {
+            logger.info("No routing.osm-file configured, trip estimates use straight-line distance");
+            return;
+        }
+        Thread.ofPlatform().name("routing-graph-loader").daemon().start(() -> load(Path.of(osmFile)));
+    }
+
+    private void load(Path file) {
+        try {
+            long start = System.nanoTime();
+            RoadNetwork network = OsmRoadNetworkReader.read(file);
+            long read = System.nanoTime();
+            RoadGraph contracted = ContractionHierarchy.build(network);
+            long built = System.nanoTime();
+
+            graph = contracted;
+            logger.info("Routing graph ready: {} nodes, {} edges from {} (read {} ms, contracted {} ms)",
+                    network.nodeCount(), network.edgeCount(), file,
+                    (read - start) / 1_000_000, (built - read) / 1_000_000);
+        } catch (Exception e) {
+            logger.error("Failed to load routing graph from {}, trip estimates use straight-line distance",
+                    file, e);
+        }
+    }
+
+    public boolean isAvailable() {
+        return graph != null;
+    }
+
+    /**
+     * Fastest road route between two points, or empty if the graph is not loaded, a point is not
+     * near a road, or there is no way between them
+     */
+    public Optional<Route> route(double fromLatitude, double fromLongitude, double toLatitude, double toLongitude) {
+        RoadGraph current = graph;
+        if (current == null) {
+            return Optional.empty();
+        }
+
+        long start = System.nanoTime();
+        int from = current.nearestNode(fromLatitude, fromLongitude, maxSnapMeters);
+        int to = current.nearestNode(toLatitude, toLongitude, maxSnapMeters);
+        if (from < 0 || to < 0) {
+            unsnapped.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            return Optional.empty();
+        }
+
+        RoadGraph.Path path = current.route(from, to);
+        if (path == null) {
+            unreachable.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            return Optional.empty();
+        }
+
+        double accessMeters = current.metersToNode(from, fromLatitude, fromLongitude)
+                + current.metersToNode(to, toLatitude, toLongitude);
+        routed.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        return Optional.of(new Route(path.meters() + accessMeters,
+                path.seconds() + accessMeters / ACCESS_METERS_PER_SECOND));
+    }
+
+    private static Timer queryTimer(MeterRegistry meterRegistry, String result) {
+        return Timer.builder("app.routing.query")
+                .tags("result", result)
+                .description("Snapping both points and searching the contraction hierarchy")
+                .register(meterRegistry);
+    }
+}
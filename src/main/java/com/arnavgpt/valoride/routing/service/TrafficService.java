@@ -0,0 +1,204 @@
+package com.arnavgpt.valoride.routing.service;
+
+import com.arnavgpt.valoride.common.geo.GeoCell;
+import com.arnavgpt.valoride.ride.dto.RideResponse;
+import com.arnavgpt.valoride.ride.entity.RideStatus;
+import com.arnavgpt.valoride.ride.event.RideStatusChangedEvent;
+import com.arnavgpt.valoride.routing.repository.SpeedModelSnapshotRepository;
+import com.arnavgpt.valoride.routing.traffic.SpeedModel;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataAccessException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.TransactionException;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.OptionalDouble;
+
+/**
+ * Trip pace learned from completed rides, per pickup cell and hour of the week, for trip
+ * durations and driver ETAs. Every completed ride updates the in-memory model at once; every
+ * few minutes the trips seen since the last merge are merged into the shared snapshot in
+ * Postgres and the merged model, with other nodes' trips, replaces the local one.
+ * Lookups are a map lookup and a few array reads, and never touch the database.
+ */
+@Service
+public class TrafficService {
+
+    private static final Logger logger = LoggerFactory.getLogger(TrafficService.class);
+
+    // Trips shorter than this are mostly waiting at the pickup and say little about traffic
+    private static final double MIN_TRIP_KM = 0.5;
+    private static final Duration MIN_TRIP_TIME = Duration.ofMinutes(1);
+    // Between 120 km/h and 2 km/h; anything else is a ride left running or a bad clock
+    private static final double MIN_SECONDS_PER_KM = 30;
+    private static final double MAX_SECONDS_PER_KM = 1800;
+    // Once a slot is trusted, trips this many standard deviations out are not learned from
+    private static final double OUTLIER_SIGMAS = 4;
+
+    private final SpeedModelSnapshotRepository snapshotRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final int minSamples;
+    private final Counter learned;
+    private final Counter rejected;
+
+    // What lookups read, and the trips added since the last merge into the shared snapshot
+    private volatile SpeedModel model = new SpeedModel();
+    private SpeedModel pending = new SpeedModel();
+    private final Object modelLock = new Object();
+
+    public TrafficService(SpeedModelSnapshotRepository snapshotRepository, TransactionTemplate transactionTemplate,
+                          MeterRegistry meterRegistry,
+                          @Value("${routing.speed-model.min-samples:5}") int minSamples) {
+        this.snapshotRepository = snapshotRepository;
+        this.transactionTemplate = transactionTemplate;
+        this.minSamples = minSamples;
+        this.learned = Counter.builder("app.routing.speed-model.trips").tags("result", "learned")
+                .register(meterRegistry);
+        this.rejected = Counter.builder("app.routing.speed-model.trips").tags("result", "rejected")
+                .register(meterRegistry);
+        Gauge.builder("app.routing.speed-model.cells", this, service -> service.model.cellCount())
+                .register(meterRegistry);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void loadSnapshot() {
+        try {
+            SpeedModel loaded = SpeedModel.fromSnapshot(snapshotRepository.findData());
+            synchronized (modelLock) {
+                loaded.merge(pending);
+                model = loaded;
+            }
+            logger.info("Speed model loaded: {} trips over {} cells", loaded.observations(), loaded.cellCount());
+        } catch (DataAccessException | IllegalArgumentException e) {
+            logger.warn("Could not load speed model snapshot, learning from scratch: {}", e.getMessage());
+        }
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
+    public void onRideStatusChanged(RideStatusChangedEvent event) {
+        RideResponse ride = event.getRide();
+        if (ride.getStatus() != RideStatus.COMPLETED || ride.getStartedAt() == null
+                || ride.getCompletedAt() == null || ride.getDistanceKm() == null) {
+            return;
+        }
+
+        double km = ride.getDistanceKm().doubleValue();
+        Duration duration = Duration.between(ride.getStartedAt(), ride.getCompletedAt());
+        if (km < MIN_TRIP_KM || duration.compareTo(MIN_TRIP_TIME) < 0) {
+            return;
+        }
+        double secondsPerKm = duration.toMillis() / 1000.0 / km;
+        long cellId = GeoCell.cellId(ride.getPickupLatitude().doubleValue(), ride.getPickupLongitude().doubleValue());
+        int hour = hourOfWeek(ride.getStartedAt());
+
+        synchronized (modelLock) {
+            if (secondsPerKm < MIN_SECONDS_PER_KM || secondsPerKm > MAX_SECONDS_PER_KM || isOutlier(cellId, hour, secondsPerKm)) {
+                rejected.increment();
+                return;
+            }
+            model.add(cellId, hour, secondsPerKm);
+            pending.add(cellId, hour, secondsPerKm);
+        }
+        learned.increment();
+    }
+
+    /**
+     * Learned pace for trips starting at the point at that time: the hour of the week if it
+     * has enough trips, else the cell's average over all hours, else empty
+     */
+    public OptionalDouble secondsPerKm(double latitude, double longitude, LocalDateTime time) {
+        SpeedModel current = model;
+        long cellId = GeoCell.cellId(latitude, longitude);
+        int hour = hourOfWeek(time);
+        if (current.count(cellId, hour) >= minSamples) {
+            return OptionalDouble.of(current.meanSecondsPerKm(cellId, hour));
+        }
+        if (current.count(cellId, -1) >= minSamples) {
+            return OptionalDouble.of(current.meanSecondsPerKm(cellId, -1));
+        }
+        return OptionalDouble.empty();
+    }
+
+    /**
+     * How much slower than usual trips from the point are at that time, 1 when unknown.
+     * Scales free-flow estimates that already account for the road itself.
+     */
+    public double congestionFactor(double latitude, double longitude, LocalDateTime time) {
+        SpeedModel current = model;
+        long cellId = GeoCell.cellId(latitude, longitude);
+        int hour = hourOfWeek(time);
+        if (current.count(cellId, hour) < minSamples) {
+            return 1.0;
+        }
+        double factor = current.meanSecondsPerKm(cellId, hour) / current.meanSecondsPerKm(cellId, -1);
+        return Math.max(0.5, Math.min(factor, 3.0));
+    }
+
+    /**
+     * Merge this node's new trips into the shared snapshot and adopt the result
+     */
+    @Scheduled(fixedDelayString = "${routing.speed-model.merge-interval-ms:300000}",
+            initialDelayString = "${routing.speed-model.merge-interval-ms:300000}")
+    public void mergeSnapshot() {
+        SpeedModel delta;
+        synchronized (modelLock) {
+            delta = pending;
+            pending = new SpeedModel();
+        }
+
+        SpeedModel merged;
+        try {
+            merged = transactionTemplate.execute(status -> {
+                if (delta.observations() == 0) {
+                    return SpeedModel.fromSnapshot(snapshotRepository.findData());
+                }
+                SpeedModel shared = SpeedModel.fromSnapshot(snapshotRepository.lockData());
+                shared.merge(delta);
+                snapshotRepository.saveData(shared.toSnapshot(), shared.observations());
+                return shared;
+            });
+        } catch (DataAccessException | TransactionException | IllegalArgumentException e) {
+            // Keep the trips for the next attempt
+            synchronized (modelLock) {
+                delta.merge(pending);
+                pending = delta;
+            }
+            logger.warn("Could not merge speed model snapshot: {}", e.getMessage());
+            return;
+        }
+
+        synchronized (modelLock) {
+            merged.merge(pending);
+            model = merged;
+        }
+        logger.debug("Speed model merged {} new trips, {} trips over {} cells in total",
+                delta.observations(), merged.observations(), merged.cellCount());
+    }
+
+    private boolean isOutlier(long cellId, int hour, double secondsPerKm) {
+        SpeedModel current = model;
+        if (current.count(cellId, hour) < minSamples) {
+            return false;
+        }
+        double mean = current.meanSecondsPerKm(cellId, hour);
+        // A floor on the spread, so a run of near-identical trips does not shut out every other
+        double sigma = Math.max(Math.sqrt(current.variance(cellId, hour)), 0.1 * mean);
+        return Math.abs(secondsPerKm - mean) > OUTLIER_SIGMAS * sigma;
+    }
+
+    static int hourOfWeek(LocalDateTime time) {
+        return (time.getDayOfWeek().getValue() - 1) * 24 + time.getHour();
+    }
+}
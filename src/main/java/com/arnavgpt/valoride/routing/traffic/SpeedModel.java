@@ -0,0 +1,176 @@
+package com.arnavgpt.valoride.routing.traffic;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Running mean and variance of trip pace (seconds per km) per grid cell and hour of the week,
+ * updated one trip at a time with Welford's method so no trip is ever revisited. Each cell also
+ * keeps an all-hours slot for hours with too few trips. Models built on different nodes combine
+ * exactly with {@link #merge}, and a model serialises to a compact snapshot of its non-empty slots.
+ *
+ * <p>Pace rather than speed is averaged because durations are estimated as distance times pace;
+ * the mean of speeds would make every estimate optimistic.
+ *
+ * <p>Writers must synchronise on the model; lookups are lock-free and may see a slot mid-update.
+ */
+public final class SpeedModel {
+
+    public static final int HOURS_PER_WEEK = 168;
+    private static final int ALL_HOURS = HOURS_PER_WEEK;
+    private static final int SLOTS = HOURS_PER_WEEK + 1;
+
+    private static final int SNAPSHOT_VERSION = 1;
+
+    private final Map<Long, Cell> cells = new ConcurrentHashMap<>();
+    private long observations;
+
+    /**
+     * Count one trip that started in the cell during the hour
+     */
+    public synchronized void add(long cellId, int hourOfWeek, double secondsPerKm) {
+        Cell cell = cells.computeIfAbsent(cellId, id -> new Cell());
+        cell.add(hourOfWeek, secondsPerKm);
+        cell.add(ALL_HOURS, secondsPerKm);
+        observations++;
+    }
+
+    /**
+     * Add another model's trips, as if they had been added here (Chan et al.)
+     */
+    public synchronized void merge(SpeedModel other) {
+        synchronized (other) {
+            other.cells.forEach((cellId, theirs) -> {
+                Cell mine = cells.computeIfAbsent(cellId, id -> new Cell());
+                for (int slot = 0; slot < SLOTS; slot++) {
+                    mine.merge(slot, theirs.count[slot], theirs.mean[slot], theirs.m2[slot]);
+                }
+            });
+            observations += other.observations;
+        }
+    }
+
+    /**
+     * Trips counted for the cell and hour, or for the cell at any hour when hourOfWeek is -1
+     */
+    public int count(long cellId, int hourOfWeek) {
+        Cell cell = cells.get(cellId);
+        return cell == null ? 0 : cell.count[slot(hourOfWeek)];
+    }
+
+    public double meanSecondsPerKm(long cellId, int hourOfWeek) {
+        Cell cell = cells.get(cellId);
+        return cell == null ? Double.NaN : cell.mean[slot(hourOfWeek)];
+    }
+
+    public double variance(long cellId, int hourOfWeek) {
+        Cell cell = cells.get(cellId);
+        int slot = slot(hourOfWeek);
+        return cell == null || cell.count[slot] < 2 ? Double.NaN : cell.m2[slot] / (cell.count[slot] - 1);
+    }
+
+    public synchronized long observations() {
+        return observations;
+    }
+
+    public int cellCount() {
+        return cells.size();
+    }
+
+    public synchronized byte[] toSnapshot() {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (DataOutputStream out = new DataOutputStream(bytes)) {
+            out.writeInt(SNAPSHOT_VERSION);
+            out.writeLong(observations);
+            out.writeInt(cells.size());
+            for (Map.Entry<Long, Cell> entry : cells.entrySet()) {
+                Cell cell = entry.getValue();
+                int used = 0;
+                for (int slot = 0; slot < SLOTS; slot++) {
+                    used += cell.count[slot] > 0 ? 1 : 0;
+                }
+                out.writeLong(entry.getKey());
+                out.writeShort(used);
+                for (int slot = 0; slot < SLOTS; slot++) {
+                    if (cell.count[slot] > 0) {
+                        out.writeShort(slot);
+                        out.writeInt(cell.count[slot]);
+                        out.writeFloat(cell.mean[slot]);
+                        out.writeFloat(cell.m2[slot]);
+                    }
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return bytes.toByteArray();
+    }
+
+    /**
+     * The model in a snapshot; an empty snapshot is an empty model
+     */
+    public static SpeedModel fromSnapshot(byte[] snapshot) {
+        SpeedModel model = new SpeedModel();
+        if (snapshot == null || snapshot.length == 0) {
+            return model;
+        }
+        try (DataInputStream in = new DataInputStream(new ByteArrayInputStream(snapshot))) {
+            int version = in.readInt();
+            if (version != SNAPSHOT_VERSION) {
+                throw new IllegalArgumentException("Unsupported speed model snapshot version " + version);
+            }
+            model.observations = in.readLong();
+            int cellCount = in.readInt();
+            for (int i = 0; i < cellCount; i++) {
+                Cell cell = new Cell();
+                model.cells.put(in.readLong(), cell);
+                int used = in.readShort();
+                for (int j = 0; j < used; j++) {
+                    int slot = in.readShort();
+                    cell.count[slot] = in.readInt();
+                    cell.mean[slot] = in.readFloat();
+                    cell.m2[slot] = in.readFloat();
+                }
+            }
+        } catch (IOException e) {
+            throw new IllegalArgumentException("Corrupt speed model snapshot", e);
+        }
+        return model;
+    }
+
+    private static int slot(int hourOfWeek) {
+        return hourOfWeek < 0 ? ALL_HOURS : hourOfWeek;
+    }
+
+    private static final class Cell {
+
+        final int[] count = new int[SLOTS];
+        final float[] mean = new float[SLOTS];
+        final float[] m2 = new float[SLOTS];
+
+        void add(int slot, double value) {
+            int n = ++count[slot];
+            double delta = value - mean[slot];
+            double newMean = mean[slot] + delta / n;
+            m2[slot] += (float) (delta * (value - newMean));
+            mean[slot] = (float) newMean;
+        }
+
+        void merge(int slot, int otherCount, double otherMean, double otherM2) {
+            if (otherCount == 0) {
+                return;
+            }
+            int n = count[slot] + otherCount;
+            double delta = otherMean - mean[slot];
+            mean[slot] = (float) (mean[slot] + delta * otherCount / n);
+            m2[slot] = (float) (m2[slot] + otherM2 + delta * delta * ((double) count[slot] * otherCount) / n);
+            count[slot] = n;
+        }
+    }
+}
@@ -1,16 +1,23 @@
 package com.arnavgpt.valoride.user.entity;
 
-import com.arnavgpt.valoride.common.entity.BaseEntity;
+import com.arnavgpt.valoride.common.entity.AuditedEntity;
 import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
 import jakarta.persistence.EnumType;
 import jakarta.persistence.Enumerated;
 import jakarta.persistence.Table;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.NaturalId;
+import org.hibernate.annotations.NaturalIdCache;
 
 @Entity
 @Table(name = "users")
-public class User extends BaseEntity {
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE)
+@NaturalIdCache
+public class User extends AuditedEntity {
 
+    @NaturalId
     @Column(nullable = false, unique = true)
     private String email;
 
@@ -1,19 +1,17 @@
 package com.arnavgpt.valoride.user.repository;
 
+import com.arnavgpt.valoride.common.repository.NaturalIdRepository;
 import com.arnavgpt.valoride.user.entity.Role;
 import com.arnavgpt.valoride.user.entity.User;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
-import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.stereotype.Repository;
 
 import java.util.Optional;
 import java.util.UUID;
 
 @Repository
-public interface UserRepository extends JpaRepository<User, UUID> {
-
-    Optional<User> findByEmail(String email);
+public interface UserRepository extends NaturalIdRepository<User, UUID> {
 
     boolean existsByEmail(String email);
 
@@ -1,5 +1,6 @@
 package com.arnavgpt.valoride.user.service;
 
+import com.arnavgpt.valoride.common.cache.EntityCacheEvictionEvent;
 import com.arnavgpt.valoride.exception.ResourceNotFoundException;
 import com.arnavgpt.valoride.user.dto.UpdateUserRequest;
 import com.arnavgpt.valoride.user.dto.UserResponse;
@@ -7,6 +8,7 @@ import com.arnavgpt.valoride.user.entity.User;
 import com.arnavgpt.valoride.user.repository.UserRepository;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -18,9 +20,11 @@ public class UserService {
     private static final Logger logger = LoggerFactory.getLogger(UserService.class);
 
     private final UserRepository userRepository;
+    private final ApplicationEventPublisher eventPublisher;
 
-    public UserService(UserRepository userRepository) {
+    public UserService(UserRepository userRepository, ApplicationEventPublisher eventPublisher) {
         this.userRepository = userRepository;
+        this.eventPublisher = eventPublisher;
     }
 
     public UserResponse getUserById(UUID userId) {
@@ -31,7 +35,7 @@ public class UserService {
     }
 
     public UserResponse getUserByEmail(String email) {
-        User user = userRepository.findByEmail(email)
+        User user = userRepository.findBySimpleNaturalId(email)
                 .orElseThrow(() -> new ResourceNotFoundException("User", "email", email));
 
         return UserResponse.fromEntity(user);
@@ -52,6 +56,7 @@ public class UserService {
 
         User updatedUser = userRepository.save(user);
         logger.info("User updated: {}", userId);
+        eventPublisher.publishEvent(EntityCacheEvictionEvent.of(updatedUser));
 
         return UserResponse.fromEntity(updatedUser);
     }
@@ -62,7 +67,7 @@ public class UserService {
     }
 
     public User findByEmail(String email) {
-        return userRepository.findByEmail(email)
+        return userRepository.findBySimpleNaturalId(email)
                 .orElseThrow(() -> new ResourceNotFoundException("User", "email", email));
     }
 }
\ No newline at end of file
@@ -0,0 +1,122 @@
+-- Baseline: the schema as previously created by Hibernate ddl-auto=update.
+-- Existing databases are baselined at this version and skip it.
+
+CREATE TABLE users (
+    id              UUID         NOT NULL,
+    email           VARCHAR(255) NOT NULL,
+    password        VARCHAR(255) NOT NULL,
+    name            VARCHAR(255) NOT NULL,
+    phone           VARCHAR(20),
+    role            VARCHAR(255) NOT NULL CHECK (role IN ('RIDER', 'DRIVER', 'ADMIN')),
+    email_verified  BOOLEAN,
+    is_active       BOOLEAN,
+    created_at      TIMESTAMP(6) NOT NULL,
+    updated_at      TIMESTAMP(6),
+    CONSTRAINT pk_users PRIMARY KEY (id),
+    CONSTRAINT uk_users_email UNIQUE (email)
+);
+
+CREATE TABLE drivers (
+    id                 UUID         NOT NULL,
+    user_id            UUID         NOT NULL,
+    license_number     VARCHAR(50)  NOT NULL,
+    vehicle_number     VARCHAR(20)  NOT NULL,
+    vehicle_type       VARCHAR(255) NOT NULL CHECK (vehicle_type IN ('AUTO', 'BIKE', 'SEDAN', 'SUV')),
+    current_latitude   NUMERIC(10, 8),
+    current_longitude  NUMERIC(11, 8),
+    is_available       BOOLEAN,
+    approval_status    VARCHAR(255) NOT NULL CHECK (approval_status IN ('PENDING', 'APPROVED', 'REJECTED')),
+    rejection_reason   VARCHAR(255),
+    rating             NUMERIC(3, 2),
+    total_rides        INTEGER,
+    total_earnings     NUMERIC(12, 2),
+    created_at         TIMESTAMP(6) NOT NULL,
+    updated_at         TIMESTAMP(6),
+    CONSTRAINT pk_drivers PRIMARY KEY (id),
+    CONSTRAINT uk_drivers_user_id UNIQUE (user_id),
+    CONSTRAINT fk_drivers_user FOREIGN KEY (user_id) REFERENCES users (id)
+);
+
+CREATE TABLE fare_config (
+    id            UUID           NOT NULL,
+    vehicle_type  VARCHAR(255)   NOT NULL CHECK (vehicle_type IN ('AUTO', 'BIKE', 'SEDAN', 'SUV')),
+    base_fare     NUMERIC(10, 2) NOT NULL,
+    per_km_rate   NUMERIC(10, 2) NOT NULL,
+    per_min_rate  NUMERIC(10, 2) NOT NULL,
+    min_fare      NUMERIC(10, 2) NOT NULL,
+    is_active     BOOLEAN,
+    created_at    TIMESTAMP(6)   NOT NULL,
+    updated_at    TIMESTAMP(6),
+    CONSTRAINT pk_fare_config PRIMARY KEY (id),
+    CONSTRAINT uk_fare_config_vehicle_type UNIQUE (vehicle_type)
+);
+
+CREATE TABLE rides (
+    id                       UUID           NOT NULL,
+    rider_id                 UUID           NOT NULL,
+    driver_id                UUID,
+    pickup_latitude          NUMERIC(10, 8) NOT NULL,
+    pickup_longitude         NUMERIC(11, 8) NOT NULL,
+    pickup_address           VARCHAR(500),
+    drop_latitude            NUMERIC(10, 8) NOT NULL,
+    drop_longitude           NUMERIC(11, 8) NOT NULL,
+    drop_address             VARCHAR(500),
+    status                   VARCHAR(255)   NOT NULL
+        CHECK (status IN ('REQUESTED', 'MATCHED', 'ARRIVED', 'STARTED', 'COMPLETED', 'CANCELLED')),
+    vehicle_type             VARCHAR(255)   NOT NULL CHECK (vehicle_type IN ('AUTO', 'BIKE', 'SEDAN', 'SUV')),
+    estimated_fare           NUMERIC(10, 2),
+    final_fare               NUMERIC(10, 2),
+    distance_km              NUMERIC(8, 2),
+    estimated_duration_mins  INTEGER,
+    requested_at             TIMESTAMP(6),
+    matched_at               TIMESTAMP(6),
+    arrived_at               TIMESTAMP(6),
+    started_at               TIMESTAMP(6),
+    completed_at             TIMESTAMP(6),
+    cancelled_at             TIMESTAMP(6),
+    cancelled_by             VARCHAR(255) CHECK (cancelled_by IN ('RIDER', 'DRIVER', 'SYSTEM')),
+    cancel_reason            VARCHAR(500),
+    rating                   NUMERIC(2, 1),
+    rating_comment           VARCHAR(500),
+    created_at               TIMESTAMP(6)   NOT NULL,
+    updated_at               TIMESTAMP(6),
+    CONSTRAINT pk_rides PRIMARY KEY (id),
+    CONSTRAINT fk_rides_rider FOREIGN KEY (rider_id) REFERENCES users (id),
+    CONSTRAINT fk_rides_driver FOREIGN KEY (driver_id) REFERENCES drivers (id)
+);
+
+CREATE TABLE payments (
+    id                        UUID           NOT NULL,
+    ride_id                   UUID           NOT NULL,
+    user_id                   UUID           NOT NULL,
+    amount                    NUMERIC(10, 2) NOT NULL,
+    currency                  VARCHAR(3)     NOT NULL,
+    payment_method            VARCHAR(255)   NOT NULL CHECK (payment_method IN ('CARD', 'UPI', 'WALLET', 'CASH')),
+    status                    VARCHAR(255)   NOT NULL
+        CHECK (status IN ('PENDING', 'PROCESSING', 'COMPLETED', 'FAILED', 'REFUNDED')),
+    stripe_payment_intent_id  VARCHAR(100),
+    stripe_client_secret      VARCHAR(200),
+    stripe_charge_id          VARCHAR(100),
+    failure_reason            VARCHAR(500),
+    paid_at                   TIMESTAMP(6),
+    refund_amount             NUMERIC(10, 2),
+    refunded_at               TIMESTAMP(6),
+    created_at                TIMESTAMP(6)   NOT NULL,
+    updated_at                TIMESTAMP(6),
+    CONSTRAINT pk_payments PRIMARY KEY (id),
+    CONSTRAINT uk_payments_ride_id UNIQUE (ride_id),
+    CONSTRAINT fk_payments_ride FOREIGN KEY (ride_id) REFERENCES rides (id),
+    CONSTRAINT fk_payments_user FOREIGN KEY (user_id) REFERENCES users (id)
+);
+
+CREATE TABLE analytics_ride_buckets (
+    granularity   VARCHAR(4)     NOT NULL CHECK (granularity IN ('HOUR', 'DAY')),
+    bucket_start  TIMESTAMP(6)   NOT NULL,
+    vehicle_type  VARCHAR(10)    NOT NULL CHECK (vehicle_type IN ('AUTO', 'BIKE', 'SEDAN', 'SUV')),
+    status        VARCHAR(10)    NOT NULL
+        CHECK (status IN ('REQUESTED', 'MATCHED', 'ARRIVED', 'STARTED', 'COMPLETED', 'CANCELLED')),
+    cell_id       BIGINT         NOT NULL,
+    ride_count    BIGINT         NOT NULL,
+    revenue       NUMERIC(14, 2) NOT NULL,
+    CONSTRAINT pk_analytics_ride_buckets PRIMARY KEY (granularity, bucket_start, vehicle_type, status, cell_id)
+);
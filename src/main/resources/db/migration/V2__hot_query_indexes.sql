@@ -0,0 +1,56 @@
+-- Indexes for the hot paths in RideRepository, DriverRepository, PaymentRepository and
+-- AnalyticsRepository. IF NOT EXISTS because databases that ran with ddl-auto=update
+-- already picked up the ones declared through @Index.
+
+-- Rides -------------------------------------------------------------------------------
+
+-- Rider/driver history, offset and keyset: seek on (created_at, id) within one participant
+CREATE INDEX IF NOT EXISTS idx_rides_rider_created_at ON rides (rider_id, created_at DESC, id DESC);
+CREATE INDEX IF NOT EXISTS idx_rides_driver_created_at ON rides (driver_id, created_at DESC, id DESC);
+
+-- Active-ride checks touch only the handful of in-flight rides, however large history grows
+CREATE INDEX IF NOT EXISTS idx_rides_active_rider ON rides (rider_id)
+    WHERE status NOT IN ('COMPLETED', 'CANCELLED');
+CREATE INDEX IF NOT EXISTS idx_rides_active_driver ON rides (driver_id)
+    WHERE status NOT IN ('COMPLETED', 'CANCELLED');
+CREATE INDEX IF NOT EXISTS idx_rides_active_status ON rides (status)
+    WHERE status NOT IN ('COMPLETED', 'CANCELLED');
+
+-- Revenue report, export and today's revenue: status = 'COMPLETED' AND completed_at range
+CREATE INDEX IF NOT EXISTS idx_rides_status_completed_at ON rides (status, completed_at);
+
+-- Per-driver completed/cancelled counts for the leaderboard and rating updates
+CREATE INDEX IF NOT EXISTS idx_rides_driver_status ON rides (driver_id, status);
+
+-- Drivers -----------------------------------------------------------------------------
+
+-- Nearby search and availability counts only ever look at online, approved drivers
+CREATE INDEX IF NOT EXISTS idx_drivers_available_vehicle_type ON drivers (vehicle_type)
+    WHERE is_available = true AND approval_status = 'APPROVED';
+
+-- Pending approvals queue and approval-status counts
+CREATE INDEX IF NOT EXISTS idx_drivers_approval_status_created_at ON drivers (approval_status, created_at);
+
+-- Leaderboard order among approved drivers
+CREATE INDEX IF NOT EXISTS idx_drivers_approved_rating ON drivers (rating DESC, total_rides DESC)
+    WHERE approval_status = 'APPROVED';
+
+-- Payments ----------------------------------------------------------------------------
+
+CREATE INDEX IF NOT EXISTS idx_payments_user_created_at ON payments (user_id, created_at DESC, id DESC);
+
+-- Stripe webhook lookups
+CREATE INDEX IF NOT EXISTS idx_payments_stripe_payment_intent_id ON payments (stripe_payment_intent_id);
+
+-- Stale pending payment sweep
+CREATE INDEX IF NOT EXISTS idx_payments_pending_created_at ON payments (created_at)
+    WHERE status = 'PENDING';
+
+-- Users -------------------------------------------------------------------------------
+
+CREATE INDEX IF NOT EXISTS idx_users_role ON users (role);
+
+-- Analytics cube ----------------------------------------------------------------------
+
+-- Range scans on (granularity, bucket_start) are served by the primary key
+DROP INDEX IF EXISTS idx_ride_buckets_granularity_start;
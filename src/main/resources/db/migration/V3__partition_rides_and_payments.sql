@@ -0,0 +1,161 @@
+-- Hot/cold storage for rides and payments.
+--
+-- Both tables become range-partitioned by created_at month. Months older than the archive
+-- window are detached and re-attached under rides_archive / payments_archive once every row
+-- in them is terminal, so the hot tables (and their partial active-ride indexes) only ever
+-- span the retention window plus a few pre-created future months.
+--
+-- Partitioning requires every unique constraint to include created_at, so:
+--   * the primary keys become (id, created_at); ids are still random UUIDs
+--   * payments.ride_id loses its unique constraint and its foreign key to rides
+--     (PaymentService checks for an existing payment under a per-ride advisory lock)
+
+-- Partition helpers -------------------------------------------------------------------
+
+-- Create <parent>_pYYYYMM for every month in [first_month, last_month] that does not exist yet
+CREATE OR REPLACE FUNCTION create_monthly_partitions(parent TEXT, first_month DATE, last_month DATE)
+RETURNS INTEGER LANGUAGE plpgsql AS $$
+DECLARE
+    month_start DATE := date_trunc('month', first_month);
+    part        TEXT;
+    created     INTEGER := 0;
+BEGIN
+    WHILE month_start <= last_month LOOP
+        part := parent || '_p' || to_char(month_start, 'YYYYMM');
+        IF to_regclass(part) IS NULL THEN
+            EXECUTE format('CREATE TABLE %I PARTITION OF %I FOR VALUES FROM (%L) TO (%L)',
+                           part, parent, month_start, (month_start + INTERVAL '1 month')::date);
+            created := created + 1;
+        END IF;
+        month_start := (month_start + INTERVAL '1 month')::date;
+    END LOOP;
+    RETURN created;
+END $$;
+
+-- Move whole months before before_month from parent to archive. A month that still holds a
+-- row whose status is not in terminal_statuses stays in the hot table and is retried next run.
+CREATE OR REPLACE FUNCTION archive_monthly_partitions(parent TEXT, archive TEXT, before_month DATE,
+                                                      terminal_statuses TEXT[])
+RETURNS INTEGER LANGUAGE plpgsql AS $$
+DECLARE
+    part        TEXT;
+    suffix      TEXT;
+    month_start DATE;
+    has_open    BOOLEAN;
+    archived    INTEGER := 0;
+BEGIN
+    FOR part IN
+        SELECT c.relname
+        FROM pg_inherits i
+        JOIN pg_class c ON c.oid = i.inhrelid
+        WHERE i.inhparent = to_regclass(parent)
+        ORDER BY c.relname
+    LOOP
+        suffix := right(part, 6);
+        month_start := to_date(suffix, 'YYYYMM');
+        CONTINUE WHEN month_start >= before_month;
+
+        EXECUTE format('SELECT EXISTS (SELECT 1 FROM %I WHERE status <> ALL ($1))', part)
+            INTO has_open USING terminal_statuses;
+        IF has_open THEN
+            RAISE WARNING 'Partition % still has open rows, leaving it in %', part, parent;
+            CONTINUE;
+        END IF;
+
+        EXECUTE format('ALTER TABLE %I DETACH PARTITION %I', parent, part);
+        EXECUTE format('ALTER TABLE %I RENAME TO %I', part, archive || '_p' || suffix);
+        EXECUTE format('ALTER TABLE %I ATTACH PARTITION %I FOR VALUES FROM (%L) TO (%L)',
+                       archive, archive || '_p' || suffix, month_start, (month_start + INTERVAL '1 month')::date);
+        archived := archived + 1;
+    END LOOP;
+    RETURN archived;
+END $$;
+
+-- Rides -------------------------------------------------------------------------------
+
+-- Drop foreign keys into rides by lookup: databases baselined from ddl-auto carry generated names
+DO $$
+DECLARE
+    fk RECORD;
+BEGIN
+    FOR fk IN
+        SELECT conrelid::regclass AS tbl, conname
+        FROM pg_constraint
+        WHERE contype = 'f' AND confrelid = 'rides'::regclass
+    LOOP
+        EXECUTE format('ALTER TABLE %s DROP CONSTRAINT %I', fk.tbl, fk.conname);
+    END LOOP;
+END $$;
+
+ALTER TABLE rides RENAME TO rides_unpartitioned;
+
+CREATE TABLE rides (LIKE rides_unpartitioned INCLUDING DEFAULTS INCLUDING CONSTRAINTS)
+    PARTITION BY RANGE (created_at);
+
+SELECT create_monthly_partitions('rides',
+        COALESCE((SELECT MIN(created_at) FROM rides_unpartitioned), now())::date,
+        (now() + INTERVAL '3 months')::date);
+
+INSERT INTO rides SELECT * FROM rides_unpartitioned;
+DROP TABLE rides_unpartitioned;
+
+ALTER TABLE rides ADD CONSTRAINT pk_rides PRIMARY KEY (id, created_at);
+ALTER TABLE rides ADD CONSTRAINT fk_rides_rider FOREIGN KEY (rider_id) REFERENCES users (id);
+ALTER TABLE rides ADD CONSTRAINT fk_rides_driver FOREIGN KEY (driver_id) REFERENCES drivers (id);
+
+CREATE INDEX idx_rides_rider_created_at ON rides (rider_id, created_at DESC, id DESC);
+CREATE INDEX idx_rides_driver_created_at ON rides (driver_id, created_at DESC, id DESC);
+CREATE INDEX idx_rides_active_rider ON rides (rider_id) WHERE status NOT IN ('COMPLETED', 'CANCELLED');
+CREATE INDEX idx_rides_active_driver ON rides (driver_id) WHERE status NOT IN ('COMPLETED', 'CANCELLED');
+CREATE INDEX idx_rides_active_status ON rides (status) WHERE status NOT IN ('COMPLETED', 'CANCELLED');
+CREATE INDEX idx_rides_status_completed_at ON rides (status, completed_at);
+CREATE INDEX idx_rides_driver_status ON rides (driver_id, status);
+
+-- Archived months keep the same layout. Index definitions match the hot ones, so attaching
+-- a detached month reuses its existing indexes instead of building new ones.
+CREATE TABLE rides_archive (LIKE rides INCLUDING DEFAULTS INCLUDING CONSTRAINTS)
+    PARTITION BY RANGE (created_at);
+
+ALTER TABLE rides_archive ADD CONSTRAINT pk_rides_archive PRIMARY KEY (id, created_at);
+
+CREATE INDEX idx_rides_archive_rider_created_at ON rides_archive (rider_id, created_at DESC, id DESC);
+CREATE INDEX idx_rides_archive_driver_created_at ON rides_archive (driver_id, created_at DESC, id DESC);
+CREATE INDEX idx_rides_archive_status_completed_at ON rides_archive (status, completed_at);
+CREATE INDEX idx_rides_archive_driver_status ON rides_archive (driver_id, status);
+
+-- Lifetime reporting reads hot and archived rides together.
+-- Recreate this view whenever a migration adds a column to rides.
+CREATE VIEW rides_all AS
+    SELECT * FROM rides
+    UNION ALL
+    SELECT * FROM rides_archive;
+
+-- Payments ----------------------------------------------------------------------------
+
+ALTER TABLE payments RENAME TO payments_unpartitioned;
+
+CREATE TABLE payments (LIKE payments_unpartitioned INCLUDING DEFAULTS INCLUDING CONSTRAINTS)
+    PARTITION BY RANGE (created_at);
+
+SELECT create_monthly_partitions('payments',
+        COALESCE((SELECT MIN(created_at) FROM payments_unpartitioned), now())::date,
+        (now() + INTERVAL '3 months')::date);
+
+INSERT INTO payments SELECT * FROM payments_unpartitioned;
+DROP TABLE payments_unpartitioned;
+
+ALTER TABLE payments ADD CONSTRAINT pk_payments PRIMARY KEY (id, created_at);
+ALTER TABLE payments ADD CONSTRAINT fk_payments_user FOREIGN KEY (user_id) REFERENCES users (id);
+
+CREATE INDEX idx_payments_ride_id ON payments (ride_id);
+CREATE INDEX idx_payments_user_created_at ON payments (user_id, created_at DESC, id DESC);
+CREATE INDEX idx_payments_stripe_payment_intent_id ON payments (stripe_payment_intent_id);
+CREATE INDEX idx_payments_pending_created_at ON payments (created_at) WHERE status = 'PENDING';
+
+CREATE TABLE payments_archive (LIKE payments INCLUDING DEFAULTS INCLUDING CONSTRAINTS)
+    PARTITION BY RANGE (created_at);
+
+ALTER TABLE payments_archive ADD CONSTRAINT pk_payments_archive PRIMARY KEY (id, created_at);
+
+CREATE INDEX idx_payments_archive_ride_id ON payments_archive (ride_id);
+CREATE INDEX idx_payments_archive_user_created_at ON payments_archive (user_id, created_at DESC, id DESC);
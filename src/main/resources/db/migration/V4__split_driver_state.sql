@@ -0,0 +1,33 @@
+-- Volatile driver state moves out of drivers into a narrow table of its own.
+--
+-- Location pings and online/offline toggles are by far the most frequent writes a driver
+-- makes. On the wide profile row each one wrote a full new row version, and is_available sat
+-- in the predicate of a drivers index. driver_states is written only by native upserts, keeps
+-- free space in every page (fillfactor 70) and indexes nothing a location ping changes, so
+-- pings stay heap-only tuple updates. The drivers row, and its second-level cache entry,
+-- now only change when the profile does.
+
+CREATE TABLE driver_states (
+    driver_id     UUID         NOT NULL,
+    latitude      NUMERIC(10, 8),
+    longitude     NUMERIC(11, 8),
+    is_available  BOOLEAN      NOT NULL DEFAULT false,
+    updated_at    TIMESTAMP(6) NOT NULL,
+    CONSTRAINT pk_driver_states PRIMARY KEY (driver_id),
+    CONSTRAINT fk_driver_states_driver FOREIGN KEY (driver_id) REFERENCES drivers (id) ON DELETE CASCADE
+) WITH (fillfactor = 70, autovacuum_vacuum_scale_factor = 0.05);
+
+-- Nearby search and availability counts only ever look at online drivers
+CREATE INDEX idx_driver_states_available ON driver_states (driver_id) WHERE is_available;
+
+INSERT INTO driver_states (driver_id, latitude, longitude, is_available, updated_at)
+SELECT id, current_latitude, current_longitude, COALESCE(is_available, false), COALESCE(updated_at, created_at)
+FROM drivers
+WHERE current_latitude IS NOT NULL OR is_available;
+
+DROP INDEX IF EXISTS idx_drivers_available_vehicle_type;
+
+ALTER TABLE drivers
+    DROP COLUMN current_latitude,
+    DROP COLUMN current_longitude,
+    DROP COLUMN is_available;
@@ -0,0 +1,30 @@
+-- Driver stats are kept as running totals updated in place by single UPDATE statements.
+--
+-- rating stays as the displayed average (and the leaderboard index key); rating_sum and
+-- rating_count let a new rating move it without reading the driver's rides. The counters
+-- become NOT NULL so an increment can never hit a NULL and silently stay NULL.
+
+UPDATE drivers SET total_rides = 0 WHERE total_rides IS NULL;
+UPDATE drivers SET total_earnings = 0 WHERE total_earnings IS NULL;
+UPDATE drivers SET rating = 0 WHERE rating IS NULL;
+
+ALTER TABLE drivers
+    ALTER COLUMN total_rides SET DEFAULT 0,
+    ALTER COLUMN total_rides SET NOT NULL,
+    ALTER COLUMN total_earnings SET DEFAULT 0,
+    ALTER COLUMN total_earnings SET NOT NULL,
+    ALTER COLUMN rating SET DEFAULT 0,
+    ALTER COLUMN rating SET NOT NULL,
+    ADD COLUMN rating_sum NUMERIC(12, 1) NOT NULL DEFAULT 0,
+    ADD COLUMN rating_count INTEGER NOT NULL DEFAULT 0;
+
+UPDATE drivers d
+SET rating_sum = s.rating_sum,
+    rating_count = s.rating_count
+FROM (
+    SELECT driver_id, SUM(rating) AS rating_sum, COUNT(*) AS rating_count
+    FROM rides_all
+    WHERE status = 'COMPLETED' AND rating IS NOT NULL AND driver_id IS NOT NULL
+    GROUP BY driver_id
+) s
+WHERE d.id = s.driver_id;
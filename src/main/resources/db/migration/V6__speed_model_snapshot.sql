@@ -0,0 +1,15 @@
+-- Learned trip pace per grid cell and hour of week, as a binary SpeedModel snapshot.
+--
+-- One row shared by all nodes: each node periodically locks it, merges in the trips it has
+-- seen since its last merge and writes it back. The row exists from the start so that the
+-- lock always has something to hold.
+
+CREATE TABLE speed_model_snapshot (
+    id SMALLINT PRIMARY KEY CHECK (id = 1),
+    data BYTEA NOT NULL,
+    observations BIGINT NOT NULL,
+    updated_at TIMESTAMP(6) NOT NULL
+);
+
+INSERT INTO speed_model_snapshot (id, data, observations, updated_at)
+VALUES (1, ''::bytea, 0, now());
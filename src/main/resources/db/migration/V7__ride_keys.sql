@@ -0,0 +1,25 @@
+-- Where each ride lives.
+--
+-- rides is partitioned by created_at month, so a lookup by id alone probes every monthly
+-- partition. ride_keys maps a ride id to its created_at: by-id lookups read it first and the
+-- rides scan is then pruned to a single partition. It is filled by a trigger on the
+-- partitioned table, so every insert path keeps it complete, and archiving needs nothing
+-- from it because rows keep their created_at when their month moves to rides_archive.
+
+CREATE TABLE ride_keys (
+    id          UUID         NOT NULL,
+    created_at  TIMESTAMP(6) NOT NULL,
+    CONSTRAINT pk_ride_keys PRIMARY KEY (id)
+);
+
+INSERT INTO ride_keys (id, created_at)
+SELECT id, created_at FROM rides_all;
+
+CREATE FUNCTION record_ride_key() RETURNS TRIGGER LANGUAGE plpgsql AS $$
+BEGIN
+    INSERT INTO ride_keys (id, created_at) VALUES (NEW.id, NEW.created_at);
+    RETURN NULL;
+END $$;
+
+CREATE TRIGGER trg_rides_record_key AFTER INSERT ON rides
+    FOR EACH ROW EXECUTE FUNCTION record_ride_key();
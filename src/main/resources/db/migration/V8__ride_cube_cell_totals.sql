@@ -0,0 +1,18 @@
+-- Cell-free totals in the ride cube.
+--
+-- A bucket per cell leaves thousands of rows per day in a busy city, so a multi-month range
+-- that neither filters nor groups by cell summed millions of them. Every bucket now has a
+-- companion row for all cells at once, stored with cell_id = -1 (real cell ids are never
+-- negative) and kept current by the same writes, so such a range reads a few rows per day.
+--
+-- The primary key leads with granularity and bucket_start and cannot seek on cell_id. One
+-- index on (cell_id, bucket_start) serves both the all-cells rows and queries for a single
+-- cell, and covers the summed columns, so pages autovacuum has visited need no heap reads.
+
+INSERT INTO analytics_ride_buckets (granularity, bucket_start, vehicle_type, status, cell_id, ride_count, revenue)
+SELECT granularity, bucket_start, vehicle_type, status, -1, SUM(ride_count), SUM(revenue)
+FROM analytics_ride_buckets
+GROUP BY granularity, bucket_start, vehicle_type, status;
+
+CREATE INDEX idx_analytics_ride_buckets_cell ON analytics_ride_buckets (cell_id, bucket_start)
+    INCLUDE (granularity, vehicle_type, status, ride_count, revenue);
@@ -0,0 +1,132 @@
+package com.arnavgpt.valoride.common.idempotency;
+
+import com.arnavgpt.valoride.exception.BusinessException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.http.HttpStatus;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@SpringBootTest
+class IdempotencyServiceTest {
+
+    private static final String SCOPE = "test";
+
+    @Autowired
+    private IdempotencyService idempotencyService;
+
+    @Autowired
+    private StringRedisTemplate redisTemplate;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    private final UUID userId = UUID.randomUUID();
+    private final AtomicInteger executions = new AtomicInteger();
+
+    @AfterEach
+    void tearDown() {
+        redisTemplate.delete(redisTemplate.keys("idempotency:" + SCOPE + ":" + userId + ":*"));
+    }
+
+    @Test
+    void replayReturnsTheStoredResponse() {
+        Receipt first = execute(idempotencyService, "replay", Map.of("amount", 100));
+        Receipt second = execute(idempotencyService, "replay", Map.of("amount", 100));
+
+        assertThat(second).isEqualTo(first);
+        assertThat(executions).hasValue(1);
+    }
+
+    @Test
+    void concurrentDuplicatesRunOnce() throws Exception {
+        // A second instance has its own in-flight calls, like another node sharing Redis
+        IdempotencyService otherNode = new IdempotencyService(redisTemplate, objectMapper, meterRegistry,
+                Duration.ofHours(1), Duration.ofSeconds(30), Duration.ofSeconds(10));
+        int callers = 8;
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<Receipt>> results = new ArrayList<>();
+
+        try (ExecutorService executor = Executors.newFixedThreadPool(callers)) {
+            for (int i = 0; i < callers; i++) {
+                IdempotencyService node = i % 2 == 0 ? idempotencyService : otherNode;
+                results.add(executor.submit(() -> {
+                    start.await();
+                    return execute(node, "concurrent", Map.of("amount", 100));
+                }));
+            }
+            start.countDown();
+
+            Receipt first = results.get(0).get();
+            for (Future<Receipt> result : results) {
+                assertThat(result.get()).isEqualTo(first);
+            }
+        }
+        assertThat(executions).hasValue(1);
+    }
+
+    @Test
+    void reusingAKeyForADifferentRequestIsRejected() {
+        execute(idempotencyService, "reused", Map.of("amount", 100));
+
+        assertThatThrownBy(() -> execute(idempotencyService, "reused", Map.of("amount", 200)))
+                .isInstanceOfSatisfying(BusinessException.class,
+                        e -> assertThat(e.getStatus()).isEqualTo(HttpStatus.UNPROCESSABLE_ENTITY));
+        assertThat(executions).hasValue(1);
+    }
+
+    @Test
+    void failedActionReleasesTheKey() {
+        assertThatThrownBy(() -> idempotencyService.execute(SCOPE, userId, "failed", Map.of("amount", 100),
+                Receipt.class, () -> {
+                    executions.incrementAndGet();
+                    throw new IllegalStateException("Payment provider down");
+                }))
+                .isInstanceOf(IllegalStateException.class);
+
+        Receipt retried = execute(idempotencyService, "failed", Map.of("amount", 100));
+
+        assertThat(retried.amount()).isEqualTo(100);
+        assertThat(executions).hasValue(2);
+    }
+
+    private Receipt execute(IdempotencyService service, String key, Map<String, Integer> request) {
+        return service.execute(SCOPE, userId, key, request, Receipt.class, () -> {
+            executions.incrementAndGet();
+            // Long enough for duplicates to arrive while the first call runs
+            sleep(200);
+            return new Receipt(UUID.randomUUID(), request.get("amount"));
+        });
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    record Receipt(UUID id, int amount) {
+    }
+}
@@ -0,0 +1,101 @@
+package com.arnavgpt.valoride.config;
+
+import io.micrometer.observation.Observation;
+import io.micrometer.observation.ObservationRegistry;
+import io.opentelemetry.sdk.testing.exporter.InMemorySpanExporter;
+import io.opentelemetry.sdk.trace.data.SpanData;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.test.autoconfigure.actuate.observability.AutoConfigureObservability;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest(properties = "management.tracing.sampling.probability=1.0")
+@AutoConfigureObservability(metrics = false)
+class AsyncTracingTest {
+
+    @TestConfiguration
+    static class InMemoryExporterConfig {
+
+        @Bean
+        InMemorySpanExporter inMemorySpanExporter() {
+            return InMemorySpanExporter.create();
+        }
+    }
+
+    @Autowired
+    private InMemorySpanExporter spanExporter;
+
+    @Autowired
+    private ObservationRegistry observationRegistry;
+
+    @Autowired
+    @Qualifier("taskExecutor")
+    private Executor taskExecutor;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private StringRedisTemplate redisTemplate;
+
+    @BeforeEach
+    void setUp() {
+        spanExporter.reset();
+    }
+
+    @Test
+    void asyncWorkAndItsQueriesJoinTheCallersTrace() throws Exception {
+        Observation.createNotStarted("test.request", observationRegistry).observe(() ->
+                CompletableFuture.runAsync(() -> Observation.createNotStarted("test.async", observationRegistry)
+                        .observe(() -> {
+                            jdbcTemplate.queryForObject("SELECT 1", Integer.class);
+                            redisTemplate.hasKey("tracing-test");
+                        }), taskExecutor)
+                        .join());
+
+        SpanData request = span("test.request");
+        SpanData async = span("test.async");
+        SpanData query = inTrace("query", request.getTraceId());
+        SpanData redis = inTrace("exists", request.getTraceId());
+
+        assertThat(async.getTraceId()).isEqualTo(request.getTraceId());
+        assertThat(async.getParentSpanId()).isEqualTo(request.getSpanId());
+        assertThat(query.getAttributes().asMap()).containsValue("SELECT 1");
+        assertThat(redis.getParentSpanId()).isEqualTo(async.getSpanId());
+    }
+
+    private SpanData inTrace(String name, String traceId) {
+        return spanExporter.getFinishedSpanItems().stream()
+                .filter(span -> span.getName().equals(name) && span.getTraceId().equals(traceId))
+                .findFirst()
+                .orElseThrow(() -> new AssertionError("No span named " + name + " in trace " + traceId));
+    }
+
+    private SpanData span(String name) throws InterruptedException {
+        // Spans are exported by a batch processor, so give it a moment
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+        while (System.nanoTime() < deadline) {
+            List<SpanData> spans = spanExporter.getFinishedSpanItems();
+            for (SpanData span : spans) {
+                if (span.getName().equals(name)) {
+                    return span;
+                }
+            }
+            Thread.sleep(50);
+        }
+        throw new AssertionError("No span named " + name + " in " + spanExporter.getFinishedSpanItems());
+    }
+}
@@ -0,0 +1,131 @@
+package com.arnavgpt.valoride.driver.service;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest(properties = {
+        "driver.heartbeat.timeout=1m",
+        // Sweeps only run when the test calls them
+        "driver.heartbeat.sweep-interval-ms=3600000"
+})
+class DriverHeartbeatServiceTest {
+
+    private static final String HEARTBEAT_KEY = "driver_heartbeats";
+
+    @Autowired
+    private DriverHeartbeatService heartbeatService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private StringRedisTemplate redisTemplate;
+
+    private final List<UUID> drivers = new ArrayList<>();
+
+    @AfterEach
+    void tearDown() {
+        for (UUID driverId : drivers) {
+            redisTemplate.opsForZSet().remove(HEARTBEAT_KEY, driverId.toString());
+            UUID userId = jdbcTemplate.queryForObject("SELECT user_id FROM drivers WHERE id = ?", UUID.class, driverId);
+            jdbcTemplate.update("DELETE FROM drivers WHERE id = ?", driverId);
+            jdbcTemplate.update("DELETE FROM users WHERE id = ?", userId);
+        }
+    }
+
+    @Test
+    void sweepTakesSilentDriversOffline() {
+        UUID silent = persistDriver(true, 10);
+        heartbeat(silent, 10);
+
+        heartbeatService.sweep();
+
+        assertThat(isAvailable(silent)).isFalse();
+        assertThat(redisTemplate.opsForZSet().score(HEARTBEAT_KEY, silent.toString())).isNull();
+    }
+
+    @Test
+    void sweepKeepsDriversTheDatabaseHeardFromAtTheirLastWrite() {
+        // The ping reached the database but its heartbeat never reached Redis
+        UUID raced = persistDriver(true, 0);
+        heartbeat(raced, 10);
+
+        heartbeatService.sweep();
+
+        assertThat(isAvailable(raced)).isTrue();
+        assertThat(redisTemplate.opsForZSet().score(HEARTBEAT_KEY, raced.toString()))
+                .isEqualTo((double) updatedAt(raced));
+    }
+
+    @Test
+    void sweepDropsDriversWhoWentOfflineThemselves() {
+        UUID offline = persistDriver(false, 0);
+        heartbeat(offline, 10);
+
+        heartbeatService.sweep();
+
+        assertThat(isAvailable(offline)).isFalse();
+        assertThat(redisTemplate.opsForZSet().score(HEARTBEAT_KEY, offline.toString())).isNull();
+    }
+
+    @Test
+    void sweepRebuildsLostHeartbeatsFromTheDatabase() {
+        UUID silent = persistDriver(true, 10);
+        UUID recent = persistDriver(true, 0);
+        redisTemplate.delete(HEARTBEAT_KEY);
+
+        heartbeatService.sweep();
+
+        assertThat(isAvailable(silent)).isFalse();
+        assertThat(isAvailable(recent)).isTrue();
+        assertThat(redisTemplate.opsForZSet().score(HEARTBEAT_KEY, silent.toString())).isNull();
+        assertThat(redisTemplate.opsForZSet().score(HEARTBEAT_KEY, recent.toString()))
+                .isEqualTo((double) updatedAt(recent));
+    }
+
+    private UUID persistDriver(boolean available, int minutesSinceWrite) {
+        UUID userId = UUID.randomUUID();
+        UUID driverId = UUID.randomUUID();
+        String tag = driverId.toString().substring(0, 8);
+        jdbcTemplate.update("""
+                INSERT INTO users (id, created_at, is_active, email, email_verified, name, password, role)
+                VALUES (?, now(), true, ?, true, 'Heartbeat Test', 'x', 'DRIVER')
+                """, userId, "heartbeat-" + tag + "@valoride.test");
+        jdbcTemplate.update("""
+                INSERT INTO drivers (id, created_at, approval_status, license_number, vehicle_number, vehicle_type, user_id)
+                VALUES (?, now(), 'APPROVED', ?, ?, 'SEDAN', ?)
+                """, driverId, "HB-" + tag, "HB" + tag, userId);
+        jdbcTemplate.update("""
+                INSERT INTO driver_states (driver_id, latitude, longitude, is_available, updated_at)
+                VALUES (?, 12.9716, 77.5946, ?, now() - make_interval(mins => ?))
+                """, driverId, available, minutesSinceWrite);
+        drivers.add(driverId);
+        return driverId;
+    }
+
+    private void heartbeat(UUID driverId, int minutesAgo) {
+        redisTemplate.opsForZSet().add(HEARTBEAT_KEY, driverId.toString(),
+                System.currentTimeMillis() - minutesAgo * 60_000L);
+    }
+
+    private boolean isAvailable(UUID driverId) {
+        return jdbcTemplate.queryForObject(
+                "SELECT is_available FROM driver_states WHERE driver_id = ?", Boolean.class, driverId);
+    }
+
+    private long updatedAt(UUID driverId) {
+        return jdbcTemplate.queryForObject(
+                "SELECT updated_at FROM driver_states WHERE driver_id = ?", Timestamp.class, driverId).getTime();
+    }
+}
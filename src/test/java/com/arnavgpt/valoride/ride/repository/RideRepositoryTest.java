@@ -0,0 +1,143 @@
+package com.arnavgpt.valoride.ride.repository;
+
+import com.arnavgpt.valoride.driver.entity.ApprovalStatus;
+import com.arnavgpt.valoride.driver.entity.Driver;
+import com.arnavgpt.valoride.driver.entity.VehicleType;
+import com.arnavgpt.valoride.ride.dto.RideResponse;
+import com.arnavgpt.valoride.ride.entity.Ride;
+import com.arnavgpt.valoride.ride.entity.RideStatus;
+import com.arnavgpt.valoride.user.entity.Role;
+import com.arnavgpt.valoride.user.entity.User;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DataJpaTest(properties = {
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+        "spring.jpa.properties.hibernate.generate_statistics=true",
+        "spring.jpa.properties.hibernate.cache.use_second_level_cache=false",
+        "spring.jpa.hibernate.ddl-auto=create-drop",
+        "spring.flyway.enabled=false"
+})
+class RideRepositoryTest {
+
+    private static final int RIDES = 60;
+    private static final int PAGE_SIZE = 50;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private RideRepository rideRepository;
+
+    private Statistics statistics;
+    private User rider;
+    private Driver driver;
+
+    @BeforeEach
+    void setUp() {
+        rider = persistUser("rider@valoride.test", Role.RIDER);
+
+        driver = new Driver();
+        driver.setUser(persistUser("driver@valoride.test", Role.DRIVER));
+        driver.setLicenseNumber("DL-0001");
+        driver.setVehicleNumber("KA01AB0001");
+        driver.setVehicleType(VehicleType.SEDAN);
+        driver.setApprovalStatus(ApprovalStatus.APPROVED);
+        entityManager.persist(driver);
+
+        for (int i = 0; i < RIDES; i++) {
+            Ride ride = new Ride();
+            ride.setRider(rider);
+            ride.setDriver(driver);
+            ride.setPickupLatitude(new BigDecimal("12.97160000"));
+            ride.setPickupLongitude(new BigDecimal("77.59460000"));
+            ride.setDropLatitude(new BigDecimal("12.93520000"));
+            ride.setDropLongitude(new BigDecimal("77.62450000"));
+            ride.setVehicleType(VehicleType.SEDAN);
+            // Exactly one ride stays active
+            ride.setStatus(i == 0 ? RideStatus.STARTED : RideStatus.COMPLETED);
+            entityManager.persist(ride);
+        }
+
+        entityManager.flush();
+        entityManager.clear();
+
+        statistics = entityManager.getEntityManager().getEntityManagerFactory()
+                .unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+    }
+
+    @Test
+    void riderHistoryPageMapsWithoutLazyLoads() {
+        Page<Ride> page = rideRepository.findByRiderIdOrderByCreatedAtDesc(rider.getId(), PageRequest.of(0, PAGE_SIZE));
+        // One select for the rows with rider, driver and driver user joined, one for the page total
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(2);
+
+        List<RideResponse> responses = page.map(RideResponse::fromEntity).getContent();
+
+        assertThat(responses).hasSize(PAGE_SIZE);
+        assertThat(responses).allSatisfy(response -> assertThat(response.getDriverName()).isEqualTo("driver"));
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(2);
+    }
+
+    @Test
+    void driverHistoryPageMapsWithoutLazyLoads() {
+        Page<Ride> page = rideRepository.findByDriverIdOrderByCreatedAtDesc(driver.getId(), PageRequest.of(0, PAGE_SIZE));
+        List<RideResponse> responses = page.map(RideResponse::fromEntity).getContent();
+
+        assertThat(responses).hasSize(PAGE_SIZE);
+        assertThat(responses).allSatisfy(response -> assertThat(response.getRiderName()).isEqualTo("rider"));
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(2);
+    }
+
+    @Test
+    void activeRideIsSingleStatement() {
+        Ride ride = rideRepository.findActiveRideByRiderId(rider.getId()).orElseThrow();
+        RideResponse response = RideResponse.fromEntity(ride);
+
+        assertThat(response.getStatus()).isEqualTo(RideStatus.STARTED);
+        assertThat(response.getDriverName()).isEqualTo("driver");
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+    }
+
+    @Test
+    void keysetHistoryVisitsEveryRideOnceInOrder() {
+        List<Ride> seen = new ArrayList<>();
+        List<Ride> page = rideRepository.findRiderHistory(rider.getId(), Limit.of(PAGE_SIZE / 2));
+
+        while (!page.isEmpty()) {
+            seen.addAll(page);
+            Ride last = page.get(page.size() - 1);
+            page = rideRepository.findRiderHistoryBefore(
+                    rider.getId(), last.getCreatedAt(), last.getId(), Limit.of(PAGE_SIZE / 2));
+        }
+
+        assertThat(seen).hasSize(RIDES);
+        assertThat(seen).extracting(Ride::getId).doesNotHaveDuplicates();
+        assertThat(seen).isSortedAccordingTo(Comparator.comparing(Ride::getCreatedAt).reversed());
+    }
+
+    private User persistUser(String email, Role role) {
+        User user = new User();
+        user.setEmail(email);
+        user.setPassword("secret");
+        user.setName(role == Role.RIDER ? "rider" : "driver");
+        user.setRole(role);
+        return entityManager.persist(user);
+    }
+}
@@ -0,0 +1,146 @@
+package com.arnavgpt.valoride.ride.service;
+
+import com.arnavgpt.valoride.ride.dto.FareEstimateRequest;
+import com.arnavgpt.valoride.ride.repository.FareConfigRepository;
+import com.arnavgpt.valoride.routing.repository.SpeedModelSnapshotRepository;
+import com.arnavgpt.valoride.routing.service.RoutingService;
+import com.arnavgpt.valoride.routing.service.TrafficService;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.mockito.Mockito;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Fare estimate throughput with and without FareEstimateCache under a Zipfian mix of trips, where a
+ * few pickup/drop pairs (a stadium exit, the airport) take most of the traffic. Each request jitters
+ * its coordinates by a few metres around its pair, as riders standing together would.
+ *
+ * <pre>
+ * mvn -Psimulate test-compile exec:java -Dexec.mainClass=com.arnavgpt.valoride.ride.service.FareEstimateBenchmark \
+ *     -Dbench.threads=8 -Dbench.pairs=20000 -Dbench.zipf-exponent=1.1
+ * </pre>
+ *
+ * Fare configs come from a stub that finds none, so the built-in defaults apply and this measures
+ * the estimate path, not Postgres.
+ */
+public final class FareEstimateBenchmark {
+
+    private static final int THREADS = Integer.getInteger("bench.threads", Runtime.getRuntime().availableProcessors());
+    private static final int REQUESTS_PER_THREAD = Integer.getInteger("bench.requests-per-thread", 500_000);
+    private static final int PAIRS = Integer.getInteger("bench.pairs", 20_000);
+    private static final double ZIPF_EXPONENT = Double.parseDouble(System.getProperty("bench.zipf-exponent", "1.1"));
+    private static final long MAX_ENTRIES = Long.getLong("bench.max-entries", 10_000);
+
+    // Bengaluru, roughly; jitter of about 20 m
+    private static final double MIN_LAT = 12.85;
+    private static final double MIN_LON = 77.50;
+    private static final double SPAN = 0.20;
+    private static final double JITTER = 0.0002;
+
+    private FareEstimateBenchmark() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        double[][] pairs = pairs(new Random(42));
+        double[] cdf = zipfCdf(PAIRS, ZIPF_EXPONENT);
+
+        System.out.printf("%d threads x %d requests, %d trip pairs, Zipf exponent %.2f, %d cache entries%n",
+                THREADS, REQUESTS_PER_THREAD, PAIRS, ZIPF_EXPONENT, MAX_ENTRIES);
+        System.out.printf("%-10s %14s %10s %12s%n", "cache", "estimates/s", "hit ratio", "computed");
+        for (int round = 0; round < 2; round++) {
+            // The first round warms up the JIT and is not printed
+            boolean print = round == 1;
+            run("off", 0, pairs, cdf, print);
+            run("on", MAX_ENTRIES, pairs, cdf, print);
+        }
+    }
+
+    private static void run(String label, long maxEntries, double[][] pairs, double[] cdf, boolean print)
+            throws Exception {
+        MeterRegistry registry = new SimpleMeterRegistry();
+        FareEstimateCache cache = new FareEstimateCache(registry, maxEntries, Duration.ofSeconds(30), 0.001);
+        FareService fareService = new FareService(
+                Mockito.mock(FareConfigRepository.class, Mockito.withSettings().stubOnly()), cache,
+                new RoutingService(registry, "", 500),
+                new TrafficService(Mockito.mock(SpeedModelSnapshotRepository.class, Mockito.withSettings().stubOnly()),
+                        null, registry, 5));
+
+        long start = System.nanoTime();
+        try (ExecutorService executor = Executors.newFixedThreadPool(THREADS)) {
+            List<Future<?>> workers = new ArrayList<>();
+            for (int t = 0; t < THREADS; t++) {
+                workers.add(executor.submit(() -> {
+                    ThreadLocalRandom random = ThreadLocalRandom.current();
+                    for (int i = 0; i < REQUESTS_PER_THREAD; i++) {
+                        double[] pair = pairs[sample(cdf, random.nextDouble())];
+                        fareService.calculateFareEstimate(request(pair, random));
+                    }
+                }));
+            }
+            for (Future<?> worker : workers) {
+                worker.get();
+            }
+        }
+        double seconds = (System.nanoTime() - start) / 1e9;
+
+        if (print) {
+            double computed = registry.get("app.cache.requests").tag("result", "miss").counter().count();
+            double ratio = registry.get("app.cache.hit.ratio").gauge().value();
+            System.out.printf("%-10s %,14.0f %10.3f %,12.0f%n",
+                    label, THREADS * (double) REQUESTS_PER_THREAD / seconds, ratio, computed);
+        }
+    }
+
+    private static FareEstimateRequest request(double[] pair, ThreadLocalRandom random) {
+        FareEstimateRequest request = new FareEstimateRequest();
+        request.setPickupLatitude(coordinate(pair[0] + random.nextDouble(-JITTER, JITTER)));
+        request.setPickupLongitude(coordinate(pair[1] + random.nextDouble(-JITTER, JITTER)));
+        request.setDropLatitude(coordinate(pair[2] + random.nextDouble(-JITTER, JITTER)));
+        request.setDropLongitude(coordinate(pair[3] + random.nextDouble(-JITTER, JITTER)));
+        return request;
+    }
+
+    private static BigDecimal coordinate(double value) {
+        return BigDecimal.valueOf(value).setScale(6, RoundingMode.HALF_UP);
+    }
+
+    private static double[][] pairs(Random random) {
+        double[][] pairs = new double[PAIRS][];
+        for (int i = 0; i < PAIRS; i++) {
+            pairs[i] = new double[]{
+                    MIN_LAT + random.nextDouble() * SPAN, MIN_LON + random.nextDouble() * SPAN,
+                    MIN_LAT + random.nextDouble() * SPAN, MIN_LON + random.nextDouble() * SPAN};
+        }
+        return pairs;
+    }
+
+    // Cumulative probabilities of ranks 1..n, where rank k has weight 1 / k^exponent
+    private static double[] zipfCdf(int n, double exponent) {
+        double[] cdf = new double[n];
+        double total = 0;
+        for (int k = 0; k < n; k++) {
+            total += 1.0 / Math.pow(k + 1, exponent);
+            cdf[k] = total;
+        }
+        for (int k = 0; k < n; k++) {
+            cdf[k] /= total;
+        }
+        return cdf;
+    }
+
+    private static int sample(double[] cdf, double uniform) {
+        int index = Arrays.binarySearch(cdf, uniform);
+        return Math.min(index >= 0 ? index : -index - 1, cdf.length - 1);
+    }
+}
@@ -0,0 +1,127 @@
+package com.arnavgpt.valoride.routing.graph;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.PriorityQueue;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+
+class ContractionHierarchyTest {
+
+    @Test
+    void hierarchyQueriesMatchPlainDijkstraOnRandomNetworks() {
+        Random random = new Random(42);
+        for (int round = 0; round < 20; round++) {
+            RoadNetwork network = randomNetwork(random, 50 + random.nextInt(250));
+            RoadGraph graph = ContractionHierarchy.build(network);
+
+            for (int query = 0; query < 100; query++) {
+                int from = random.nextInt(network.nodeCount());
+                int to = random.nextInt(network.nodeCount());
+                double expected = dijkstra(network, from)[to];
+
+                RoadGraph.Path path = graph.route(from, to);
+                if (expected == Double.POSITIVE_INFINITY) {
+                    assertThat(path).isNull();
+                } else {
+                    assertThat(path).isNotNull();
+                    assertThat(path.seconds()).isCloseTo(expected, within(1e-3 * Math.max(1, expected)));
+                }
+            }
+        }
+    }
+
+    @Test
+    void readsDrivableWaysAndRespectsOneway(@TempDir Path dir) throws Exception {
+        // a - b - c along a two-way residential street, c -> d one-way, a footway to e
+        Path file = dir.resolve("extract.osm");
+        Files.writeString(file, """
+                <?xml version="1.0" encoding="UTF-8"?>
+                <osm version="0.6">
+                  <node id="1" lat="12.9700" lon="77.5900"/>
+                  <node id="2" lat="12.9710" lon="77.5900"/>
+                  <node id="3" lat="12.9720" lon="77.5900"/>
+                  <node id="4" lat="12.9720" lon="77.5910"/>
+                  <node id="5" lat="12.9700" lon="77.5910"/>
+                  <way id="10">
+                    <nd ref="1"/><nd ref="2"/><nd ref="3"/>
+                    <tag k="highway" v="residential"/>
+                  </way>
+                  <way id="11">
+                    <nd ref="3"/><nd ref="4"/>
+                    <tag k="highway" v="secondary"/>
+                    <tag k="oneway" v="yes"/>
+                    <tag k="maxspeed" v="20"/>
+                  </way>
+                  <way id="12">
+                    <nd ref="1"/><nd ref="5"/>
+                    <tag k="highway" v="footway"/>
+                  </way>
+                </osm>
+                """);
+
+        RoadNetwork network = OsmRoadNetworkReader.read(file);
+        assertThat(network.nodeCount()).isEqualTo(4);
+
+        RoadGraph graph = ContractionHierarchy.build(network);
+        int a = graph.nearestNode(12.9700, 77.5900, 50);
+        int d = graph.nearestNode(12.9720, 77.5910, 50);
+        assertThat(graph.nearestNode(12.9700, 77.5910, 50)).isEqualTo(-1);
+
+        RoadGraph.Path there = graph.route(a, d);
+        assertThat(there).isNotNull();
+        assertThat(there.meters()).isCloseTo(222.4 + 108.5, within(2.0));
+        // 222 m at 20 km/h, then 108 m capped to the posted 20 km/h
+        assertThat(there.seconds()).isCloseTo((222.4 + 108.5) / (20 / 3.6), within(1.0));
+        assertThat(graph.route(d, a)).isNull();
+    }
+
+    private static RoadNetwork randomNetwork(Random random, int nodes) {
+        RoadNetwork.Builder builder = new RoadNetwork.Builder();
+        for (int i = 0; i < nodes; i++) {
+            builder.addNode(12.9 + random.nextDouble() * 0.1, 77.5 + random.nextDouble() * 0.1);
+        }
+        int edges = nodes * 3;
+        for (int e = 0; e < edges; e++) {
+            int from = random.nextInt(nodes);
+            // Mostly local streets, some long roads, a few of them one-way
+            int to = random.nextInt(10) < 8 ? Math.floorMod(from + random.nextInt(9) - 4, nodes) : random.nextInt(nodes);
+            double meters = Geo.meters(builder.latitude(from), builder.longitude(from),
+                    builder.latitude(to), builder.longitude(to));
+            double seconds = meters / (5 + random.nextInt(15));
+            builder.addEdge(from, to, seconds, meters);
+            if (random.nextInt(5) > 0) {
+                builder.addEdge(to, from, seconds, meters);
+            }
+        }
+        return builder.build();
+    }
+
+    private static double[] dijkstra(RoadNetwork network, int source) {
+        double[] cost = new double[network.nodeCount()];
+        Arrays.fill(cost, Double.POSITIVE_INFINITY);
+        cost[source] = 0;
+        PriorityQueue<double[]> queue = new PriorityQueue<>((x, y) -> Double.compare(x[0], y[0]));
+        queue.add(new double[]{0, source});
+        while (!queue.isEmpty()) {
+            double[] top = queue.poll();
+            int node = (int) top[1];
+            if (top[0] > cost[node]) {
+                continue;
+            }
+            for (int e = 0; e < network.edgeCount(); e++) {
+                if (network.edgeFrom[e] == node && top[0] + network.edgeSeconds[e] < cost[network.edgeTo[e]]) {
+                    cost[network.edgeTo[e]] = top[0] + network.edgeSeconds[e];
+                    queue.add(new double[]{cost[network.edgeTo[e]], network.edgeTo[e]});
+                }
+            }
+        }
+        return cost;
+    }
+}
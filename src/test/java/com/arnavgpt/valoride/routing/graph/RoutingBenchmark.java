@@ -0,0 +1,135 @@
+package com.arnavgpt.valoride.routing.graph;
+
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Random;
+
+/**
+ * Contraction time and point-to-point query latency of the routing graph. Uses the OSM extract
+ * given as bench.osm-file, or else a synthetic city: a square street grid with randomised
+ * block lengths and speeds, an arterial every tenth street, some one-way streets and a few
+ * missing blocks. Each block has shape nodes along it, as OSM ways do, so a grid side of 500
+ * gives about a million nodes.
+ *
+ * <pre>
+ * mvn -Psimulate test-compile exec:java -Dexec.mainClass=com.arnavgpt.valoride.routing.graph.RoutingBenchmark \
+ *     -Dbench.grid-side=1000 -Dbench.queries=100000
+ * </pre>
+ */
+public final class RoutingBenchmark {
+
+    private static final String OSM_FILE = System.getProperty("bench.osm-file", "");
+    private static final int GRID_SIDE = Integer.getInteger("bench.grid-side", 500);
+    private static final int SHAPE_NODES_PER_BLOCK = 2;
+    private static final int QUERIES = Integer.getInteger("bench.queries", 100_000);
+
+    // Roughly 110 m blocks from the south-west corner of Bengaluru
+    private static final double MIN_LAT = 12.85;
+    private static final double MIN_LON = 77.50;
+    private static final double BLOCK_DEGREES = 0.001;
+
+    private RoutingBenchmark() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        Random random = new Random(42);
+        long start = System.nanoTime();
+        RoadNetwork network = OSM_FILE.isBlank() ? syntheticCity(random) : OsmRoadNetworkReader.read(Path.of(OSM_FILE));
+        long loaded = System.nanoTime();
+        RoadGraph graph = ContractionHierarchy.build(network);
+        long built = System.nanoTime();
+
+        System.out.printf("%,d nodes, %,d edges: loaded in %,d ms, contracted in %,d ms into %,d upward edges%n",
+                network.nodeCount(), network.edgeCount(),
+                (loaded - start) / 1_000_000, (built - loaded) / 1_000_000, graph.edgeCount());
+
+        int[] from = new int[QUERIES];
+        int[] to = new int[QUERIES];
+        for (int i = 0; i < QUERIES; i++) {
+            from[i] = random.nextInt(network.nodeCount());
+            to[i] = random.nextInt(network.nodeCount());
+        }
+
+        // Warm up the JIT before timing
+        for (int i = 0; i < Math.min(QUERIES, 20_000); i++) {
+            graph.route(from[i], to[i]);
+        }
+
+        long[] nanos = new long[QUERIES];
+        int unreachable = 0;
+        for (int i = 0; i < QUERIES; i++) {
+            long queryStart = System.nanoTime();
+            if (graph.route(from[i], to[i]) == null) {
+                unreachable++;
+            }
+            nanos[i] = System.nanoTime() - queryStart;
+        }
+        Arrays.sort(nanos);
+
+        long snapStart = System.nanoTime();
+        for (int i = 0; i < QUERIES; i++) {
+            graph.nearestNode(graph.latitude(from[i]) + 0.0003, graph.longitude(from[i]) - 0.0003, 500);
+        }
+        long snapNanos = (System.nanoTime() - snapStart) / QUERIES;
+
+        System.out.printf("%,d random queries, %d unreachable: mean %.1f us, p50 %.1f us, p99 %.1f us, max %.1f us%n",
+                QUERIES, unreachable, Arrays.stream(nanos).average().orElse(0) / 1000,
+                nanos[QUERIES / 2] / 1000.0, nanos[(int) (QUERIES * 0.99)] / 1000.0, nanos[QUERIES - 1] / 1000.0);
+        System.out.printf("Snapping a point to the nearest node: mean %.1f us%n", snapNanos / 1000.0);
+    }
+
+    private static RoadNetwork syntheticCity(Random random) {
+        RoadNetwork.Builder builder = new RoadNetwork.Builder();
+        for (int row = 0; row < GRID_SIDE; row++) {
+            for (int column = 0; column < GRID_SIDE; column++) {
+                builder.addNode(MIN_LAT + (row + random.nextDouble() * 0.3) * BLOCK_DEGREES,
+                        MIN_LON + (column + random.nextDouble() * 0.3) * BLOCK_DEGREES);
+            }
+        }
+        for (int row = 0; row < GRID_SIDE; row++) {
+            for (int column = 0; column < GRID_SIDE; column++) {
+                int node = row * GRID_SIDE + column;
+                if (column + 1 < GRID_SIDE) {
+                    street(builder, random, node, node + 1, row % 10 == 0);
+                }
+                if (row + 1 < GRID_SIDE) {
+                    street(builder, random, node, node + GRID_SIDE, column % 10 == 0);
+                }
+            }
+        }
+        return builder.build();
+    }
+
+    private static void street(RoadNetwork.Builder builder, Random random, int a, int b, boolean arterial) {
+        if (!arterial && random.nextInt(20) == 0) {
+            return;
+        }
+        double kmh = arterial ? 40 + random.nextInt(20) : 15 + random.nextInt(15);
+        int oneway = arterial ? 0 : random.nextInt(8);
+
+        int previous = a;
+        for (int i = 1; i <= SHAPE_NODES_PER_BLOCK + 1; i++) {
+            int next = b;
+            if (i <= SHAPE_NODES_PER_BLOCK) {
+                double t = (double) i / (SHAPE_NODES_PER_BLOCK + 1);
+                next = builder.addNode(
+                        builder.latitude(a) + t * (builder.latitude(b) - builder.latitude(a)) + jitter(random),
+                        builder.longitude(a) + t * (builder.longitude(b) - builder.longitude(a)) + jitter(random));
+            }
+            double meters = Geo.meters(builder.latitude(previous), builder.longitude(previous),
+                    builder.latitude(next), builder.longitude(next));
+            double seconds = meters / (kmh / 3.6);
+            if (oneway != 1) {
+                builder.addEdge(previous, next, seconds, meters);
+            }
+            if (oneway != 2) {
+                builder.addEdge(next, previous, seconds, meters);
+            }
+            previous = next;
+        }
+    }
+
+    private static double jitter(Random random) {
+        return (random.nextDouble() - 0.5) * 0.0001;
+    }
+}
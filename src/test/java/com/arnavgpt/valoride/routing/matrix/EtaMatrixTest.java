@@ -0,0 +1,54 @@
+package com.arnavgpt.valoride.routing.matrix;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class EtaMatrixTest {
+
+    @TempDir
+    Path dir;
+
+    @Test
+    void mapsWrittenTimesByCell() throws IOException {
+        // 2 x 3 grid of 0.01 degree cells; cell 4 has no road
+        Path file = dir.resolve("eta.bin");
+        EtaMatrix.write(file, 0.01, 12.90, 77.50, 2, 3,
+                (from, to) -> from == 4 || to == 4 ? -1 : from * 100 + to + (from == 5 ? 70_000 : 0));
+
+        EtaMatrix matrix = EtaMatrix.open(file);
+        assertThat(matrix.cellCount()).isEqualTo(6);
+
+        int southWest = matrix.cell(12.905, 77.505);
+        int northEast = matrix.cell(12.915, 77.525);
+        assertThat(southWest).isZero();
+        assertThat(northEast).isEqualTo(5);
+        assertThat(matrix.seconds(southWest, 2)).isEqualTo(2);
+        assertThat(matrix.seconds(3, 1)).isEqualTo(301);
+        assertThat(matrix.seconds(0, 4)).isEqualTo(-1);
+        // Clamped below the unreachable marker
+        assertThat(matrix.seconds(northEast, 0)).isEqualTo(EtaMatrix.MAX_SECONDS);
+
+        assertThat(matrix.cell(12.895, 77.505)).isEqualTo(-1);
+        assertThat(matrix.cell(12.905, 77.535)).isEqualTo(-1);
+    }
+
+    @Test
+    void rejectsOtherFiles() throws IOException {
+        Path file = dir.resolve("not-a-matrix.bin");
+        Files.writeString(file, "x".repeat(64));
+        assertThatThrownBy(() -> EtaMatrix.open(file)).isInstanceOf(IOException.class);
+
+        Path truncated = dir.resolve("truncated.bin");
+        EtaMatrix.write(truncated, 0.01, 12.90, 77.50, 2, 2, (from, to) -> 60);
+        Files.write(truncated, Arrays.copyOf(Files.readAllBytes(truncated), 50));
+        assertThatThrownBy(() -> EtaMatrix.open(truncated)).isInstanceOf(IOException.class);
+    }
+}
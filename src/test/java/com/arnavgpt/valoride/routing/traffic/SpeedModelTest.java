@@ -0,0 +1,86 @@
+package com.arnavgpt.valoride.routing.traffic;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+
+class SpeedModelTest {
+
+    private static final long CELL = 42L;
+    private static final int MONDAY_9AM = 9;
+
+    @Test
+    void streamingMeanAndVarianceMatchTwoPass() {
+        Random random = new Random(7);
+        double[] paces = new double[500];
+        SpeedModel model = new SpeedModel();
+        for (int i = 0; i < paces.length; i++) {
+            paces[i] = 150 + random.nextGaussian() * 30;
+            model.add(CELL, MONDAY_9AM, paces[i]);
+        }
+
+        double mean = 0;
+        for (double pace : paces) {
+            mean += pace / paces.length;
+        }
+        double squares = 0;
+        for (double pace : paces) {
+            squares += (pace - mean) * (pace - mean);
+        }
+
+        assertThat(model.count(CELL, MONDAY_9AM)).isEqualTo(500);
+        assertThat(model.meanSecondsPerKm(CELL, MONDAY_9AM)).isCloseTo(mean, within(0.01));
+        assertThat(model.variance(CELL, MONDAY_9AM)).isCloseTo(squares / (paces.length - 1), within(1.0));
+        // The all-hours slot sees the same trips
+        assertThat(model.count(CELL, -1)).isEqualTo(500);
+        assertThat(model.count(CELL, MONDAY_9AM + 1)).isZero();
+    }
+
+    @Test
+    void mergingModelsEqualsAddingEveryTripToOne() {
+        Random random = new Random(11);
+        SpeedModel whole = new SpeedModel();
+        SpeedModel first = new SpeedModel();
+        SpeedModel second = new SpeedModel();
+        for (int i = 0; i < 1000; i++) {
+            int hour = random.nextInt(SpeedModel.HOURS_PER_WEEK);
+            double pace = 100 + random.nextDouble() * 200;
+            whole.add(CELL, hour, pace);
+            (i % 3 == 0 ? first : second).add(CELL, hour, pace);
+        }
+
+        first.merge(second);
+
+        assertThat(first.observations()).isEqualTo(1000);
+        for (int hour = -1; hour < SpeedModel.HOURS_PER_WEEK; hour++) {
+            assertThat(first.count(CELL, hour)).isEqualTo(whole.count(CELL, hour));
+            assertThat(first.meanSecondsPerKm(CELL, hour)).isCloseTo(whole.meanSecondsPerKm(CELL, hour), within(0.01));
+            if (whole.count(CELL, hour) > 1) {
+                assertThat(first.variance(CELL, hour)).isCloseTo(whole.variance(CELL, hour), within(1.0));
+            }
+        }
+    }
+
+    @Test
+    void snapshotRoundTripsOnlyTheSlotsInUse() {
+        SpeedModel model = new SpeedModel();
+        model.add(CELL, MONDAY_9AM, 120);
+        model.add(CELL, MONDAY_9AM, 180);
+        model.add(CELL + 1, 100, 90);
+
+        byte[] snapshot = model.toSnapshot();
+        SpeedModel restored = SpeedModel.fromSnapshot(snapshot);
+
+        // Header, two cell headers and four used slots
+        assertThat(snapshot).hasSize(16 + 2 * 10 + 4 * 14);
+        assertThat(restored.observations()).isEqualTo(3);
+        assertThat(restored.count(CELL, MONDAY_9AM)).isEqualTo(2);
+        assertThat(restored.meanSecondsPerKm(CELL, MONDAY_9AM)).isEqualTo(150);
+        assertThat(restored.variance(CELL, MONDAY_9AM)).isEqualTo(1800);
+        assertThat(restored.meanSecondsPerKm(CELL + 1, -1)).isEqualTo(90);
+        assertThat(SpeedModel.fromSnapshot(new byte[0]).cellCount()).isZero();
+    }
+}
@@ -0,0 +1,138 @@
+package com.arnavgpt.valoride.simulator;
+
+import com.arnavgpt.valoride.user.dto.LoginRequest;
+import com.arnavgpt.valoride.user.dto.RegisterRequest;
+import com.arnavgpt.valoride.user.entity.Role;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.UUID;
+
+/**
+ * JSON calls to the real REST API. Every call is timed under its endpoint template, such as
+ * "POST /v1/rides/{id}/accept", so the report groups them whatever the ids.
+ */
+class ApiClient {
+
+    private static final String LOGIN = "POST /v1/auth/login";
+
+    private final HttpClient http = HttpClient.newBuilder()
+            .version(HttpClient.Version.HTTP_1_1)
+            .connectTimeout(Duration.ofSeconds(5))
+            .build();
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final String baseUrl;
+    private final LatencyReport report;
+
+    ApiClient(String baseUrl, LatencyReport report) {
+        this.baseUrl = baseUrl.endsWith("/") ? baseUrl.substring(0, baseUrl.length() - 1) : baseUrl;
+        this.report = report;
+    }
+
+    /**
+     * Register a user and keep their credentials, so the session can log in again when its token expires
+     */
+    Session register(String email, String name, Role role) {
+        RegisterRequest request = new RegisterRequest();
+        request.setEmail(email);
+        request.setPassword(Session.PASSWORD);
+        request.setName(name);
+        request.setRole(role);
+        JsonNode data = send(null, "POST /v1/auth/register", "POST", "/v1/auth/register", request);
+        return new Session(email, Session.PASSWORD, data.path("accessToken").asText(),
+                UUID.fromString(data.path("user").path("id").asText()));
+    }
+
+    Session login(String email, String password) {
+        LoginRequest request = new LoginRequest();
+        request.setEmail(email);
+        request.setPassword(password);
+        JsonNode data = send(null, LOGIN, "POST", "/v1/auth/login", request);
+        return new Session(email, password, data.path("accessToken").asText(),
+                UUID.fromString(data.path("user").path("id").asText()));
+    }
+
+    JsonNode get(Session session, String endpoint, String path) {
+        return send(session, endpoint, "GET", path, null);
+    }
+
+    JsonNode post(Session session, String endpoint, String path, Object body) {
+        return send(session, endpoint, "POST", path, body);
+    }
+
+    JsonNode put(Session session, String endpoint, String path, Object body) {
+        return send(session, endpoint, "PUT", path, body);
+    }
+
+    /**
+     * The response's data field; throws ApiException for any status outside 2xx
+     */
+    private JsonNode send(Session session, String endpoint, String method, String path, Object body) {
+        HttpResponse<String> response = exchange(session, endpoint, method, path, body);
+        // An expired access token is answered with 403 like any unauthenticated call; log in again once
+        if ((response.statusCode() == 401 || response.statusCode() == 403) && session != null) {
+            session.renew(login(session.email(), session.password()).accessToken());
+            response = exchange(session, endpoint, method, path, body);
+        }
+        if (response.statusCode() / 100 != 2) {
+            throw new ApiException(endpoint, response.statusCode(), response.body());
+        }
+        try {
+            return objectMapper.readTree(response.body()).path("data");
+        } catch (IOException e) {
+            throw new ApiException(endpoint, response.statusCode(), response.body());
+        }
+    }
+
+    private HttpResponse<String> exchange(Session session, String endpoint, String method, String path, Object body) {
+        HttpRequest.Builder request = HttpRequest.newBuilder(URI.create(baseUrl + path))
+                .timeout(Duration.ofSeconds(30))
+                .header("Accept", "application/json");
+        if (session != null) {
+            request.header("Authorization", "Bearer " + session.accessToken());
+        }
+        try {
+            if (body != null) {
+                request.header("Content-Type", "application/json")
+                        .method(method, HttpRequest.BodyPublishers.ofByteArray(objectMapper.writeValueAsBytes(body)));
+            } else {
+                request.method(method, HttpRequest.BodyPublishers.noBody());
+            }
+
+            long start = System.nanoTime();
+            boolean success = false;
+            try {
+                HttpResponse<String> response = http.send(request.build(), HttpResponse.BodyHandlers.ofString());
+                success = response.statusCode() / 100 == 2;
+                return response;
+            } finally {
+                report.recordRequest(endpoint, System.nanoTime() - start, success);
+            }
+        } catch (IOException e) {
+            throw new ApiException(endpoint, 0, e.toString());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ApiException(endpoint, 0, "interrupted");
+        }
+    }
+
+    static class ApiException extends RuntimeException {
+
+        private final int status;
+
+        ApiException(String endpoint, int status, String body) {
+            super(endpoint + " returned " + status + ": " + body);
+            this.status = status;
+        }
+
+        int status() {
+            return status;
+        }
+    }
+}
@@ -0,0 +1,69 @@
+package com.arnavgpt.valoride.simulator;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * The simulated city, as minLat,minLon,maxLat,maxLon
+ */
+record BoundingBox(double minLat, double minLon, double maxLat, double maxLon) {
+
+    private static final double EARTH_RADIUS_KM = 6371.0;
+
+    static BoundingBox parse(String value) {
+        String[] parts = value.split(",");
+        if (parts.length != 4) {
+            throw new IllegalArgumentException("Expected minLat,minLon,maxLat,maxLon but got " + value);
+        }
+        return new BoundingBox(Double.parseDouble(parts[0].trim()), Double.parseDouble(parts[1].trim()),
+                Double.parseDouble(parts[2].trim()), Double.parseDouble(parts[3].trim()));
+    }
+
+    Point randomPoint() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        return new Point(random.nextDouble(minLat, maxLat), random.nextDouble(minLon, maxLon));
+    }
+
+    /**
+     * A point within the box, at most maxKm from the given one
+     */
+    Point near(Point from, double maxKm) {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        double dLat = Math.toDegrees(random.nextDouble(-maxKm, maxKm) / EARTH_RADIUS_KM);
+        double dLon = Math.toDegrees(random.nextDouble(-maxKm, maxKm)
+                / (EARTH_RADIUS_KM * Math.cos(Math.toRadians(from.lat()))));
+        return new Point(clamp(from.lat() + dLat, minLat, maxLat), clamp(from.lon() + dLon, minLon, maxLon));
+    }
+
+    private static double clamp(double value, double min, double max) {
+        return Math.max(min, Math.min(max, value));
+    }
+
+    record Point(double lat, double lon) {
+
+        BigDecimal latitude() {
+            return BigDecimal.valueOf(lat).setScale(6, RoundingMode.HALF_UP);
+        }
+
+        BigDecimal longitude() {
+            return BigDecimal.valueOf(lon).setScale(6, RoundingMode.HALF_UP);
+        }
+
+        double distanceKm(Point other) {
+            double dLat = Math.toRadians(other.lat - lat);
+            double dLon = Math.toRadians(other.lon - lon);
+            double a = Math.sin(dLat / 2) * Math.sin(dLat / 2)
+                    + Math.cos(Math.toRadians(lat)) * Math.cos(Math.toRadians(other.lat))
+                    * Math.sin(dLon / 2) * Math.sin(dLon / 2);
+            return 2 * EARTH_RADIUS_KM * Math.asin(Math.sqrt(a));
+        }
+
+        /**
+         * The point a fraction of the way to the target, along a straight line
+         */
+        Point towards(Point target, double fraction) {
+            return new Point(lat + (target.lat - lat) * fraction, lon + (target.lon - lon) * fraction);
+        }
+    }
+}
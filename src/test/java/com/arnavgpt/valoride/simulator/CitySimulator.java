@@ -0,0 +1,199 @@
+package com.arnavgpt.valoride.simulator;
+
+import com.arnavgpt.valoride.ValoRideApplication;
+import com.arnavgpt.valoride.driver.dto.DriverRegistrationRequest;
+import com.arnavgpt.valoride.driver.entity.VehicleType;
+import com.arnavgpt.valoride.user.entity.Role;
+import com.fasterxml.jackson.databind.JsonNode;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Drives a synthetic city against the REST API: virtual drivers stream their location and go online
+ * and offline, virtual riders request rides and take them through to payment and rating. Prints
+ * per-endpoint latency percentiles and throughput at the end.
+ *
+ * <pre>
+ * mvn -Psimulate test-compile exec:java -Dsim.riders=200 -Dsim.drivers=120 -Dsim.duration=10m
+ * </pre>
+ *
+ * Without sim.base-url the application is started in-process against the local Postgres and Redis.
+ */
+public final class CitySimulator {
+
+    private static final Logger logger = LoggerFactory.getLogger(CitySimulator.class);
+
+    // Roughly the fleet mix of an Indian metro
+    private static final List<VehicleType> FLEET_MIX = List.of(
+            VehicleType.SEDAN, VehicleType.SEDAN, VehicleType.AUTO, VehicleType.AUTO,
+            VehicleType.BIKE, VehicleType.BIKE, VehicleType.SUV);
+
+    // Time for trips in flight when the duration ends to finish
+    private static final Duration GRACE = Duration.ofMinutes(2);
+
+    // The last four digits of a vehicle number are the driver's index in the run
+    private static final int MAX_DRIVERS_PER_RUN = 10_000;
+
+    private CitySimulator() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        SimulationConfig config = SimulationConfig.fromSystemProperties();
+        ConfigurableApplicationContext embedded = null;
+        String baseUrl = config.baseUrl();
+        if (baseUrl == null || baseUrl.isBlank()) {
+            System.setProperty("spring.devtools.restart.enabled", "false");
+            // Keep the application's own logging quiet so the report is not buried in SQL
+            embedded = new SpringApplicationBuilder(ValoRideApplication.class).run("--server.port=0",
+                    "--logging.level.org.hibernate.SQL=WARN", "--logging.level.com.arnavgpt.valoride=INFO");
+            baseUrl = "http://localhost:" + embedded.getEnvironment().getProperty("local.server.port") + "/api";
+        }
+
+        try {
+            run(config, baseUrl);
+        } finally {
+            if (embedded != null) {
+                embedded.close();
+            }
+        }
+    }
+
+    private static void run(SimulationConfig config, String baseUrl) throws Exception {
+        if (config.drivers() > MAX_DRIVERS_PER_RUN) {
+            throw new IllegalArgumentException("At most " + MAX_DRIVERS_PER_RUN + " drivers per run");
+        }
+        String runId = Long.toString(nextRunNumber(config));
+        LatencyReport report = new LatencyReport(config.duration().plus(GRACE));
+        ApiClient api = new ApiClient(baseUrl, report);
+        Dispatcher dispatcher = new Dispatcher();
+
+        logger.info("Setting up {} drivers and {} riders against {}", config.drivers(), config.riders(), baseUrl);
+        Session admin = createAdmin(config, api, runId);
+
+        // Everyone is registered before anyone starts, so the run's duration excludes setup
+        Set<VehicleType> fleet = EnumSet.noneOf(VehicleType.class);
+        List<VirtualDriverSetup> drivers = new ArrayList<>();
+        for (int i = 0; i < config.drivers(); i++) {
+            VehicleType vehicleType = FLEET_MIX.get(i % FLEET_MIX.size());
+            drivers.add(registerDriver(api, admin, runId, i, vehicleType));
+            fleet.add(vehicleType);
+        }
+        List<Session> riders = new ArrayList<>();
+        for (int i = 0; i < config.riders(); i++) {
+            riders.add(api.register("sim-rider-" + runId + "-" + i + "@valoride.test", "Rider " + i, Role.RIDER));
+        }
+        Instant setupDone = Instant.now();
+
+        Instant stopAt = setupDone.plus(config.duration());
+        List<Runnable> users = new ArrayList<>();
+        for (VirtualDriverSetup setup : drivers) {
+            VirtualDriver driver = new VirtualDriver(setup.session(), setup.vehicleType(), config, api, report, stopAt);
+            dispatcher.register(setup.driverId(), driver);
+            users.add(driver);
+        }
+        List<VehicleType> vehicleTypes = List.copyOf(fleet);
+        for (Session rider : riders) {
+            users.add(new VirtualRider(rider, config, api, dispatcher, report, stopAt, vehicleTypes));
+        }
+
+        logger.info("Running for {}", config.duration());
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            users.forEach(executor::submit);
+            executor.shutdown();
+            if (!executor.awaitTermination(config.duration().plus(GRACE).toMillis(), TimeUnit.MILLISECONDS)) {
+                logger.warn("Virtual users still busy after the grace period; stopping them");
+                executor.shutdownNow();
+            }
+        }
+        report.print(System.out, Duration.between(setupDone, Instant.now()));
+    }
+
+    private record VirtualDriverSetup(Session session, UUID driverId, VehicleType vehicleType) {
+    }
+
+    private static VirtualDriverSetup registerDriver(ApiClient api, Session admin, String runId, int index,
+                                                     VehicleType vehicleType) {
+        Session session = api.register("sim-driver-" + runId + "-" + index + "@valoride.test",
+                "Driver " + index, Role.DRIVER);
+        DriverRegistrationRequest request = new DriverRegistrationRequest(
+                "SIM-" + runId + "-" + index, vehicleNumber(runId, index), vehicleType);
+        JsonNode driver = api.post(session, "POST /v1/drivers/register", "/v1/drivers/register", request);
+        UUID driverId = UUID.fromString(driver.path("id").asText());
+        api.post(admin, "POST /v1/admin/drivers/{id}/approve", "/v1/admin/drivers/" + driverId + "/approve", null);
+        return new VirtualDriverSetup(session, driverId, vehicleType);
+    }
+
+    /**
+     * Vehicle numbers are unique, so each run registers under its own series of plates, taken
+     * from its run number, and the last four digits are the driver index: AA00AA0000 to
+     * AA00AA0119 for the first run of 120 drivers, AA00AB0000 onwards for the next.
+     */
+    private static String vehicleNumber(String runId, int index) {
+        long series = Long.parseLong(runId);
+        if (series >= 26 * 26 * 100 * 26 * 26) {
+            throw new IllegalStateException("Run " + runId + " is past the last vehicle number series");
+        }
+        int letters = (int) (series % (26 * 26));
+        int district = (int) (series / (26 * 26) % 100);
+        int state = (int) (series / (26 * 26 * 100));
+        return "%c%c%02d%c%c%04d".formatted((char) ('A' + state / 26), (char) ('A' + state % 26), district,
+                (char) ('A' + letters / 26), (char) ('A' + letters % 26), index);
+    }
+
+    /**
+     * One more than the highest run number of an earlier run's admin. Two runs started at the
+     * same moment get the same number, and the second then fails creating its admin.
+     */
+    private static long nextRunNumber(SimulationConfig config) throws SQLException {
+        String sql = "SELECT COALESCE(MAX(CAST(substring(email FROM '^sim-admin-([0-9]+)@') AS BIGINT)) + 1, 0) "
+                + "FROM users WHERE email ~ '^sim-admin-[0-9]+@'";
+        try (Connection connection = DriverManager.getConnection(config.dbUrl(), config.dbUser(), config.dbPassword());
+             PreparedStatement statement = connection.prepareStatement(sql);
+             ResultSet resultSet = statement.executeQuery()) {
+            resultSet.next();
+            return resultSet.getLong(1);
+        }
+    }
+
+    /**
+     * Drivers need an admin's approval, and the API never hands out the ADMIN role, so the run's
+     * admin is inserted straight into the database and then logs in like anyone else.
+     */
+    private static Session createAdmin(SimulationConfig config, ApiClient api, String runId) throws SQLException {
+        String email = "sim-admin-" + runId + "@valoride.test";
+        String sql = "INSERT INTO users (id, email, password, name, role, email_verified, is_active, created_at, updated_at) "
+                + "VALUES (?, ?, ?, ?, 'ADMIN', true, true, ?, ?)";
+        try (Connection connection = DriverManager.getConnection(config.dbUrl(), config.dbUser(), config.dbPassword());
+             PreparedStatement statement = connection.prepareStatement(sql)) {
+            Timestamp now = Timestamp.from(Instant.now());
+            statement.setObject(1, UUID.randomUUID());
+            statement.setString(2, email);
+            statement.setString(3, new BCryptPasswordEncoder().encode(Session.PASSWORD));
+            statement.setString(4, "Simulation Admin");
+            statement.setTimestamp(5, now);
+            statement.setTimestamp(6, now);
+            statement.executeUpdate();
+        }
+        return api.login(email, Session.PASSWORD);
+    }
+}
@@ -0,0 +1,32 @@
+package com.arnavgpt.valoride.simulator;
+
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Offers a rider's trip to the drivers the nearby search returned, nearest first. This is the
+ * simulator's stand-in for drivers being notified of requests; accepting still goes through the API.
+ */
+class Dispatcher {
+
+    private final Map<UUID, VirtualDriver> driversById = new ConcurrentHashMap<>();
+
+    void register(UUID driverId, VirtualDriver driver) {
+        driversById.put(driverId, driver);
+    }
+
+    /**
+     * Hand the trip to the first idle, online driver among the candidates
+     */
+    boolean offer(Trip trip, List<UUID> candidateDriverIds) {
+        for (UUID driverId : candidateDriverIds) {
+            VirtualDriver driver = driversById.get(driverId);
+            if (driver != null && driver.tryAssign(trip)) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
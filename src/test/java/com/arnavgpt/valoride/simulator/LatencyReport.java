@@ -0,0 +1,75 @@
+package com.arnavgpt.valoride.simulator;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.distribution.HistogramSnapshot;
+import io.micrometer.core.instrument.distribution.ValueAtPercentile;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+import java.io.PrintStream;
+import java.time.Duration;
+import java.util.Comparator;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Client-side latency per endpoint and lifecycle counts, printed as a table at the end of a run
+ */
+class LatencyReport {
+
+    private static final String REQUEST_TIMER = "sim.request";
+    private static final String OUTCOME_COUNTER = "sim.outcome";
+    private static final double[] PERCENTILES = {0.5, 0.9, 0.95, 0.99};
+
+    private final MeterRegistry registry = new SimpleMeterRegistry();
+    private final Duration statisticsWindow;
+
+    LatencyReport(Duration runLength) {
+        // Percentiles must cover the whole run rather than decay over Micrometer's default two minutes
+        this.statisticsWindow = runLength.multipliedBy(2).plusMinutes(10);
+    }
+
+    void recordRequest(String endpoint, long nanos, boolean success) {
+        Timer.builder(REQUEST_TIMER)
+                .tag("endpoint", endpoint)
+                .tag("result", success ? "ok" : "error")
+                .publishPercentiles(PERCENTILES)
+                .percentilePrecision(2)
+                .distributionStatisticExpiry(statisticsWindow)
+                .distributionStatisticBufferLength(1)
+                .register(registry)
+                .record(nanos, TimeUnit.NANOSECONDS);
+    }
+
+    void recordOutcome(String outcome) {
+        Counter.builder(OUTCOME_COUNTER).tag("outcome", outcome).register(registry).increment();
+    }
+
+    void print(PrintStream out, Duration elapsed) {
+        double seconds = Math.max(1, elapsed.toMillis()) / 1000.0;
+        out.printf("%nRequests over %.0f s (latency in ms)%n", seconds);
+        out.printf("%-34s %-6s %9s %9s %8s %8s %8s %8s %8s%n",
+                "endpoint", "result", "count", "req/s", "p50", "p90", "p95", "p99", "max");
+
+        long total = 0;
+        for (Timer timer : registry.find(REQUEST_TIMER).timers().stream()
+                .sorted(Comparator.comparing((Timer t) -> t.getId().getTag("endpoint"))
+                        .thenComparing(t -> t.getId().getTag("result")))
+                .toList()) {
+            HistogramSnapshot snapshot = timer.takeSnapshot();
+            out.printf("%-34s %-6s %9d %9.1f", timer.getId().getTag("endpoint"), timer.getId().getTag("result"),
+                    snapshot.count(), snapshot.count() / seconds);
+            for (ValueAtPercentile percentile : snapshot.percentileValues()) {
+                out.printf(" %8.1f", percentile.value(TimeUnit.MILLISECONDS));
+            }
+            out.printf(" %8.1f%n", snapshot.max(TimeUnit.MILLISECONDS));
+            total += snapshot.count();
+        }
+        out.printf("%-41s %9d %9.1f%n", "total", total, total / seconds);
+
+        out.printf("%nRides%n");
+        registry.find(OUTCOME_COUNTER).counters().stream()
+                .sorted(Comparator.comparing(counter -> counter.getId().getTag("outcome")))
+                .forEach(counter -> out.printf("%-34s %9.0f%n", counter.getId().getTag("outcome"), counter.count()));
+    }
+}
@@ -0,0 +1,38 @@
+package com.arnavgpt.valoride.simulator;
+
+import java.time.Duration;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Waiting between actions. Virtual users run on virtual threads, so sleeping is cheap.
+ */
+final class Pacing {
+
+    // Simulated driving speed through city traffic
+    private static final double SPEED_KMH = 25.0;
+
+    private Pacing() {
+    }
+
+    static void sleep(Duration duration) throws InterruptedException {
+        if (!duration.isNegative() && !duration.isZero()) {
+            Thread.sleep(duration);
+        }
+    }
+
+    /**
+     * A random wait with the given mean, so virtual users do not move in lockstep
+     */
+    static Duration exponential(Duration mean) {
+        double sample = -Math.log(1.0 - ThreadLocalRandom.current().nextDouble());
+        return Duration.ofMillis((long) (mean.toMillis() * sample));
+    }
+
+    /**
+     * Real time to drive the distance, with simulated time running timeScale times faster
+     */
+    static Duration driving(double distanceKm, double timeScale) {
+        double simulatedSeconds = distanceKm / SPEED_KMH * 3600;
+        return Duration.ofMillis((long) (simulatedSeconds / timeScale * 1000));
+    }
+}
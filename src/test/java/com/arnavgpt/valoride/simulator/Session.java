@@ -0,0 +1,43 @@
+package com.arnavgpt.valoride.simulator;
+
+import java.util.UUID;
+
+/**
+ * A logged-in virtual user. The access token is replaced when the API rejects it as expired.
+ */
+class Session {
+
+    static final String PASSWORD = "simulated-password";
+
+    private final String email;
+    private final String password;
+    private final UUID userId;
+    private volatile String accessToken;
+
+    Session(String email, String password, String accessToken, UUID userId) {
+        this.email = email;
+        this.password = password;
+        this.accessToken = accessToken;
+        this.userId = userId;
+    }
+
+    String email() {
+        return email;
+    }
+
+    String password() {
+        return password;
+    }
+
+    UUID userId() {
+        return userId;
+    }
+
+    String accessToken() {
+        return accessToken;
+    }
+
+    void renew(String accessToken) {
+        this.accessToken = accessToken;
+    }
+}
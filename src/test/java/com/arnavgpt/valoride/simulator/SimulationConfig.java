@@ -0,0 +1,63 @@
+package com.arnavgpt.valoride.simulator;
+
+import org.springframework.boot.convert.DurationStyle;
+
+import java.time.Duration;
+
+/**
+ * Simulation settings, read from sim.* system properties (mvn -Psimulate ... -Dsim.riders=500).
+ * Durations accept 30s, 5m and similar.
+ *
+ * @param baseUrl          API root such as http://localhost:8080/api; blank starts the application in-process
+ * @param riders           virtual riders
+ * @param drivers          virtual drivers
+ * @param duration         how long riders keep requesting rides; trips in flight are then allowed to finish
+ * @param city             bounding box every pickup, drop and driver position falls in
+ * @param locationInterval how often an online driver sends its position
+ * @param timeScale        simulated seconds per real second, applied to driving time only
+ * @param riderIdle        mean pause between a rider's rides
+ * @param driverOnline     mean time a driver stays online between breaks
+ * @param driverOffline    mean length of a driver's break
+ * @param matchTimeout     how long a rider waits for a driver before cancelling
+ * @param dbUrl            database the server uses, for creating the admin that approves drivers
+ * @param dbUser           database user
+ * @param dbPassword       database password
+ */
+record SimulationConfig(
+        String baseUrl,
+        int riders,
+        int drivers,
+        Duration duration,
+        BoundingBox city,
+        Duration locationInterval,
+        double timeScale,
+        Duration riderIdle,
+        Duration driverOnline,
+        Duration driverOffline,
+        Duration matchTimeout,
+        String dbUrl,
+        String dbUser,
+        String dbPassword) {
+
+    static SimulationConfig fromSystemProperties() {
+        return new SimulationConfig(
+                System.getProperty("sim.base-url", ""),
+                Integer.getInteger("sim.riders", 50),
+                Integer.getInteger("sim.drivers", 30),
+                duration("sim.duration", "5m"),
+                BoundingBox.parse(System.getProperty("sim.city", "12.85,77.50,13.05,77.70")),
+                duration("sim.location-interval", "3s"),
+                Double.parseDouble(System.getProperty("sim.time-scale", "20")),
+                duration("sim.rider-idle", "20s"),
+                duration("sim.driver-online", "3m"),
+                duration("sim.driver-offline", "30s"),
+                duration("sim.match-timeout", "30s"),
+                System.getProperty("sim.db.url", "jdbc:postgresql://localhost:5432/valoride"),
+                System.getProperty("sim.db.user", "user"),
+                System.getProperty("sim.db.password", "pass"));
+    }
+
+    private static Duration duration(String property, String defaultValue) {
+        return DurationStyle.detectAndParse(System.getProperty(property, defaultValue));
+    }
+}
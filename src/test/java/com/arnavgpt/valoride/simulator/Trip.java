@@ -0,0 +1,31 @@
+package com.arnavgpt.valoride.simulator;
+
+import com.arnavgpt.valoride.driver.entity.VehicleType;
+
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * A requested ride, handed from its rider to the driver who takes it. The futures are how the
+ * two sides wait on each other, standing in for the push notifications a real app would get.
+ */
+class Trip {
+
+    final UUID rideId;
+    final VehicleType vehicleType;
+    final BoundingBox.Point pickup;
+    final BoundingBox.Point drop;
+
+    // Completed by the driver once the API accepted, or exceptionally when it refused
+    final CompletableFuture<Void> accepted = new CompletableFuture<>();
+    final CompletableFuture<Void> completed = new CompletableFuture<>();
+    // Completed by the rider with the cash payment the driver then confirms
+    final CompletableFuture<UUID> payment = new CompletableFuture<>();
+
+    Trip(UUID rideId, VehicleType vehicleType, BoundingBox.Point pickup, BoundingBox.Point drop) {
+        this.rideId = rideId;
+        this.vehicleType = vehicleType;
+        this.pickup = pickup;
+        this.drop = drop;
+    }
+}
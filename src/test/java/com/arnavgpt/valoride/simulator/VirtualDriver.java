@@ -0,0 +1,169 @@
+package com.arnavgpt.valoride.simulator;
+
+import com.arnavgpt.valoride.driver.dto.AvailabilityUpdateRequest;
+import com.arnavgpt.valoride.driver.dto.LocationUpdateRequest;
+import com.arnavgpt.valoride.driver.entity.VehicleType;
+import com.arnavgpt.valoride.payment.dto.ConfirmCashPaymentRequest;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.UUID;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * A driver who goes online, streams their position, takes the trips offered to them through
+ * accept, arrive, start and complete, confirms the rider's cash, and takes breaks offline.
+ */
+class VirtualDriver implements Runnable {
+
+    private static final Logger logger = LoggerFactory.getLogger(VirtualDriver.class);
+    private static final Duration PAYMENT_TIMEOUT = Duration.ofSeconds(60);
+
+    private final Session session;
+    private final VehicleType vehicleType;
+    private final SimulationConfig config;
+    private final ApiClient api;
+    private final LatencyReport report;
+    private final Instant stopAt;
+
+    private final BlockingQueue<Trip> offers = new LinkedBlockingQueue<>(1);
+    private final AtomicBoolean busy = new AtomicBoolean();
+    private volatile boolean online;
+    private BoundingBox.Point position;
+
+    VirtualDriver(Session session, VehicleType vehicleType, SimulationConfig config, ApiClient api,
+                  LatencyReport report, Instant stopAt) {
+        this.session = session;
+        this.vehicleType = vehicleType;
+        this.config = config;
+        this.api = api;
+        this.report = report;
+        this.stopAt = stopAt;
+        this.position = config.city().randomPoint();
+    }
+
+    /**
+     * Take the trip if online and not already on one
+     */
+    boolean tryAssign(Trip trip) {
+        if (online && trip.vehicleType == vehicleType && busy.compareAndSet(false, true)) {
+            offers.add(trip);
+            return true;
+        }
+        return false;
+    }
+
+    @Override
+    public void run() {
+        try {
+            while (Instant.now().isBefore(stopAt)) {
+                sendLocation();
+                setOnline(true);
+                Instant breakAt = Instant.now().plus(Pacing.exponential(config.driverOnline()));
+                while (Instant.now().isBefore(breakAt) && Instant.now().isBefore(stopAt)) {
+                    Trip trip = offers.poll(config.locationInterval().toMillis(), TimeUnit.MILLISECONDS);
+                    if (trip != null) {
+                        drive(trip);
+                    } else {
+                        position = config.city().near(position, 0.3);
+                        sendLocation();
+                    }
+                }
+                goOffline();
+                Pacing.sleep(Pacing.exponential(config.driverOffline()));
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (RuntimeException e) {
+            logger.warn("Driver {} stopped: {}", session.email(), e.getMessage());
+        }
+    }
+
+    private void goOffline() throws InterruptedException {
+        online = false;
+        // A trip offered just before going offline is still driven
+        Trip trip = offers.poll();
+        if (trip != null) {
+            drive(trip);
+        }
+        setOnline(false);
+    }
+
+    private void drive(Trip trip) throws InterruptedException {
+        String ride = "/v1/rides/" + trip.rideId;
+        try {
+            try {
+                api.post(session, "POST /v1/rides/{id}/accept", ride + "/accept", null);
+            } catch (ApiClient.ApiException e) {
+                report.recordOutcome("accept refused");
+                trip.accepted.completeExceptionally(e);
+                return;
+            }
+            trip.accepted.complete(null);
+
+            driveTo(trip.pickup);
+            api.post(session, "POST /v1/rides/{id}/arrived", ride + "/arrived", null);
+            api.post(session, "POST /v1/rides/{id}/start", ride + "/start", null);
+            driveTo(trip.drop);
+            api.post(session, "POST /v1/rides/{id}/complete", ride + "/complete", null);
+            trip.completed.complete(null);
+
+            UUID paymentId = trip.payment.get(PAYMENT_TIMEOUT.toMillis(), TimeUnit.MILLISECONDS);
+            ConfirmCashPaymentRequest confirm = new ConfirmCashPaymentRequest();
+            confirm.setPaymentId(paymentId);
+            api.post(session, "POST /v1/payments/cash/confirm", "/v1/payments/cash/confirm", confirm);
+        } catch (ApiClient.ApiException e) {
+            report.recordOutcome("driver error");
+            trip.completed.completeExceptionally(e);
+            logger.debug("Driver {} abandoned ride {}: {}", session.email(), trip.rideId, e.getMessage());
+        } catch (ExecutionException | TimeoutException e) {
+            report.recordOutcome("payment not received");
+        } finally {
+            busy.set(false);
+        }
+    }
+
+    /**
+     * Move to the target along a straight line, reporting the position every location interval
+     */
+    private void driveTo(BoundingBox.Point target) throws InterruptedException {
+        BoundingBox.Point start = position;
+        Duration total = Pacing.driving(start.distanceKm(target), config.timeScale());
+        long steps = Math.max(1, total.toMillis() / config.locationInterval().toMillis());
+        for (long step = 1; step <= steps; step++) {
+            Pacing.sleep(total.dividedBy(steps));
+            position = start.towards(target, (double) step / steps);
+            sendLocation();
+        }
+    }
+
+    // A failed position or availability update is counted in the report and the driver carries on
+    private void sendLocation() {
+        LocationUpdateRequest request = new LocationUpdateRequest();
+        request.setLatitude(position.latitude());
+        request.setLongitude(position.longitude());
+        try {
+            api.put(session, "PUT /v1/drivers/location", "/v1/drivers/location", request);
+        } catch (ApiClient.ApiException e) {
+            logger.debug("Driver {} location update failed: {}", session.email(), e.getMessage());
+        }
+    }
+
+    private void setOnline(boolean available) {
+        AvailabilityUpdateRequest request = new AvailabilityUpdateRequest();
+        request.setAvailable(available);
+        try {
+            api.put(session, "PUT /v1/drivers/availability", "/v1/drivers/availability", request);
+            online = available;
+        } catch (ApiClient.ApiException e) {
+            logger.debug("Driver {} availability update failed: {}", session.email(), e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,166 @@
+package com.arnavgpt.valoride.simulator;
+
+import com.arnavgpt.valoride.driver.dto.NearbyDriversRequest;
+import com.arnavgpt.valoride.driver.entity.VehicleType;
+import com.arnavgpt.valoride.payment.dto.CreatePaymentRequest;
+import com.arnavgpt.valoride.payment.entity.PaymentMethod;
+import com.arnavgpt.valoride.ride.dto.CancelRideRequest;
+import com.arnavgpt.valoride.ride.dto.FareEstimateRequest;
+import com.arnavgpt.valoride.ride.dto.RateRideRequest;
+import com.arnavgpt.valoride.ride.dto.RideRequestDto;
+import com.fasterxml.jackson.databind.JsonNode;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * A rider who, after an idle spell, estimates a fare, requests a ride, waits for a nearby driver,
+ * watches the ride, pays cash and rates it. Stops requesting once the simulation's duration is up.
+ */
+class VirtualRider implements Runnable {
+
+    private static final Logger logger = LoggerFactory.getLogger(VirtualRider.class);
+
+    private static final double SEARCH_RADIUS_KM = 5.0;
+    private static final double MAX_TRIP_KM = 8.0;
+    private static final Duration MATCH_RETRY = Duration.ofSeconds(2);
+    private static final Duration ACCEPT_TIMEOUT = Duration.ofSeconds(15);
+    private static final Duration RIDE_POLL = Duration.ofSeconds(5);
+
+    private final Session session;
+    private final SimulationConfig config;
+    private final ApiClient api;
+    private final Dispatcher dispatcher;
+    private final LatencyReport report;
+    private final Instant stopAt;
+    private final List<VehicleType> vehicleTypes;
+
+    VirtualRider(Session session, SimulationConfig config, ApiClient api, Dispatcher dispatcher,
+                 LatencyReport report, Instant stopAt, List<VehicleType> vehicleTypes) {
+        this.session = session;
+        this.config = config;
+        this.api = api;
+        this.dispatcher = dispatcher;
+        this.report = report;
+        this.stopAt = stopAt;
+        this.vehicleTypes = vehicleTypes;
+    }
+
+    @Override
+    public void run() {
+        try {
+            while (true) {
+                Pacing.sleep(Pacing.exponential(config.riderIdle()));
+                if (!Instant.now().isBefore(stopAt)) {
+                    return;
+                }
+                try {
+                    takeRide();
+                } catch (ApiClient.ApiException e) {
+                    report.recordOutcome("rider error");
+                    logger.debug("Rider {} gave up on a ride: {}", session.email(), e.getMessage());
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void takeRide() throws InterruptedException {
+        BoundingBox.Point pickup = config.city().randomPoint();
+        BoundingBox.Point drop = config.city().near(pickup, MAX_TRIP_KM);
+        VehicleType vehicleType = vehicleTypes.get(ThreadLocalRandom.current().nextInt(vehicleTypes.size()));
+
+        FareEstimateRequest estimate = new FareEstimateRequest();
+        estimate.setPickupLatitude(pickup.latitude());
+        estimate.setPickupLongitude(pickup.longitude());
+        estimate.setDropLatitude(drop.latitude());
+        estimate.setDropLongitude(drop.longitude());
+        api.post(session, "POST /v1/rides/estimate", "/v1/rides/estimate", estimate);
+
+        RideRequestDto request = new RideRequestDto();
+        request.setPickupLatitude(pickup.latitude());
+        request.setPickupLongitude(pickup.longitude());
+        request.setDropLatitude(drop.latitude());
+        request.setDropLongitude(drop.longitude());
+        request.setVehicleType(vehicleType);
+        JsonNode ride = api.post(session, "POST /v1/rides/request", "/v1/rides/request", request);
+        Trip trip = new Trip(UUID.fromString(ride.path("id").asText()), vehicleType, pickup, drop);
+        report.recordOutcome("requested");
+        String path = "/v1/rides/" + trip.rideId;
+
+        Instant requestedAt = Instant.now();
+        if (!findDriver(trip)) {
+            CancelRideRequest cancel = new CancelRideRequest();
+            cancel.setReason("No driver found");
+            api.post(session, "POST /v1/rides/{id}/cancel", path + "/cancel", cancel);
+            report.recordOutcome("cancelled, no driver");
+            return;
+        }
+        report.recordOutcome("matched");
+        logger.debug("Rider {} matched in {} ms", session.email(), Duration.between(requestedAt, Instant.now()).toMillis());
+
+        // Watch the ride the way the app would while it is in progress
+        while (true) {
+            try {
+                trip.completed.get(RIDE_POLL.toMillis(), TimeUnit.MILLISECONDS);
+                break;
+            } catch (TimeoutException e) {
+                api.get(session, "GET /v1/rides/{id}", path);
+            } catch (ExecutionException e) {
+                report.recordOutcome("abandoned by driver");
+                return;
+            }
+        }
+
+        CreatePaymentRequest payment = new CreatePaymentRequest();
+        payment.setRideId(trip.rideId);
+        payment.setPaymentMethod(PaymentMethod.CASH);
+        JsonNode created = api.post(session, "POST /v1/payments", "/v1/payments", payment);
+        trip.payment.complete(UUID.fromString(created.path("id").asText()));
+
+        RateRideRequest rating = new RateRideRequest();
+        rating.setRating(BigDecimal.valueOf(ThreadLocalRandom.current().nextInt(3, 6)));
+        api.post(session, "POST /v1/rides/{id}/rate", path + "/rate", rating);
+        report.recordOutcome("completed");
+    }
+
+    /**
+     * Search for nearby drivers and offer them the trip until one accepts or the match timeout passes
+     */
+    private boolean findDriver(Trip trip) throws InterruptedException {
+        Instant deadline = Instant.now().plus(config.matchTimeout());
+        while (Instant.now().isBefore(deadline)) {
+            NearbyDriversRequest nearby = new NearbyDriversRequest();
+            nearby.setLatitude(trip.pickup.latitude());
+            nearby.setLongitude(trip.pickup.longitude());
+            nearby.setRadiusKm(SEARCH_RADIUS_KM);
+            nearby.setVehicleType(trip.vehicleType);
+            JsonNode drivers = api.post(session, "POST /v1/drivers/nearby", "/v1/drivers/nearby", nearby);
+
+            List<UUID> candidates = new ArrayList<>();
+            drivers.forEach(driver -> candidates.add(UUID.fromString(driver.path("id").asText())));
+            if (dispatcher.offer(trip, candidates)) {
+                try {
+                    trip.accepted.get(ACCEPT_TIMEOUT.toMillis(), TimeUnit.MILLISECONDS);
+                    return true;
+                } catch (ExecutionException | TimeoutException e) {
+                    // The driver could not accept; cancel rather than re-offer a trip already handed out
+                    return false;
+                }
+            }
+            Pacing.sleep(MATCH_RETRY);
+        }
+        return false;
+    }
+}
@@ -0,0 +1,87 @@
+-- Revenue report benchmark: four-scan report vs single grouping-sets scan.
+--
+-- Run against a scratch database whose schema was created by the application:
+--   psql -d valoride_bench -v rides=5000000 -f src/test/resources/bench/revenue-report.sql
+--
+-- Seeds :rides completed/cancelled rides spread over the last 365 days across
+-- 10k riders, refreshes statistics, then prints EXPLAIN ANALYZE for the old
+-- and new query shapes over a 90 day window.
+
+\if :{?rides}
+\else
+\set rides 5000000
+\endif
+
+\timing on
+
+BEGIN;
+
+INSERT INTO users (id, email, password, name, role, email_verified, is_active, created_at, updated_at)
+SELECT gen_random_uuid(), 'bench-rider-' || g || '@valoride.test', 'x', 'Bench Rider ' || g, 'RIDER', true, true, now(), now()
+FROM generate_series(1, 10000) g;
+
+CREATE TEMP TABLE bench_riders AS
+SELECT id, row_number() OVER () AS n FROM users WHERE email LIKE 'bench-rider-%@valoride.test';
+
+-- rides is partitioned by month; make sure the seeded year has partitions to land in
+SELECT create_monthly_partitions('rides', (now() - interval '366 days')::date, now()::date);
+
+INSERT INTO rides (id, rider_id, pickup_latitude, pickup_longitude, drop_latitude, drop_longitude,
+                   status, vehicle_type, estimated_fare, final_fare, distance_km, estimated_duration_mins,
+                   requested_at, completed_at, cancelled_at, created_at, updated_at)
+SELECT gen_random_uuid(),
+       br.id,
+       28.5 + random() * 0.3, 77.0 + random() * 0.4,
+       28.5 + random() * 0.3, 77.0 + random() * 0.4,
+       CASE WHEN g % 10 = 0 THEN 'CANCELLED' ELSE 'COMPLETED' END,
+       (ARRAY['AUTO', 'BIKE', 'SEDAN', 'SUV'])[1 + g % 4],
+       round((50 + random() * 500)::numeric, 2),
+       CASE WHEN g % 10 = 0 THEN NULL ELSE round((50 + random() * 500)::numeric, 2) END,
+       round((1 + random() * 25)::numeric, 2),
+       5 + (g % 60),
+       ts,
+       CASE WHEN g % 10 = 0 THEN NULL ELSE ts + interval '25 minutes' END,
+       CASE WHEN g % 10 = 0 THEN ts + interval '3 minutes' ELSE NULL END,
+       ts, ts
+-- random() in the subquery's select list runs once per row; an uncorrelated LATERAL would run once
+FROM (SELECT g, now() - random() * interval '365 days' AS ts FROM generate_series(1, :rides) g) s
+JOIN bench_riders br ON br.n = 1 + g % 10000;
+
+COMMIT;
+
+ANALYZE rides;
+
+\set range_start '''' `date -d '90 days ago' +%F` ' 00:00:00'''
+\set range_end '''' `date +%F` ' 23:59:59.999999'''
+
+-- Old shape: four scans of the same range
+EXPLAIN (ANALYZE, BUFFERS)
+SELECT COALESCE(SUM(final_fare), 0) FROM rides_all
+WHERE status = 'COMPLETED' AND completed_at BETWEEN :range_start AND :range_end;
+
+EXPLAIN (ANALYZE, BUFFERS)
+SELECT COUNT(*) FROM rides_all
+WHERE status = 'COMPLETED' AND completed_at BETWEEN :range_start AND :range_end;
+
+EXPLAIN (ANALYZE, BUFFERS)
+SELECT CAST(completed_at AS date), COALESCE(SUM(final_fare), 0), COUNT(*) FROM rides_all
+WHERE status = 'COMPLETED' AND completed_at BETWEEN :range_start AND :range_end
+GROUP BY CAST(completed_at AS date) ORDER BY 1;
+
+EXPLAIN (ANALYZE, BUFFERS)
+SELECT vehicle_type, COALESCE(SUM(final_fare), 0), COUNT(*) FROM rides_all
+WHERE status = 'COMPLETED' AND completed_at BETWEEN :range_start AND :range_end
+GROUP BY vehicle_type;
+
+-- New shape: AnalyticsRepository.getRevenueBreakdownInDateRange
+EXPLAIN (ANALYZE, BUFFERS)
+SELECT CAST(r.completed_at AS date) AS day,
+       r.vehicle_type AS vehicleType,
+       GROUPING(CAST(r.completed_at AS date), r.vehicle_type) AS groupingLevel,
+       COALESCE(SUM(r.final_fare), 0) AS revenue,
+       COUNT(*) AS rides
+FROM rides_all r
+WHERE r.status = 'COMPLETED'
+AND r.completed_at BETWEEN :range_start AND :range_end
+GROUP BY GROUPING SETS ((), (CAST(r.completed_at AS date)), (r.vehicle_type))
+ORDER BY groupingLevel, day, vehicleType;
@@ -0,0 +1,75 @@
+-- Ride cube benchmark: multi-month range queries over analytics_ride_buckets.
+--
+-- Run against the scratch database seeded by revenue-report.sql:
+--   psql -d valoride_bench -f src/test/resources/bench/ride-cube.sql
+--
+-- Rebuilds the buckets from the seeded rides as RideCubeService.rebuild does (hourly for the
+-- last 7 days, daily before that, per cell and for all cells), then prints EXPLAIN ANALYZE for
+-- the SQL RideCubeService.query generates over 3, 6 and 12 months at daily granularity.
+
+\timing on
+
+BEGIN;
+
+DELETE FROM analytics_ride_buckets;
+
+INSERT INTO analytics_ride_buckets
+    (granularity, bucket_start, vehicle_type, status, cell_id, ride_count, revenue)
+SELECT CASE WHEN t.finished_at < date_trunc('day', now() - interval '7 days') THEN 'DAY' ELSE 'HOUR' END,
+       CASE WHEN t.finished_at < date_trunc('day', now() - interval '7 days') THEN date_trunc('day', t.finished_at)
+            ELSE date_trunc('hour', t.finished_at) END AS bucket_start,
+       t.vehicle_type, t.status,
+       CASE WHEN GROUPING(t.cell_id) = 1 THEN -1 ELSE t.cell_id END,
+       COUNT(*), COALESCE(SUM(t.revenue), 0)
+FROM (
+    SELECT COALESCE(r.completed_at, r.cancelled_at) AS finished_at,
+           r.vehicle_type, r.status,
+           (FLOOR((r.pickup_latitude + 90) / 0.01)::bigint << 32)
+               | FLOOR((r.pickup_longitude + 180) / 0.01)::bigint AS cell_id,
+           CASE WHEN r.status = 'COMPLETED' THEN r.final_fare ELSE 0 END AS revenue
+    FROM rides_all r
+    WHERE r.status IN ('COMPLETED', 'CANCELLED')
+    AND COALESCE(r.completed_at, r.cancelled_at) IS NOT NULL
+) t
+GROUP BY 1, 2, t.vehicle_type, t.status, GROUPING SETS ((t.cell_id), ());
+
+COMMIT;
+
+ANALYZE analytics_ride_buckets;
+
+-- 3 months, one row per day
+EXPLAIN (ANALYZE, BUFFERS)
+SELECT date_trunc('day', b.bucket_start) AS bucket, SUM(b.ride_count) AS rides, SUM(b.revenue) AS revenue
+FROM analytics_ride_buckets b
+WHERE b.granularity IN ('HOUR', 'DAY')
+AND b.bucket_start >= date_trunc('day', now() - interval '3 months') AND b.bucket_start < date_trunc('day', now() + interval '1 day')
+AND b.cell_id = -1
+GROUP BY 1 ORDER BY 1;
+
+-- 6 months by vehicle type, completed rides only
+EXPLAIN (ANALYZE, BUFFERS)
+SELECT date_trunc('day', b.bucket_start) AS bucket, b.vehicle_type, SUM(b.ride_count) AS rides, SUM(b.revenue) AS revenue
+FROM analytics_ride_buckets b
+WHERE b.granularity IN ('HOUR', 'DAY')
+AND b.bucket_start >= date_trunc('day', now() - interval '6 months') AND b.bucket_start < date_trunc('day', now() + interval '1 day')
+AND b.status = 'COMPLETED'
+AND b.cell_id = -1
+GROUP BY 1, 2 ORDER BY 1;
+
+-- 12 months for one cell
+EXPLAIN (ANALYZE, BUFFERS)
+SELECT date_trunc('day', b.bucket_start) AS bucket, SUM(b.ride_count) AS rides, SUM(b.revenue) AS revenue
+FROM analytics_ride_buckets b
+WHERE b.granularity IN ('HOUR', 'DAY')
+AND b.bucket_start >= date_trunc('day', now() - interval '12 months') AND b.bucket_start < date_trunc('day', now() + interval '1 day')
+AND b.cell_id = (FLOOR((28.65 + 90) / 0.01)::bigint << 32) | FLOOR((77.20 + 180) / 0.01)::bigint
+GROUP BY 1 ORDER BY 1;
+
+-- 12 months, one row per day
+EXPLAIN (ANALYZE, BUFFERS)
+SELECT date_trunc('day', b.bucket_start) AS bucket, SUM(b.ride_count) AS rides, SUM(b.revenue) AS revenue
+FROM analytics_ride_buckets b
+WHERE b.granularity IN ('HOUR', 'DAY')
+AND b.bucket_start >= date_trunc('day', now() - interval '12 months') AND b.bucket_start < date_trunc('day', now() + interval '1 day')
+AND b.cell_id = -1
+GROUP BY 1 ORDER BY 1;